@@ -0,0 +1,45 @@
+#!/usr/bin/env sh
+# Startup benchmark: time from container start to the first successful POST /api/bookings (201).
+#
+# Usage:
+#   docker build --target runtime -t booking-service:latest .
+#   docker build --target runtime-fast -t booking-service:fast .
+#   scripts/startup-benchmark.sh [runs] [image...]
+#
+# Defaults: 5 runs of booking-service:latest and booking-service:fast.
+set -eu
+
+RUNS=${1:-5}
+[ $# -gt 0 ] && shift
+IMAGES=${*:-"booking-service:latest booking-service:fast"}
+PORT=${PORT:-18080}
+
+now_ms() {
+	echo $(( $(date +%s%N) / 1000000 ))
+}
+
+first_booking_ms() {
+	image=$1
+	started=$(now_ms)
+	container=$(docker run -d --rm -p "$PORT:8080" "$image")
+	until curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/bookings" \
+		-H 'Content-Type: application/json' \
+		-d '{"propertyId":"startup-benchmark","guestName":"Bench","guestEmail":"bench@example.com","startDate":"2030-01-01","endDate":"2030-01-02"}' \
+		| grep -q 201; do
+		sleep 0.05
+	done
+	echo $(( $(now_ms) - started ))
+	docker stop "$container" > /dev/null
+}
+
+for image in $IMAGES; do
+	total=0
+	best=
+	for run in $(seq "$RUNS"); do
+		elapsed=$(first_booking_ms "$image")
+		total=$((total + elapsed))
+		if [ -z "$best" ] || [ "$elapsed" -lt "$best" ]; then best=$elapsed; fi
+		echo "$image run $run: ${elapsed} ms"
+	done
+	echo "$image: avg $((total / RUNS)) ms, best ${best} ms"
+done
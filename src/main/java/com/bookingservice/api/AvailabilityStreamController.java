@@ -0,0 +1,39 @@
+package com.bookingservice.api;
+
+import com.bookingservice.service.stream.AvailabilityStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/availability")
+@Tag(name = "Availability", description = "Push notifications of availability changes")
+public class AvailabilityStreamController {
+
+	private final AvailabilityStream availabilityStream;
+
+	public AvailabilityStreamController(AvailabilityStream availabilityStream) {
+		this.availabilityStream = availabilityStream;
+	}
+
+	@GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(summary = "Subscribe to availability changes",
+		description = "Server-Sent Events stream with one 'availability' event per committed change of the given properties; "
+			+ "changes a slow client has not received yet are merged per property. Re-read the calendar on (re)connect.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Stream opened"),
+		@ApiResponse(responseCode = "400", description = "No propertyId, or too many"),
+		@ApiResponse(responseCode = "503", description = "Too many open streams on this node")
+	})
+	public SseEmitter changes(@RequestParam(required = false) List<String> propertyId) {
+		return availabilityStream.subscribe(propertyId);
+	}
+}
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -18,6 +19,7 @@ import java.net.URI;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/blocks")
 @Tag(name = "Blocks", description = "Endpoints to manage property blocks")
 public class BlockController {
@@ -67,6 +69,17 @@ public class BlockController {
 		return ResponseEntity.noContent().build();
 	}
 
+	@PostMapping("/bulk-delete")
+	@Operation(summary = "Delete blocks in a range", description = "Delete every block of a property overlapping the date range in one transaction")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BlockDtos.BulkResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Validation error")
+	})
+	public BlockDtos.BulkResponse bulkDelete(@Valid @RequestBody BlockDtos.BulkDeleteRequest req) {
+		return BlockDtos.BulkResponse.from(
+			blockService.deleteBlocksInRange(req.propertyId(), req.startDate(), req.endDate()));
+	}
+
 	@GetMapping("/calendar")
 	@Operation(summary = "List blocks by property and month", description = "Returns blocks overlapping the given month")
 	@ApiResponses({
@@ -1,8 +1,10 @@
 package com.bookingservice.api;
 
 import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.api.limit.ReadOnlyEndpoint;
 import com.bookingservice.model.Booking;
 import com.bookingservice.service.BookingService;
+import com.bookingservice.service.pipeline.BookingWritePipeline;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -18,14 +21,17 @@ import java.net.URI;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/bookings")
 @Tag(name = "Bookings", description = "Endpoints to manage bookings")
 public class BookingController {
 
 	private final BookingService bookingService;
+	private final BookingWritePipeline writePipeline;
 
-	public BookingController(BookingService bookingService) {
+	public BookingController(BookingService bookingService, BookingWritePipeline writePipeline) {
 		this.bookingService = bookingService;
+		this.writePipeline = writePipeline;
 	}
 
 	@PostMapping
@@ -36,7 +42,7 @@ public class BookingController {
 		@ApiResponse(responseCode = "409", description = "Conflict with existing booking/block")
 	})
 	public ResponseEntity<BookingDtos.Response> create(@Valid @RequestBody BookingDtos.CreateRequest req) {
-		Booking created = bookingService.createBooking(req.toEntity());
+		Booking created = writePipeline.create(req.toEntity());
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest()
 			.path("/{id}")
 			.buildAndExpand(created.getId())
@@ -44,6 +50,18 @@ public class BookingController {
 		return ResponseEntity.created(location).body(BookingDtos.Response.from(created));
 	}
 
+	@PostMapping("/availability")
+	@ReadOnlyEndpoint
+	@Operation(summary = "Check availability", description = "Dry run: reports whether a booking would fit and which allocations conflict, without writing")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BookingDtos.AvailabilityResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Validation error")
+	})
+	public BookingDtos.AvailabilityResponse checkAvailability(@Valid @RequestBody BookingDtos.AvailabilityRequest req) {
+		return BookingDtos.AvailabilityResponse.from(bookingService.checkAvailability(
+			req.propertyId(), req.startDate(), req.endDate(), req.excludeBookingId()));
+	}
+
 	@GetMapping("/{id}")
 	@Operation(summary = "Get booking", description = "Get a booking by id")
 	@ApiResponses({
@@ -73,7 +91,7 @@ public class BookingController {
 		@ApiResponse(responseCode = "404", description = "Not found")
 	})
 	public BookingDtos.Response cancel(@PathVariable("id") UUID id) {
-		return BookingDtos.Response.from(bookingService.cancelBooking(id));
+		return BookingDtos.Response.from(writePipeline.cancel(id));
 	}
 
 	@PostMapping("/{id}/rebook")
@@ -87,6 +105,17 @@ public class BookingController {
 		return BookingDtos.Response.from(bookingService.rebookBooking(id));
 	}
 
+	@PostMapping("/bulk-cancel")
+	@Operation(summary = "Cancel bookings in a range", description = "Cancel every active booking of a property overlapping the date range in one transaction")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BookingDtos.BulkResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Validation error")
+	})
+	public BookingDtos.BulkResponse bulkCancel(@Valid @RequestBody BookingDtos.BulkCancelRequest req) {
+		return BookingDtos.BulkResponse.from(
+			bookingService.cancelBookingsInRange(req.propertyId(), req.startDate(), req.endDate()));
+	}
+
 	@DeleteMapping("/{id}")
 	@Operation(summary = "Delete booking", description = "Remove booking from the system (idempotent)")
 	@ApiResponses({
@@ -113,6 +142,32 @@ public class BookingController {
 		return ResponseEntity.ok(list);
 	}
 
-}
-
+	@GetMapping("/search/by-email")
+	@Operation(summary = "Find bookings by guest email", description = "Exact match on the guest email, ignoring case; most recent stays first")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BookingDtos.SliceResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Invalid email or page", content = @Content)
+	})
+	public BookingDtos.SliceResponse findByGuestEmail(
+		@RequestParam String email,
+		@RequestParam(defaultValue = "0") int page,
+		@RequestParam(defaultValue = "20") int size
+	) {
+		return BookingDtos.SliceResponse.from(bookingService.findByGuestEmail(email, page, size));
+	}
 
+	@GetMapping("/search")
+	@Operation(summary = "Search bookings by guest prefix", description = "Guest name (ignoring case and accents) or email starting with the prefix; ordered by the matched name or email")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BookingDtos.SliceResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Invalid prefix or page", content = @Content)
+	})
+	public BookingDtos.SliceResponse searchByGuestPrefix(
+		@RequestParam String prefix,
+		@RequestParam(defaultValue = "NAME") BookingService.GuestField field,
+		@RequestParam(defaultValue = "0") int page,
+		@RequestParam(defaultValue = "20") int size
+	) {
+		return BookingDtos.SliceResponse.from(bookingService.searchByGuestPrefix(prefix, field, page, size));
+	}
+}
@@ -1,56 +1,134 @@
 package com.bookingservice.api;
 
+import com.bookingservice.api.dto.ErrorDtos;
+import com.bookingservice.support.AllocationConflictException;
+import com.bookingservice.support.CapacityExceededException;
+import com.bookingservice.support.MessageCatalog;
 import com.bookingservice.support.NotFoundException;
+import com.bookingservice.support.NotOwnerException;
+import com.bookingservice.support.RateLimitExceededException;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+	private static final Set<String> REQUIRED_CODES = Set.of("NotBlank", "NotNull");
+
+	private final MessageCatalog messages;
+
+	public GlobalExceptionHandler(MessageCatalog messages) {
+		this.messages = messages;
+	}
+
 	@ExceptionHandler(NotFoundException.class)
-	public ResponseEntity<Map<String, Object>> handleNotFound(NotFoundException ex) {
+	public ResponseEntity<ErrorDtos.Response> handleNotFound(NotFoundException ex) {
 		return build(HttpStatus.NOT_FOUND, ex.getMessage());
 	}
 
 	@ExceptionHandler(IllegalArgumentException.class)
-	public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException ex) {
+	public ResponseEntity<ErrorDtos.Response> handleBadRequest(IllegalArgumentException ex) {
 		return build(HttpStatus.BAD_REQUEST, ex.getMessage());
 	}
 
+	@ExceptionHandler(AllocationConflictException.class)
+	public ResponseEntity<ErrorDtos.Response> handleAllocationConflict(AllocationConflictException ex) {
+		return ResponseEntity.status(HttpStatus.CONFLICT)
+			.body(ErrorDtos.Response.of(HttpStatus.CONFLICT.name(), ex.getMessage(), ex.getConflicts()));
+	}
+
 	@ExceptionHandler(IllegalStateException.class)
-	public ResponseEntity<Map<String, Object>> handleConflict(IllegalStateException ex) {
+	public ResponseEntity<ErrorDtos.Response> handleConflict(IllegalStateException ex) {
 		return build(HttpStatus.CONFLICT, ex.getMessage());
 	}
 
+	// the entity was written from a stale copy (version mismatch); the client re-reads and retries
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<ErrorDtos.Response> handleStaleWrite(OptimisticLockingFailureException ex) {
+		return build(HttpStatus.CONFLICT, messages.get("error.concurrentModification"));
+	}
+
+	// queues drain within milliseconds, so ask for a quick retry
+	@ExceptionHandler(CapacityExceededException.class)
+	public ResponseEntity<ErrorDtos.Response> handleCapacityExceeded(CapacityExceededException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, "1")
+			.body(ErrorDtos.Response.of(HttpStatus.SERVICE_UNAVAILABLE.name(), ex.getMessage()));
+	}
+
+	// the owner serves the same path; 307 keeps the method and body
+	@ExceptionHandler(NotOwnerException.class)
+	public ResponseEntity<ErrorDtos.Response> handleNotOwner(NotOwnerException ex) {
+		if (ex.getOwnerUrl() == null) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(ErrorDtos.Response.of(HttpStatus.SERVICE_UNAVAILABLE.name(), ex.getMessage()));
+		}
+		UriComponents current = ServletUriComponentsBuilder.fromCurrentRequest().build();
+		URI location = UriComponentsBuilder.fromHttpUrl(ex.getOwnerUrl())
+			.path(current.getPath())
+			.query(current.getQuery())
+			.build(true)
+			.toUri();
+		return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+			.location(location)
+			.body(ErrorDtos.Response.of(HttpStatus.TEMPORARY_REDIRECT.name(), ex.getMessage()));
+	}
+
+	@ExceptionHandler(RateLimitExceededException.class)
+	public ResponseEntity<ErrorDtos.Response> handleRateLimited(RateLimitExceededException ex) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+			.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+			.body(ErrorDtos.Response.of(HttpStatus.TOO_MANY_REQUESTS.name(), ex.getMessage()));
+	}
+
 	@ExceptionHandler(MethodArgumentNotValidException.class)
-	public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
-		String msg = ex.getBindingResult().getFieldErrors()
+	public ResponseEntity<ErrorDtos.Response> handleValidation(MethodArgumentNotValidException ex) {
+		return validationError(ex.getBindingResult().getFieldErrors(), LocaleContextHolder.getLocale());
+	}
+
+	// Reactive stack: the locale lives on the exchange, not in LocaleContextHolder
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<ErrorDtos.Response> handleReactiveValidation(WebExchangeBindException ex, ServerWebExchange exchange) {
+		return validationError(ex.getFieldErrors(), exchange.getLocaleContext().getLocale());
+	}
+
+	private ResponseEntity<ErrorDtos.Response> validationError(List<FieldError> fieldErrors, Locale locale) {
+		String msg = fieldErrors
 			.stream()
-			.map(this::formatFieldError)
+			.map(fe -> formatFieldError(fe, locale))
 			.collect(Collectors.joining("; "));
 		return build(HttpStatus.BAD_REQUEST, msg);
 	}
 
-	private String formatFieldError(FieldError fe) {
+	private String formatFieldError(FieldError fe, Locale locale) {
+		// Missing required fields have a localized message in the catalog
+		String requiredCode = "error.validation." + fe.getField() + ".required";
+		if (REQUIRED_CODES.contains(fe.getCode()) && messages.contains(locale, requiredCode)) {
+			return messages.get(locale, requiredCode);
+		}
 		return fe.getField() + " " + (fe.getDefaultMessage() == null ? "is invalid" : fe.getDefaultMessage());
 	}
 
-	private ResponseEntity<Map<String, Object>> build(HttpStatus status, String message) {
-		Map<String, Object> body = new HashMap<>();
-		body.put("error", status.name());
-		body.put("message", message);
-		body.put("timestamp", Instant.now().toString());
-		return ResponseEntity.status(status).body(body);
+	private ResponseEntity<ErrorDtos.Response> build(HttpStatus status, String message) {
+		return ResponseEntity.status(status).body(ErrorDtos.Response.of(status.name(), message));
 	}
 }
-
-
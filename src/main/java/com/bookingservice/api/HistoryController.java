@@ -0,0 +1,49 @@
+package com.bookingservice.api;
+
+import com.bookingservice.api.dto.HistoryDtos;
+import com.bookingservice.service.history.HistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/history")
+@Tag(name = "History", description = "Audit trail and point-in-time state of bookings and blocks")
+public class HistoryController {
+
+	private final HistoryService historyService;
+
+	public HistoryController(HistoryService historyService) {
+		this.historyService = historyService;
+	}
+
+	@GetMapping("/properties/{propertyId}")
+	@Operation(summary = "Property state as of a timestamp", description = "Bookings and blocks of the property as they were at asOf (default: now)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK")
+	})
+	public List<HistoryDtos.StateResponse> stateAsOf(
+		@PathVariable("propertyId") String propertyId,
+		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf
+	) {
+		return historyService.stateAsOf(propertyId, asOf == null ? Instant.now() : asOf)
+			.stream().map(HistoryDtos.StateResponse::from).toList();
+	}
+
+	@GetMapping("/entities/{entityId}")
+	@Operation(summary = "Entity audit trail", description = "Every recorded change of a booking or block, oldest first")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK")
+	})
+	public List<HistoryDtos.EventResponse> events(@PathVariable("entityId") UUID entityId) {
+		return historyService.eventsFor(entityId)
+			.stream().map(HistoryDtos.EventResponse::from).toList();
+	}
+}
@@ -0,0 +1,79 @@
+package com.bookingservice.api;
+
+import com.bookingservice.api.dto.PropertyDtos;
+import com.bookingservice.service.PropertyService;
+import com.bookingservice.service.rate.RateService;
+import jakarta.validation.Valid;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/properties")
+@Tag(name = "Properties", description = "Endpoints to manage property settings")
+public class PropertyController {
+
+	private final PropertyService propertyService;
+	private final RateService rateService;
+
+	public PropertyController(PropertyService propertyService, RateService rateService) {
+		this.propertyService = propertyService;
+		this.rateService = rateService;
+	}
+
+	@GetMapping("/{propertyId}/capacity")
+	@Operation(summary = "Get capacity", description = "Number of identical units of the property (1 unless set)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = PropertyDtos.CapacityResponse.class)))
+	})
+	public PropertyDtos.CapacityResponse getCapacity(@PathVariable("propertyId") String propertyId) {
+		return new PropertyDtos.CapacityResponse(propertyId, propertyService.getCapacity(propertyId));
+	}
+
+	@PutMapping("/{propertyId}/capacity")
+	@Operation(summary = "Set capacity", description = "Set the number of identical units: bookings may overlap until every unit is taken")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = PropertyDtos.CapacityResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Validation error")
+	})
+	public PropertyDtos.CapacityResponse setCapacity(@PathVariable("propertyId") String propertyId,
+	                                                 @Valid @RequestBody PropertyDtos.CapacityRequest req) {
+		return new PropertyDtos.CapacityResponse(propertyId, propertyService.setCapacity(propertyId, req.capacity()));
+	}
+
+	@PutMapping("/{propertyId}/rates")
+	@Operation(summary = "Set nightly rates", description = "Set the price of every night of a date range, in minor currency units")
+	@ApiResponses({
+		@ApiResponse(responseCode = "204", description = "No Content"),
+		@ApiResponse(responseCode = "400", description = "Validation error")
+	})
+	public ResponseEntity<Void> setRates(@PathVariable("propertyId") String propertyId,
+	                                     @Valid @RequestBody PropertyDtos.RatesRequest req) {
+		rateService.setRates(propertyId, req.startDate(), req.endDate(), req.amount());
+		return ResponseEntity.noContent().build();
+	}
+
+	@GetMapping("/{propertyId}/quote")
+	@Operation(summary = "Quote a stay", description = "Price of a stay from its nightly rates, with its availability (read-only)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = PropertyDtos.QuoteResponse.class))),
+		@ApiResponse(responseCode = "400", description = "Validation error")
+	})
+	public PropertyDtos.QuoteResponse quote(
+		@PathVariable("propertyId") String propertyId,
+		@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+		@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+	) {
+		return PropertyDtos.QuoteResponse.from(rateService.quote(propertyId, startDate, endDate));
+	}
+}
@@ -0,0 +1,105 @@
+package com.bookingservice.api.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Compact encodings for the binary (CBOR) wire format used by internal callers:
+ * <ul>
+ *   <li>{@link LocalDate} as its epoch day (an integer, 1-5 bytes) instead of a 10-character ISO string</li>
+ *   <li>{@link UUID} as a two-element array of its most/least significant bits instead of a 36-character string</li>
+ * </ul>
+ * Readers also accept the ISO string forms, so JSON-shaped payloads sent as CBOR still parse.
+ * Only registered on the CBOR mapper; JSON stays human readable.
+ */
+public class CompactBinaryModule extends SimpleModule {
+
+	public CompactBinaryModule() {
+		super("CompactBinaryModule");
+		addSerializer(LocalDate.class, new EpochDaySerializer());
+		addDeserializer(LocalDate.class, new EpochDayDeserializer());
+		addSerializer(UUID.class, new TwoLongsUuidSerializer());
+		addDeserializer(UUID.class, new TwoLongsUuidDeserializer());
+	}
+
+	static final class EpochDaySerializer extends StdScalarSerializer<LocalDate> {
+		EpochDaySerializer() {
+			super(LocalDate.class);
+		}
+
+		@Override
+		public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			gen.writeNumber(value.toEpochDay());
+		}
+	}
+
+	static final class EpochDayDeserializer extends StdScalarDeserializer<LocalDate> {
+		EpochDayDeserializer() {
+			super(LocalDate.class);
+		}
+
+		@Override
+		public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+				return LocalDate.ofEpochDay(p.getLongValue());
+			}
+			if (p.currentToken() == JsonToken.VALUE_STRING) {
+				return LocalDate.parse(p.getText().trim());
+			}
+			return (LocalDate) ctxt.handleUnexpectedToken(LocalDate.class, p);
+		}
+	}
+
+	static final class TwoLongsUuidSerializer extends StdScalarSerializer<UUID> {
+		TwoLongsUuidSerializer() {
+			super(UUID.class);
+		}
+
+		@Override
+		public void serialize(UUID value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			gen.writeStartArray(value, 2);
+			gen.writeNumber(value.getMostSignificantBits());
+			gen.writeNumber(value.getLeastSignificantBits());
+			gen.writeEndArray();
+		}
+	}
+
+	static final class TwoLongsUuidDeserializer extends StdScalarDeserializer<UUID> {
+		TwoLongsUuidDeserializer() {
+			super(UUID.class);
+		}
+
+		@Override
+		public UUID deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			if (p.currentToken() == JsonToken.VALUE_STRING) {
+				return UUID.fromString(p.getText().trim());
+			}
+			if (p.currentToken() != JsonToken.START_ARRAY) {
+				return (UUID) ctxt.handleUnexpectedToken(UUID.class, p);
+			}
+			long mostSigBits = nextLong(p, ctxt);
+			long leastSigBits = nextLong(p, ctxt);
+			if (p.nextToken() != JsonToken.END_ARRAY) {
+				return (UUID) ctxt.handleUnexpectedToken(UUID.class, p);
+			}
+			return new UUID(mostSigBits, leastSigBits);
+		}
+
+		private static long nextLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+			if (p.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+				ctxt.reportInputMismatch(UUID.class, "UUID must be an array of two longs");
+			}
+			return p.getLongValue();
+		}
+	}
+}
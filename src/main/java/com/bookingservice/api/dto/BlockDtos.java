@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public class BlockDtos {
@@ -22,6 +23,21 @@ public class BlockDtos {
 		}
 	}
 
+	public record BulkDeleteRequest(
+		@NotBlank String propertyId,
+		@NotNull LocalDate startDate,
+		@NotNull LocalDate endDate
+	) {}
+
+	public record BulkResponse(
+		int count,
+		List<UUID> ids
+	) {
+		public static BulkResponse from(List<UUID> ids) {
+			return new BulkResponse(ids.size(), ids);
+		}
+	}
+
 	public record Response(
 		UUID id,
 		String propertyId,
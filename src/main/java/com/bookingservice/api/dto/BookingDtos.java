@@ -2,11 +2,14 @@ package com.bookingservice.api.dto;
 
 import com.bookingservice.model.Booking;
 import com.bookingservice.model.BookingStatus;
+import com.bookingservice.service.policy.AvailabilityCheck;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public class BookingDtos {
@@ -36,6 +39,37 @@ public class BookingDtos {
 		@NotNull LocalDate endDate
 	) {}
 
+	public record AvailabilityRequest(
+		@NotBlank String propertyId,
+		@NotNull LocalDate startDate,
+		@NotNull LocalDate endDate,
+		UUID excludeBookingId
+	) {}
+
+	public record AvailabilityResponse(
+		boolean available,
+		List<ErrorDtos.Conflict> conflicts
+	) {
+		public static AvailabilityResponse from(AvailabilityCheck check) {
+			return new AvailabilityResponse(check.isAvailable(), ErrorDtos.Conflict.fromAll(check.conflicts()));
+		}
+	}
+
+	public record BulkCancelRequest(
+		@NotBlank String propertyId,
+		@NotNull LocalDate startDate,
+		@NotNull LocalDate endDate
+	) {}
+
+	public record BulkResponse(
+		int count,
+		List<UUID> ids
+	) {
+		public static BulkResponse from(List<UUID> ids) {
+			return new BulkResponse(ids.size(), ids);
+		}
+	}
+
 	public record Response(
 		UUID id,
 		String propertyId,
@@ -57,6 +91,23 @@ public class BookingDtos {
 			);
 		}
 	}
-}
-
 
+	/**
+	 * One page of results; {@code hasNext} replaces a total count, which would cost a count query.
+	 */
+	public record SliceResponse(
+		List<Response> items,
+		int page,
+		int size,
+		boolean hasNext
+	) {
+		public static SliceResponse from(Slice<Booking> slice) {
+			return new SliceResponse(
+				slice.map(Response::from).getContent(),
+				slice.getNumber(),
+				slice.getSize(),
+				slice.hasNext()
+			);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.bookingservice.api.dto;
+
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.service.policy.AvailabilityCheck;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public class ErrorDtos {
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record Response(
+		String error,
+		String message,
+		String timestamp,
+		List<Conflict> conflicts
+	) {
+		public static Response of(String error, String message) {
+			return new Response(error, message, Instant.now().toString(), null);
+		}
+
+		public static Response of(String error, String message, List<AvailabilityCheck.Conflict> conflicts) {
+			return new Response(error, message, Instant.now().toString(), Conflict.fromAll(conflicts));
+		}
+	}
+
+	public record Conflict(
+		UUID allocationId,
+		UUID entityId,
+		AllocationType type,
+		LocalDate startDate,
+		LocalDate endDate
+	) {
+		public static Conflict from(AvailabilityCheck.Conflict c) {
+			return new Conflict(c.allocationId(), c.entityId(), c.type(), c.startDate(), c.endDate());
+		}
+
+		public static List<Conflict> fromAll(List<AvailabilityCheck.Conflict> conflicts) {
+			return conflicts.stream().map(Conflict::from).toList();
+		}
+	}
+}
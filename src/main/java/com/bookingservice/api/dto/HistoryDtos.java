@@ -0,0 +1,58 @@
+package com.bookingservice.api.dto;
+
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.HistoryEvent;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.service.history.HistoryService;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class HistoryDtos {
+
+	public record EventResponse(
+		Long sequence,
+		HistoryEventType eventType,
+		AllocationType entityType,
+		UUID entityId,
+		String propertyId,
+		LocalDate startDate,
+		LocalDate endDate,
+		AllocationStatus status,
+		String guestName,
+		String guestEmail,
+		Instant occurredAt
+	) {
+		public static EventResponse from(HistoryEvent e) {
+			return new EventResponse(
+				e.getId(),
+				e.getEventType(),
+				e.getEntityType(),
+				e.getEntityId(),
+				e.getPropertyId(),
+				e.getStartDate(),
+				e.getEndDate(),
+				e.getStatus(),
+				e.getGuestName(),
+				e.getGuestEmail(),
+				e.getOccurredAt()
+			);
+		}
+	}
+
+	public record StateResponse(
+		UUID entityId,
+		AllocationType type,
+		LocalDate startDate,
+		LocalDate endDate,
+		AllocationStatus status,
+		String guestName,
+		String guestEmail
+	) {
+		public static StateResponse from(HistoryService.EntityState s) {
+			return new StateResponse(s.entityId(), s.type(), s.startDate(), s.endDate(), s.status(), s.guestName(), s.guestEmail());
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.bookingservice.api.dto;
+
+import com.bookingservice.service.rate.StayQuote;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class PropertyDtos {
+	public record CapacityRequest(
+		@NotNull Integer capacity
+	) {}
+
+	public record CapacityResponse(
+		String propertyId,
+		int capacity
+	) {}
+
+	public record RatesRequest(
+		@NotNull LocalDate startDate,
+		@NotNull LocalDate endDate,
+		@NotNull Long amount
+	) {}
+
+	public record QuoteResponse(
+		String propertyId,
+		LocalDate startDate,
+		LocalDate endDate,
+		int nights,
+		Long total,
+		int unpricedNights,
+		boolean available,
+		List<ErrorDtos.Conflict> conflicts
+	) {
+		public static QuoteResponse from(StayQuote quote) {
+			return new QuoteResponse(quote.propertyId(), quote.startDate(), quote.endDate(), quote.nights(),
+				quote.total(), quote.unpricedNights(), quote.availability().isAvailable(),
+				ErrorDtos.Conflict.fromAll(quote.availability().conflicts()));
+		}
+	}
+}
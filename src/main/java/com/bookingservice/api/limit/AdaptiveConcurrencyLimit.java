@@ -0,0 +1,92 @@
+package com.bookingservice.api.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Number of requests of one kind allowed in flight at once, adjusted to their latency.
+ * <p>
+ * A gradient limit: each completed request compares its latency with the usual one (a slow moving
+ * average of the past latencies). While it stays within {@code tolerance} times the usual latency
+ * the limit grows by about its square root, so it probes for more throughput; beyond that it
+ * shrinks in proportion, down to half per sample. The limit is smoothed over the samples and kept
+ * within [min, max]. Samples taken while less than half the limit was in use say nothing about the
+ * limit and only update the usual latency.
+ * <p>
+ * A request that would go over the limit is not queued: the caller rejects it at once, so latency
+ * stays bounded for the requests that are let in. Thread-safe.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+	// weight of a sample in the usual latency: roughly the last 100 requests
+	private static final double LONG_WINDOW_WEIGHT = 2.0 / 101;
+
+	private final int min;
+	private final int max;
+	private final double tolerance;
+	private final double smoothing;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile int limit;
+	// guarded by this
+	private double estimatedLimit;
+	private double usualLatency;
+
+	public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties.Limits limits, double tolerance, double smoothing) {
+		this.min = limits.min();
+		this.max = limits.max();
+		this.tolerance = tolerance;
+		this.smoothing = smoothing;
+		this.estimatedLimit = Math.max(min, Math.min(max, limits.initial()));
+		this.limit = (int) estimatedLimit;
+	}
+
+	/**
+	 * @return the number of requests in flight, including this one, or 0 if the limit is reached;
+	 *         a request let in must {@link #release} once done
+	 */
+	public int tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return 0;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return current + 1;
+			}
+		}
+	}
+
+	/**
+	 * @param latencyNanos how long the request took
+	 * @param inFlightAtStart what {@link #tryAcquire} returned for it
+	 */
+	public void release(long latencyNanos, int inFlightAtStart) {
+		inFlight.decrementAndGet();
+		update(Math.max(latencyNanos, 1), inFlightAtStart);
+	}
+
+	public int limit() {
+		return limit;
+	}
+
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	private synchronized void update(double latency, int inFlightAtStart) {
+		if (usualLatency == 0) {
+			usualLatency = latency;
+		}
+		usualLatency += (latency - usualLatency) * LONG_WINDOW_WEIGHT;
+		if (usualLatency > latency * 2) {
+			// latency dropped for good (e.g. after a spike): let the usual latency catch up faster
+			usualLatency *= 0.95;
+		}
+		if (inFlightAtStart < estimatedLimit / 2) {
+			return;
+		}
+		double gradient = Math.max(0.5, Math.min(1.0, tolerance * usualLatency / latency));
+		double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+		estimatedLimit = Math.max(min, Math.min(max, estimatedLimit * (1 - smoothing) + target * smoothing));
+		limit = (int) estimatedLimit;
+	}
+}
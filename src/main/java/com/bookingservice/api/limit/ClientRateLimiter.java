@@ -0,0 +1,78 @@
+package com.bookingservice.api.limit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per client, for one quota.
+ * <p>
+ * Each bucket is a single {@code AtomicLong}, the time at which it will be full again (generic cell
+ * rate algorithm): a request adds one emission interval (1 / rate) to it, and is let in if that
+ * stays within {@code burst} intervals of now. Refill needs no timer and a request costs one map
+ * read and one compare-and-set, without locks.
+ * <p>
+ * A full bucket carries no state, so {@link #evictIdle} drops those; a client that comes back
+ * starts full, exactly as if it had been kept. A request racing with the eviction of its bucket may
+ * go uncounted.
+ * <p>
+ * At most {@code maxClients} buckets are held, so clients inventing identities cannot grow the
+ * map without bound: past the cap, new clients share a single overflow bucket until the next
+ * eviction frees room.
+ */
+public final class ClientRateLimiter {
+
+	private final long interval;
+	private final long burstWindow;
+	private final int maxClients;
+	private final ConcurrentMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+	private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+
+	public ClientRateLimiter(RateLimitProperties.Quota quota, int maxClients) {
+		if (quota.rate() <= 0 || quota.burst() < 1) {
+			throw new IllegalArgumentException("rate must be positive and burst at least 1");
+		}
+		if (maxClients < 1) {
+			throw new IllegalArgumentException("maxClients must be at least 1");
+		}
+		this.maxClients = maxClients;
+		this.interval = Math.max(1, (long) (1_000_000_000L / quota.rate()));
+		this.burstWindow = interval * quota.burst();
+	}
+
+	/**
+	 * @param now {@link System#nanoTime()}
+	 * @return 0 if the request is let in, otherwise the nanoseconds until it would be
+	 */
+	public long tryAcquire(String clientId, long now) {
+		AtomicLong bucket = fullAt.get(clientId);
+		if (bucket == null) {
+			// the cap may be overshot by the number of racing threads, never more
+			bucket = fullAt.size() < maxClients
+				? fullAt.computeIfAbsent(clientId, key -> new AtomicLong(now))
+				: overflow;
+		}
+		while (true) {
+			long current = bucket.get();
+			long next = Math.max(current, now) + interval;
+			long over = next - now - burstWindow;
+			if (over > 0) {
+				return over;
+			}
+			if (bucket.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Drops the buckets that are full again at {@code now}.
+	 */
+	public void evictIdle(long now) {
+		fullAt.values().removeIf(bucket -> bucket.get() - now <= 0);
+	}
+
+	public int clients() {
+		return fullAt.size();
+	}
+}
@@ -0,0 +1,97 @@
+package com.bookingservice.api.limit;
+
+import com.bookingservice.support.CapacityExceededException;
+import com.bookingservice.support.MessageCatalog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lets a request reach its handler only while its kind (read: GET/HEAD or a
+ * {@link ReadOnlyEndpoint} handler, write: anything else) is under its {@link AdaptiveConcurrencyLimit}; others are rejected at once with 503 and Retry-After,
+ * before they take a database connection.
+ * <p>
+ * Metrics per kind ({@code operation=read|write}): {@code booking.concurrency.limit},
+ * {@code booking.concurrency.in-flight} and {@code booking.concurrency.rejected}.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+	private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+	private final Kind reads;
+	private final Kind writes;
+	private final MessageCatalog messages;
+
+	public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties properties, MessageCatalog messages, MeterRegistry meterRegistry) {
+		this.reads = new Kind("read", properties.reads(), properties, meterRegistry);
+		this.writes = new Kind("write", properties.writes(), properties, meterRegistry);
+		this.messages = messages;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod method)) {
+			return true;
+		}
+		Kind kind = isRead(request, method) ? reads : writes;
+		int inFlight = kind.limit.tryAcquire();
+		if (inFlight == 0) {
+			kind.rejected.increment();
+			throw new CapacityExceededException(messages.get("error.overloaded"));
+		}
+		request.setAttribute(PERMIT, new Permit(kind.limit, System.nanoTime(), inFlight));
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if (request.getAttribute(PERMIT) instanceof Permit permit) {
+			request.removeAttribute(PERMIT);
+			permit.limit().release(System.nanoTime() - permit.started(), permit.inFlight());
+		}
+	}
+
+	AdaptiveConcurrencyLimit reads() {
+		return reads.limit;
+	}
+
+	AdaptiveConcurrencyLimit writes() {
+		return writes.limit;
+	}
+
+	private static boolean isRead(HttpServletRequest request, HandlerMethod handler) {
+		String method = request.getMethod();
+		return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+			|| handler.hasMethodAnnotation(ReadOnlyEndpoint.class);
+	}
+
+	private record Permit(AdaptiveConcurrencyLimit limit, long started, int inFlight) {}
+
+	private static final class Kind {
+
+		private final AdaptiveConcurrencyLimit limit;
+		private final Counter rejected;
+
+		Kind(String operation, ConcurrencyLimitProperties.Limits limits, ConcurrencyLimitProperties properties,
+		     MeterRegistry meterRegistry) {
+			this.limit = new AdaptiveConcurrencyLimit(limits, properties.tolerance(), properties.smoothing());
+			Gauge.builder("booking.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+				.description("Requests allowed in flight at once")
+				.tag("operation", operation)
+				.register(meterRegistry);
+			Gauge.builder("booking.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::inFlight)
+				.description("Requests in flight")
+				.tag("operation", operation)
+				.register(meterRegistry);
+			this.rejected = Counter.builder("booking.concurrency.rejected")
+				.description("Requests rejected with 503 because the limit was reached")
+				.tag("operation", operation)
+				.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.bookingservice.api.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Adaptive concurrency limits of the booking and block endpoints ({@code booking.concurrency-limit}),
+ * see {@link AdaptiveConcurrencyLimit}.
+ *
+ * @param enabled whether requests over the limit are rejected with 503
+ * @param reads limits of GET requests
+ * @param writes limits of the other requests
+ * @param tolerance how many times the usual latency a request may take before the limit shrinks
+ * @param smoothing weight of each latency sample in the limit, between 0 and 1
+ */
+@ConfigurationProperties(prefix = "booking.concurrency-limit")
+public record ConcurrencyLimitProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue Limits reads,
+	@DefaultValue Limits writes,
+	@DefaultValue("2.0") double tolerance,
+	@DefaultValue("0.2") double smoothing
+) {
+
+	/**
+	 * @param initial limit at startup, before any latency is observed
+	 * @param min the limit never shrinks below this, however slow requests get
+	 * @param max the limit never grows above this, however fast requests are
+	 */
+	public record Limits(
+		@DefaultValue("20") int initial,
+		@DefaultValue("2") int min,
+		@DefaultValue("200") int max
+	) {}
+}
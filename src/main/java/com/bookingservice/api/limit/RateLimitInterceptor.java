@@ -0,0 +1,100 @@
+package com.bookingservice.api.limit;
+
+import com.bookingservice.support.MessageCatalog;
+import com.bookingservice.support.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds each client to the quota of the endpoint class it calls: calendar reads, other reads
+ * (GET/HEAD) or writes. Clients are told apart by their API key header when the key is one of
+ * {@code api-keys}, else by remote address: an unknown key must not buy a fresh quota.
+ * A request over quota is rejected with 429 and the seconds until it would be let in.
+ * <p>
+ * Metrics per class ({@code class=calendar|read|write}): {@code booking.rate-limit.rejected} and
+ * {@code booking.rate-limit.clients} (clients with state held).
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	private final String clientHeader;
+	private final Set<String> apiKeys;
+	private final EndpointClass calendar;
+	private final EndpointClass reads;
+	private final EndpointClass writes;
+	private final MessageCatalog messages;
+
+	public RateLimitInterceptor(RateLimitProperties properties, MessageCatalog messages, MeterRegistry meterRegistry) {
+		this.clientHeader = properties.clientHeader();
+		this.apiKeys = Set.copyOf(properties.apiKeys());
+		this.calendar = new EndpointClass("calendar", properties.calendar(), properties.maxClients(), meterRegistry);
+		this.reads = new EndpointClass("read", properties.reads(), properties.maxClients(), meterRegistry);
+		this.writes = new EndpointClass("write", properties.writes(), properties.maxClients(), meterRegistry);
+		this.messages = messages;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (request.getDispatcherType() == DispatcherType.ASYNC) {
+			// completion of a request already counted (availability streams)
+			return true;
+		}
+		EndpointClass endpointClass = classify(request);
+		long wait = endpointClass.limiter.tryAcquire(clientOf(request), System.nanoTime());
+		if (wait > 0) {
+			endpointClass.rejected.increment();
+			long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+			throw new RateLimitExceededException(messages.get("error.rateLimited", seconds), seconds);
+		}
+		return true;
+	}
+
+	@Scheduled(fixedDelayString = "${booking.rate-limit.eviction-interval:PT1M}")
+	public void evictIdle() {
+		long now = System.nanoTime();
+		calendar.limiter.evictIdle(now);
+		reads.limiter.evictIdle(now);
+		writes.limiter.evictIdle(now);
+	}
+
+	private EndpointClass classify(HttpServletRequest request) {
+		String method = request.getMethod();
+		if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+			return writes;
+		}
+		return request.getRequestURI().endsWith("/calendar") ? calendar : reads;
+	}
+
+	private String clientOf(HttpServletRequest request) {
+		String apiKey = request.getHeader(clientHeader);
+		// keys and addresses never collide
+		return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : request.getRemoteAddr();
+	}
+
+	private static final class EndpointClass {
+
+		private final ClientRateLimiter limiter;
+		private final Counter rejected;
+
+		EndpointClass(String name, RateLimitProperties.Quota quota, int maxClients, MeterRegistry meterRegistry) {
+			this.limiter = new ClientRateLimiter(quota, maxClients);
+			this.rejected = Counter.builder("booking.rate-limit.rejected")
+				.description("Requests rejected with 429 because their client was over quota")
+				.tag("class", name)
+				.register(meterRegistry);
+			Gauge.builder("booking.rate-limit.clients", limiter, ClientRateLimiter::clients)
+				.description("Clients whose bucket is not full")
+				.tag("class", name)
+				.register(meterRegistry);
+		}
+	}
+}
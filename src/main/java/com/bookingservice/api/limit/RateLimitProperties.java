@@ -0,0 +1,43 @@
+package com.bookingservice.api.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Per-client request quotas of the API ({@code booking.rate-limit}), see {@link ClientRateLimiter}.
+ *
+ * @param enabled whether requests over their client's quota are rejected with 429
+ * @param clientHeader header carrying the client's API key
+ * @param apiKeys keys a client may identify itself with; any other value of the header is
+ *                ignored and the client is told apart by its remote address
+ * @param maxClients buckets held per endpoint class; past it, new clients share one overflow
+ *                   bucket until idle buckets are evicted
+ * @param evictionInterval how often the state of idle clients is dropped
+ * @param calendar quota of the calendar reads ({@code GET .../calendar})
+ * @param reads quota of the other GET requests
+ * @param writes quota of the other requests
+ */
+@ConfigurationProperties(prefix = "booking.rate-limit")
+public record RateLimitProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue("X-API-Key") String clientHeader,
+	@DefaultValue Set<String> apiKeys,
+	@DefaultValue("100000") int maxClients,
+	@DefaultValue("1m") Duration evictionInterval,
+	@DefaultValue Quota calendar,
+	@DefaultValue Quota reads,
+	@DefaultValue Quota writes
+) {
+
+	/**
+	 * @param rate requests per second, sustained
+	 * @param burst requests a client that was idle may send at once
+	 */
+	public record Quota(
+		@DefaultValue("50") double rate,
+		@DefaultValue("100") int burst
+	) {}
+}
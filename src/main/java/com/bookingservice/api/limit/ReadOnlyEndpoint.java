@@ -0,0 +1,17 @@
+package com.bookingservice.api.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that only reads although its HTTP method is not GET/HEAD, such as a dry run
+ * posted with a body, so {@link ConcurrencyLimitInterceptor} counts it against the read limit.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnlyEndpoint {
+}
@@ -0,0 +1,69 @@
+package com.bookingservice.api.reactive;
+
+import com.bookingservice.api.dto.BlockDtos;
+import com.bookingservice.service.reactive.ReactiveBlockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * {@link com.bookingservice.api.BlockController} on the reactive stack: same paths, DTOs and status codes.
+ */
+@RestController
+@RequestMapping("/api/blocks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Blocks", description = "Endpoints to manage property blocks")
+public class ReactiveBlockController {
+
+	private final ReactiveBlockService blockService;
+
+	public ReactiveBlockController(ReactiveBlockService blockService) {
+		this.blockService = blockService;
+	}
+
+	@PostMapping
+	@Operation(summary = "Create block", description = "Create a block for a date range, preventing new bookings")
+	public Mono<ResponseEntity<BlockDtos.Response>> create(@Valid @RequestBody BlockDtos.CreateOrUpdateRequest req,
+	                                                       ServerWebExchange exchange) {
+		return blockService.createBlock(req.toEntity(), exchange.getLocaleContext().getLocale())
+			.map(created -> ResponseEntity
+				.created(UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+					.path("/{id}")
+					.buildAndExpand(created.getId())
+					.toUri())
+				.body(BlockDtos.Response.from(created)));
+	}
+
+	@PutMapping("/{id}")
+	@Operation(summary = "Update block", description = "Update an existing block")
+	public Mono<BlockDtos.Response> update(@PathVariable("id") UUID id, @Valid @RequestBody BlockDtos.CreateOrUpdateRequest req,
+	                                       ServerWebExchange exchange) {
+		return blockService.updateBlock(id, req, exchange.getLocaleContext().getLocale())
+			.map(BlockDtos.Response::from);
+	}
+
+	@DeleteMapping("/{id}")
+	@Operation(summary = "Delete block", description = "Remove a block from the system (idempotent)")
+	public Mono<ResponseEntity<Void>> delete(@PathVariable("id") UUID id) {
+		return blockService.deleteBlock(id).thenReturn(ResponseEntity.noContent().build());
+	}
+
+	@GetMapping("/calendar")
+	@Operation(summary = "List blocks by property and month", description = "Returns blocks overlapping the given month")
+	public Flux<BlockDtos.Response> listByMonth(
+		@RequestParam String propertyId,
+		@RequestParam int year,
+		@RequestParam int month
+	) {
+		return blockService.listByPropertyAndMonth(propertyId, year, month).map(BlockDtos.Response::from);
+	}
+}
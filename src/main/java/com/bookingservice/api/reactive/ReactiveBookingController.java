@@ -0,0 +1,98 @@
+package com.bookingservice.api.reactive;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.service.reactive.ReactiveBookingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * {@link com.bookingservice.api.BookingController} on the reactive stack: same paths, DTOs and
+ * status codes, served by {@link ReactiveBookingService} without blocking the event loop.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Bookings", description = "Endpoints to manage bookings")
+public class ReactiveBookingController {
+
+	private final ReactiveBookingService bookingService;
+
+	public ReactiveBookingController(ReactiveBookingService bookingService) {
+		this.bookingService = bookingService;
+	}
+
+	@PostMapping
+	@Operation(summary = "Create booking", description = "Create a booking if dates are available")
+	public Mono<ResponseEntity<BookingDtos.Response>> create(@Valid @RequestBody BookingDtos.CreateRequest req,
+	                                                         ServerWebExchange exchange) {
+		return bookingService.createBooking(req.toEntity(), exchange.getLocaleContext().getLocale())
+			.map(created -> ResponseEntity
+				.created(UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+					.path("/{id}")
+					.buildAndExpand(created.getId())
+					.toUri())
+				.body(BookingDtos.Response.from(created)));
+	}
+
+	@PostMapping("/availability")
+	@Operation(summary = "Check availability", description = "Dry run: reports whether a booking would fit and which allocations conflict, without writing")
+	public Mono<BookingDtos.AvailabilityResponse> checkAvailability(@Valid @RequestBody BookingDtos.AvailabilityRequest req,
+	                                                                ServerWebExchange exchange) {
+		return bookingService.checkAvailability(req.propertyId(), req.startDate(), req.endDate(),
+				req.excludeBookingId(), exchange.getLocaleContext().getLocale())
+			.map(BookingDtos.AvailabilityResponse::from);
+	}
+
+	@GetMapping("/{id}")
+	@Operation(summary = "Get booking", description = "Get a booking by id")
+	public Mono<BookingDtos.Response> get(@PathVariable("id") UUID id) {
+		return bookingService.getBooking(id).map(BookingDtos.Response::from);
+	}
+
+	@PutMapping("/{id}")
+	@Operation(summary = "Update booking", description = "Update guest details and date range")
+	public Mono<BookingDtos.Response> update(@PathVariable("id") UUID id, @Valid @RequestBody BookingDtos.UpdateRequest req,
+	                                         ServerWebExchange exchange) {
+		return bookingService.updateBooking(id, req, exchange.getLocaleContext().getLocale())
+			.map(BookingDtos.Response::from);
+	}
+
+	@PostMapping("/{id}/cancel")
+	@Operation(summary = "Cancel booking", description = "Cancel a booking (status = CANCELED)")
+	public Mono<BookingDtos.Response> cancel(@PathVariable("id") UUID id) {
+		return bookingService.cancelBooking(id).map(BookingDtos.Response::from);
+	}
+
+	@PostMapping("/{id}/rebook")
+	@Operation(summary = "Rebook canceled booking", description = "Reactivate a canceled booking if dates are available")
+	public Mono<BookingDtos.Response> rebook(@PathVariable("id") UUID id, ServerWebExchange exchange) {
+		return bookingService.rebookBooking(id, exchange.getLocaleContext().getLocale())
+			.map(BookingDtos.Response::from);
+	}
+
+	@DeleteMapping("/{id}")
+	@Operation(summary = "Delete booking", description = "Remove booking from the system (idempotent)")
+	public Mono<ResponseEntity<Void>> delete(@PathVariable("id") UUID id) {
+		return bookingService.deleteBooking(id).thenReturn(ResponseEntity.noContent().build());
+	}
+
+	@GetMapping("/calendar")
+	@Operation(summary = "List bookings by property and month", description = "Returns bookings overlapping the given month")
+	public Flux<BookingDtos.Response> listByMonth(
+		@RequestParam String propertyId,
+		@RequestParam int year,
+		@RequestParam int month
+	) {
+		return bookingService.listByPropertyAndMonth(propertyId, year, month).map(BookingDtos.Response::from);
+	}
+}
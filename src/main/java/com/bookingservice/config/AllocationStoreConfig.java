@@ -0,0 +1,73 @@
+package com.bookingservice.config;
+
+import com.bookingservice.model.Allocatable;
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.repository.JpaAllocationStore;
+import com.bookingservice.repository.journal.JournalAllocationStore;
+import com.bookingservice.repository.journal.JournalProperties;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.service.capacity.OccupancyIndex;
+import com.bookingservice.service.capacity.OccupancyTrackingAllocationStore;
+import com.bookingservice.service.policy.ConflictDetection;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Selects the allocation storage engine with {@code booking.allocation.store}. Either one is wrapped
+ * so its writes keep the occupancy of multi-unit properties up to date.
+ */
+@Configuration
+public class AllocationStoreConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "booking.allocation.store", havingValue = "jpa", matchIfMissing = true)
+	public AllocationStore jpaAllocationStore(AllocationRepository allocationRepository, AllocationPartitions partitions,
+	                                          EntityManager entityManager, OccupancyIndex occupancy) {
+		return new OccupancyTrackingAllocationStore(new JpaAllocationStore(allocationRepository, partitions, entityManager), occupancy);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "booking.allocation.store", havingValue = "journal")
+	public AllocationStore journalAllocationStore(JournalProperties properties, OccupancyIndex occupancy,
+	                                              @Value("${booking.allocation.conflict-detection:query}") ConflictDetection conflictDetection,
+	                                              BookingRepository bookingRepository, BlockRepository blockRepository)
+		throws IOException {
+		if (conflictDetection == ConflictDetection.DATABASE) {
+			// the policy then skips its overlap query, and the journal has no exclusion constraint
+			throw new IllegalStateException("booking.allocation.store=journal requires booking.allocation.conflict-detection=query");
+		}
+		JournalAllocationStore journal = new JournalAllocationStore(properties);
+		// batches a crash left between the journal and the database commit follow the database
+		journal.recover(allocation -> (allocation.getType() == AllocationType.BOOKING
+			? bookingRepository.findById(allocation.getEntityId()).map(Allocatable.class::cast)
+			: blockRepository.findById(allocation.getEntityId()).map(Allocatable.class::cast))
+			.map(entity -> mirror(allocation, entity)));
+		return new OccupancyTrackingAllocationStore(journal, occupancy);
+	}
+
+	private static Allocation mirror(Allocation allocation, Allocatable entity) {
+		boolean canceled = entity instanceof Booking booking && booking.getStatus() == BookingStatus.CANCELED;
+		return Allocation.builder()
+			.id(allocation.getId())
+			.entityId(entity.getId())
+			.type(entity.getAllocationType())
+			.propertyId(entity.getPropertyId())
+			.startDate(entity.getStartDate())
+			.endDate(entity.getEndDate())
+			.status(canceled ? AllocationStatus.CANCELED : AllocationStatus.ACTIVE)
+			.build();
+	}
+}
@@ -0,0 +1,82 @@
+package com.bookingservice.config;
+
+import com.bookingservice.api.codec.CompactBinaryModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code application/cbor} for service-to-service callers, selected by content negotiation
+ * (Accept / Content-Type); JSON stays the default. Dates travel as epoch days and UUIDs as two
+ * longs, see {@link CompactBinaryModule}. Otherwise the mapper has the same settings as the JSON one.
+ */
+@Configuration
+public class CborConfig {
+
+	// Replaces the default CBOR converter Spring MVC registers when jackson-dataformat-cbor is present
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(compactCborMapper(builder));
+	}
+
+	// WebFlux has no Jackson CBOR codec by default
+	@Bean
+	public CodecCustomizer cborCodecCustomizer(Jackson2ObjectMapperBuilder builder, ObjectMapper objectMapper) {
+		ObjectMapper mapper = compactCborMapper(builder);
+		return configurer -> {
+			// custom codecs are consulted before the default ones: keep JSON first so it stays the default
+			configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+			// without explicit MIME types the Jackson codecs would also claim application/json
+			configurer.customCodecs().register(new AggregatingCborEncoder(mapper));
+			configurer.customCodecs().register(new Jackson2CborDecoder(mapper, MediaType.APPLICATION_CBOR));
+		};
+	}
+
+	private static ObjectMapper compactCborMapper(Jackson2ObjectMapperBuilder builder) {
+		ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+		// registered last so it wins over JavaTimeModule's LocalDate handling
+		mapper.registerModule(new CompactBinaryModule());
+		return mapper;
+	}
+
+	/**
+	 * {@link Jackson2CborEncoder} rejects every publisher ("Does not support stream encoding yet"):
+	 * encode a single value as is and a Flux as one array, the body the servlet endpoints return.
+	 */
+	static class AggregatingCborEncoder extends Jackson2CborEncoder {
+
+		AggregatingCborEncoder(ObjectMapper mapper) {
+			super(mapper, MediaType.APPLICATION_CBOR);
+		}
+
+		@Override
+		public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+		                               ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+			if (inputStream instanceof Mono<?> mono) {
+				return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+			}
+			ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+			return Flux.from(inputStream).collectList()
+				.map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+				.flux();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.bookingservice.config;
+
+import com.bookingservice.api.limit.ConcurrencyLimitInterceptor;
+import com.bookingservice.api.limit.ConcurrencyLimitProperties;
+import com.bookingservice.support.MessageCatalog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the adaptive concurrency limits in front of the booking and block endpoints (servlet stack).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "booking.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+	private final ConcurrencyLimitProperties properties;
+	private final MessageCatalog messages;
+	private final MeterRegistry meterRegistry;
+
+	public ConcurrencyLimitConfig(ConcurrencyLimitProperties properties, MessageCatalog messages, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.messages = messages;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Bean
+	public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+		return new ConcurrencyLimitInterceptor(properties, messages, meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(concurrencyLimitInterceptor()).addPathPatterns("/api/bookings/**", "/api/blocks/**");
+	}
+}
@@ -0,0 +1,49 @@
+package com.bookingservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.init.dependency.DatabaseInitializationDependencyConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC DataSource for JPA, declared explicitly: Spring Boot backs its own off as soon as an
+ * R2DBC ConnectionFactory exists, and the reactive API needs one. Still bound to
+ * {@code spring.datasource.*}.
+ * <p>
+ * {@code spring.sql.init} scripts keep running over JDBC (and after Hibernate when
+ * {@code spring.jpa.defer-datasource-initialization} is set) instead of over R2DBC.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+@Import(DatabaseInitializationDependencyConfigurer.class)
+public class DataSourceConfig {
+
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource")
+	public DataSourceProperties dataSourceProperties() {
+		return new DataSourceProperties();
+	}
+
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource,
+	                                                                                 SqlInitializationProperties properties) {
+		return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties);
+	}
+}
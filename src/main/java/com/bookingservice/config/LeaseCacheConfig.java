@@ -0,0 +1,22 @@
+package com.bookingservice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With partition leases a property moves between nodes, and nothing tells the previous owner's
+ * node-local second-level cache that rows changed elsewhere; a later takeover would read those
+ * stale entries. The entity cache is therefore switched off when leases are enabled.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "booking.leases", name = "enabled", havingValue = "true")
+public class LeaseCacheConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer disableSecondLevelCache() {
+		return properties -> properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+	}
+}
@@ -57,6 +57,14 @@ public class OpenApiConfig {
 			})
 			.build();
 	}
+
+	@Bean
+	public GroupedOpenApi historyApi() {
+		return GroupedOpenApi.builder()
+			.group("history")
+			.pathsToMatch("/api/history/**")
+			.build();
+	}
 }
 
 
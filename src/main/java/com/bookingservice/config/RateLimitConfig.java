@@ -0,0 +1,43 @@
+package com.bookingservice.config;
+
+import com.bookingservice.api.limit.RateLimitInterceptor;
+import com.bookingservice.api.limit.RateLimitProperties;
+import com.bookingservice.support.MessageCatalog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the per-client quotas in front of the API (servlet stack), ahead of the concurrency limits
+ * so that rejected requests never hold a concurrency slot.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "booking.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+	private final RateLimitProperties properties;
+	private final MessageCatalog messages;
+	private final MeterRegistry meterRegistry;
+
+	public RateLimitConfig(RateLimitProperties properties, MessageCatalog messages, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.messages = messages;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Bean
+	public RateLimitInterceptor rateLimitInterceptor() {
+		return new RateLimitInterceptor(properties, messages, meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(rateLimitInterceptor()).addPathPatterns("/api/**").order(Ordered.HIGHEST_PRECEDENCE);
+	}
+}
@@ -0,0 +1,39 @@
+package com.bookingservice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.server.i18n.LocaleContextResolver;
+
+import java.util.Locale;
+
+/**
+ * Web settings of the reactive stack ({@code spring.main.web-application-type=reactive}).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+	// Tomcat is on the classpath for the servlet stack and would otherwise win
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	// WebFlux looks the resolver up by this bean name
+	@Bean(name = "localeContextResolver")
+	public LocaleContextResolver localeContextResolver() {
+		StatelessLocaleContextResolver resolver = new StatelessLocaleContextResolver("lang");
+		resolver.setDefaultLocale(Locale.US);
+		return resolver;
+	}
+
+	// the handlers write through R2DBC, behind Hibernate's back, so JPA must not serve cached entities
+	@Bean
+	public HibernatePropertiesCustomizer disableSecondLevelCache() {
+		return properties -> properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+	}
+}
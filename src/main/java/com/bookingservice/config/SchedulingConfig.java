@@ -0,0 +1,12 @@
+package com.bookingservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background jobs declared with {@code @Scheduled} (e.g. history snapshots).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,38 @@
+package com.bookingservice.config;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.SimpleLocaleContext;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+
+import java.util.Locale;
+
+/**
+ * Reactive counterpart of {@link StatelessLocaleResolver}: the {@code lang} query parameter wins,
+ * then Accept-Language, then the default locale.
+ */
+public class StatelessLocaleContextResolver extends AcceptHeaderLocaleContextResolver {
+
+	private final String paramName;
+
+	public StatelessLocaleContextResolver(String paramName) {
+		this.paramName = paramName;
+	}
+
+	@Override
+	public LocaleContext resolveLocaleContext(ServerWebExchange exchange) {
+		String lang = exchange.getRequest().getQueryParams().getFirst(paramName);
+		if (StringUtils.hasText(lang)) {
+			try {
+				Locale requested = StringUtils.parseLocale(lang);
+				if (requested != null) {
+					return new SimpleLocaleContext(requested);
+				}
+			} catch (IllegalArgumentException ignored) {
+				// malformed lang parameter: fall back to the header
+			}
+		}
+		return super.resolveLocaleContext(exchange);
+	}
+}
@@ -0,0 +1,37 @@
+package com.bookingservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Locale;
+
+/**
+ * Resolves the locale per request without touching the HTTP session:
+ * the {@code lang} query parameter (e.g. {@code ?lang=pt_BR}) wins, then Accept-Language,
+ * then the default locale.
+ */
+public class StatelessLocaleResolver extends AcceptHeaderLocaleResolver {
+
+	private final String paramName;
+
+	public StatelessLocaleResolver(String paramName) {
+		this.paramName = paramName;
+	}
+
+	@Override
+	public Locale resolveLocale(HttpServletRequest request) {
+		String lang = request.getParameter(paramName);
+		if (StringUtils.hasText(lang)) {
+			try {
+				Locale requested = StringUtils.parseLocale(lang);
+				if (requested != null) {
+					return requested;
+				}
+			} catch (IllegalArgumentException ignored) {
+				// malformed lang parameter: fall back to the header
+			}
+		}
+		return super.resolveLocale(request);
+	}
+}
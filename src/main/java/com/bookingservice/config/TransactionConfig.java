@@ -0,0 +1,35 @@
+package com.bookingservice.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Two transaction managers live side by side: JPA for the servlet stack and the jobs, R2DBC for
+ * the reactive API. JPA is primary so plain {@code @Transactional} keeps meaning JPA; reactive
+ * code uses the {@link TransactionalOperator} explicitly.
+ */
+@Configuration
+public class TransactionConfig {
+
+	@Bean
+	@Primary
+	public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+		return new JpaTransactionManager(entityManagerFactory);
+	}
+
+	@Bean
+	public R2dbcTransactionManager connectionFactoryTransactionManager(ConnectionFactory connectionFactory) {
+		return new R2dbcTransactionManager(connectionFactory);
+	}
+
+	@Bean
+	public TransactionalOperator reactiveTransactionalOperator(R2dbcTransactionManager connectionFactoryTransactionManager) {
+		return TransactionalOperator.create(connectionFactoryTransactionManager);
+	}
+}
@@ -3,29 +3,18 @@ package com.bookingservice.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.LocaleResolver;
-import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
-import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
 import java.util.Locale;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-	@Override
-	public void addInterceptors(InterceptorRegistry registry) {
-		LocaleChangeInterceptor interceptor = new LocaleChangeInterceptor();
-		interceptor.setParamName("lang");  // Query param: ?lang=pt_BR
-		registry.addInterceptor(interceptor);
-	}
-
 	@Bean
 	public LocaleResolver localeResolver() {
-		SessionLocaleResolver resolver = new SessionLocaleResolver();
+		// Stateless: no HttpSession is created for callers passing ?lang=
+		StatelessLocaleResolver resolver = new StatelessLocaleResolver("lang");  // Query param: ?lang=pt_BR
 		resolver.setDefaultLocale(Locale.US);  // Default: English
 		return resolver;
 	}
 }
-
-
@@ -0,0 +1,58 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Allocation of an archived booking/block. Overlap checks never read this table.
+ */
+@Entity
+@Table(name = "allocations_archive", indexes = {
+	@Index(name = "idx_allocations_archive_entity", columnList = "entityId")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedAllocation {
+	@Id
+	private UUID id;
+
+	@Column(nullable = false)
+	private String propertyId;
+
+	@Column(nullable = false)
+	private LocalDate startDate;
+
+	@Column(nullable = false)
+	private LocalDate endDate;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private AllocationType type;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private AllocationStatus status;
+
+	@Column(nullable = false)
+	private UUID entityId;
+
+	@Column(nullable = false)
+	private Instant archivedAt;
+}
@@ -0,0 +1,57 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Block that ended before the archive cutoff, moved out of {@code blocks} by the archiver.
+ */
+@Entity
+@Table(name = "blocks_archive", indexes = {
+	@Index(name = "idx_blocks_archive_property", columnList = "propertyId, startDate")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedBlock {
+	@Id
+	private UUID id;
+
+	@Column(nullable = false)
+	private String propertyId;
+
+	@Column(nullable = false)
+	private LocalDate startDate;
+
+	@Column(nullable = false)
+	private LocalDate endDate;
+
+	@Column(nullable = false)
+	private Instant archivedAt;
+
+	/**
+	 * Detached, read-only view of the archived block.
+	 */
+	public Block toBlock() {
+		return Block.builder()
+			.id(id)
+			.propertyId(propertyId)
+			.startDate(startDate)
+			.endDate(endDate)
+			.build();
+	}
+}
@@ -0,0 +1,72 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Booking that ended before the archive cutoff, moved out of {@code bookings} by the archiver.
+ */
+@Entity
+@Table(name = "bookings_archive", indexes = {
+	@Index(name = "idx_bookings_archive_property", columnList = "propertyId, startDate")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedBooking {
+	@Id
+	private UUID id;
+
+	@Column(nullable = false)
+	private String propertyId;
+
+	@Column(nullable = false)
+	private String guestName;
+
+	@Column(nullable = false)
+	private String guestEmail;
+
+	@Column(nullable = false)
+	private LocalDate startDate;
+
+	@Column(nullable = false)
+	private LocalDate endDate;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private BookingStatus status;
+
+	@Column(nullable = false)
+	private Instant archivedAt;
+
+	/**
+	 * Detached, read-only view of the archived booking.
+	 */
+	public Booking toBooking() {
+		return Booking.builder()
+			.id(id)
+			.propertyId(propertyId)
+			.guestName(guestName)
+			.guestEmail(guestEmail)
+			.startDate(startDate)
+			.endDate(endDate)
+			.status(status)
+			.build();
+	}
+}
@@ -5,11 +5,16 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -17,7 +22,12 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "blocks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "blocks")
+@Table(name = "blocks", indexes = {
+	// archival picks each property's past rows
+	@Index(name = "idx_blocks_property_end", columnList = "propertyId, endDate")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +50,11 @@ public class Block implements Allocatable {
 	@Column(nullable = false)
 	private LocalDate endDate;
 
+	// optimistic lock: a write based on a stale copy fails instead of reverting a newer change
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private Long version;
+
 	@Override
 	public AllocationType getAllocationType() {
 		return AllocationType.BLOCK;
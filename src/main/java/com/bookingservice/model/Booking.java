@@ -1,17 +1,25 @@
 package com.bookingservice.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -20,7 +28,15 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "bookings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bookings")
+@Table(name = "bookings", indexes = {
+	// email lookups are ordered by stay; prefix searches by key, then id
+	@Index(name = "idx_bookings_guest_email_start", columnList = "guestEmailKey, startDate"),
+	@Index(name = "idx_bookings_guest_name_id", columnList = "guestNameKey, id"),
+	// archival picks each property's past rows
+	@Index(name = "idx_bookings_property_end", columnList = "propertyId, endDate")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -56,6 +72,28 @@ public class Booking implements Allocatable {
 	@Column(nullable = false)
 	private BookingStatus status = BookingStatus.ACTIVE;
 
+	// optimistic lock: a write based on a stale copy fails instead of reverting a newer change
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private Long version;
+
+	// indexed copies for guest lookups, derived from guestEmail/guestName on every write
+	@Setter(AccessLevel.NONE)
+	private String guestEmailKey;
+
+	@Setter(AccessLevel.NONE)
+	private String guestNameKey;
+
+	/**
+	 * Refreshes the guest lookup keys from the guest's email and name (see {@link GuestKeys}).
+	 */
+	@PrePersist
+	@PreUpdate
+	public void normalizeGuest() {
+		guestEmailKey = GuestKeys.email(guestEmail);
+		guestNameKey = GuestKeys.name(guestName);
+	}
+
 	@Override
 	public AllocationType getAllocationType() {
 		return AllocationType.BOOKING;
@@ -0,0 +1,38 @@
+package com.bookingservice.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized forms of guest emails and names, stored next to them on {@link Booking} so that
+ * lookups and prefix searches are plain indexed comparisons.
+ */
+public final class GuestKeys {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SPACES = Pattern.compile("\\s+");
+
+	private GuestKeys() {
+	}
+
+	/**
+	 * Trimmed and lower-cased: {@code " Jane@Example.COM"} and {@code "jane@example.com"} are the same guest.
+	 */
+	public static String email(String email) {
+		return email == null ? null : email.strip().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Lower-cased, accents removed and whitespace collapsed: {@code "José  Álvarez"} is stored as
+	 * {@code "jose alvarez"}.
+	 */
+	public static String name(String name) {
+		if (name == null) {
+			return null;
+		}
+		String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+		String plain = MARKS.matcher(decomposed).replaceAll("");
+		return SPACES.matcher(plain.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,31 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * History events of a property not yet folded into a snapshot, as counted by the snapshot job.
+ * The job picks the properties to snapshot from this index instead of grouping the events.
+ */
+@Entity
+@Table(name = "history_backlog", indexes = {
+	@Index(name = "idx_history_backlog_pending", columnList = "pendingEvents")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryBacklog {
+	@Id
+	private String propertyId;
+
+	@Column(nullable = false)
+	private long pendingEvents;
+}
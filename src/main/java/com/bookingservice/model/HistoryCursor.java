@@ -0,0 +1,30 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * How far a job has read the history events, by {@code occurredAt}. Events up to
+ * {@code position} have been read; the next run continues after it.
+ */
+@Entity
+@Table(name = "history_cursors")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryCursor {
+	@Id
+	private String name;
+
+	@Column(nullable = false)
+	private Instant position;
+}
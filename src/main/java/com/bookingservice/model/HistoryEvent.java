@@ -0,0 +1,73 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Immutable record of one Booking/Block state change, carrying the full state after the change.
+ * The id is the global sequence number used to order replay.
+ */
+@Entity
+@Table(name = "history_events", indexes = {
+	@Index(name = "idx_history_events_property", columnList = "propertyId, id"),
+	@Index(name = "idx_history_events_property_time", columnList = "propertyId, occurredAt"),
+	@Index(name = "idx_history_events_entity", columnList = "entityId, id"),
+	@Index(name = "idx_history_events_time", columnList = "occurredAt")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistoryEvent {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false, updatable = false)
+	private UUID entityId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, updatable = false)
+	private AllocationType entityType;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, updatable = false)
+	private HistoryEventType eventType;
+
+	@Column(nullable = false, updatable = false)
+	private String propertyId;
+
+	@Column(nullable = false, updatable = false)
+	private LocalDate startDate;
+
+	@Column(nullable = false, updatable = false)
+	private LocalDate endDate;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, updatable = false)
+	private AllocationStatus status;
+
+	@Column(updatable = false)
+	private String guestName;  // bookings only
+
+	@Column(updatable = false)
+	private String guestEmail;  // bookings only
+
+	@Column(nullable = false, updatable = false)
+	private Instant occurredAt;
+}
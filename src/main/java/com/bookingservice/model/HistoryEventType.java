@@ -0,0 +1,23 @@
+package com.bookingservice.model;
+
+/**
+ * State changes recorded in the booking/block history.
+ */
+public enum HistoryEventType {
+	CREATED,
+	UPDATED,
+	CANCELED,
+	REBOOKED,
+	DELETED,
+	/**
+	 * The entity moved to another property (recorded under the property it left).
+	 */
+	MOVED_OUT;
+
+	/**
+	 * @return true if the entity no longer exists on the event's property after this event
+	 */
+	public boolean removesEntity() {
+		return this == DELETED || this == MOVED_OUT;
+	}
+}
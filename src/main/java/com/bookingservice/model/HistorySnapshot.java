@@ -0,0 +1,63 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Per-property state folded from the history events that occurred up to (and including) takenAt.
+ * Replay starts from the latest snapshot instead of the first event.
+ * <p>
+ * A full snapshot holds every entity of the property. A delta holds only the entities changed or
+ * removed since its base snapshot; the state at takenAt is the chain of deltas applied over the
+ * full snapshot it starts from.
+ */
+@Entity
+@Table(name = "history_snapshots", indexes = {
+	@Index(name = "idx_history_snapshots_property", columnList = "propertyId, lastEventId"),
+	@Index(name = "idx_history_snapshots_property_time", columnList = "propertyId, takenAt")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorySnapshot {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false, updatable = false)
+	private String propertyId;
+
+	@Column(nullable = false, updatable = false)
+	private Long lastEventId;  // highest folded id
+
+	@Column(nullable = false, updatable = false)
+	private Instant takenAt;  // commit-safe horizon the state is folded up to
+
+	@JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+	@Column(nullable = false, updatable = false)
+	private String state;  // JSON array of HistoryService.EntityState: all of them, or the changed ones
+
+	@Column(updatable = false)
+	private Long baseId;  // snapshot this delta applies to; null for a full snapshot
+
+	@Column(updatable = false)
+	private Integer depth;  // deltas since the last full snapshot; null or 0 for a full snapshot
+
+	@JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+	@Column(updatable = false)
+	private String removed;  // JSON array of the entity ids a delta removes
+}
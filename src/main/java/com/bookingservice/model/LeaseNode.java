@@ -0,0 +1,33 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * A node taking part in the partition leases, alive until {@code expiresAt} unless it renews.
+ * The partitions are shared evenly among the live nodes.
+ */
+@Entity
+@Table(name = "lease_nodes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaseNode {
+	@Id
+	private String nodeId;
+
+	// base URL mutations of its partitions are redirected to, null if not reachable by clients
+	private String url;
+
+	@Column(nullable = false)
+	private Instant expiresAt;
+}
@@ -0,0 +1,47 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Price of one night of a property, in minor units of its currency (e.g. cents).
+ * A night without a row has no price and cannot be quoted.
+ */
+@Entity
+@IdClass(NightlyRate.Key.class)
+@Table(name = "nightly_rates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NightlyRate {
+	@Id
+	private String propertyId;
+
+	@Id
+	private LocalDate night;
+
+	@Column(nullable = false)
+	private long amount;
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@EqualsAndHashCode
+	public static class Key implements Serializable {
+		private String propertyId;
+		private LocalDate night;
+	}
+}
@@ -0,0 +1,37 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Time-bounded ownership of one partition of the properties by one node. The owner serves the
+ * mutations of the partition's properties until {@code expiresAt}, unless it renews the lease.
+ * {@code epoch} grows on every change of owner.
+ */
+@Entity
+@Table(name = "partition_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionLease {
+	@Id
+	private Integer partitionId;
+
+	// null while free
+	private String owner;
+
+	@Column(nullable = false)
+	private Instant expiresAt;
+
+	@Column(nullable = false)
+	private long epoch;
+}
@@ -0,0 +1,28 @@
+package com.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Number of identical units of a property (e.g. rooms of one type in a hotel). Properties without
+ * a row have a single unit: no two ACTIVE allocations may overlap.
+ */
+@Entity
+@Table(name = "property_capacities")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyCapacity {
+	@Id
+	private String propertyId;
+
+	@Column(nullable = false)
+	private int capacity;
+}
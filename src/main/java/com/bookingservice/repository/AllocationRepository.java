@@ -2,61 +2,72 @@ package com.bookingservice.repository;
 
 import com.bookingservice.model.Allocation;
 import com.bookingservice.model.AllocationStatus;
-import com.bookingservice.model.AllocationType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AllocationRepository extends JpaRepository<Allocation, UUID> {
 
+	/**
+	 * @param minStartDate lower bound on startDate (see AllocationPartitions) so only the monthly
+	 *                     partitions that can overlap the range are scanned
+	 */
 	@Query("""
 		select a from Allocation a
 		where a.propertyId = :propertyId
 		  and a.status = :status
+		  and a.startDate >= :minStartDate
 		  and a.startDate <= :endDate
 		  and a.endDate >= :startDate
 	""")
 	List<Allocation> findOverlappingAllocations(
 		@Param("propertyId") String propertyId,
 		@Param("status") AllocationStatus status,
+		@Param("minStartDate") LocalDate minStartDate,
 		@Param("startDate") LocalDate startDate,
 		@Param("endDate") LocalDate endDate
 	);
 
 	Optional<Allocation> findByEntityId(UUID entityId);
 
-	@Modifying
+	@QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+	List<Allocation> findByEntityIdIn(Collection<UUID> entityIds);
+
+	/**
+	 * Next keyset chunk of the id range {@code (after, last]}, for the reconciliation scan.
+	 */
+	@QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+	@Query("select a from Allocation a where a.id > :after and a.id <= :last order by a.id")
+	List<Allocation> findChunk(@Param("after") UUID after, @Param("last") UUID last, Pageable page);
+
 	@Query("""
-		update Allocation a
-		set a.propertyId = :propertyId,
-		    a.startDate = :startDate,
-		    a.endDate = :endDate
-		where a.entityId = :entityId
+		select distinct a.propertyId from Allocation a
+		where a.status = :status
+		  and a.endDate >= :from
 	""")
-	void updateByEntityId(
-		@Param("entityId") UUID entityId,
-		@Param("propertyId") String propertyId,
-		@Param("startDate") LocalDate startDate,
-		@Param("endDate") LocalDate endDate
+	List<String> findPropertiesWithAllocationsFrom(
+		@Param("status") AllocationStatus status,
+		@Param("from") LocalDate from
 	);
 
-	@Modifying
-	@Query("delete from Allocation a where a.entityId = :entityId")
-	void deleteByEntityId(@Param("entityId") UUID entityId);
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Allocation a where a.entityId in :entityIds")
+	int deleteByEntityIds(@Param("entityIds") Collection<UUID> entityIds);
 
-	@Modifying
-	@Query("update Allocation a set a.status = :status where a.entityId = :entityId and a.type = :type")
-	void updateStatusByEntityIdAndType(
-		@Param("entityId") UUID entityId,
-		@Param("type") AllocationType type,
-		@Param("status") AllocationStatus status
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Allocation a set a.status = :newStatus where a.entityId in :entityIds")
+	int updateStatusByEntityIds(
+		@Param("entityIds") Collection<UUID> entityIds,
+		@Param("newStatus") AllocationStatus newStatus
 	);
 }
-
-
@@ -0,0 +1,61 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage for the unified allocations view used by AllocationPolicy and the services.
+ * Selected with {@code booking.allocation.store}: {@code jpa} (default, {@link JpaAllocationStore})
+ * or {@code journal} (memory-mapped append-only journal, see
+ * {@link com.bookingservice.repository.journal.JournalAllocationStore}).
+ */
+public interface AllocationStore {
+
+	List<Allocation> findOverlappingAllocations(String propertyId, AllocationStatus status, LocalDate startDate, LocalDate endDate);
+
+	Optional<Allocation> findByEntityId(UUID entityId);
+
+	/**
+	 * Properties having allocations in the given status that end on or after {@code from}.
+	 */
+	List<String> findPropertiesWithAllocationsFrom(AllocationStatus status, LocalDate from);
+
+	/**
+	 * Stores a new allocation. The write reaches the database before returning, so constraint
+	 * violations surface to the caller.
+	 */
+	Allocation save(Allocation allocation);
+
+	/**
+	 * Stores new allocations together (one JDBC batch for the JPA store). Like {@link #save},
+	 * the writes reach the database before returning.
+	 */
+	void saveAll(Collection<Allocation> allocations);
+
+	void updateByEntityId(UUID entityId, String propertyId, LocalDate startDate, LocalDate endDate);
+
+	void deleteByEntityId(UUID entityId);
+
+	/**
+	 * Deletes the allocations of the given entities (used by archival).
+	 *
+	 * @return the number of allocations deleted
+	 */
+	int deleteByEntityIds(Collection<UUID> entityIds);
+
+	void updateStatusByEntityIdAndType(UUID entityId, AllocationType type, AllocationStatus status);
+
+	/**
+	 * Moves the allocations of the given entities, all of one property, to {@code newStatus}.
+	 *
+	 * @return the number of allocations changed
+	 */
+	int updateStatusByEntityIds(String propertyId, Collection<UUID> entityIds, AllocationStatus newStatus);
+}
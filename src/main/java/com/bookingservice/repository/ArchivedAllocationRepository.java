@@ -0,0 +1,23 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.ArchivedAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ArchivedAllocationRepository extends JpaRepository<ArchivedAllocation, UUID> {
+
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		insert into ArchivedAllocation (id, propertyId, startDate, endDate, type, status, entityId, archivedAt)
+		select a.id, a.propertyId, a.startDate, a.endDate, a.type, a.status, a.entityId, :archivedAt
+		from Allocation a
+		where a.entityId in :entityIds
+	""")
+	int copyFromAllocations(@Param("entityIds") Collection<UUID> entityIds, @Param("archivedAt") Instant archivedAt);
+}
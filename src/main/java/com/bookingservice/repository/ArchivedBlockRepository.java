@@ -0,0 +1,37 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.ArchivedBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ArchivedBlockRepository extends JpaRepository<ArchivedBlock, UUID> {
+
+	@Query("""
+		select bl from ArchivedBlock bl
+		where bl.propertyId = :propertyId
+		  and bl.startDate <= :endDate
+		  and bl.endDate >= :startDate
+	""")
+	List<ArchivedBlock> findOverlappingBlocks(
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		insert into ArchivedBlock (id, propertyId, startDate, endDate, archivedAt)
+		select bl.id, bl.propertyId, bl.startDate, bl.endDate, :archivedAt
+		from Block bl
+		where bl.id in :ids
+	""")
+	int copyFromBlocks(@Param("ids") Collection<UUID> ids, @Param("archivedAt") Instant archivedAt);
+}
@@ -0,0 +1,37 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.ArchivedBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, UUID> {
+
+	@Query("""
+		select b from ArchivedBooking b
+		where b.propertyId = :propertyId
+		  and b.startDate <= :endDate
+		  and b.endDate >= :startDate
+	""")
+	List<ArchivedBooking> findOverlappingBookings(
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		insert into ArchivedBooking (id, propertyId, guestName, guestEmail, startDate, endDate, status, archivedAt)
+		select b.id, b.propertyId, b.guestName, b.guestEmail, b.startDate, b.endDate, b.status, :archivedAt
+		from Booking b
+		where b.id in :ids
+	""")
+	int copyFromBookings(@Param("ids") Collection<UUID> ids, @Param("archivedAt") Instant archivedAt);
+}
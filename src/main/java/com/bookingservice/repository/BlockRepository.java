@@ -1,11 +1,18 @@
 package com.bookingservice.repository;
 
 import com.bookingservice.model.Block;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,14 +21,72 @@ public interface BlockRepository extends JpaRepository<Block, UUID> {
 	@Query("""
 		select bl from Block bl
 		where bl.propertyId = :propertyId
+		  and bl.startDate >= :minStartDate
 		  and bl.startDate <= :endDate
 		  and bl.endDate >= :startDate
 	""")
 	List<Block> findOverlappingBlocks(
 		@Param("propertyId") String propertyId,
+		@Param("minStartDate") LocalDate minStartDate,
 		@Param("startDate") LocalDate startDate,
 		@Param("endDate") LocalDate endDate
 	);
-}
 
+	/**
+	 * Ids of the blocks in the range, locked until the end of the transaction so the statements
+	 * driven by them see the same rows.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+		select bl.id from Block bl
+		where bl.propertyId = :propertyId
+		  and bl.startDate <= :endDate
+		  and bl.endDate >= :startDate
+	""")
+	List<UUID> findIdsInRange(
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
 
+	/**
+	 * Properties with rows to archive.
+	 */
+	@Query("select distinct bl.propertyId from Block bl where bl.endDate < :cutoff")
+	List<String> findPropertiesEndedBefore(@Param("cutoff") LocalDate cutoff);
+
+	/**
+	 * Next chunk of the property's ids to archive, locked until the end of the transaction. Rows
+	 * locked by live writers are skipped where the database supports SKIP LOCKED, so archival never
+	 * waits on them.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+		select bl.id from Block bl
+		where bl.propertyId = :propertyId
+		  and bl.endDate < :cutoff
+	""")
+	List<UUID> findIdsEndedBefore(@Param("propertyId") String propertyId, @Param("cutoff") LocalDate cutoff, Pageable page);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Block bl where bl.id in :ids")
+	int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+	/**
+	 * Next keyset chunk of the id range {@code (after, last]}, for the reconciliation scan.
+	 * Bypasses the entity cache so a full scan does not evict the live entries.
+	 */
+	@QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+	@Query("select bl from Block bl where bl.id > :after and bl.id <= :last order by bl.id")
+	List<Block> findChunk(@Param("after") UUID after, @Param("last") UUID last, Pageable page);
+
+	@Query("select bl.id from Block bl where bl.id in :ids")
+	List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+	/**
+	 * Blocks longer than {@code maxSpanDays}, which the bounded overlap queries would miss.
+	 */
+	@Query("select bl.id from Block bl where (bl.endDate - bl.startDate) by day > :maxSpanDays")
+	List<UUID> findIdsLongerThan(@Param("maxSpanDays") long maxSpanDays, Pageable page);
+}
@@ -2,11 +2,19 @@ package com.bookingservice.repository;
 
 import com.bookingservice.model.Booking;
 import com.bookingservice.model.BookingStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,15 +37,91 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
 	@Query("""
 		select b from Booking b
 		where b.propertyId = :propertyId
+		  and b.startDate >= :minStartDate
 		  and b.startDate <= :endDate
 		  and b.endDate >= :startDate
 	""")
 	List<Booking> findOverlappingBookings(
 		@Param("propertyId") String propertyId,
+		@Param("minStartDate") LocalDate minStartDate,
 		@Param("startDate") LocalDate startDate,
 		@Param("endDate") LocalDate endDate
 	);
 
-}
+	/**
+	 * Ids of the bookings in the range, locked until the end of the transaction so the statements
+	 * driven by them see the same rows.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+		select b.id from Booking b
+		where b.propertyId = :propertyId
+		  and b.status = :status
+		  and b.startDate <= :endDate
+		  and b.endDate >= :startDate
+	""")
+	List<UUID> findIdsInRange(
+		@Param("propertyId") String propertyId,
+		@Param("status") BookingStatus status,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Booking b set b.status = :newStatus, b.version = b.version + 1 where b.id in :ids")
+	int updateStatusByIds(@Param("ids") Collection<UUID> ids, @Param("newStatus") BookingStatus newStatus);
 
+	/**
+	 * Properties with rows to archive.
+	 */
+	@Query("select distinct b.propertyId from Booking b where b.endDate < :cutoff")
+	List<String> findPropertiesEndedBefore(@Param("cutoff") LocalDate cutoff);
 
+	/**
+	 * Next chunk of the property's ids to archive, locked until the end of the transaction. Rows
+	 * locked by live writers are skipped where the database supports SKIP LOCKED, so archival never
+	 * waits on them.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+		select b.id from Booking b
+		where b.propertyId = :propertyId
+		  and b.endDate < :cutoff
+	""")
+	List<UUID> findIdsEndedBefore(@Param("propertyId") String propertyId, @Param("cutoff") LocalDate cutoff, Pageable page);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Booking b where b.id in :ids")
+	int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+	/**
+	 * Next keyset chunk of the id range {@code (after, last]}, for the reconciliation scan.
+	 * Bypasses the entity cache so a full scan does not evict the live entries.
+	 */
+	@QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+	@Query("select b from Booking b where b.id > :after and b.id <= :last order by b.id")
+	List<Booking> findChunk(@Param("after") UUID after, @Param("last") UUID last, Pageable page);
+
+	@Query("select b.id from Booking b where b.id in :ids")
+	List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+	// Slice: one row past the page tells whether there is a next one, without a count query
+	Slice<Booking> findByGuestEmailKey(String guestEmailKey, Pageable page);
+
+	Slice<Booking> findByGuestEmailKeyStartingWith(String prefix, Pageable page);
+
+	Slice<Booking> findByGuestNameKeyStartingWith(String prefix, Pageable page);
+
+	/**
+	 * Bookings written before the guest lookup keys existed, for the backfill.
+	 */
+	@Query("select b from Booking b where b.guestEmailKey is null or b.guestNameKey is null")
+	List<Booking> findWithoutGuestKeys(Pageable page);
+
+	/**
+	 * Bookings longer than {@code maxSpanDays}, which the bounded overlap queries would miss.
+	 */
+	@Query("select b.id from Booking b where (b.endDate - b.startDate) by day > :maxSpanDays")
+	List<UUID> findIdsLongerThan(@Param("maxSpanDays") long maxSpanDays, Pageable page);
+}
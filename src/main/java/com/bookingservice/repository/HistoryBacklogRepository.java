@@ -0,0 +1,33 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.HistoryBacklog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface HistoryBacklogRepository extends JpaRepository<HistoryBacklog, String> {
+
+	@Query("select b.propertyId from HistoryBacklog b where b.pendingEvents >= :threshold")
+	List<String> findPropertiesWithPendingAtLeast(@Param("threshold") long threshold);
+
+	/**
+	 * @return 0 if the property has no row yet
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update HistoryBacklog b set b.pendingEvents = b.pendingEvents + :events where b.propertyId = :propertyId")
+	int add(@Param("propertyId") String propertyId, @Param("events") long events);
+
+	/**
+	 * Takes {@code events} folded events off the property's backlog, down to zero at most.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+		update HistoryBacklog b
+		set b.pendingEvents = case when b.pendingEvents > :events then b.pendingEvents - :events else 0 end
+		where b.propertyId = :propertyId
+	""")
+	int settle(@Param("propertyId") String propertyId, @Param("events") long events);
+}
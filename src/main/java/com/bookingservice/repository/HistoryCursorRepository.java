@@ -0,0 +1,20 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.HistoryCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface HistoryCursorRepository extends JpaRepository<HistoryCursor, String> {
+
+	/**
+	 * The cursor, locked until the end of the transaction so two nodes never read the same events.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select c from HistoryCursor c where c.name = :name")
+	Optional<HistoryCursor> findLocked(@Param("name") String name);
+}
@@ -0,0 +1,95 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.HistoryEvent;
+import com.bookingservice.model.HistoryEventType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface HistoryEventRepository extends JpaRepository<HistoryEvent, Long> {
+
+	/**
+	 * Events of the property that occurred in {@code (after, asOf]}, in the order they happened.
+	 */
+	@Query("""
+		select e from HistoryEvent e
+		where e.propertyId = :propertyId
+		  and e.occurredAt > :after
+		  and e.occurredAt <= :asOf
+		order by e.occurredAt, e.id
+	""")
+	List<HistoryEvent> findForReplay(
+		@Param("propertyId") String propertyId,
+		@Param("after") Instant after,
+		@Param("asOf") Instant asOf
+	);
+
+	List<HistoryEvent> findByEntityIdOrderById(UUID entityId);
+
+	/**
+	 * Number of events per property that occurred in {@code (after, upTo]}.
+	 */
+	@Query("""
+		select e.propertyId as propertyId, count(e) as events from HistoryEvent e
+		where e.occurredAt > :after
+		  and e.occurredAt <= :upTo
+		group by e.propertyId
+	""")
+	List<PropertyEvents> countByPropertyOccurredBetween(@Param("after") Instant after, @Param("upTo") Instant upTo);
+
+	interface PropertyEvents {
+		String getPropertyId();
+
+		long getEvents();
+	}
+
+	/**
+	 * Appends one event per given booking, with the given status, in a single statement.
+	 * Must run before the bookings themselves are updated.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		insert into HistoryEvent (entityId, entityType, eventType, propertyId, startDate, endDate,
+			status, guestName, guestEmail, occurredAt)
+		select b.id, :entityType, :eventType, b.propertyId, b.startDate, b.endDate,
+			:newStatus, b.guestName, b.guestEmail, :occurredAt
+		from Booking b
+		where b.id in :ids
+	""")
+	int insertForBookings(
+		@Param("entityType") AllocationType entityType,
+		@Param("eventType") HistoryEventType eventType,
+		@Param("newStatus") AllocationStatus newStatus,
+		@Param("occurredAt") Instant occurredAt,
+		@Param("ids") Collection<UUID> ids
+	);
+
+	/**
+	 * Appends one event per given block in a single statement.
+	 * Must run before the blocks themselves are deleted.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		insert into HistoryEvent (entityId, entityType, eventType, propertyId, startDate, endDate,
+			status, occurredAt)
+		select bl.id, :entityType, :eventType, bl.propertyId, bl.startDate, bl.endDate,
+			:newStatus, :occurredAt
+		from Block bl
+		where bl.id in :ids
+	""")
+	int insertForBlocks(
+		@Param("entityType") AllocationType entityType,
+		@Param("eventType") HistoryEventType eventType,
+		@Param("newStatus") AllocationStatus newStatus,
+		@Param("occurredAt") Instant occurredAt,
+		@Param("ids") Collection<UUID> ids
+	);
+}
@@ -0,0 +1,12 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.HistorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface HistorySnapshotRepository extends JpaRepository<HistorySnapshot, Long> {
+
+	Optional<HistorySnapshot> findFirstByPropertyIdAndTakenAtLessThanEqualOrderByTakenAtDesc(String propertyId, Instant asOf);
+}
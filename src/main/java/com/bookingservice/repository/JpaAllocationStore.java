@@ -0,0 +1,107 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Default AllocationStore backed by the {@code allocations} table.
+ * <p>
+ * Allocations are in the second-level cache. Hibernate evicts the whole region after any JPQL
+ * bulk update or delete of them. The per-booking/block changes therefore update the managed entities
+ * instead, so only their entries are refreshed. They change every allocation of the entity, like
+ * the bulk statements did, so duplicates left by drift (see the reconciliation) follow too. The
+ * range operations stay bulk.
+ * <p>
+ * Writes are flushed through the repository so constraint violations are translated to
+ * {@code DataIntegrityViolationException}, like the repository's own methods.
+ */
+public class JpaAllocationStore implements AllocationStore {
+
+	private final AllocationRepository allocationRepository;
+	private final AllocationPartitions partitions;
+	private final EntityManager entityManager;
+
+	public JpaAllocationStore(AllocationRepository allocationRepository, AllocationPartitions partitions, EntityManager entityManager) {
+		this.allocationRepository = allocationRepository;
+		this.partitions = partitions;
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public List<Allocation> findOverlappingAllocations(String propertyId, AllocationStatus status, LocalDate startDate, LocalDate endDate) {
+		return allocationRepository.findOverlappingAllocations(propertyId, status,
+			partitions.earliestOverlappingStart(startDate), startDate, endDate);
+	}
+
+	@Override
+	public Optional<Allocation> findByEntityId(UUID entityId) {
+		return allocationsOf(entityId).stream().findFirst();
+	}
+
+	@Override
+	public List<String> findPropertiesWithAllocationsFrom(AllocationStatus status, LocalDate from) {
+		return allocationRepository.findPropertiesWithAllocationsFrom(status, from);
+	}
+
+	@Override
+	public Allocation save(Allocation allocation) {
+		// persist, not save: allocations have assigned ids and merge would select the row first
+		entityManager.persist(allocation);
+		allocationRepository.flush();
+		return allocation;
+	}
+
+	@Override
+	public void saveAll(Collection<Allocation> allocations) {
+		allocations.forEach(entityManager::persist);
+		allocationRepository.flush();
+	}
+
+	@Override
+	public void updateByEntityId(UUID entityId, String propertyId, LocalDate startDate, LocalDate endDate) {
+		allocationsOf(entityId).forEach(allocation -> {
+			allocation.setPropertyId(propertyId);
+			allocation.setStartDate(startDate);
+			allocation.setEndDate(endDate);
+		});
+		allocationRepository.flush();
+	}
+
+	@Override
+	public void deleteByEntityId(UUID entityId) {
+		allocationsOf(entityId).forEach(entityManager::remove);
+		allocationRepository.flush();
+	}
+
+	@Override
+	public int deleteByEntityIds(Collection<UUID> entityIds) {
+		return allocationRepository.deleteByEntityIds(entityIds);
+	}
+
+	@Override
+	public void updateStatusByEntityIdAndType(UUID entityId, AllocationType type, AllocationStatus status) {
+		allocationsOf(entityId).stream()
+			.filter(allocation -> allocation.getType() == type)
+			.forEach(allocation -> allocation.setStatus(status));
+		allocationRepository.flush();
+	}
+
+	// every allocation of the entity, not at most one: duplicates are a drift case
+	private List<Allocation> allocationsOf(UUID entityId) {
+		return allocationRepository.findByEntityIdIn(List.of(entityId));
+	}
+
+	@Override
+	public int updateStatusByEntityIds(String propertyId, Collection<UUID> entityIds, AllocationStatus newStatus) {
+		return allocationRepository.updateStatusByEntityIds(entityIds, newStatus);
+	}
+}
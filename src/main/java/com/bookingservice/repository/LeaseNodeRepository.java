@@ -0,0 +1,11 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.LeaseNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+
+public interface LeaseNodeRepository extends JpaRepository<LeaseNode, String> {
+
+	long countByExpiresAtAfter(Instant now);
+}
@@ -0,0 +1,12 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.NightlyRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface NightlyRateRepository extends JpaRepository<NightlyRate, NightlyRate.Key> {
+
+	List<NightlyRate> findByPropertyIdAndNightBetween(String propertyId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,86 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.PartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every change of owner is one conditional update, so two nodes can never both take a lease.
+ */
+public interface PartitionLeaseRepository extends JpaRepository<PartitionLease, Integer> {
+
+	/**
+	 * Extends the leases the node still holds; expired ones are left to {@link #acquire}.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+		update PartitionLease l
+		set l.expiresAt = :expiresAt
+		where l.owner = :owner
+		  and l.expiresAt > :now
+	""")
+	int renew(@Param("owner") String owner, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+	@Query("""
+		select l from PartitionLease l
+		where l.owner = :owner
+		  and l.expiresAt > :now
+		  and l.partitionId < :partitions
+		order by l.partitionId
+	""")
+	List<PartitionLease> findHeld(@Param("owner") String owner, @Param("now") Instant now, @Param("partitions") int partitions);
+
+	@Query("""
+		select l.partitionId from PartitionLease l
+		where (l.owner is null or l.expiresAt <= :now)
+		  and l.partitionId < :partitions
+		order by l.partitionId
+	""")
+	List<Integer> findAcquirable(@Param("now") Instant now, @Param("partitions") int partitions);
+
+	/**
+	 * @return 1 if the node took the lease, 0 if another node holds it
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+		update PartitionLease l
+		set l.owner = :owner, l.expiresAt = :expiresAt, l.epoch = l.epoch + 1
+		where l.partitionId = :partitionId
+		  and (l.owner is null or l.expiresAt <= :now)
+	""")
+	int acquire(@Param("partitionId") int partitionId, @Param("owner") String owner,
+	            @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+	/**
+	 * Fences a mutation: matches only while the node still holds the lease it took at {@code epoch},
+	 * and locks the row until the mutation's transaction ends, so no other node takes it meanwhile.
+	 *
+	 * @return 1 if the lease is still held, 0 otherwise
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		update PartitionLease l
+		set l.epoch = l.epoch
+		where l.partitionId = :partitionId
+		  and l.owner = :owner
+		  and l.epoch = :epoch
+		  and l.expiresAt > :now
+	""")
+	int fence(@Param("partitionId") int partitionId, @Param("owner") String owner,
+	          @Param("epoch") long epoch, @Param("now") Instant now);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+		update PartitionLease l
+		set l.owner = null, l.expiresAt = :now
+		where l.owner = :owner
+		  and l.partitionId in :partitionIds
+	""")
+	int release(@Param("owner") String owner, @Param("partitionIds") Collection<Integer> partitionIds, @Param("now") Instant now);
+}
@@ -0,0 +1,7 @@
+package com.bookingservice.repository;
+
+import com.bookingservice.model.PropertyCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PropertyCapacityRepository extends JpaRepository<PropertyCapacity, String> {
+}
@@ -0,0 +1,347 @@
+package com.bookingservice.repository.journal;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of allocation events, written through a memory-mapped region.
+ * <p>
+ * Record layout: {@code [int length][int generation][int crc32][payload]}, where the payload starts
+ * with the event type. A PUT carries the full allocation (last write wins per entity id), a REMOVE
+ * only the entity id. A zero length, a foreign generation or a bad checksum marks the end of the log,
+ * so torn tail writes and records left over from before the last compaction are ignored.
+ * <p>
+ * The events of a transaction are appended as one batch: a PREPARE record with the batch id and
+ * event count, followed by the events. They only take effect on replay once a COMMIT record for
+ * the batch follows; an ABORT record or a torn batch discards them. A complete batch with neither
+ * is in doubt: the database may or may not have committed it. PUT and REMOVE records outside a
+ * batch, written before batches existed, take effect immediately.
+ * <p>
+ * Compaction writes every live allocation to a snapshot file with the next generation and then
+ * starts the journal over. Callers serialize appends, replay and compaction.
+ */
+final class AllocationJournal implements Closeable {
+
+	static final String JOURNAL_FILE = "allocations.journal";
+	static final String SNAPSHOT_FILE = "allocations.snapshot";
+
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+	private static final byte PREPARE = 3;
+	private static final byte COMMIT = 4;
+	private static final byte ABORT = 5;
+	// property ids are written with an unsigned short length
+	private static final int MAX_PROPERTY_BYTES = 0xFFFF;
+	private static final int HEADER_BYTES = 12;
+	private static final int SNAPSHOT_MAGIC = 0x414C4F43; // "ALOC"
+
+	private final Path snapshotPath;
+	private final FileChannel channel;
+	// volatile: the group flusher forces ranges without holding the append lock
+	private volatile MappedByteBuffer buffer;
+	private int position;
+	private int generation;
+	private long lastBatchId;
+
+	AllocationJournal(Path directory, int mappedSize) throws IOException {
+		Files.createDirectories(directory);
+		this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+		this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		int size = (int) Math.max(mappedSize, channel.size());
+		this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	}
+
+	/**
+	 * Replays the snapshot and then the journal, leaving the append position after the last valid record.
+	 *
+	 * @param onEvent receives the snapshot, then every committed event in commit order
+	 * @param onInDoubt receives the complete batches that were neither committed nor aborted
+	 * @return number of events replayed
+	 */
+	long replay(Consumer<Event> onEvent, BiConsumer<Long, List<Event>> onInDoubt) throws IOException {
+		long events = 0;
+		if (Files.exists(snapshotPath)) {
+			ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+			if (snapshot.getInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("Not an allocation snapshot: " + snapshotPath);
+			}
+			generation = snapshot.getInt();
+			int count = snapshot.getInt();
+			for (int i = 0; i < count; i++) {
+				Allocation allocation = readAllocation(snapshot);
+				onEvent.accept(new Event(allocation.getEntityId(), allocation));
+				events++;
+			}
+		}
+		Map<Long, List<Event>> prepared = new HashMap<>();
+		long batchId = 0;
+		List<Event> batch = null;
+		int remaining = 0;
+		position = 0;
+		while (true) {
+			int payloadStart = position + HEADER_BYTES;
+			if (payloadStart > buffer.capacity()) {
+				break;
+			}
+			int length = buffer.getInt(position);
+			if (length <= 0 || payloadStart + length > buffer.capacity()
+				|| buffer.getInt(position + 4) != generation) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			buffer.get(payloadStart, payload);
+			if (buffer.getInt(position + 8) != checksum(payload)) {
+				break;
+			}
+			ByteBuffer record = ByteBuffer.wrap(payload);
+			byte type = record.get();
+			if (type == PREPARE) {
+				batchId = record.getLong();
+				remaining = record.getInt();
+				batch = new ArrayList<>(remaining);
+				lastBatchId = Math.max(lastBatchId, batchId);
+			} else if (type == COMMIT || type == ABORT) {
+				List<Event> outcome = prepared.remove(record.getLong());
+				if (type == COMMIT && outcome != null) {
+					outcome.forEach(onEvent);
+					events += outcome.size();
+				}
+			} else {
+				Event event;
+				if (type == PUT) {
+					Allocation allocation = readAllocation(record);
+					event = new Event(allocation.getEntityId(), allocation);
+				} else {
+					event = new Event(new UUID(record.getLong(), record.getLong()), null);
+				}
+				if (batch == null) {
+					onEvent.accept(event);
+					events++;
+				} else {
+					batch.add(event);
+					remaining--;
+				}
+			}
+			if (batch != null && remaining == 0) {
+				prepared.put(batchId, batch);
+				batch = null;
+			}
+			position = payloadStart + length;
+		}
+		// a batch cut short was never forced, so the database cannot have committed it
+		prepared.forEach(onInDoubt);
+		return events;
+	}
+
+	/**
+	 * Highest batch id found by {@link #replay}, so new batches do not reuse the ids still in the journal.
+	 */
+	long lastBatchId() {
+		return lastBatchId;
+	}
+
+	/**
+	 * Appends the events of a transaction as one PREPARE batch. Nothing is written unless the whole
+	 * batch fits.
+	 *
+	 * @return the append position after the batch
+	 * @throws IllegalArgumentException if a property id is longer than the record format allows
+	 * @throws JournalFullException if the batch would take the journal past 2 GiB
+	 */
+	int appendBatch(long batchId, List<Event> events) throws IOException {
+		List<byte[]> payloads = new ArrayList<>(events.size() + 1);
+		payloads.add(ByteBuffer.allocate(13).put(PREPARE).putLong(batchId).putInt(events.size()).array());
+		for (Event event : events) {
+			payloads.add(event.allocation() == null ? removePayload(event.entityId()) : putPayload(event.allocation()));
+		}
+		long needed = position;
+		for (byte[] payload : payloads) {
+			needed += HEADER_BYTES + payload.length;
+		}
+		ensureCapacity(needed);
+		for (byte[] payload : payloads) {
+			write(payload);
+		}
+		return position;
+	}
+
+	/**
+	 * Appends the COMMIT or ABORT record of a batch. It need not be forced: a batch whose outcome
+	 * is lost is in doubt on replay, and settled from the database.
+	 */
+	int appendOutcome(long batchId, boolean committed) throws IOException {
+		byte[] payload = ByteBuffer.allocate(9).put(committed ? COMMIT : ABORT).putLong(batchId).array();
+		ensureCapacity((long) position + HEADER_BYTES + payload.length);
+		write(payload);
+		return position;
+	}
+
+	/**
+	 * Forces the mapped range [from, to) to the storage device. Safe to call concurrently with appends.
+	 */
+	void force(int from, int to) {
+		if (to > from) {
+			buffer.force(from, to - from);
+		}
+	}
+
+	int position() {
+		return position;
+	}
+
+	/**
+	 * Writes all live allocations to a new snapshot (fsync + atomic rename) and restarts the journal.
+	 */
+	void compact(Collection<Allocation> live) throws IOException {
+		int nextGeneration = generation + 1;
+		byte[][] properties = new byte[live.size()][];
+		int size = 12;
+		int i = 0;
+		for (Allocation allocation : live) {
+			properties[i] = propertyBytes(allocation);
+			size += allocationBytes(properties[i++]);
+		}
+		ByteBuffer snapshot = ByteBuffer.allocate(size);
+		snapshot.putInt(SNAPSHOT_MAGIC).putInt(nextGeneration).putInt(live.size());
+		i = 0;
+		for (Allocation allocation : live) {
+			writeAllocation(snapshot, allocation, properties[i++]);
+		}
+		snapshot.flip();
+
+		Path tmp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while (snapshot.hasRemaining()) {
+				out.write(snapshot);
+			}
+			out.force(true);
+		}
+		Files.move(tmp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		// Records of the old generation are now ignored on replay, no need to zero the region
+		generation = nextGeneration;
+		position = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+
+	private void ensureCapacity(long needed) throws IOException {
+		if (needed > buffer.capacity()) {
+			if (needed > Integer.MAX_VALUE) {
+				// a MappedByteBuffer is int-indexed
+				throw new JournalFullException("Allocation journal is full (" + position + " bytes), compaction required");
+			}
+			buffer.force();
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+				Math.min(Integer.MAX_VALUE, Math.max(needed, buffer.capacity() * 2L)));
+		}
+	}
+
+	// callers reserve the room first with ensureCapacity
+	private void write(byte[] payload) {
+		buffer.putInt(position, payload.length);
+		buffer.putInt(position + 4, generation);
+		buffer.putInt(position + 8, checksum(payload));
+		buffer.put(position + HEADER_BYTES, payload);
+		position += HEADER_BYTES + payload.length;
+	}
+
+	private static byte[] putPayload(Allocation allocation) {
+		byte[] property = propertyBytes(allocation);
+		ByteBuffer payload = ByteBuffer.allocate(1 + allocationBytes(property));
+		payload.put(PUT);
+		writeAllocation(payload, allocation, property);
+		return payload.array();
+	}
+
+	private static byte[] removePayload(UUID entityId) {
+		ByteBuffer payload = ByteBuffer.allocate(17);
+		payload.put(REMOVE);
+		payload.putLong(entityId.getMostSignificantBits());
+		payload.putLong(entityId.getLeastSignificantBits());
+		return payload.array();
+	}
+
+	private static byte[] propertyBytes(Allocation allocation) {
+		byte[] property = allocation.getPropertyId().getBytes(StandardCharsets.UTF_8);
+		if (property.length > MAX_PROPERTY_BYTES) {
+			throw new IllegalArgumentException("Property id longer than " + MAX_PROPERTY_BYTES + " bytes cannot be journaled");
+		}
+		return property;
+	}
+
+	private static int allocationBytes(byte[] property) {
+		return 16 + 16 + 1 + 1 + 8 + 8 + 2 + property.length;
+	}
+
+	private static void writeAllocation(ByteBuffer out, Allocation allocation, byte[] property) {
+		out.putLong(allocation.getId().getMostSignificantBits());
+		out.putLong(allocation.getId().getLeastSignificantBits());
+		out.putLong(allocation.getEntityId().getMostSignificantBits());
+		out.putLong(allocation.getEntityId().getLeastSignificantBits());
+		out.put((byte) allocation.getType().ordinal());
+		out.put((byte) allocation.getStatus().ordinal());
+		out.putLong(allocation.getStartDate().toEpochDay());
+		out.putLong(allocation.getEndDate().toEpochDay());
+		out.putShort((short) property.length);
+		out.put(property);
+	}
+
+	private static Allocation readAllocation(ByteBuffer in) {
+		UUID id = new UUID(in.getLong(), in.getLong());
+		UUID entityId = new UUID(in.getLong(), in.getLong());
+		AllocationType type = AllocationType.values()[in.get()];
+		AllocationStatus status = AllocationStatus.values()[in.get()];
+		LocalDate start = LocalDate.ofEpochDay(in.getLong());
+		LocalDate end = LocalDate.ofEpochDay(in.getLong());
+		byte[] property = new byte[Short.toUnsignedInt(in.getShort())];
+		in.get(property);
+		return Allocation.builder()
+			.id(id)
+			.propertyId(new String(property, StandardCharsets.UTF_8))
+			.startDate(start)
+			.endDate(end)
+			.type(type)
+			.status(status)
+			.entityId(entityId)
+			.build();
+	}
+
+	/**
+	 * One change of an entity's allocation; a null allocation removes it.
+	 */
+	record Event(UUID entityId, Allocation allocation) {}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+}
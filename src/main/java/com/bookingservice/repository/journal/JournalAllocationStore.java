@@ -0,0 +1,575 @@
+package com.bookingservice.repository.journal;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.journal.AllocationJournal.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * AllocationStore that keeps allocations in memory and persists every change to an
+ * append-only memory-mapped journal (no JPA on the write path).
+ * <p>
+ * State is rebuilt on startup by replaying the latest snapshot plus the journal. A background
+ * task compacts live allocations into a new snapshot every {@code snapshot-interval}.
+ * <p>
+ * Inside a Spring transaction, changes stay private to it: its own reads see them, other
+ * transactions only once it commits. Before the database commits, they are appended to the journal
+ * as one prepared batch and made durable; after it, they are applied to the shared state and the
+ * batch is marked committed, or aborted on rollback. Both steps run under the locks of the
+ * properties the batch touches, so batches of one property publish in the order they are
+ * journaled. A crash between the journal and the database commit leaves the batch in doubt:
+ * {@link #recover} settles it from the bookings and blocks at startup. Outside a transaction, each
+ * call is its own batch.
+ * <p>
+ * Like the JPA store, this does not serialize a check against the write that follows it; the
+ * partitioned execution mode does.
+ */
+public class JournalAllocationStore implements AllocationStore, DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(JournalAllocationStore.class);
+
+	private static final int PROPERTY_LOCKS = 64;
+
+	private final AllocationJournal journal;
+	private final JournalProperties.Durability durability;
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final ReentrantLock[] propertyLocks = new ReentrantLock[PROPERTY_LOCKS];
+	private final Map<UUID, Allocation> byEntityId = new ConcurrentHashMap<>();
+	private final Map<String, Map<UUID, Allocation>> byProperty = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService maintenance;
+
+	// Batches journaled but not yet committed or aborted, guarded by writeLock; carried over by compaction
+	private final Map<Long, List<Event>> prepared = new LinkedHashMap<>();
+	private final Set<Long> inDoubt = new HashSet<>();
+	private long lastBatchId;
+
+	// Group commit bookkeeping, guarded by flushMonitor
+	private final Object flushMonitor = new Object();
+	private long appendedEvents;
+	private long flushedEvents;
+	private int flushedPosition;
+
+	public JournalAllocationStore(JournalProperties properties) throws IOException {
+		if (properties.mappedSize().toBytes() > Integer.MAX_VALUE) {
+			throw new IllegalStateException("booking.allocation.journal.mapped-size must be below 2GB");
+		}
+		for (int i = 0; i < PROPERTY_LOCKS; i++) {
+			propertyLocks[i] = new ReentrantLock();
+		}
+		this.durability = properties.durability();
+		this.journal = new AllocationJournal(properties.directory(), (int) properties.mappedSize().toBytes());
+
+		long started = System.nanoTime();
+		long events = journal.replay(this::apply, (batchId, batch) -> {
+			prepared.put(batchId, batch);
+			inDoubt.add(batchId);
+		});
+		lastBatchId = journal.lastBatchId();
+		flushedPosition = journal.position();
+		log.info("Replayed {} allocation events ({} live, {} batches in doubt) from {} in {} ms", events, byEntityId.size(),
+			inDoubt.size(), properties.directory(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+		this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "allocation-journal");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (durability == JournalProperties.Durability.GROUP) {
+			long interval = properties.groupCommitInterval().toNanos();
+			maintenance.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.NANOSECONDS);
+		}
+		long snapshotInterval = properties.snapshotInterval().toMillis();
+		maintenance.scheduleWithFixedDelay(this::snapshotQuietly, snapshotInterval, snapshotInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public List<Allocation> findOverlappingAllocations(String propertyId, AllocationStatus status, LocalDate startDate, LocalDate endDate) {
+		Map<UUID, Allocation> committed = byProperty.getOrDefault(propertyId, Map.of());
+		Transaction tx = currentTransaction();
+		Stream<Allocation> allocations = tx == null
+			? committed.values().stream()
+			: Stream.concat(
+				committed.values().stream().filter(a -> !tx.changes.containsKey(a.getEntityId())),
+				tx.changes.values().stream().map(Event::allocation)
+					.filter(a -> a != null && a.getPropertyId().equals(propertyId)));
+		return allocations
+			.filter(a -> a.getStatus() == status
+				&& !a.getStartDate().isAfter(endDate)
+				&& !a.getEndDate().isBefore(startDate))
+			.map(JournalAllocationStore::copy)
+			.toList();
+	}
+
+	@Override
+	public Optional<Allocation> findByEntityId(UUID entityId) {
+		return Optional.ofNullable(current(entityId)).map(JournalAllocationStore::copy);
+	}
+
+	/**
+	 * Reads committed allocations only.
+	 */
+	@Override
+	public List<String> findPropertiesWithAllocationsFrom(AllocationStatus status, LocalDate from) {
+		return byProperty.entrySet().stream()
+			.filter(e -> e.getValue().values().stream()
+				.anyMatch(a -> a.getStatus() == status && !a.getEndDate().isBefore(from)))
+			.map(Map.Entry::getKey)
+			.toList();
+	}
+
+	@Override
+	public Allocation save(Allocation allocation) {
+		stage(List.of(new Event(allocation.getEntityId(), copy(allocation))));
+		return allocation;
+	}
+
+	@Override
+	public void saveAll(Collection<Allocation> allocations) {
+		stage(allocations.stream().map(a -> new Event(a.getEntityId(), copy(a))).toList());
+	}
+
+	@Override
+	public void updateByEntityId(UUID entityId, String propertyId, LocalDate startDate, LocalDate endDate) {
+		Allocation current = current(entityId);
+		if (current == null) {
+			return;
+		}
+		Allocation updated = copy(current);
+		updated.setPropertyId(propertyId);
+		updated.setStartDate(startDate);
+		updated.setEndDate(endDate);
+		stage(List.of(new Event(entityId, updated)));
+	}
+
+	@Override
+	public void deleteByEntityId(UUID entityId) {
+		if (current(entityId) != null) {
+			stage(List.of(new Event(entityId, null)));
+		}
+	}
+
+	@Override
+	public int deleteByEntityIds(Collection<UUID> entityIds) {
+		List<Event> changes = entityIds.stream()
+			.filter(entityId -> current(entityId) != null)
+			.map(entityId -> new Event(entityId, null))
+			.toList();
+		stage(changes);
+		return changes.size();
+	}
+
+	@Override
+	public void updateStatusByEntityIdAndType(UUID entityId, AllocationType type, AllocationStatus status) {
+		Allocation current = current(entityId);
+		if (current == null || current.getType() != type) {
+			return;
+		}
+		Allocation updated = copy(current);
+		updated.setStatus(status);
+		stage(List.of(new Event(entityId, updated)));
+	}
+
+	@Override
+	public int updateStatusByEntityIds(String propertyId, Collection<UUID> entityIds, AllocationStatus newStatus) {
+		List<Event> changes = new ArrayList<>();
+		for (UUID entityId : entityIds) {
+			Allocation current = current(entityId);
+			if (current != null) {
+				Allocation updated = copy(current);
+				updated.setStatus(newStatus);
+				changes.add(new Event(entityId, updated));
+			}
+		}
+		stage(changes);
+		return changes.size();
+	}
+
+	/**
+	 * Settles the batches left in doubt by a crash between the journal and the database commit:
+	 * every allocation they touched is rewritten to match its booking or block, or removed if that
+	 * no longer exists.
+	 *
+	 * @param expected the allocation the database implies for one last known here, empty if none
+	 * @return the number of allocations settled
+	 */
+	public int recover(Function<Allocation, Optional<Allocation>> expected) {
+		List<Long> batches;
+		Map<UUID, Allocation> known = new LinkedHashMap<>();
+		writeLock.lock();
+		try {
+			batches = List.copyOf(inDoubt);
+			for (Long batchId : batches) {
+				for (Event event : prepared.get(batchId)) {
+					Allocation allocation = event.allocation() != null ? event.allocation() : byEntityId.get(event.entityId());
+					if (allocation != null) {
+						known.put(event.entityId(), allocation);
+					}
+				}
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		if (batches.isEmpty()) {
+			return 0;
+		}
+		List<Event> settled = known.values().stream()
+			.map(allocation -> new Event(allocation.getEntityId(),
+				expected.apply(copy(allocation)).map(JournalAllocationStore::copy).orElse(null)))
+			.toList();
+		// committed before the aborts: if this is cut short, the batches are still in doubt next time
+		stage(settled);
+		writeLock.lock();
+		try {
+			for (Long batchId : batches) {
+				journal.appendOutcome(batchId, false);
+				prepared.remove(batchId);
+				inDoubt.remove(batchId);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to settle allocation batches in doubt", ex);
+		} finally {
+			writeLock.unlock();
+		}
+		log.warn("Settled {} allocations of {} journal batches left in doubt from the database", settled.size(), batches.size());
+		return settled.size();
+	}
+
+	/**
+	 * Compacts live allocations into a snapshot and restarts the journal.
+	 */
+	public void snapshot() throws IOException {
+		writeLock.lock();
+		try {
+			long started = System.nanoTime();
+			Collection<Allocation> live = List.copyOf(byEntityId.values());
+			journal.compact(live);
+			// batches still waiting for their outcome move to the new journal
+			for (Map.Entry<Long, List<Event>> batch : prepared.entrySet()) {
+				journal.appendBatch(batch.getKey(), batch.getValue());
+			}
+			journal.force(0, journal.position());
+			synchronized (flushMonitor) {
+				// Everything appended so far is durable through the snapshot
+				flushedEvents = appendedEvents;
+				flushedPosition = journal.position();
+				flushMonitor.notifyAll();
+			}
+			log.info("Compacted {} allocations into a snapshot in {} ms", live.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		maintenance.shutdownNow();
+		writeLock.lock();
+		try {
+			journal.close();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Latest state of an allocation as seen by the caller: its transaction's own change, if any,
+	 * else the committed one.
+	 */
+	private Allocation current(UUID entityId) {
+		Transaction tx = currentTransaction();
+		if (tx != null) {
+			Event change = tx.changes.get(entityId);
+			if (change != null) {
+				return change.allocation();
+			}
+		}
+		return byEntityId.get(entityId);
+	}
+
+	private Transaction currentTransaction() {
+		return TransactionSynchronizationManager.isSynchronizationActive()
+			? (Transaction) TransactionSynchronizationManager.getResource(this)
+			: null;
+	}
+
+	private void stage(List<Event> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			Transaction alone = new Transaction();
+			alone.add(changes);
+			try {
+				alone.beforeCommit(false);
+			} catch (RuntimeException ex) {
+				alone.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+				throw ex;
+			}
+			alone.afterCommit();
+			return;
+		}
+		Transaction tx = currentTransaction();
+		if (tx == null) {
+			tx = new Transaction();
+			TransactionSynchronizationManager.bindResource(this, tx);
+			TransactionSynchronizationManager.registerSynchronization(tx);
+		}
+		tx.add(changes);
+	}
+
+	/**
+	 * Journals a batch and waits until it is durable.
+	 *
+	 * @return the batch id
+	 */
+	private long prepare(List<Event> events) {
+		long batchId;
+		long event;
+		writeLock.lock();
+		try {
+			batchId = ++lastBatchId;
+			int from = journal.position();
+			int to = journal.appendBatch(batchId, events);
+			prepared.put(batchId, events);
+			if (durability == JournalProperties.Durability.PER_WRITE) {
+				journal.force(from, to);
+			}
+			synchronized (flushMonitor) {
+				appendedEvents += events.size() + 1;
+				event = appendedEvents;
+				if (durability == JournalProperties.Durability.PER_WRITE) {
+					flushedEvents = event;
+					flushedPosition = to;
+				}
+			}
+		} catch (JournalFullException ex) {
+			// compaction restarts the journal once this write releases the lock
+			maintenance.execute(this::snapshotQuietly);
+			throw new UncheckedIOException(ex.getMessage(), ex);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to append allocation events", ex);
+		} finally {
+			writeLock.unlock();
+		}
+		if (durability == JournalProperties.Durability.GROUP) {
+			awaitFlush(event);
+		}
+		return batchId;
+	}
+
+	/**
+	 * Applies a committed batch to the shared state, or drops an aborted one, and journals the outcome.
+	 */
+	private void complete(long batchId, List<Event> events, boolean committed) {
+		writeLock.lock();
+		try {
+			if (committed) {
+				events.forEach(this::apply);
+			}
+			prepared.remove(batchId);
+			journal.appendOutcome(batchId, committed);
+			synchronized (flushMonitor) {
+				appendedEvents++;
+			}
+		} catch (IOException ex) {
+			// the state above is right; a lost outcome only leaves the batch in doubt until the next snapshot
+			log.warn("Could not journal the outcome of allocation batch {}, compacting", batchId, ex);
+			maintenance.execute(this::snapshotQuietly);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private void awaitFlush(long event) {
+		synchronized (flushMonitor) {
+			while (flushedEvents < event) {
+				try {
+					flushMonitor.wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while waiting for journal flush", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Group commit: one force covers every event appended since the previous flush.
+	 */
+	private void flush() {
+		int from;
+		int to;
+		long events;
+		writeLock.lock();
+		try {
+			synchronized (flushMonitor) {
+				if (flushedEvents == appendedEvents) {
+					return;
+				}
+				from = flushedPosition;
+				events = appendedEvents;
+			}
+			to = journal.position();
+		} finally {
+			writeLock.unlock();
+		}
+		// Appenders keep going while the range is forced
+		journal.force(from, to);
+		synchronized (flushMonitor) {
+			// A snapshot taken meanwhile already covers these events and restarted the journal
+			if (events > flushedEvents) {
+				flushedEvents = events;
+				flushedPosition = to;
+			}
+			flushMonitor.notifyAll();
+		}
+	}
+
+	private void snapshotQuietly() {
+		try {
+			snapshot();
+		} catch (IOException | RuntimeException ex) {
+			log.warn("Allocation snapshot failed, journal keeps growing", ex);
+		}
+	}
+
+	private void apply(Event event) {
+		if (event.allocation() == null) {
+			Allocation previous = byEntityId.remove(event.entityId());
+			if (previous != null) {
+				byProperty.get(previous.getPropertyId()).remove(event.entityId());
+			}
+			return;
+		}
+		Allocation allocation = event.allocation();
+		Allocation previous = byEntityId.put(allocation.getEntityId(), allocation);
+		if (previous != null && !previous.getPropertyId().equals(allocation.getPropertyId())) {
+			byProperty.get(previous.getPropertyId()).remove(allocation.getEntityId());
+		}
+		byProperty.computeIfAbsent(allocation.getPropertyId(), k -> new ConcurrentHashMap<>())
+			.put(allocation.getEntityId(), allocation);
+	}
+
+	private static Allocation copy(Allocation a) {
+		return Allocation.builder()
+			.id(a.getId())
+			.propertyId(a.getPropertyId())
+			.startDate(a.getStartDate())
+			.endDate(a.getEndDate())
+			.type(a.getType())
+			.status(a.getStatus())
+			.entityId(a.getEntityId())
+			.build();
+	}
+
+	/**
+	 * Changes of one transaction, latest per entity, and the properties they touch (both sides of a move).
+	 */
+	private class Transaction implements TransactionSynchronization {
+		private final Map<UUID, Event> changes = new LinkedHashMap<>();
+		private final Set<String> properties = new HashSet<>();
+		private final List<ReentrantLock> held = new ArrayList<>();
+		private List<Event> batch;
+		private long batchId;
+		private boolean completed;
+
+		void add(List<Event> events) {
+			for (Event event : events) {
+				Allocation previous = current(event.entityId());
+				if (previous != null) {
+					properties.add(previous.getPropertyId());
+				}
+				if (event.allocation() != null) {
+					properties.add(event.allocation().getPropertyId());
+				}
+				changes.put(event.entityId(), event);
+			}
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			if (changes.isEmpty()) {
+				return;
+			}
+			// stripe order, so two batches never wait on each other
+			Set<Integer> stripes = new TreeSet<>();
+			properties.forEach(propertyId -> stripes.add(Math.floorMod(propertyId.hashCode(), PROPERTY_LOCKS)));
+			for (int stripe : stripes) {
+				propertyLocks[stripe].lock();
+				held.add(propertyLocks[stripe]);
+			}
+			List<Event> events = List.copyOf(changes.values());
+			batchId = prepare(events);
+			batch = events;
+		}
+
+		// before any other synchronization, so listeners reacting to the commit see the allocations
+		@Override
+		public int getOrder() {
+			return HIGHEST_PRECEDENCE;
+		}
+
+		@Override
+		public void afterCommit() {
+			finish(true);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(JournalAllocationStore.this);
+			finish(status == STATUS_COMMITTED);
+		}
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResourceIfPossible(JournalAllocationStore.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(JournalAllocationStore.this, this);
+		}
+
+		private void finish(boolean committed) {
+			if (completed) {
+				return;
+			}
+			completed = true;
+			try {
+				if (batch != null) {
+					complete(batchId, batch, committed);
+				}
+			} finally {
+				held.forEach(ReentrantLock::unlock);
+			}
+		}
+	}
+}
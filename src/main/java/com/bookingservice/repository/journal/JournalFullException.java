@@ -0,0 +1,14 @@
+package com.bookingservice.repository.journal;
+
+import java.io.IOException;
+
+/**
+ * Raised when an event does not fit in the largest region a journal file can map (2 GiB); appends
+ * fail until a compaction restarts the journal.
+ */
+public class JournalFullException extends IOException {
+
+	public JournalFullException(String message) {
+		super(message);
+	}
+}
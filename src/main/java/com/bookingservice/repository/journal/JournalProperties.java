@@ -0,0 +1,37 @@
+package com.bookingservice.repository.journal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the journal allocation store ({@code booking.allocation.store=journal}).
+ *
+ * @param directory where the journal and snapshot files live
+ * @param mappedSize initial size of the memory-mapped journal region (grows by doubling)
+ * @param durability when appended events are forced to disk
+ * @param groupCommitInterval how often the group flusher forces pending events
+ * @param snapshotInterval how often live allocations are compacted into a snapshot
+ */
+@ConfigurationProperties(prefix = "booking.allocation.journal")
+public record JournalProperties(
+	@DefaultValue("data/journal") Path directory,
+	@DefaultValue("64MB") DataSize mappedSize,
+	@DefaultValue("group") Durability durability,
+	@DefaultValue("2ms") Duration groupCommitInterval,
+	@DefaultValue("10m") Duration snapshotInterval
+) {
+	public enum Durability {
+		/**
+		 * Force every event before the write returns.
+		 */
+		PER_WRITE,
+		/**
+		 * Writers wait for a shared flush that covers all events appended since the last one.
+		 */
+		GROUP
+	}
+}
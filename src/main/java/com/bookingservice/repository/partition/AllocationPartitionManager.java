@@ -0,0 +1,100 @@
+package com.bookingservice.repository.partition;
+
+import com.bookingservice.model.Allocation;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps monthly partitions of the PostgreSQL {@code allocations} table ahead of time and,
+ * when enabled, drops partitions that can no longer hold a live allocation ({@code DROP TABLE},
+ * O(1) whatever the row count). Runs at startup and then every {@code check-interval}.
+ * <p>
+ * Rows whose month has no partition yet land in {@code allocations_default}; keep
+ * {@code months-ahead} beyond the booking horizon so that partition stays empty.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.allocation.partitioning.enabled", havingValue = "true")
+public class AllocationPartitionManager {
+
+	private static final Logger log = LoggerFactory.getLogger(AllocationPartitionManager.class);
+
+	private static final String LIST_PARTITIONS = """
+		select c.relname from pg_inherits i
+		join pg_class c on c.oid = i.inhrelid
+		join pg_class p on p.oid = i.inhparent
+		where p.relname = 'allocations'
+	""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final AllocationPartitions partitions;
+	private final PartitioningProperties properties;
+	private final EntityManagerFactory entityManagerFactory;
+
+	public AllocationPartitionManager(JdbcTemplate jdbcTemplate,
+	                                  AllocationPartitions partitions,
+	                                  PartitioningProperties properties,
+	                                  EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.partitions = partitions;
+		this.properties = properties;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Scheduled(fixedDelayString = "${booking.allocation.partitioning.check-interval:PT24H}")
+	public void maintain() {
+		try {
+			maintain(LocalDate.now());
+		} catch (RuntimeException ex) {
+			log.warn("Allocation partition maintenance failed", ex);
+		}
+	}
+
+	void maintain(LocalDate today) {
+		List<YearMonth> existing = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class).stream()
+			.map(AllocationPartitions::monthOf)
+			.filter(Objects::nonNull)
+			.toList();
+
+		YearMonth current = YearMonth.from(today);
+		for (YearMonth m = current; !m.isAfter(current.plusMonths(properties.monthsAhead())); m = m.plusMonths(1)) {
+			if (!existing.contains(m)) {
+				create(m);
+			}
+		}
+
+		if (properties.dropOld()) {
+			LocalDate keepFrom = today.minusMonths(properties.retainMonths());
+			List<YearMonth> expired = existing.stream()
+				.filter(m -> partitions.lastPossibleDay(m).isBefore(keepFrom))
+				.toList();
+			expired.forEach(this::drop);
+			if (!expired.isEmpty()) {
+				// the rows went with the table, behind Hibernate's back
+				entityManagerFactory.getCache().evict(Allocation.class);
+			}
+		}
+	}
+
+	private void create(YearMonth month) {
+		String name = AllocationPartitions.partitionName(month);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF allocations"
+			+ " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+		log.info("Created allocation partition {}", name);
+	}
+
+	private void drop(YearMonth month) {
+		String name = AllocationPartitions.partitionName(month);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+		log.info("Dropped allocation partition {}", name);
+	}
+}
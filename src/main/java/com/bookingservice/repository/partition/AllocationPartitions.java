@@ -0,0 +1,90 @@
+package com.bookingservice.repository.partition;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes which monthly {@code startDate} ranges a date-range query can touch.
+ * <p>
+ * Allocations span at most {@code booking.allocation.max-span-days} days (enforced by
+ * AllocationPolicy), so anything overlapping {@code [start, end]} started no earlier than
+ * {@code start - maxSpan}. Adding that bound to overlap queries lets PostgreSQL prune every
+ * monthly partition outside {@code [start - maxSpan, end]}; on unpartitioned tables it narrows
+ * the (propertyId, status, startDate) index scan the same way.
+ */
+@Component
+public class AllocationPartitions {
+
+	private static final String PREFIX = "allocations_p";
+
+	private final int maxSpanDays;
+
+	public AllocationPartitions(@Value("${booking.allocation.max-span-days:366}") int maxSpanDays) {
+		if (maxSpanDays < 1) {
+			throw new IllegalArgumentException("booking.allocation.max-span-days must be positive");
+		}
+		this.maxSpanDays = maxSpanDays;
+	}
+
+	public int maxSpanDays() {
+		return maxSpanDays;
+	}
+
+	/**
+	 * @return true if an allocation over {@code [startDate, endDate]} respects the maximum span
+	 */
+	public boolean withinMaxSpan(LocalDate startDate, LocalDate endDate) {
+		return !endDate.isAfter(startDate.plusDays(maxSpanDays));
+	}
+
+	/**
+	 * Earliest start date of an allocation that can overlap a range beginning at {@code start}.
+	 */
+	public LocalDate earliestOverlappingStart(LocalDate start) {
+		return start.minusDays(maxSpanDays);
+	}
+
+	/**
+	 * Months whose partitions a query for {@code [start, end]} has to read, oldest first.
+	 */
+	public List<YearMonth> monthsToScan(LocalDate start, LocalDate end) {
+		List<YearMonth> months = new ArrayList<>();
+		YearMonth last = YearMonth.from(end);
+		for (YearMonth m = YearMonth.from(earliestOverlappingStart(start)); !m.isAfter(last); m = m.plusMonths(1)) {
+			months.add(m);
+		}
+		return months;
+	}
+
+	/**
+	 * Latest day an allocation starting in {@code month} can still occupy.
+	 */
+	public LocalDate lastPossibleDay(YearMonth month) {
+		return month.atEndOfMonth().plusDays(maxSpanDays);
+	}
+
+	public static String partitionName(YearMonth month) {
+		return String.format("%s%04d_%02d", PREFIX, month.getYear(), month.getMonthValue());
+	}
+
+	/**
+	 * @return the month of a partition created by {@link #partitionName}, or null for other tables
+	 */
+	public static YearMonth monthOf(String partitionName) {
+		if (!partitionName.startsWith(PREFIX) || partitionName.length() != PREFIX.length() + 7) {
+			return null;
+		}
+		try {
+			int year = Integer.parseInt(partitionName.substring(PREFIX.length(), PREFIX.length() + 4));
+			int month = Integer.parseInt(partitionName.substring(PREFIX.length() + 5));
+			return YearMonth.of(year, month);
+		} catch (RuntimeException ex) {
+			return null;
+		}
+	}
+}
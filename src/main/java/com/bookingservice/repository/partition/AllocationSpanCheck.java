@@ -0,0 +1,65 @@
+package com.bookingservice.repository.partition;
+
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refuses to start when a stored booking or block is longer than
+ * {@code booking.allocation.max-span-days}.
+ * <p>
+ * Overlap queries only read allocations starting at or after {@code start - maxSpan}, so a longer
+ * row written before the bound existed (or before it was lowered) would be invisible to them and
+ * its dates could be booked twice. Runs ahead of the other startup runners, so the instance never
+ * takes traffic with such rows; raise the setting above the longest stored range to start.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AllocationSpanCheck implements ApplicationRunner {
+
+	private static final int EXAMPLES = 10;
+
+	private final AllocationPartitions partitions;
+	private final BookingRepository bookingRepository;
+	private final BlockRepository blockRepository;
+
+	public AllocationSpanCheck(AllocationPartitions partitions,
+	                           BookingRepository bookingRepository,
+	                           BlockRepository blockRepository) {
+		this.partitions = partitions;
+		this.bookingRepository = bookingRepository;
+		this.blockRepository = blockRepository;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		check();
+	}
+
+	/**
+	 * @throws IllegalStateException if any stored booking or block exceeds the maximum span
+	 */
+	public void check() {
+		int maxSpanDays = partitions.maxSpanDays();
+		List<UUID> bookings = bookingRepository.findIdsLongerThan(maxSpanDays, PageRequest.of(0, EXAMPLES));
+		List<UUID> blocks = blockRepository.findIdsLongerThan(maxSpanDays, PageRequest.of(0, EXAMPLES));
+		if (bookings.isEmpty() && blocks.isEmpty()) {
+			return;
+		}
+		List<String> examples = new ArrayList<>();
+		bookings.forEach(id -> examples.add("booking " + id));
+		blocks.forEach(id -> examples.add("block " + id));
+		throw new IllegalStateException("Stored allocations are longer than booking.allocation.max-span-days="
+			+ maxSpanDays + " and would be missed by overlap checks (e.g. " + String.join(", ", examples)
+			+ "); raise max-span-days above the longest stored range");
+	}
+}
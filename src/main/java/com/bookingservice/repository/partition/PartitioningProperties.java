@@ -0,0 +1,22 @@
+package com.bookingservice.repository.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Monthly partition maintenance for the PostgreSQL {@code allocations} table
+ * ({@code booking.allocation.partitioning}, see db/postgres/allocations-partitioned.sql).
+ *
+ * @param enabled create (and optionally drop) monthly partitions
+ * @param monthsAhead partitions are kept created this many months past the current one
+ * @param dropOld drop partitions whose allocations all ended before {@code retainMonths} ago
+ * @param retainMonths months of ended allocations kept when {@code dropOld} is set
+ */
+@ConfigurationProperties(prefix = "booking.allocation.partitioning")
+public record PartitioningProperties(
+	@DefaultValue("false") boolean enabled,
+	@DefaultValue("24") int monthsAhead,
+	@DefaultValue("false") boolean dropOld,
+	@DefaultValue("1") int retainMonths
+) {
+}
@@ -0,0 +1,45 @@
+package com.bookingservice.repository.reactive;
+
+import com.bookingservice.model.Allocatable;
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code allocations} table (the schema is owned by the JPA entity {@link Allocation}).
+ */
+@Table("allocations")
+public record AllocationRow(
+	@Id UUID id,
+	String propertyId,
+	LocalDate startDate,
+	LocalDate endDate,
+	AllocationType type,
+	AllocationStatus status,
+	UUID entityId
+) {
+	/**
+	 * New ACTIVE allocation protecting the dates of a Booking or Block.
+	 */
+	public static AllocationRow activeFor(Allocatable allocatable, UUID entityId) {
+		return new AllocationRow(UUID.randomUUID(), allocatable.getPropertyId(), allocatable.getStartDate(),
+			allocatable.getEndDate(), allocatable.getAllocationType(), AllocationStatus.ACTIVE, entityId);
+	}
+
+	public Allocation toAllocation() {
+		return Allocation.builder()
+			.id(id)
+			.propertyId(propertyId)
+			.startDate(startDate)
+			.endDate(endDate)
+			.type(type)
+			.status(status)
+			.entityId(entityId)
+			.build();
+	}
+}
@@ -0,0 +1,32 @@
+package com.bookingservice.repository.reactive;
+
+import com.bookingservice.model.Block;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code blocks} table (the schema is owned by the JPA entity {@link Block}).
+ */
+@Table("blocks")
+public record BlockRow(
+	@Id UUID id,
+	String propertyId,
+	LocalDate startDate,
+	LocalDate endDate
+) {
+	public static BlockRow from(Block block) {
+		return new BlockRow(block.getId(), block.getPropertyId(), block.getStartDate(), block.getEndDate());
+	}
+
+	public Block toBlock() {
+		return Block.builder()
+			.id(id)
+			.propertyId(propertyId)
+			.startDate(startDate)
+			.endDate(endDate)
+			.build();
+	}
+}
@@ -0,0 +1,44 @@
+package com.bookingservice.repository.reactive;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.model.GuestKeys;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code bookings} table (the schema is owned by the JPA entity {@link Booking}).
+ */
+@Table("bookings")
+public record BookingRow(
+	@Id UUID id,
+	String propertyId,
+	String guestName,
+	String guestEmail,
+	LocalDate startDate,
+	LocalDate endDate,
+	BookingStatus status,
+	String guestEmailKey,
+	String guestNameKey
+) {
+	public static BookingRow from(Booking booking) {
+		return new BookingRow(booking.getId(), booking.getPropertyId(), booking.getGuestName(), booking.getGuestEmail(),
+			booking.getStartDate(), booking.getEndDate(), booking.getStatus(),
+			GuestKeys.email(booking.getGuestEmail()), GuestKeys.name(booking.getGuestName()));
+	}
+
+	public Booking toBooking() {
+		return Booking.builder()
+			.id(id)
+			.propertyId(propertyId)
+			.guestName(guestName)
+			.guestEmail(guestEmail)
+			.startDate(startDate)
+			.endDate(endDate)
+			.status(status)
+			.build();
+	}
+}
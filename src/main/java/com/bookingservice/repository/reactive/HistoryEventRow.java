@@ -0,0 +1,44 @@
+package com.bookingservice.repository.reactive;
+
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.HistoryEvent;
+import com.bookingservice.model.HistoryEventType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code history_events} table (the schema is owned by the JPA entity {@link HistoryEvent}).
+ * Rows are only ever appended; the id is assigned by the database.
+ */
+@Table("history_events")
+public record HistoryEventRow(
+	@Id Long id,
+	UUID entityId,
+	AllocationType entityType,
+	HistoryEventType eventType,
+	String propertyId,
+	LocalDate startDate,
+	LocalDate endDate,
+	AllocationStatus status,
+	String guestName,
+	String guestEmail,
+	Instant occurredAt
+) {
+	public static HistoryEventRow of(HistoryEventType type, Booking booking) {
+		return new HistoryEventRow(null, booking.getId(), AllocationType.BOOKING, type, booking.getPropertyId(),
+			booking.getStartDate(), booking.getEndDate(), AllocationStatus.valueOf(booking.getStatus().name()),
+			booking.getGuestName(), booking.getGuestEmail(), Instant.now());
+	}
+
+	public static HistoryEventRow of(HistoryEventType type, Block block) {
+		return new HistoryEventRow(null, block.getId(), AllocationType.BLOCK, type, block.getPropertyId(),
+			block.getStartDate(), block.getEndDate(), AllocationStatus.ACTIVE, null, null, Instant.now());
+	}
+}
@@ -0,0 +1,82 @@
+package com.bookingservice.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link com.bookingservice.repository.AllocationRepository}, with the
+ * same overlap query. Enum values are bound by name and cast, see {@link ReactiveBookingRepository}.
+ */
+public interface ReactiveAllocationRepository extends R2dbcRepository<AllocationRow, UUID> {
+
+	@Query("""
+		select * from allocations
+		where property_id = :propertyId
+		  and status = cast(:status as varchar(32))
+		  and start_date >= :minStartDate
+		  and start_date <= :endDate
+		  and end_date >= :startDate
+	""")
+	Flux<AllocationRow> findOverlappingAllocations(
+		@Param("propertyId") String propertyId,
+		@Param("status") String status,
+		@Param("minStartDate") LocalDate minStartDate,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying
+	@Query("""
+		insert into allocations (id, property_id, start_date, end_date, type, status, entity_id)
+		values (:id, :propertyId, :startDate, :endDate, cast(:type as varchar(32)), cast(:status as varchar(32)), :entityId)
+	""")
+	Mono<Integer> insert(
+		@Param("id") UUID id,
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate,
+		@Param("type") String type,
+		@Param("status") String status,
+		@Param("entityId") UUID entityId
+	);
+
+	@Modifying
+	@Query("""
+		update allocations
+		set property_id = :propertyId, start_date = :startDate, end_date = :endDate
+		where entity_id = :entityId
+	""")
+	Mono<Integer> updateByEntityId(
+		@Param("entityId") UUID entityId,
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying
+	@Query("""
+		update allocations set status = cast(:status as varchar(32))
+		where entity_id = :entityId and type = cast(:type as varchar(32))
+	""")
+	Mono<Integer> updateStatusByEntityIdAndType(
+		@Param("entityId") UUID entityId,
+		@Param("type") String type,
+		@Param("status") String status
+	);
+
+	@Modifying
+	@Query("delete from allocations where entity_id = :entityId")
+	Mono<Integer> deleteByEntityId(@Param("entityId") UUID entityId);
+
+	default Mono<Integer> insert(AllocationRow row) {
+		return insert(row.id(), row.propertyId(), row.startDate(), row.endDate(), row.type().name(),
+			row.status().name(), row.entityId());
+	}
+}
@@ -0,0 +1,57 @@
+package com.bookingservice.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Non-blocking access to {@code blocks} for the reactive API. Ids are assigned by the service.
+ */
+public interface ReactiveBlockRepository extends R2dbcRepository<BlockRow, UUID> {
+
+	@Query("""
+		select * from blocks
+		where property_id = :propertyId
+		  and start_date >= :minStartDate
+		  and start_date <= :endDate
+		  and end_date >= :startDate
+	""")
+	Flux<BlockRow> findOverlappingBlocks(
+		@Param("propertyId") String propertyId,
+		@Param("minStartDate") LocalDate minStartDate,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying
+	@Query("insert into blocks (id, property_id, start_date, end_date) values (:id, :propertyId, :startDate, :endDate)")
+	Mono<Integer> insert(
+		@Param("id") UUID id,
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying
+	@Query("update blocks set property_id = :propertyId, start_date = :startDate, end_date = :endDate, version = version + 1 where id = :id")
+	Mono<Integer> update(
+		@Param("id") UUID id,
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	default Mono<Integer> insert(BlockRow row) {
+		return insert(row.id(), row.propertyId(), row.startDate(), row.endDate());
+	}
+
+	default Mono<Integer> update(BlockRow row) {
+		return update(row.id(), row.propertyId(), row.startDate(), row.endDate());
+	}
+}
@@ -0,0 +1,82 @@
+package com.bookingservice.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Non-blocking access to {@code bookings} for the reactive API.
+ * <p>
+ * Writes are explicit statements: ids are assigned by the service, and enum values are bound as
+ * strings and cast, which H2's ENUM columns require (r2dbc-h2 binds strings as CLOBs).
+ */
+public interface ReactiveBookingRepository extends R2dbcRepository<BookingRow, UUID> {
+
+	@Query("""
+		select * from bookings
+		where property_id = :propertyId
+		  and start_date >= :minStartDate
+		  and start_date <= :endDate
+		  and end_date >= :startDate
+	""")
+	Flux<BookingRow> findOverlappingBookings(
+		@Param("propertyId") String propertyId,
+		@Param("minStartDate") LocalDate minStartDate,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate
+	);
+
+	@Modifying
+	@Query("""
+		insert into bookings (id, property_id, guest_name, guest_email, start_date, end_date, status,
+		                      guest_email_key, guest_name_key)
+		values (:id, :propertyId, :guestName, :guestEmail, :startDate, :endDate, cast(:status as varchar(32)),
+		        :guestEmailKey, :guestNameKey)
+	""")
+	Mono<Integer> insert(
+		@Param("id") UUID id,
+		@Param("propertyId") String propertyId,
+		@Param("guestName") String guestName,
+		@Param("guestEmail") String guestEmail,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate,
+		@Param("status") String status,
+		@Param("guestEmailKey") String guestEmailKey,
+		@Param("guestNameKey") String guestNameKey
+	);
+
+	@Modifying
+	@Query("""
+		update bookings
+		set guest_name = :guestName, guest_email = :guestEmail, start_date = :startDate, end_date = :endDate,
+		    status = cast(:status as varchar(32)), guest_email_key = :guestEmailKey, guest_name_key = :guestNameKey,
+		    version = version + 1
+		where id = :id
+	""")
+	Mono<Integer> update(
+		@Param("id") UUID id,
+		@Param("guestName") String guestName,
+		@Param("guestEmail") String guestEmail,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate,
+		@Param("status") String status,
+		@Param("guestEmailKey") String guestEmailKey,
+		@Param("guestNameKey") String guestNameKey
+	);
+
+	default Mono<Integer> insert(BookingRow row) {
+		return insert(row.id(), row.propertyId(), row.guestName(), row.guestEmail(), row.startDate(), row.endDate(),
+			row.status().name(), row.guestEmailKey(), row.guestNameKey());
+	}
+
+	default Mono<Integer> update(BookingRow row) {
+		return update(row.id(), row.guestName(), row.guestEmail(), row.startDate(), row.endDate(), row.status().name(),
+			row.guestEmailKey(), row.guestNameKey());
+	}
+}
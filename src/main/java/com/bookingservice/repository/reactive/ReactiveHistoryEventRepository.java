@@ -0,0 +1,44 @@
+package com.bookingservice.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Appends history events from the reactive API; reads stay on {@link com.bookingservice.repository.HistoryEventRepository}.
+ * Enum values are bound by name and cast, see {@link ReactiveBookingRepository}.
+ */
+public interface ReactiveHistoryEventRepository extends R2dbcRepository<HistoryEventRow, Long> {
+
+	@Modifying
+	@Query("""
+		insert into history_events (entity_id, entity_type, event_type, property_id, start_date, end_date,
+			status, guest_name, guest_email, occurred_at)
+		values (:entityId, cast(:entityType as varchar(32)), cast(:eventType as varchar(32)), :propertyId,
+			:startDate, :endDate, cast(:status as varchar(32)), :guestName, :guestEmail, :occurredAt)
+	""")
+	Mono<Integer> append(
+		@Param("entityId") UUID entityId,
+		@Param("entityType") String entityType,
+		@Param("eventType") String eventType,
+		@Param("propertyId") String propertyId,
+		@Param("startDate") LocalDate startDate,
+		@Param("endDate") LocalDate endDate,
+		@Param("status") String status,
+		@Param("guestName") String guestName,
+		@Param("guestEmail") String guestEmail,
+		@Param("occurredAt") Instant occurredAt
+	);
+
+	default Mono<Integer> append(HistoryEventRow event) {
+		return append(event.entityId(), event.entityType().name(), event.eventType().name(), event.propertyId(),
+			event.startDate(), event.endDate(), event.status().name(), event.guestName(), event.guestEmail(),
+			event.occurredAt());
+	}
+}
@@ -5,93 +5,164 @@ import com.bookingservice.model.Allocation;
 import com.bookingservice.model.AllocationType;
 import com.bookingservice.model.AllocationStatus;
 import com.bookingservice.model.Block;
-import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.ArchivedBlockRepository;
 import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.service.coalesce.ReadCoalescer;
+import com.bookingservice.service.execution.MutationExecutor;
+import com.bookingservice.service.history.HistoryService;
 import com.bookingservice.service.policy.AllocationPolicy;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
+import com.bookingservice.service.stream.AvailabilityChange;
+import com.bookingservice.support.MessageCatalog;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.List;
 
 @Service
 public class BlockService {
+	// ids per statement of the bulk operations, well below the bind parameter limits
+	private static final int BULK_CHUNK_SIZE = 1000;
+
 	private final BlockRepository blockRepository;
-	private final AllocationRepository allocationRepository;
+	private final ArchivedBlockRepository archivedBlockRepository;
+	private final AllocationStore allocationStore;
 	private final AllocationPolicy allocationPolicy;
-	private final MessageSource messageSource;
+	private final AllocationPartitions partitions;
+	private final HistoryService historyService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReadCoalescer reads;
+	private final MutationExecutor mutations;
+	private final MessageCatalog messages;
 
-	public BlockService(BlockRepository blockRepository, AllocationRepository allocationRepository, AllocationPolicy allocationPolicy, MessageSource messageSource) {
+	public BlockService(BlockRepository blockRepository, ArchivedBlockRepository archivedBlockRepository, AllocationStore allocationStore, AllocationPolicy allocationPolicy, AllocationPartitions partitions, HistoryService historyService, ApplicationEventPublisher eventPublisher, ReadCoalescer reads, MutationExecutor mutations, MessageCatalog messages) {
 		this.blockRepository = blockRepository;
-		this.allocationRepository = allocationRepository;
+		this.archivedBlockRepository = archivedBlockRepository;
+		this.allocationStore = allocationStore;
 		this.allocationPolicy = allocationPolicy;
-		this.messageSource = messageSource;
+		this.partitions = partitions;
+		this.historyService = historyService;
+		this.eventPublisher = eventPublisher;
+		this.reads = reads;
+		this.mutations = mutations;
+		this.messages = messages;
 	}
 
-	@Transactional
 	public Block createBlock(Block block) {
 		if (block == null) {
 			throw new IllegalArgumentException(getMessage("error.validation.block.required"));
 		}
 		validate(block.getPropertyId(), block.getStartDate(), block.getEndDate());
-		allocationPolicy.ensureDatesAvailableFor(block, null);
-		Block saved = blockRepository.save(block);
-		
-		// Sync to Allocation table
-		Allocation allocation = Allocation.builder()
-			.id(java.util.UUID.randomUUID())
-			.propertyId(saved.getPropertyId())
-			.startDate(saved.getStartDate())
-			.endDate(saved.getEndDate())
-			.type(AllocationType.BLOCK)
-			.status(AllocationStatus.ACTIVE)
-			.entityId(saved.getId())
-			.build();
-		allocationRepository.save(allocation);
-		
-		return saved;
+		return mutations.write(block.getPropertyId(), () -> {
+			allocationPolicy.ensureDatesAvailableFor(block, null);
+			Block saved = blockRepository.save(block);
+
+			// Sync to Allocation table
+			Allocation allocation = Allocation.builder()
+				.id(java.util.UUID.randomUUID())
+				.propertyId(saved.getPropertyId())
+				.startDate(saved.getStartDate())
+				.endDate(saved.getEndDate())
+				.type(AllocationType.BLOCK)
+				.status(AllocationStatus.ACTIVE)
+				.entityId(saved.getId())
+				.build();
+			allocationPolicy.writeAllocation(saved, () -> allocationStore.save(allocation));
+			record(HistoryEventType.CREATED, saved);
+
+			return saved;
+		});
 	}
 
-	@Transactional
 	public Block updateBlock(UUID blockId, BlockDtos.CreateOrUpdateRequest update) {
-		Block existing = blockRepository.findById(blockId)
-			.orElseThrow(() -> new IllegalArgumentException("Block not found: " + blockId));
 		// validate and check availability using incoming values BEFORE mutating entity
 		validate(update.propertyId(), update.startDate(), update.endDate());
-		// validate availability with the requested block (without persisting)
-		Block requestedBlock = update.toEntity();
-		allocationPolicy.ensureDatesAvailableFor(requestedBlock, existing.getId());
-		// apply incoming values explicitly and persist
-		existing.setPropertyId(update.propertyId());
-		existing.setStartDate(update.startDate());
-		existing.setEndDate(update.endDate());
-		Block saved = blockRepository.save(existing);
-		
-		// Sync to Allocation table (1 query instead of N+1)
-		allocationRepository.updateByEntityId(
-			blockId,
-			saved.getPropertyId(),
-			saved.getStartDate(),
-			saved.getEndDate()
-		);
-
-		return saved;
+		// a move changes both properties, so it holds the source's partition too
+		String sourcePropertyId = blockRepository.findById(blockId).map(Block::getPropertyId).orElse(update.propertyId());
+		return mutations.write(sourcePropertyId, update.propertyId(), () -> {
+			Block existing = blockRepository.findById(blockId)
+				.orElseThrow(() -> new IllegalArgumentException("Block not found: " + blockId));
+			if (!existing.getPropertyId().equals(sourcePropertyId)) {
+				// moved meanwhile: its current property is not the one held
+				throw new IllegalStateException(getMessage("error.concurrentModification"));
+			}
+			// validate availability with the requested block (without persisting)
+			Block requestedBlock = update.toEntity();
+			allocationPolicy.ensureDatesAvailableFor(requestedBlock, existing.getId());
+			if (!existing.getPropertyId().equals(update.propertyId())) {
+				record(HistoryEventType.MOVED_OUT, Block.builder()
+					.id(existing.getId())
+					.propertyId(existing.getPropertyId())
+					.startDate(existing.getStartDate())
+					.endDate(existing.getEndDate())
+					.build());
+			}
+			// apply incoming values explicitly and persist
+			existing.setPropertyId(update.propertyId());
+			existing.setStartDate(update.startDate());
+			existing.setEndDate(update.endDate());
+			Block saved = blockRepository.save(existing);
+
+			// Sync to Allocation table (1 query instead of N+1)
+			allocationPolicy.writeAllocation(saved, () -> allocationStore.updateByEntityId(
+				blockId,
+				saved.getPropertyId(),
+				saved.getStartDate(),
+				saved.getEndDate()
+			));
+			record(HistoryEventType.UPDATED, saved);
+
+			return saved;
+		});
 	}
 
-	@Transactional
 	public void deleteBlock(UUID blockId) {
-		if (!blockRepository.existsById(blockId)) {
-			return;
-		}
-		blockRepository.deleteById(blockId);
-		
-		// Sync to Allocation table (1 query instead of N+1)
-		allocationRepository.deleteByEntityId(blockId);
+		blockRepository.findById(blockId).map(Block::getPropertyId).ifPresent(propertyId -> mutations.run(propertyId, () -> {
+			Block existing = blockRepository.findById(blockId).orElse(null);
+			if (existing == null) {
+				return;
+			}
+			blockRepository.delete(existing);
+
+			// Sync to Allocation table (1 query instead of N+1)
+			allocationStore.deleteByEntityId(blockId);
+			record(HistoryEventType.DELETED, existing);
+		}));
+	}
+
+	/**
+	 * Deletes every block of a property overlapping the range with a handful of set-based
+	 * statements instead of one deleteBlock per block. The blocks are selected once and locked;
+	 * every later statement is driven by their ids.
+	 *
+	 * @return ids of the deleted blocks
+	 */
+	public List<UUID> deleteBlocksInRange(String propertyId, LocalDate startDate, LocalDate endDate) {
+		validate(propertyId, startDate, endDate);
+		return mutations.write(propertyId, () -> {
+			List<UUID> ids = blockRepository.findIdsInRange(propertyId, startDate, endDate);
+			if (ids.isEmpty()) {
+				return ids;
+			}
+			for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+				List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + BULK_CHUNK_SIZE));
+				// History reads the blocks before they are gone
+				historyService.recordBlocksDeleted(chunk);
+				allocationStore.deleteByEntityIds(chunk);
+				blockRepository.deleteByIds(chunk);
+			}
+			eventPublisher.publishEvent(AvailabilityChange.inRange(AllocationType.BLOCK, HistoryEventType.DELETED,
+				propertyId, startDate, endDate, ids.size()));
+			return ids;
+		});
 	}
 
 	private void validate(String propertyId, LocalDate startDate, LocalDate endDate) {
@@ -106,16 +177,35 @@ public class BlockService {
 		}
 	}
 
+	// history in the same transaction, stream subscribers once it has committed
+	private void record(HistoryEventType type, Block block) {
+		historyService.record(type, block);
+		eventPublisher.publishEvent(AvailabilityChange.of(type, block));
+	}
+
 	private String getMessage(String code) {
-		return messageSource.getMessage(code, null, LocaleContextHolder.getLocale());
+		return messages.get(code);
 	}
 
-	@Transactional(readOnly = true)
+	/**
+	 * Identical concurrent calls share one query, see {@link ReadCoalescer}.
+	 */
 	public List<Block> listByPropertyAndMonth(String propertyId, int year, int month) {
-		YearMonth ym = YearMonth.of(year, month);
-		LocalDate start = ym.atDay(1);
-		LocalDate end = ym.atEndOfMonth();
-		return blockRepository.findOverlappingBlocks(propertyId, start, end);
+		return reads.read("block.listByMonth", Arrays.asList(propertyId, year, month), () -> {
+			YearMonth ym = YearMonth.of(year, month);
+			LocalDate start = ym.atDay(1);
+			LocalDate end = ym.atEndOfMonth();
+			List<Block> blocks = blockRepository.findOverlappingBlocks(propertyId,
+				partitions.earliestOverlappingStart(start), start, end);
+			if (!start.isBefore(LocalDate.now())) {
+				// archived blocks all ended in the past
+				return blocks;
+			}
+			List<Block> merged = new ArrayList<>(blocks);
+			archivedBlockRepository.findOverlappingBlocks(propertyId, start, end)
+				.forEach(archived -> merged.add(archived.toBlock()));
+			return merged;
+		});
 	}
 }
 
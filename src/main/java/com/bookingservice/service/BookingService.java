@@ -2,145 +2,317 @@ package com.bookingservice.service;
 
 import com.bookingservice.api.dto.BookingDtos;
 import com.bookingservice.model.Allocation;
+import com.bookingservice.model.ArchivedBooking;
 import com.bookingservice.model.AllocationType;
 import com.bookingservice.model.AllocationStatus;
 import com.bookingservice.model.Booking;
 import com.bookingservice.model.BookingStatus;
+import com.bookingservice.model.GuestKeys;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.support.MessageCatalog;
 import com.bookingservice.support.NotFoundException;
-import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.ArchivedBookingRepository;
 import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.service.coalesce.ReadCoalescer;
+import com.bookingservice.service.execution.MutationExecutor;
+import com.bookingservice.service.history.HistoryService;
 import com.bookingservice.service.policy.AllocationPolicy;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
+import com.bookingservice.service.policy.AvailabilityCheck;
+import com.bookingservice.service.stream.AvailabilityChange;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.List;
 
 @Service
 public class BookingService {
 
+	public static final int MAX_PAGE_SIZE = 100;
+	// ids per statement of the bulk operations, well below the bind parameter limits
+	private static final int BULK_CHUNK_SIZE = 1000;
+
 	private final BookingRepository bookingRepository;
-	private final AllocationRepository allocationRepository;
+	private final ArchivedBookingRepository archivedBookingRepository;
+	private final AllocationStore allocationStore;
 	private final AllocationPolicy allocationPolicy;
-	private final MessageSource messageSource;
+	private final AllocationPartitions partitions;
+	private final HistoryService historyService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReadCoalescer reads;
+	private final MutationExecutor mutations;
+	private final MessageCatalog messages;
 
-	public BookingService(BookingRepository bookingRepository, AllocationRepository allocationRepository, AllocationPolicy allocationPolicy, MessageSource messageSource) {
+	public BookingService(BookingRepository bookingRepository, ArchivedBookingRepository archivedBookingRepository, AllocationStore allocationStore, AllocationPolicy allocationPolicy, AllocationPartitions partitions, HistoryService historyService, ApplicationEventPublisher eventPublisher, ReadCoalescer reads, MutationExecutor mutations, MessageCatalog messages) {
 		this.bookingRepository = bookingRepository;
-		this.allocationRepository = allocationRepository;
+		this.archivedBookingRepository = archivedBookingRepository;
+		this.allocationStore = allocationStore;
 		this.allocationPolicy = allocationPolicy;
-		this.messageSource = messageSource;
+		this.partitions = partitions;
+		this.historyService = historyService;
+		this.eventPublisher = eventPublisher;
+		this.reads = reads;
+		this.mutations = mutations;
+		this.messages = messages;
 	}
 
-	@Transactional
 	public Booking createBooking(Booking booking) {
+		validateNew(booking);
+		return mutations.write(booking.getPropertyId(), () -> {
+			allocationPolicy.ensureDatesAvailableFor(booking, null);
+			booking.setStatus(BookingStatus.ACTIVE);
+			Booking saved = bookingRepository.save(booking);
+
+			// Sync to Allocation table
+			Allocation allocation = Allocation.builder()
+				.id(java.util.UUID.randomUUID())
+				.propertyId(saved.getPropertyId())
+				.startDate(saved.getStartDate())
+				.endDate(saved.getEndDate())
+				.type(AllocationType.BOOKING)
+				.status(AllocationStatus.ACTIVE)
+				.entityId(saved.getId())
+				.build();
+			allocationPolicy.writeAllocation(saved, () -> allocationStore.save(allocation));
+			record(HistoryEventType.CREATED, saved);
+
+			return saved;
+		});
+	}
+
+	/**
+	 * Input checks of {@link #createBooking}, for callers that write the booking some other way
+	 * (see {@link com.bookingservice.service.pipeline.BookingWritePipeline}).
+	 *
+	 * @throws IllegalArgumentException if a required field is missing or the dates are invalid
+	 */
+	public void validateNew(Booking booking) {
 		if (booking == null) {
 			throw new IllegalArgumentException(getMessage("error.validation.booking.required"));
 		}
-		if (booking.getId() == null) {
-			booking.setId(java.util.UUID.randomUUID());
-		}
 		validateInputs(booking.getPropertyId(), booking.getGuestName(), booking.getGuestEmail(),
 			booking.getStartDate(), booking.getEndDate());
-		allocationPolicy.ensureDatesAvailableFor(booking, null);
-		booking.setStatus(BookingStatus.ACTIVE);
-		Booking saved = bookingRepository.save(booking);
-		
-		// Sync to Allocation table
-		Allocation allocation = Allocation.builder()
-			.id(java.util.UUID.randomUUID())
-			.propertyId(saved.getPropertyId())
-			.startDate(saved.getStartDate())
-			.endDate(saved.getEndDate())
-			.type(AllocationType.BOOKING)
-			.status(AllocationStatus.ACTIVE)
-			.entityId(saved.getId())
-			.build();
-		allocationRepository.save(allocation);
-		
-		return saved;
 	}
 
-	@Transactional(readOnly = true)
+	/**
+	 * Finds a booking in the hot table, falling through to the archive for bookings that
+	 * ended long ago. Archived bookings are returned detached and are read-only.
+	 * Identical concurrent calls share one query, see {@link ReadCoalescer}.
+	 */
 	public Booking getBooking(UUID id) {
+		return reads.read("booking.get", Arrays.asList(id), () -> bookingRepository.findById(id)
+			.or(() -> archivedBookingRepository.findById(id).map(ArchivedBooking::toBooking))
+			.orElseThrow(() -> new NotFoundException("Booking not found: " + id)));
+	}
+
+	// Mutations only apply to hot bookings; usually served by the entity cache
+	private String propertyOf(UUID id) {
+		return getHotBooking(id).getPropertyId();
+	}
+
+	private Booking getHotBooking(UUID id) {
 		return bookingRepository.findById(id)
 			.orElseThrow(() -> new NotFoundException("Booking not found: " + id));
 	}
 
-	@Transactional
 	public Booking updateBooking(UUID id, BookingDtos.UpdateRequest update) {
-		Booking existing = getBooking(id);
-		// apply incoming values explicitly to ensure fields are updated
-		existing.setGuestName(update.guestName());
-		existing.setGuestEmail(update.guestEmail());
-		existing.setStartDate(update.startDate());
-		existing.setEndDate(update.endDate());
-		// validate and check availability
-		validateInputs(existing.getPropertyId(), existing.getGuestName(), existing.getGuestEmail(),
-			existing.getStartDate(), existing.getEndDate());
-		allocationPolicy.ensureDatesAvailableFor(existing, existing.getId());
-		Booking saved = bookingRepository.save(existing);
-		
-		// Sync to Allocation table (1 query instead of N+1)
-		allocationRepository.updateByEntityId(
-			id,
-			saved.getPropertyId(),
-			saved.getStartDate(),
-			saved.getEndDate()
-		);
-		
-		return saved;
-	}
-
-
-	@Transactional
+		return mutations.write(propertyOf(id), () -> {
+			Booking existing = getHotBooking(id);
+			// apply incoming values explicitly to ensure fields are updated
+			existing.setGuestName(update.guestName());
+			existing.setGuestEmail(update.guestEmail());
+			existing.setStartDate(update.startDate());
+			existing.setEndDate(update.endDate());
+			// validate and check availability
+			validateInputs(existing.getPropertyId(), existing.getGuestName(), existing.getGuestEmail(),
+				existing.getStartDate(), existing.getEndDate());
+			allocationPolicy.ensureDatesAvailableFor(existing, existing.getId());
+			Booking saved = bookingRepository.save(existing);
+
+			// Sync to Allocation table (1 query instead of N+1)
+			allocationPolicy.writeAllocation(saved, () -> allocationStore.updateByEntityId(
+				id,
+				saved.getPropertyId(),
+				saved.getStartDate(),
+				saved.getEndDate()
+			));
+			record(HistoryEventType.UPDATED, saved);
+
+			return saved;
+		});
+	}
+
+
 	public Booking cancelBooking(UUID id) {
-		Booking existing = getBooking(id);
-		existing.setStatus(BookingStatus.CANCELED);
-		Booking saved = bookingRepository.save(existing);
-		
-		// Sync to Allocation table (1 query instead of findAll + filter + N saves)
-		allocationRepository.updateStatusByEntityIdAndType(
-			id,
-			AllocationType.BOOKING,
-			AllocationStatus.CANCELED
-		);
-		
-		return saved;
-	}
-
-	@Transactional
+		return mutations.write(propertyOf(id), () -> {
+			Booking existing = getHotBooking(id);
+			existing.setStatus(BookingStatus.CANCELED);
+			Booking saved = bookingRepository.save(existing);
+
+			// Sync to Allocation table (1 query instead of findAll + filter + N saves)
+			allocationStore.updateStatusByEntityIdAndType(
+				id,
+				AllocationType.BOOKING,
+				AllocationStatus.CANCELED
+			);
+			record(HistoryEventType.CANCELED, saved);
+
+			return saved;
+		});
+	}
+
 	public Booking rebookBooking(UUID id) {
-		Booking existing = getBooking(id);
-		if (existing.getStatus() == BookingStatus.ACTIVE) {
-			return existing;
-		}
-		allocationPolicy.ensureDatesAvailableFor(existing, existing.getId());
-		existing.setStatus(BookingStatus.ACTIVE);
-		return bookingRepository.save(existing);
+		return mutations.write(propertyOf(id), () -> {
+			Booking existing = getHotBooking(id);
+			if (existing.getStatus() == BookingStatus.ACTIVE) {
+				return existing;
+			}
+			allocationPolicy.ensureDatesAvailableFor(existing, existing.getId());
+			existing.setStatus(BookingStatus.ACTIVE);
+			Booking saved = bookingRepository.save(existing);
+
+			// Reactivate the allocation so the date range is protected again
+			allocationPolicy.writeAllocation(saved, () -> allocationStore.updateStatusByEntityIdAndType(
+				id,
+				AllocationType.BOOKING,
+				AllocationStatus.ACTIVE
+			));
+			record(HistoryEventType.REBOOKED, saved);
+
+			return saved;
+		});
 	}
 
-	@Transactional
 	public void deleteBooking(UUID id) {
-		if (!bookingRepository.existsById(id)) {
-			return;
-		}
-		bookingRepository.deleteById(id);
-		
-		// Sync to Allocation table (1 query instead of N+1)
-		allocationRepository.deleteByEntityId(id);
+		bookingRepository.findById(id).map(Booking::getPropertyId).ifPresent(propertyId -> mutations.run(propertyId, () -> {
+			Booking existing = bookingRepository.findById(id).orElse(null);
+			if (existing == null) {
+				return;
+			}
+			bookingRepository.delete(existing);
+
+			// Sync to Allocation table (1 query instead of N+1)
+			allocationStore.deleteByEntityId(id);
+			record(HistoryEventType.DELETED, existing);
+		}));
 	}
 
+	/**
+	 * Cancels every ACTIVE booking of a property overlapping the range (e.g. the owner pulls the
+	 * property, or emergency maintenance) with a handful of set-based statements instead of one
+	 * cancelBooking per booking. The bookings are selected once and locked; every later statement
+	 * is driven by their ids, so a booking written concurrently is either fully canceled or untouched.
+	 *
+	 * @return ids of the canceled bookings
+	 */
+	public List<UUID> cancelBookingsInRange(String propertyId, LocalDate startDate, LocalDate endDate) {
+		validateRange(propertyId, startDate, endDate);
+		return mutations.write(propertyId, () -> {
+			List<UUID> ids = bookingRepository.findIdsInRange(propertyId, BookingStatus.ACTIVE, startDate, endDate);
+			if (ids.isEmpty()) {
+				return ids;
+			}
+			for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+				List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + BULK_CHUNK_SIZE));
+				// History reads the bookings while they are still ACTIVE
+				historyService.recordBookingsCanceled(chunk);
+				allocationStore.updateStatusByEntityIds(propertyId, chunk, AllocationStatus.CANCELED);
+				bookingRepository.updateStatusByIds(chunk, BookingStatus.CANCELED);
+			}
+			eventPublisher.publishEvent(AvailabilityChange.inRange(AllocationType.BOOKING, HistoryEventType.CANCELED,
+				propertyId, startDate, endDate, ids.size()));
+			return ids;
+		});
+	}
+
+	/**
+	 * Dry run of a booking request: reports the conflicting allocations without writing anything.
+	 *
+	 * @param excludedBookingId booking being moved (ignored in the overlap check), null for new bookings
+	 */
 	@Transactional(readOnly = true)
+	public AvailabilityCheck checkAvailability(String propertyId, LocalDate startDate, LocalDate endDate, UUID excludedBookingId) {
+		validateRange(propertyId, startDate, endDate);
+		Booking candidate = new Booking();
+		candidate.setPropertyId(propertyId);
+		candidate.setStartDate(startDate);
+		candidate.setEndDate(endDate);
+		return allocationPolicy.checkAvailability(candidate, excludedBookingId);
+	}
+
+	/**
+	 * Identical concurrent calls share one query, see {@link ReadCoalescer}.
+	 */
 	public List<Booking> listByPropertyAndMonth(String propertyId, int year, int month) {
-		YearMonth ym = YearMonth.of(year, month);
-		LocalDate start = ym.atDay(1);
-		LocalDate end = ym.atEndOfMonth();
-		return bookingRepository.findOverlappingBookings(propertyId, start, end);
+		return reads.read("booking.listByMonth", Arrays.asList(propertyId, year, month), () -> {
+			YearMonth ym = YearMonth.of(year, month);
+			LocalDate start = ym.atDay(1);
+			LocalDate end = ym.atEndOfMonth();
+			List<Booking> bookings = bookingRepository.findOverlappingBookings(propertyId,
+				partitions.earliestOverlappingStart(start), start, end);
+			if (!start.isBefore(LocalDate.now())) {
+				// archived bookings all ended in the past
+				return bookings;
+			}
+			List<Booking> merged = new ArrayList<>(bookings);
+			archivedBookingRepository.findOverlappingBookings(propertyId, start, end)
+				.forEach(archived -> merged.add(archived.toBooking()));
+			return merged;
+		});
+	}
+
+	/**
+	 * Bookings of a guest by email, whatever its case, most recent stays first.
+	 *
+	 * @throws IllegalArgumentException if the email is blank or the page is out of range
+	 */
+	public Slice<Booking> findByGuestEmail(String email, int page, int size) {
+		if (!StringUtils.hasText(email)) {
+			throw new IllegalArgumentException(getMessage("error.validation.guestEmail.required"));
+		}
+		return bookingRepository.findByGuestEmailKey(GuestKeys.email(email),
+			guestPage(page, size, Sort.by(Sort.Order.desc("startDate"), Sort.Order.asc("id"))));
+	}
+
+	/**
+	 * Bookings whose guest name or email starts with the prefix, compared like the stored keys
+	 * (case and accents ignored), ordered by that key and then id, so the index serves the order.
+	 *
+	 * @throws IllegalArgumentException if the prefix is blank or the page is out of range
+	 */
+	public Slice<Booking> searchByGuestPrefix(String prefix, GuestField field, int page, int size) {
+		if (!StringUtils.hasText(prefix)) {
+			throw new IllegalArgumentException(getMessage("error.validation.prefix.required"));
+		}
+		if (field == GuestField.EMAIL) {
+			return bookingRepository.findByGuestEmailKeyStartingWith(GuestKeys.email(prefix),
+				guestPage(page, size, Sort.by("guestEmailKey", "id")));
+		}
+		return bookingRepository.findByGuestNameKeyStartingWith(GuestKeys.name(prefix),
+			guestPage(page, size, Sort.by("guestNameKey", "id")));
+	}
+
+	public enum GuestField {
+		NAME, EMAIL
+	}
+
+	private Pageable guestPage(int page, int size, Sort sort) {
+		if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException(messages.get("error.validation.page.invalid", MAX_PAGE_SIZE));
+		}
+		return PageRequest.of(page, size, sort);
 	}
 
 	private void validateInputs(String propertyId,
@@ -165,8 +337,26 @@ public class BookingService {
 		}
 	}
 
+	private void validateRange(String propertyId, LocalDate startDate, LocalDate endDate) {
+		if (!StringUtils.hasText(propertyId)) {
+			throw new IllegalArgumentException(getMessage("error.validation.propertyId.required"));
+		}
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException(getMessage("error.validation.dates.required"));
+		}
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException(getMessage("error.validation.dateRange.invalid"));
+		}
+	}
+
+	// history in the same transaction, stream subscribers once it has committed
+	private void record(HistoryEventType type, Booking booking) {
+		historyService.record(type, booking);
+		eventPublisher.publishEvent(AvailabilityChange.of(type, booking));
+	}
+
 	private String getMessage(String code) {
-		return messageSource.getMessage(code, null, LocaleContextHolder.getLocale());
+		return messages.get(code);
 	}
 }
 
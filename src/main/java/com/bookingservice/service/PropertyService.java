@@ -0,0 +1,53 @@
+package com.bookingservice.service;
+
+import com.bookingservice.service.capacity.OccupancyIndex;
+import com.bookingservice.service.execution.MutationExecutor;
+import com.bookingservice.service.policy.AllocationPolicy;
+import com.bookingservice.service.policy.ConflictDetection;
+import com.bookingservice.support.MessageCatalog;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+public class PropertyService {
+	private final OccupancyIndex occupancy;
+	private final AllocationPolicy allocationPolicy;
+	private final MutationExecutor mutations;
+	private final MessageCatalog messages;
+
+	public PropertyService(OccupancyIndex occupancy, AllocationPolicy allocationPolicy, MutationExecutor mutations, MessageCatalog messages) {
+		this.occupancy = occupancy;
+		this.allocationPolicy = allocationPolicy;
+		this.mutations = mutations;
+		this.messages = messages;
+	}
+
+	public int getCapacity(String propertyId) {
+		return occupancy.capacityOf(propertyId);
+	}
+
+	/**
+	 * Sets the number of identical units of a property. Allocations already made are kept even if
+	 * they take more units than the new capacity; only later ones are checked against it.
+	 *
+	 * @throws IllegalArgumentException if the capacity is out of range, or above 1 while conflicts
+	 * are detected by the database constraint (it allows no overlap at all)
+	 */
+	public int setCapacity(String propertyId, Integer capacity) {
+		if (!StringUtils.hasText(propertyId)) {
+			throw new IllegalArgumentException(messages.get("error.validation.propertyId.required"));
+		}
+		if (capacity == null) {
+			throw new IllegalArgumentException(messages.get("error.validation.capacity.required"));
+		}
+		if (capacity < 1 || capacity > OccupancyIndex.MAX_CAPACITY) {
+			throw new IllegalArgumentException(messages.get("error.validation.capacity.range", OccupancyIndex.MAX_CAPACITY));
+		}
+		if (capacity > 1 && allocationPolicy.getConflictDetection() == ConflictDetection.DATABASE) {
+			throw new IllegalArgumentException(messages.get("error.validation.capacity.databaseMode"));
+		}
+		// serialized with the property's bookings and blocks
+		mutations.run(propertyId, () -> occupancy.setCapacity(propertyId, capacity));
+		return capacity;
+	}
+}
@@ -0,0 +1,186 @@
+package com.bookingservice.service.archive;
+
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.ArchivedAllocationRepository;
+import com.bookingservice.repository.ArchivedBlockRepository;
+import com.bookingservice.repository.ArchivedBookingRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.execution.MutationExecutor;
+import com.bookingservice.service.lease.LeaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Moves bookings, blocks and their allocations that ended before the cutoff into the
+ * {@code *_archive} tables, keeping the hot tables (and the overlap checks on them) small.
+ * <p>
+ * Rows move property by property, in chunks of {@code booking.archive.chunk-size}. Each chunk is
+ * one mutation of its property through {@link MutationExecutor}, so live writes only ever wait
+ * for one chunk, and it runs where the property's other mutations run: on its partition's writer
+ * in partitioned mode, and only on the node holding its lease. Properties whose lease another
+ * node holds are left to that node. A chunk locks the rows it moves and skips rows locked by
+ * live writers, which are picked up by a later run. Reads that may reach past dates
+ * ({@code getBooking}, calendars) fall through to the archive; mutations only see hot rows.
+ * With the journal allocation store, archived allocations are simply dropped from the journal.
+ */
+@Service
+public class ArchivalService {
+
+	private static final Logger log = LoggerFactory.getLogger(ArchivalService.class);
+
+	private final ArchiveProperties properties;
+	private final BookingRepository bookingRepository;
+	private final BlockRepository blockRepository;
+	private final AllocationStore allocationStore;
+	private final ArchivedBookingRepository archivedBookingRepository;
+	private final ArchivedBlockRepository archivedBlockRepository;
+	private final ArchivedAllocationRepository archivedAllocationRepository;
+	private final MutationExecutor mutations;
+	private final LeaseManager leases;
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile ArchiveReport lastReport;
+
+	public ArchivalService(ArchiveProperties properties,
+	                       BookingRepository bookingRepository,
+	                       BlockRepository blockRepository,
+	                       AllocationStore allocationStore,
+	                       ArchivedBookingRepository archivedBookingRepository,
+	                       ArchivedBlockRepository archivedBlockRepository,
+	                       ArchivedAllocationRepository archivedAllocationRepository,
+	                       MutationExecutor mutations,
+	                       LeaseManager leases) {
+		this.properties = properties;
+		this.bookingRepository = bookingRepository;
+		this.blockRepository = blockRepository;
+		this.allocationStore = allocationStore;
+		this.archivedBookingRepository = archivedBookingRepository;
+		this.archivedBlockRepository = archivedBlockRepository;
+		this.archivedAllocationRepository = archivedAllocationRepository;
+		this.mutations = mutations;
+		this.leases = leases;
+	}
+
+	@Scheduled(initialDelayString = "${booking.archive.initial-delay:PT5M}",
+		fixedDelayString = "${booking.archive.interval:PT1H}")
+	public void archivePeriodically() {
+		if (!properties.enabled()) {
+			return;
+		}
+		try {
+			archive();
+		} catch (RuntimeException ex) {
+			log.warn("Archival run failed, will retry on the next run", ex);
+		}
+	}
+
+	/**
+	 * Archives everything that ended more than {@code retain-days} ago.
+	 *
+	 * @return the report of this run, or of the previous one if a run is already in progress
+	 */
+	public ArchiveReport archive() {
+		return archive(LocalDate.now().minusDays(properties.retainDays()));
+	}
+
+	/**
+	 * Archives bookings and blocks whose end date is before {@code cutoff}.
+	 */
+	public ArchiveReport archive(LocalDate cutoff) {
+		if (!running.compareAndSet(false, true)) {
+			return lastReport;
+		}
+		try {
+			long started = System.nanoTime();
+			AtomicLong allocations = new AtomicLong();
+			long bookings = archiveByProperty(bookingRepository.findPropertiesEndedBefore(cutoff),
+				propertyId -> archiveBookingChunk(propertyId, cutoff, allocations));
+			long blocks = archiveByProperty(blockRepository.findPropertiesEndedBefore(cutoff),
+				propertyId -> archiveBlockChunk(propertyId, cutoff, allocations));
+			ArchiveReport report = new ArchiveReport(cutoff, bookings, blocks, allocations.get(),
+				bookingRepository.count(), blockRepository.count(),
+				Duration.ofNanos(System.nanoTime() - started));
+			lastReport = report;
+			if (report.rowsMoved() > 0) {
+				log.info("Archived {} bookings, {} blocks, {} allocations ended before {} in {} ms; hot bookings+blocks shrank {}%",
+					bookings, blocks, report.allocationsMoved(), cutoff, report.duration().toMillis(),
+					String.format("%.1f", report.shrinkRatio() * 100));
+			}
+			return report;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	public ArchiveReport getLastReport() {
+		return lastReport;
+	}
+
+	private long archiveByProperty(List<String> propertyIds, Function<String, Long> chunk) {
+		long total = 0;
+		for (String propertyId : propertyIds) {
+			if (!leases.owns(propertyId)) {
+				// left to the node holding the lease
+				continue;
+			}
+			try {
+				total += drain(() -> mutations.write(propertyId, () -> chunk.apply(propertyId)));
+			} catch (RuntimeException ex) {
+				log.warn("Archival of property {} stopped, will retry on the next run", propertyId, ex);
+			}
+		}
+		return total;
+	}
+
+	private long drain(LongSupplier chunk) {
+		long total = 0;
+		long moved;
+		do {
+			moved = chunk.getAsLong();
+			total += moved;
+		} while (moved == properties.chunkSize());
+		return total;
+	}
+
+	private long archiveBookingChunk(String propertyId, LocalDate cutoff, AtomicLong allocations) {
+		List<UUID> ids = bookingRepository.findIdsEndedBefore(propertyId, cutoff, PageRequest.of(0, properties.chunkSize()));
+		if (ids.isEmpty()) {
+			return 0L;
+		}
+		Instant now = Instant.now();
+		allocations.addAndGet(moveAllocations(ids, now));
+		archivedBookingRepository.copyFromBookings(ids, now);
+		bookingRepository.deleteByIds(ids);
+		return ids.size();
+	}
+
+	private long archiveBlockChunk(String propertyId, LocalDate cutoff, AtomicLong allocations) {
+		List<UUID> ids = blockRepository.findIdsEndedBefore(propertyId, cutoff, PageRequest.of(0, properties.chunkSize()));
+		if (ids.isEmpty()) {
+			return 0L;
+		}
+		Instant now = Instant.now();
+		allocations.addAndGet(moveAllocations(ids, now));
+		archivedBlockRepository.copyFromBlocks(ids, now);
+		blockRepository.deleteByIds(ids);
+		return ids.size();
+	}
+
+	private int moveAllocations(List<UUID> entityIds, Instant now) {
+		archivedAllocationRepository.copyFromAllocations(entityIds, now);
+		return allocationStore.deleteByEntityIds(entityIds);
+	}
+}
@@ -0,0 +1,19 @@
+package com.bookingservice.service.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Hot/cold archival settings ({@code booking.archive}).
+ *
+ * @param enabled run the periodic archival job
+ * @param retainDays bookings/blocks stay in the hot tables until this many days after their end date
+ * @param chunkSize rows moved per transaction
+ */
+@ConfigurationProperties(prefix = "booking.archive")
+public record ArchiveProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue("30") int retainDays,
+	@DefaultValue("1000") int chunkSize
+) {
+}
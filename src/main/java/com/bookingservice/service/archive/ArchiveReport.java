@@ -0,0 +1,31 @@
+package com.bookingservice.service.archive;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Outcome of one archival run: rows moved out of the hot tables and rows left in them.
+ */
+public record ArchiveReport(
+	LocalDate cutoff,
+	long bookingsMoved,
+	long blocksMoved,
+	long allocationsMoved,
+	long bookingsRemaining,
+	long blocksRemaining,
+	Duration duration
+) {
+
+	public long rowsMoved() {
+		return bookingsMoved + blocksMoved + allocationsMoved;
+	}
+
+	/**
+	 * Share of the hot booking/block rows moved by this run, between 0 and 1.
+	 */
+	public double shrinkRatio() {
+		long moved = bookingsMoved + blocksMoved;
+		long before = moved + bookingsRemaining + blocksRemaining;
+		return before == 0 ? 0 : (double) moved / before;
+	}
+}
@@ -0,0 +1,257 @@
+package com.bookingservice.service.capacity;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.PropertyCapacity;
+import com.bookingservice.repository.PropertyCapacityRepository;
+import com.bookingservice.service.lease.PartitionsAcquired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Capacities of the multi-unit properties and, for each of them, an {@link OccupancyTree} of the
+ * units taken per day by their ACTIVE allocations.
+ * <p>
+ * A booking takes one unit, a block takes the whole property ({@link #BLOCKED} units, more than any
+ * capacity). Single-unit properties, the default, have no tree: the overlap query already answers
+ * for them.
+ * <p>
+ * A tree is built on the first check of its property from the ACTIVE allocations, read in their own
+ * read-only transaction. The allocation rows are the persisted counts; nothing else is stored. After
+ * that, {@link OccupancyTrackingAllocationStore} keeps the tree in step: once a transaction commits,
+ * each allocation it wrote replaces that allocation's previous contribution. Replacing, not adding,
+ * makes a change that the build already read harmless. Set-based changes drop the tree, which the
+ * next check rebuilds.
+ * <p>
+ * Local to this node, like the journal store: it sees the writes made through this node only.
+ * With partition leases, that is every write of the properties it owns; what it held of a
+ * partition it takes over is dropped.
+ */
+@Component
+public class OccupancyIndex {
+
+	public static final int MAX_CAPACITY = 10_000;
+
+	/** dates covered by the trees; allocations outside count on the first or last day */
+	public static final LocalDate FIRST_DAY = OccupancyTree.FIRST_DAY;
+	public static final LocalDate LAST_DAY = OccupancyTree.LAST_DAY;
+
+	/** units of a block: makes any day it covers full, whatever the capacity */
+	static final int BLOCKED = 1 << 20;
+
+	private final PropertyCapacityRepository capacityRepository;
+	private final TransactionTemplate readOnly;
+	private final ConcurrentMap<String, Integer> capacities = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Occupancy> occupancies = new ConcurrentHashMap<>();
+	// property of each allocation held by a tree
+	private final ConcurrentMap<UUID, String> tracked = new ConcurrentHashMap<>();
+
+	public OccupancyIndex(PropertyCapacityRepository capacityRepository, PlatformTransactionManager transactionManager) {
+		this.capacityRepository = capacityRepository;
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readOnly.setReadOnly(true);
+		capacityRepository.findAll().forEach(c -> capacities.put(c.getPropertyId(), c.getCapacity()));
+	}
+
+	/**
+	 * @return the number of units of the property, 1 unless set otherwise
+	 */
+	public int capacityOf(String propertyId) {
+		return propertyId == null ? 1 : capacities.getOrDefault(propertyId, 1);
+	}
+
+	public boolean isMultiUnit(String propertyId) {
+		return propertyId != null && capacities.containsKey(propertyId);
+	}
+
+	boolean hasMultiUnitProperties() {
+		return !capacities.isEmpty();
+	}
+
+	boolean isTracked(UUID entityId) {
+		return tracked.containsKey(entityId);
+	}
+
+	/**
+	 * Stores the capacity of a property within the current transaction; the checks use it once
+	 * committed.
+	 */
+	public void setCapacity(String propertyId, int capacity) {
+		if (capacity == 1) {
+			capacityRepository.deleteById(propertyId);
+		} else {
+			capacityRepository.save(new PropertyCapacity(propertyId, capacity));
+		}
+		afterCommit(() -> {
+			if (capacity == 1) {
+				capacities.remove(propertyId);
+				drop(propertyId);
+			} else {
+				capacities.put(propertyId, capacity);
+			}
+		});
+	}
+
+	/**
+	 * @param excludedEntityId allocation left out (for updates), null for creates
+	 * @param activeAllocations reads the ACTIVE allocations of the property, if its tree must be built
+	 * @return the most units taken on any day of [start, end] by the other ACTIVE allocations
+	 */
+	public int maxOccupancy(String propertyId, LocalDate start, LocalDate end, UUID excludedEntityId,
+	                        Supplier<List<Allocation>> activeAllocations) {
+		Occupancy occupancy = occupancies.computeIfAbsent(propertyId, key -> new Occupancy());
+		synchronized (occupancy) {
+			if (!occupancy.built) {
+				// held while reading: changes committed meanwhile wait and replace what was read
+				readOnly.executeWithoutResult(status -> activeAllocations.get().forEach(a -> put(occupancy, a)));
+				occupancy.built = true;
+			}
+			Entry excluded = excludedEntityId == null ? null : occupancy.entries.get(excludedEntityId);
+			if (excluded == null) {
+				return occupancy.tree.max(start, end);
+			}
+			occupancy.tree.add(excluded.start(), excluded.end(), -excluded.units());
+			try {
+				return occupancy.tree.max(start, end);
+			} finally {
+				occupancy.tree.add(excluded.start(), excluded.end(), excluded.units());
+			}
+		}
+	}
+
+	/**
+	 * Replaces the contribution of an allocation by its written state, after commit.
+	 *
+	 * @param allocation a copy of the allocation as written
+	 */
+	void track(Allocation allocation) {
+		afterCommit(() -> {
+			String previous = tracked.get(allocation.getEntityId());
+			if (previous != null && !previous.equals(allocation.getPropertyId())) {
+				remove(previous, allocation.getEntityId());
+			}
+			Occupancy occupancy = occupancies.get(allocation.getPropertyId());
+			if (occupancy != null) {
+				synchronized (occupancy) {
+					put(occupancy, allocation);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Removes the contribution of a deleted allocation, after commit.
+	 */
+	void untrack(UUID entityId) {
+		afterCommit(() -> {
+			String propertyId = tracked.get(entityId);
+			if (propertyId != null) {
+				remove(propertyId, entityId);
+			}
+		});
+	}
+
+	/**
+	 * Drops the tree of a property after commit, for changes whose allocations are not known one by one.
+	 */
+	public void invalidate(String propertyId) {
+		afterCommit(() -> drop(propertyId));
+	}
+
+	/**
+	 * Reloads the capacities and drops the trees of the properties another node changed while it
+	 * held their lease.
+	 */
+	@EventListener
+	public void onPartitionsAcquired(PartitionsAcquired acquired) {
+		Map<String, Integer> stored = new HashMap<>();
+		capacityRepository.findAll().stream()
+			.filter(c -> acquired.covers(c.getPropertyId()))
+			.forEach(c -> stored.put(c.getPropertyId(), c.getCapacity()));
+		capacities.keySet().removeIf(propertyId -> acquired.covers(propertyId) && !stored.containsKey(propertyId));
+		capacities.putAll(stored);
+		List.copyOf(occupancies.keySet()).stream().filter(acquired::covers).forEach(this::drop);
+	}
+
+	private void put(Occupancy occupancy, Allocation allocation) {
+		UUID entityId = allocation.getEntityId();
+		Entry previous = occupancy.entries.remove(entityId);
+		if (previous != null) {
+			occupancy.tree.add(previous.start(), previous.end(), -previous.units());
+			tracked.remove(entityId);
+		}
+		if (allocation.getStatus() != AllocationStatus.ACTIVE) {
+			return;
+		}
+		Entry entry = new Entry(allocation.getStartDate(), allocation.getEndDate(), unitsOf(allocation.getType()));
+		occupancy.entries.put(entityId, entry);
+		occupancy.tree.add(entry.start(), entry.end(), entry.units());
+		tracked.put(entityId, allocation.getPropertyId());
+	}
+
+	private void remove(String propertyId, UUID entityId) {
+		Occupancy occupancy = occupancies.get(propertyId);
+		if (occupancy == null) {
+			tracked.remove(entityId);
+			return;
+		}
+		synchronized (occupancy) {
+			Entry previous = occupancy.entries.remove(entityId);
+			if (previous != null) {
+				occupancy.tree.add(previous.start(), previous.end(), -previous.units());
+			}
+			tracked.remove(entityId);
+		}
+	}
+
+	private void drop(String propertyId) {
+		Occupancy occupancy = occupancies.remove(propertyId);
+		if (occupancy != null) {
+			synchronized (occupancy) {
+				occupancy.entries.keySet().forEach(tracked::remove);
+			}
+		}
+	}
+
+	static int unitsOf(AllocationType type) {
+		return type == AllocationType.BLOCK ? BLOCKED : 1;
+	}
+
+	private static void afterCommit(Runnable change) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			change.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				change.run();
+			}
+		});
+	}
+
+	private record Entry(LocalDate start, LocalDate end, int units) {}
+
+	// guarded by its own monitor
+	private static final class Occupancy {
+		private final OccupancyTree tree = new OccupancyTree();
+		private final Map<UUID, Entry> entries = new HashMap<>();
+		private boolean built;
+	}
+}
@@ -0,0 +1,123 @@
+package com.bookingservice.service.capacity;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.repository.AllocationStore;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * AllocationStore decorator that reports every allocation write to the {@link OccupancyIndex},
+ * so the occupancy trees of multi-unit properties follow the committed allocations.
+ * <p>
+ * The new state of an allocation is known from the call, except when a status change makes an
+ * allocation ACTIVE again (rebook): the allocation is then read back, and only while some property
+ * has more than one unit.
+ */
+public class OccupancyTrackingAllocationStore implements AllocationStore, DisposableBean {
+
+	private final AllocationStore delegate;
+	private final OccupancyIndex occupancy;
+
+	public OccupancyTrackingAllocationStore(AllocationStore delegate, OccupancyIndex occupancy) {
+		this.delegate = delegate;
+		this.occupancy = occupancy;
+	}
+
+	@Override
+	public List<Allocation> findOverlappingAllocations(String propertyId, AllocationStatus status, LocalDate startDate, LocalDate endDate) {
+		return delegate.findOverlappingAllocations(propertyId, status, startDate, endDate);
+	}
+
+	@Override
+	public Optional<Allocation> findByEntityId(UUID entityId) {
+		return delegate.findByEntityId(entityId);
+	}
+
+	@Override
+	public List<String> findPropertiesWithAllocationsFrom(AllocationStatus status, LocalDate from) {
+		return delegate.findPropertiesWithAllocationsFrom(status, from);
+	}
+
+	@Override
+	public Allocation save(Allocation allocation) {
+		Allocation saved = delegate.save(allocation);
+		occupancy.track(copy(saved));
+		return saved;
+	}
+
+	@Override
+	public void saveAll(Collection<Allocation> allocations) {
+		delegate.saveAll(allocations);
+		allocations.forEach(allocation -> occupancy.track(copy(allocation)));
+	}
+
+	@Override
+	public void updateByEntityId(UUID entityId, String propertyId, LocalDate startDate, LocalDate endDate) {
+		delegate.updateByEntityId(entityId, propertyId, startDate, endDate);
+		if (occupancy.isTracked(entityId) || occupancy.isMultiUnit(propertyId)) {
+			// the status and type are not part of the call
+			delegate.findByEntityId(entityId).map(OccupancyTrackingAllocationStore::copy).ifPresent(occupancy::track);
+		}
+	}
+
+	@Override
+	public void deleteByEntityId(UUID entityId) {
+		delegate.deleteByEntityId(entityId);
+		occupancy.untrack(entityId);
+	}
+
+	@Override
+	public int deleteByEntityIds(Collection<UUID> entityIds) {
+		int deleted = delegate.deleteByEntityIds(entityIds);
+		entityIds.forEach(occupancy::untrack);
+		return deleted;
+	}
+
+	@Override
+	public void updateStatusByEntityIdAndType(UUID entityId, AllocationType type, AllocationStatus status) {
+		delegate.updateStatusByEntityIdAndType(entityId, type, status);
+		if (status != AllocationStatus.ACTIVE) {
+			if (occupancy.isTracked(entityId)) {
+				delegate.findByEntityId(entityId).map(OccupancyTrackingAllocationStore::copy).ifPresent(occupancy::track);
+			}
+		} else if (occupancy.hasMultiUnitProperties()) {
+			delegate.findByEntityId(entityId).map(OccupancyTrackingAllocationStore::copy).ifPresent(occupancy::track);
+		}
+	}
+
+	@Override
+	public int updateStatusByEntityIds(String propertyId, Collection<UUID> entityIds, AllocationStatus newStatus) {
+		int updated = delegate.updateStatusByEntityIds(propertyId, entityIds, newStatus);
+		if (updated > 0) {
+			occupancy.invalidate(propertyId);
+		}
+		return updated;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (delegate instanceof DisposableBean disposable) {
+			disposable.destroy();
+		}
+	}
+
+	// the store may hand back managed entities, changed again later in the transaction
+	private static Allocation copy(Allocation a) {
+		return Allocation.builder()
+			.id(a.getId())
+			.entityId(a.getEntityId())
+			.type(a.getType())
+			.propertyId(a.getPropertyId())
+			.startDate(a.getStartDate())
+			.endDate(a.getEndDate())
+			.status(a.getStatus())
+			.build();
+	}
+}
@@ -0,0 +1,108 @@
+package com.bookingservice.service.capacity;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Units taken per day of one property: range add / range max over epoch days in O(log n).
+ * <p>
+ * A sparse segment tree over {@link #DAYS} days from {@link #FIRST_DAY}: nodes are only created
+ * along the paths of the ranges added, so a property costs a few dozen nodes per allocation rather
+ * than one per day. Adds are not pushed down; each node keeps the add applied to its whole range,
+ * and its max includes it. Nodes live in parallel int arrays (no object per node). Dates outside
+ * the domain are clamped to its ends.
+ * <p>
+ * Not thread-safe.
+ */
+final class OccupancyTree {
+
+	static final int DAYS = 1 << 17;
+	static final LocalDate FIRST_DAY = LocalDate.ofEpochDay(0);
+	static final LocalDate LAST_DAY = FIRST_DAY.plusDays(DAYS - 1);
+
+	// node 0 stands for an absent child (always 0); the root is node 1
+	private static final int ROOT = 1;
+
+	private int[] left = new int[64];
+	private int[] right = new int[64];
+	private int[] max = new int[64];
+	private int[] add = new int[64];
+	private int size = 2;
+
+	/**
+	 * Adds {@code units} to every day of [start, end], both included.
+	 */
+	void add(LocalDate start, LocalDate end, int units) {
+		add(ROOT, 0, DAYS - 1, day(start), day(end), units);
+	}
+
+	/**
+	 * @return the most units taken on any day of [start, end], both included
+	 */
+	int max(LocalDate start, LocalDate end) {
+		return max(ROOT, 0, DAYS - 1, day(start), day(end));
+	}
+
+	int nodes() {
+		return size - 1;
+	}
+
+	private void add(int node, int lo, int hi, int from, int to, int units) {
+		if (from <= lo && hi <= to) {
+			add[node] += units;
+			max[node] += units;
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (from <= mid) {
+			if (left[node] == 0) {
+				// allocate first: newNode may replace the array
+				int child = newNode();
+				left[node] = child;
+			}
+			add(left[node], lo, mid, from, to, units);
+		}
+		if (to > mid) {
+			if (right[node] == 0) {
+				// allocate first: newNode may replace the array
+				int child = newNode();
+				right[node] = child;
+			}
+			add(right[node], mid + 1, hi, from, to, units);
+		}
+		max[node] = add[node] + Math.max(max[left[node]], max[right[node]]);
+	}
+
+	private int max(int node, int lo, int hi, int from, int to) {
+		if (node == 0) {
+			return 0;
+		}
+		if (from <= lo && hi <= to) {
+			return max[node];
+		}
+		int mid = (lo + hi) >>> 1;
+		int result = Integer.MIN_VALUE;
+		if (from <= mid) {
+			result = max(left[node], lo, mid, from, to);
+		}
+		if (to > mid) {
+			result = Math.max(result, max(right[node], mid + 1, hi, from, to));
+		}
+		return add[node] + result;
+	}
+
+	private int newNode() {
+		if (size == max.length) {
+			int length = size * 2;
+			left = Arrays.copyOf(left, length);
+			right = Arrays.copyOf(right, length);
+			max = Arrays.copyOf(max, length);
+			add = Arrays.copyOf(add, length);
+		}
+		return size++;
+	}
+
+	private static int day(LocalDate date) {
+		return (int) Math.max(0, Math.min(DAYS - 1, date.toEpochDay()));
+	}
+}
@@ -0,0 +1,100 @@
+package com.bookingservice.service.coalesce;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for read-only queries: concurrent calls with the same operation and arguments
+ * share one execution and its result instead of each running the same query.
+ * <p>
+ * The first caller (the leader) runs the query in its own read-only transaction; callers that
+ * arrive while it is in flight wait for its result without opening a transaction, so they hold no
+ * connection either. Nothing is cached: once the leader finishes the next call queries again.
+ * Callers inside a read-write transaction bypass coalescing, since they must see their own
+ * uncommitted changes and get managed entities.
+ * <p>
+ * Results are shared between callers and must be treated as read-only.
+ * Metrics: {@code booking.reads.executed} and {@code booking.reads.coalesced} (queries saved),
+ * tagged by operation, and the {@code booking.reads.in-flight} gauge.
+ */
+@Component
+public class ReadCoalescer {
+
+	private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final TransactionTemplate readOnly;
+	private final MeterRegistry meterRegistry;
+
+	public ReadCoalescer(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+		this.meterRegistry = meterRegistry;
+		Gauge.builder("booking.reads.in-flight", inFlight, ConcurrentMap::size)
+			.description("Coalesced read queries currently running")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Runs {@code query} in a read-only transaction, or joins an identical call already in flight.
+	 *
+	 * @param operation name of the read, part of the key and the metric tag
+	 * @param args arguments of the read (nulls allowed); must implement equals/hashCode
+	 * @param query the read itself
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T read(String operation, List<?> args, Supplier<T> query) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+			&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return query.get();
+		}
+		Key key = new Key(operation, args);
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+		if (running != null) {
+			meterRegistry.counter("booking.reads.coalesced", "operation", operation).increment();
+			return (T) await(running);
+		}
+		meterRegistry.counter("booking.reads.executed", "operation", operation).increment();
+		try {
+			T result = readOnly.execute(status -> query.get());
+			mine.complete(result);
+			return result;
+		} catch (RuntimeException | Error ex) {
+			mine.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> running) {
+		try {
+			return running.join();
+		} catch (CompletionException ex) {
+			// the leader's own exception (e.g. NotFoundException), so followers map to the same status
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		} catch (CancellationException ex) {
+			throw new IllegalStateException("Coalesced read was cancelled", ex);
+		}
+	}
+
+	private record Key(String operation, List<?> args) {
+	}
+}
@@ -0,0 +1,28 @@
+package com.bookingservice.service.execution;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How booking/block mutations are executed ({@code booking.execution}), see {@link MutationExecutor}.
+ *
+ * @param mode shared: on the caller's thread | partitioned: on the single writer thread of the property's partition
+ * @param partitions number of partitions (and writer threads); 0 means one per available core
+ * @param queueCapacity mutations waiting per partition; further ones get 503
+ */
+@ConfigurationProperties(prefix = "booking.execution")
+public record ExecutionProperties(
+	@DefaultValue("shared") Mode mode,
+	@DefaultValue("0") int partitions,
+	@DefaultValue("1024") int queueCapacity
+) {
+
+	public enum Mode {
+		SHARED,
+		PARTITIONED
+	}
+
+	public int effectivePartitions() {
+		return partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+	}
+}
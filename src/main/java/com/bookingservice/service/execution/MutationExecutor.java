@@ -0,0 +1,274 @@
+package com.bookingservice.service.execution;
+
+import com.bookingservice.support.CapacityExceededException;
+import com.bookingservice.service.lease.LeaseManager;
+import com.bookingservice.support.MessageCatalog;
+import com.bookingservice.support.NotOwnerException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs booking/block mutations in a read-write transaction, on the thread chosen by
+ * {@code booking.execution.mode}.
+ * <p>
+ * {@code shared} (default): on the caller's thread, like {@code @Transactional}; concurrent
+ * mutations of a property are kept apart by the overlap check or the exclusion constraint.
+ * <p>
+ * {@code partitioned}: properties are hashed into P partitions, each owning one writer thread and
+ * a bounded ring-buffer queue. Every mutation of a property runs on its partition's thread, so the
+ * mutations of one property never run concurrently and the check-then-write needs no lock; reads
+ * are not routed and stay multi-threaded. The caller waits for its own mutation; a full queue
+ * is reported as 503. A mutation issued from inside another mutation, on the partition's own
+ * thread, runs inline in that mutation's transaction. Any other caller must not be inside a
+ * transaction: its writes would run on its own thread, outside the partition, so they are
+ * rejected. Metrics per partition: {@code booking.partitions.queue-depth} and
+ * {@code booking.partitions.service-time}.
+ * <p>
+ * With {@code booking.leases.enabled}, a node only runs the mutations of the properties it holds
+ * the lease of, checked before the mutation and before its commit.
+ * <p>
+ * A mutation moving an entity between two properties holds both: both leases, and in partitioned
+ * mode both writers (see {@link #write(String, String, Supplier)}).
+ */
+@Component
+public class MutationExecutor implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(MutationExecutor.class);
+
+	private final TransactionTemplate transactionTemplate;
+	private final MessageCatalog messages;
+	private final LeaseManager leases;
+	private final Partition[] partitions;
+	// keeps the two tasks of every cross-partition mutation in the same order in all queues
+	private final Object crossPartitionLock = new Object();
+
+	public MutationExecutor(ExecutionProperties properties,
+	                        PlatformTransactionManager transactionManager,
+	                        MessageCatalog messages,
+	                        LeaseManager leases,
+	                        MeterRegistry meterRegistry) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.messages = messages;
+		this.leases = leases;
+		if (properties.mode() == ExecutionProperties.Mode.PARTITIONED) {
+			this.partitions = new Partition[properties.effectivePartitions()];
+			for (int i = 0; i < partitions.length; i++) {
+				partitions[i] = new Partition(i, properties.queueCapacity(), meterRegistry);
+			}
+			log.info("Mutations run on {} partition writer threads", partitions.length);
+		} else {
+			this.partitions = null;
+		}
+	}
+
+	/**
+	 * Runs a mutation of the given property in a transaction and returns its result.
+	 *
+	 * @throws CapacityExceededException if the partition queue is full
+	 * @throws NotOwnerException if another node holds the lease of the property (see {@link LeaseManager})
+	 * @throws IllegalStateException in partitioned mode, if called inside a transaction from
+	 *         outside the property's partition
+	 */
+	public <T> T write(String propertyId, Supplier<T> writes) {
+		leases.checkOwner(propertyId);
+		Supplier<T> mutation = () -> {
+			leases.checkOwnerAtCommit(propertyId);
+			return writes.get();
+		};
+		if (partitions == null) {
+			return inTransaction(mutation);
+		}
+		Partition partition = partitionOf(propertyId);
+		if (Thread.currentThread() == partition.thread) {
+			return inTransaction(mutation);
+		}
+		ensureNoTransaction(propertyId);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		if (!partition.queue.offer(task(result, () -> inTransaction(mutation)))) {
+			throw new CapacityExceededException(messages.get("error.partition.full"));
+		}
+		return await(result);
+	}
+
+	/**
+	 * Runs a mutation moving an entity from one property to another in a transaction and returns
+	 * its result. This node must hold both leases: a mutation for a source held elsewhere is
+	 * redirected to its owner, and a target held elsewhere is rejected, as no node could serve it.
+	 * In partitioned mode, when the properties fall in different partitions, the lower partition's
+	 * writer is parked while the higher one runs the mutation, so neither property changes
+	 * concurrently.
+	 *
+	 * @throws CapacityExceededException if a partition queue is full
+	 * @throws NotOwnerException if another node holds the lease of the source property
+	 * @throws IllegalStateException if another node holds the lease of the target property, or in
+	 *         partitioned mode, if called inside a transaction from outside both partitions
+	 */
+	public <T> T write(String fromPropertyId, String toPropertyId, Supplier<T> writes) {
+		if (fromPropertyId.equals(toPropertyId)) {
+			return write(toPropertyId, writes);
+		}
+		leases.checkOwner(fromPropertyId);
+		leases.checkMoveTarget(toPropertyId);
+		Supplier<T> mutation = () -> {
+			leases.checkOwnersAtCommit(fromPropertyId, toPropertyId);
+			return writes.get();
+		};
+		if (partitions == null) {
+			return inTransaction(mutation);
+		}
+		Partition from = partitionOf(fromPropertyId);
+		Partition to = partitionOf(toPropertyId);
+		if (Thread.currentThread() == from.thread || Thread.currentThread() == to.thread) {
+			return inTransaction(mutation);
+		}
+		ensureNoTransaction(toPropertyId);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		if (from == to) {
+			if (!to.queue.offer(task(result, () -> inTransaction(mutation)))) {
+				throw new CapacityExceededException(messages.get("error.partition.full"));
+			}
+			return await(result);
+		}
+		Partition lower = from.index < to.index ? from : to;
+		Partition higher = lower == from ? to : from;
+		CompletableFuture<Void> parked = new CompletableFuture<>();
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		Runnable park = () -> {
+			parked.complete(null);
+			done.join();
+		};
+		Runnable exclusive = task(result, () -> {
+			parked.join();
+			try {
+				return inTransaction(mutation);
+			} finally {
+				done.complete(null);
+			}
+		});
+		synchronized (crossPartitionLock) {
+			if (!lower.queue.offer(park)) {
+				throw new CapacityExceededException(messages.get("error.partition.full"));
+			}
+			if (!higher.queue.offer(exclusive)) {
+				done.complete(null);
+				throw new CapacityExceededException(messages.get("error.partition.full"));
+			}
+		}
+		return await(result);
+	}
+
+	public void run(String propertyId, Runnable mutation) {
+		write(propertyId, () -> {
+			mutation.run();
+			return null;
+		});
+	}
+
+	@Override
+	public void destroy() {
+		if (partitions != null) {
+			for (Partition partition : partitions) {
+				partition.thread.interrupt();
+			}
+		}
+	}
+
+	private Partition partitionOf(String propertyId) {
+		return partitions[Math.floorMod(propertyId.hashCode(), partitions.length)];
+	}
+
+	// the mutation would run on the partition's thread, outside the caller's transaction
+	private static void ensureNoTransaction(String propertyId) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			throw new IllegalStateException("Mutation of property " + propertyId
+				+ " called inside a transaction; in partitioned mode it must be called outside one");
+		}
+	}
+
+	private <T> T inTransaction(Supplier<T> mutation) {
+		return transactionTemplate.execute(status -> mutation.get());
+	}
+
+	private static <T> Runnable task(CompletableFuture<T> result, Supplier<T> work) {
+		// messages are resolved with the caller's locale
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		return () -> {
+			LocaleContextHolder.setLocaleContext(localeContext);
+			try {
+				result.complete(work.get());
+			} catch (Throwable ex) {
+				result.completeExceptionally(ex);
+			} finally {
+				LocaleContextHolder.resetLocaleContext();
+			}
+		};
+	}
+
+	private static <T> T await(CompletableFuture<T> result) {
+		try {
+			return result.join();
+		} catch (CompletionException ex) {
+			// the mutation's own exception, so it maps to the usual status
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	private static final class Partition {
+
+		private final int index;
+		private final BlockingQueue<Runnable> queue;
+		private final Thread thread;
+		private final Timer serviceTime;
+
+		Partition(int index, int capacity, MeterRegistry meterRegistry) {
+			this.index = index;
+			this.queue = new ArrayBlockingQueue<>(capacity);
+			String tag = Integer.toString(index);
+			Gauge.builder("booking.partitions.queue-depth", queue, BlockingQueue::size)
+				.description("Mutations waiting for the partition writer")
+				.tag("partition", tag)
+				.register(meterRegistry);
+			this.serviceTime = Timer.builder("booking.partitions.service-time")
+				.description("Time the partition writer spends on one mutation")
+				.tag("partition", tag)
+				.register(meterRegistry);
+			this.thread = new Thread(this::drain, "booking-writer-" + index);
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+
+		private void drain() {
+			while (!Thread.currentThread().isInterrupted()) {
+				Runnable task;
+				try {
+					task = queue.take();
+				} catch (InterruptedException ex) {
+					return;
+				}
+				serviceTime.record(task);
+			}
+		}
+	}
+}
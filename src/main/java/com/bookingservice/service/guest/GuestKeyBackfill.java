@@ -0,0 +1,61 @@
+package com.bookingservice.service.guest;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills the guest lookup keys of bookings written before they existed, so the guest searches find
+ * them. Runs at startup, one transaction per chunk; once every booking has its keys it is a single
+ * empty query.
+ */
+@Component
+public class GuestKeyBackfill implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(GuestKeyBackfill.class);
+
+	private static final int CHUNK_SIZE = 500;
+
+	private final BookingRepository bookingRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	public GuestKeyBackfill(BookingRepository bookingRepository, PlatformTransactionManager transactionManager) {
+		this.bookingRepository = bookingRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		int filled = backfill();
+		if (filled > 0) {
+			log.info("Filled the guest lookup keys of {} bookings", filled);
+		}
+	}
+
+	/**
+	 * @return the number of bookings updated
+	 */
+	public int backfill() {
+		int filled = 0;
+		int chunk;
+		do {
+			chunk = transactionTemplate.execute(status -> {
+				// each chunk leaves the query, so the next one starts from the first page again
+				List<Booking> bookings = bookingRepository.findWithoutGuestKeys(PageRequest.of(0, CHUNK_SIZE));
+				bookings.forEach(Booking::normalizeGuest);
+				return bookings.size();
+			});
+			filled += chunk;
+		} while (chunk == CHUNK_SIZE);
+		return filled;
+	}
+}
@@ -0,0 +1,365 @@
+package com.bookingservice.service.history;
+
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.HistoryBacklog;
+import com.bookingservice.model.HistoryCursor;
+import com.bookingservice.model.HistoryEvent;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.model.HistorySnapshot;
+import com.bookingservice.repository.HistoryBacklogRepository;
+import com.bookingservice.repository.HistoryCursorRepository;
+import com.bookingservice.repository.HistoryEventRepository;
+import com.bookingservice.repository.HistorySnapshotRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Append-only history of Booking/Block state changes.
+ * <p>
+ * Every mutation appends an immutable event in the same transaction as the change to
+ * {@code bookings}/{@code blocks}/{@code allocations}, which remain the current-state projections.
+ * Past states are rebuilt by folding events; per-property snapshots taken by a periodic job
+ * bound the number of events a replay has to read.
+ * <p>
+ * Event ids and {@code occurredAt} are assigned before commit, so a concurrent writer can make an
+ * older event visible after a newer one. A snapshot therefore only folds events older than
+ * {@code booking.history.commit-margin}, which must exceed the longest write transaction, and
+ * replay continues from the snapshot's horizon by time rather than by id.
+ * <p>
+ * The snapshot job counts the events committed since its previous run into a per-property
+ * backlog, so picking the properties to snapshot reads only the new events. A snapshot stores
+ * only what changed since the previous one; every {@code booking.history.full-snapshot-every}
+ * snapshots it stores the whole state again, which bounds the deltas a replay has to read.
+ */
+@Service
+public class HistoryService {
+
+	private static final Logger log = LoggerFactory.getLogger(HistoryService.class);
+	private static final TypeReference<List<EntityState>> STATE_TYPE = new TypeReference<>() {};
+	private static final TypeReference<List<UUID>> IDS_TYPE = new TypeReference<>() {};
+	private static final String BACKLOG_CURSOR = "snapshot-backlog";
+
+	private final HistoryEventRepository eventRepository;
+	private final HistorySnapshotRepository snapshotRepository;
+	private final HistoryBacklogRepository backlogRepository;
+	private final HistoryCursorRepository cursorRepository;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate transactionTemplate;
+	private final long snapshotEvery;
+	private final int fullSnapshotEvery;
+	private final Duration commitMargin;
+
+	public HistoryService(HistoryEventRepository eventRepository,
+	                      HistorySnapshotRepository snapshotRepository,
+	                      HistoryBacklogRepository backlogRepository,
+	                      HistoryCursorRepository cursorRepository,
+	                      ObjectMapper objectMapper,
+	                      PlatformTransactionManager transactionManager,
+	                      @Value("${booking.history.snapshot-every:1000}") long snapshotEvery,
+	                      @Value("${booking.history.full-snapshot-every:10}") int fullSnapshotEvery,
+	                      @Value("${booking.history.commit-margin:PT1M}") Duration commitMargin) {
+		if (fullSnapshotEvery < 1) {
+			throw new IllegalStateException("booking.history.full-snapshot-every must be at least 1");
+		}
+		this.eventRepository = eventRepository;
+		this.snapshotRepository = snapshotRepository;
+		this.backlogRepository = backlogRepository;
+		this.cursorRepository = cursorRepository;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.snapshotEvery = snapshotEvery;
+		this.fullSnapshotEvery = fullSnapshotEvery;
+		this.commitMargin = commitMargin;
+	}
+
+	/**
+	 * State of a Booking or Block at some point in time.
+	 */
+	public record EntityState(
+		UUID entityId,
+		AllocationType type,
+		String propertyId,
+		LocalDate startDate,
+		LocalDate endDate,
+		AllocationStatus status,
+		String guestName,
+		String guestEmail
+	) {
+		static EntityState of(HistoryEvent e) {
+			return new EntityState(e.getEntityId(), e.getEntityType(), e.getPropertyId(), e.getStartDate(),
+				e.getEndDate(), e.getStatus(), e.getGuestName(), e.getGuestEmail());
+		}
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void record(HistoryEventType type, Booking booking) {
+		eventRepository.save(HistoryEvent.builder()
+			.entityId(booking.getId())
+			.entityType(AllocationType.BOOKING)
+			.eventType(type)
+			.propertyId(booking.getPropertyId())
+			.startDate(booking.getStartDate())
+			.endDate(booking.getEndDate())
+			.status(AllocationStatus.valueOf(booking.getStatus().name()))
+			.guestName(booking.getGuestName())
+			.guestEmail(booking.getGuestEmail())
+			.occurredAt(Instant.now())
+			.build());
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void record(HistoryEventType type, Block block) {
+		eventRepository.save(HistoryEvent.builder()
+			.entityId(block.getId())
+			.entityType(AllocationType.BLOCK)
+			.eventType(type)
+			.propertyId(block.getPropertyId())
+			.startDate(block.getStartDate())
+			.endDate(block.getEndDate())
+			.status(AllocationStatus.ACTIVE)
+			.occurredAt(Instant.now())
+			.build());
+	}
+
+	/**
+	 * Records one CANCELED event per given booking, in a single statement. Call it before the
+	 * bookings are canceled.
+	 *
+	 * @return the number of events recorded
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int recordBookingsCanceled(Collection<UUID> bookingIds) {
+		return eventRepository.insertForBookings(AllocationType.BOOKING, HistoryEventType.CANCELED,
+			AllocationStatus.CANCELED, Instant.now(), bookingIds);
+	}
+
+	/**
+	 * Records one DELETED event per given block, in a single statement. Call it before the blocks
+	 * are deleted.
+	 *
+	 * @return the number of events recorded
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int recordBlocksDeleted(Collection<UUID> blockIds) {
+		return eventRepository.insertForBlocks(AllocationType.BLOCK, HistoryEventType.DELETED,
+			AllocationStatus.ACTIVE, Instant.now(), blockIds);
+	}
+
+	/**
+	 * Bookings and blocks of a property as they were at the given instant.
+	 */
+	@Transactional(readOnly = true)
+	public List<EntityState> stateAsOf(String propertyId, Instant asOf) {
+		return replay(propertyId, asOf).values().stream()
+			.sorted(Comparator.comparing(EntityState::startDate).thenComparing(EntityState::entityId))
+			.toList();
+	}
+
+	/**
+	 * Full audit trail of one Booking or Block, oldest first.
+	 */
+	@Transactional(readOnly = true)
+	public List<HistoryEvent> eventsFor(UUID entityId) {
+		return eventRepository.findByEntityIdOrderById(entityId);
+	}
+
+	/**
+	 * Snapshots every property that accumulated {@code booking.history.snapshot-every} events
+	 * since its latest snapshot. Each property is snapshotted in its own short transaction.
+	 */
+	@Scheduled(fixedDelayString = "${booking.history.snapshot-interval:PT1M}")
+	public void takeSnapshots() {
+		// whole microseconds, the precision timestamps are stored with
+		Instant horizon = Instant.now().minus(commitMargin).truncatedTo(ChronoUnit.MICROS);
+		List<String> properties = transactionTemplate.execute(status -> {
+			countNewEvents(horizon);
+			return backlogRepository.findPropertiesWithPendingAtLeast(snapshotEvery);
+		});
+		for (String propertyId : properties) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> snapshot(propertyId, horizon));
+			} catch (RuntimeException ex) {
+				log.warn("History snapshot failed for property {}", propertyId, ex);
+			}
+		}
+	}
+
+	/**
+	 * Adds the events that occurred since the previous run, up to {@code horizon}, to the backlog
+	 * of their properties. The cursor row is locked, so concurrent nodes count each event once.
+	 * Every event up to the horizon is committed, so none is counted late or twice.
+	 */
+	private void countNewEvents(Instant horizon) {
+		HistoryCursor cursor = cursorRepository.findLocked(BACKLOG_CURSOR)
+			.orElseGet(() -> cursorRepository.save(new HistoryCursor(BACKLOG_CURSOR, Instant.EPOCH)));
+		Instant after = cursor.getPosition();
+		if (!horizon.isAfter(after)) {
+			return;
+		}
+		// before the updates below, which flush it and then clear the persistence context
+		cursor.setPosition(horizon);
+		for (var counted : eventRepository.countByPropertyOccurredBetween(after, horizon)) {
+			if (backlogRepository.add(counted.getPropertyId(), counted.getEvents()) == 0) {
+				backlogRepository.save(new HistoryBacklog(counted.getPropertyId(), counted.getEvents()));
+			}
+		}
+	}
+
+	/**
+	 * Folds the events of the property that occurred up to {@code horizon} into a snapshot taken
+	 * at that instant. Every event up to the horizon must already be committed. Only the entities
+	 * those events touched are written, unless the snapshot is due to be a full one.
+	 */
+	void snapshot(String propertyId, Instant horizon) {
+		HistorySnapshot base = latestSnapshot(propertyId, horizon);
+		List<HistoryEvent> events = eventRepository.findForReplay(propertyId, after(base), horizon);
+		backlogRepository.settle(propertyId, events.size());
+		if (events.isEmpty()) {
+			return;
+		}
+		long lastEventId = events.stream().mapToLong(HistoryEvent::getId).max().getAsLong();
+		HistorySnapshot.HistorySnapshotBuilder snapshot = HistorySnapshot.builder()
+			.propertyId(propertyId)
+			.lastEventId(base == null ? lastEventId : Math.max(lastEventId, base.getLastEventId()))
+			.takenAt(horizon);
+		int depth = base == null ? 0 : depth(base) + 1;
+		if (base == null || depth >= fullSnapshotEvery) {
+			Map<UUID, EntityState> state = base == null ? new LinkedHashMap<>() : fold(base);
+			events.forEach(e -> apply(state, e));
+			snapshot.depth(0).state(writeState(state.values()));
+		} else {
+			Map<UUID, EntityState> changed = new LinkedHashMap<>();
+			Set<UUID> removed = new LinkedHashSet<>();
+			for (HistoryEvent event : events) {
+				if (event.getEventType().removesEntity()) {
+					changed.remove(event.getEntityId());
+					removed.add(event.getEntityId());
+				} else {
+					changed.put(event.getEntityId(), EntityState.of(event));
+					removed.remove(event.getEntityId());
+				}
+			}
+			snapshot.baseId(base.getId()).depth(depth)
+				.state(writeState(changed.values()))
+				.removed(writeIds(removed));
+		}
+		snapshotRepository.save(snapshot.build());
+	}
+
+	private Map<UUID, EntityState> replay(String propertyId, Instant asOf) {
+		HistorySnapshot base = latestSnapshot(propertyId, asOf);
+		Map<UUID, EntityState> state = base == null ? new LinkedHashMap<>() : fold(base);
+		eventRepository.findForReplay(propertyId, after(base), asOf)
+			.forEach(e -> apply(state, e));
+		return state;
+	}
+
+	/**
+	 * State at the snapshot's takenAt: its full snapshot with the deltas up to it applied in order.
+	 */
+	private Map<UUID, EntityState> fold(HistorySnapshot snapshot) {
+		Deque<HistorySnapshot> chain = new ArrayDeque<>();
+		for (HistorySnapshot s = snapshot; s != null; s = base(s)) {
+			chain.push(s);
+		}
+		Map<UUID, EntityState> state = new LinkedHashMap<>();
+		for (HistorySnapshot s : chain) {
+			readIds(s).forEach(state::remove);
+			readState(s).forEach(e -> state.put(e.entityId(), e));
+		}
+		return state;
+	}
+
+	private HistorySnapshot base(HistorySnapshot delta) {
+		if (delta.getBaseId() == null) {
+			return null;
+		}
+		return snapshotRepository.findById(delta.getBaseId()).orElseThrow(() ->
+			new IllegalStateException("History snapshot " + delta.getId() + " lost its base " + delta.getBaseId()));
+	}
+
+	private static int depth(HistorySnapshot snapshot) {
+		return snapshot.getDepth() == null ? 0 : snapshot.getDepth();
+	}
+
+	private HistorySnapshot latestSnapshot(String propertyId, Instant asOf) {
+		return snapshotRepository
+			.findFirstByPropertyIdAndTakenAtLessThanEqualOrderByTakenAtDesc(propertyId, asOf)
+			.orElse(null);
+	}
+
+	private static Instant after(HistorySnapshot base) {
+		return base == null ? Instant.EPOCH : base.getTakenAt();
+	}
+
+	private static void apply(Map<UUID, EntityState> state, HistoryEvent event) {
+		if (event.getEventType().removesEntity()) {
+			state.remove(event.getEntityId());
+		} else {
+			state.put(event.getEntityId(), EntityState.of(event));
+		}
+	}
+
+	private List<EntityState> readState(HistorySnapshot snapshot) {
+		try {
+			return objectMapper.readValue(snapshot.getState(), STATE_TYPE);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Corrupt history snapshot " + snapshot.getId(), ex);
+		}
+	}
+
+	private List<UUID> readIds(HistorySnapshot snapshot) {
+		if (snapshot.getRemoved() == null) {
+			return List.of();
+		}
+		try {
+			return objectMapper.readValue(snapshot.getRemoved(), IDS_TYPE);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Corrupt history snapshot " + snapshot.getId(), ex);
+		}
+	}
+
+	private String writeState(Collection<EntityState> state) {
+		try {
+			return objectMapper.writeValueAsString(state);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize history snapshot", ex);
+		}
+	}
+
+	private String writeIds(Collection<UUID> ids) {
+		try {
+			return objectMapper.writeValueAsString(ids);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize history snapshot", ex);
+		}
+	}
+}
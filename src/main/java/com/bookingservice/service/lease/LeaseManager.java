@@ -0,0 +1,345 @@
+package com.bookingservice.service.lease;
+
+import com.bookingservice.model.LeaseNode;
+import com.bookingservice.model.PartitionLease;
+import com.bookingservice.repository.LeaseNodeRepository;
+import com.bookingservice.repository.PartitionLeaseRepository;
+import com.bookingservice.service.pipeline.WritePipelineProperties;
+import com.bookingservice.support.MessageCatalog;
+import com.bookingservice.support.NotOwnerException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Shares the properties among the nodes of one database, so that the in-memory state of a
+ * property (occupancy trees, rate calendars) is only changed by one node at a time.
+ * <p>
+ * Properties are hashed into {@code partitions}; each partition has a row in
+ * {@code partition_leases} naming the node that owns it until some instant. Every
+ * {@code renew-interval}, each node records itself in {@code lease_nodes}, extends its leases and
+ * moves towards an even share (partitions / live nodes, rounded up): it frees the leases beyond
+ * its share, and takes free or expired ones up to it. Taking and freeing are conditional updates,
+ * so a lease never has two owners in the database. A node that stops renewing loses its leases
+ * after {@code ttl}, and the others take them over (failover); a node joining makes the others
+ * shed their excess on their next renewal (rebalancing). A node shutting down frees its leases
+ * at once.
+ * <p>
+ * A node serves a lease for {@code ttl - max-clock-skew} after the renewal started, so it stops
+ * before any other node can see the lease expired. Before taking over a partition it publishes
+ * {@link PartitionsAcquired}, so the state cached while another node owned it is dropped.
+ * <p>
+ * {@link com.bookingservice.service.execution.MutationExecutor} checks the lease before a mutation
+ * and fences its commit with the lease epoch (see {@link #checkOwnerAtCommit}), so a mutation that
+ * outlives its lease (GC pause, slow commit) rolls back instead of landing under the new owner. Reads are served by every node. Disabled by default: a single
+ * node owns everything.
+ */
+@Component
+public class LeaseManager implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(LeaseManager.class);
+
+	private final LeaseProperties properties;
+	private final String nodeId;
+	private final String advertisedUrl;
+	private final PartitionLeaseRepository leaseRepository;
+	private final LeaseNodeRepository nodeRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final MessageCatalog messages;
+	private final Clock clock;
+	// partition -> lease held, until this node stops serving it unless renewed
+	private final ConcurrentMap<Integer, Held> served = new ConcurrentHashMap<>();
+	private volatile boolean rowsCreated;
+
+	@Autowired
+	public LeaseManager(LeaseProperties properties,
+	                    PartitionLeaseRepository leaseRepository,
+	                    LeaseNodeRepository nodeRepository,
+	                    PlatformTransactionManager transactionManager,
+	                    ApplicationEventPublisher eventPublisher,
+	                    MessageCatalog messages,
+	                    MeterRegistry meterRegistry,
+	                    WritePipelineProperties writePipeline,
+	                    @Value("${booking.allocation.store:jpa}") String allocationStore) {
+		this(properties, leaseRepository, nodeRepository, transactionManager, eventPublisher, messages, meterRegistry,
+			Clock.systemUTC());
+		if (properties.enabled() && writePipeline.enabled()) {
+			// batches span properties of any partition
+			throw new IllegalStateException("booking.leases.enabled requires booking.write-pipeline.enabled=false");
+		}
+		if (properties.enabled() && !"jpa".equals(allocationStore)) {
+			// the journal holds every property in memory, on one node
+			throw new IllegalStateException("booking.leases.enabled requires booking.allocation.store=jpa");
+		}
+	}
+
+	LeaseManager(LeaseProperties properties,
+	             PartitionLeaseRepository leaseRepository,
+	             LeaseNodeRepository nodeRepository,
+	             PlatformTransactionManager transactionManager,
+	             ApplicationEventPublisher eventPublisher,
+	             MessageCatalog messages,
+	             MeterRegistry meterRegistry,
+	             Clock clock) {
+		if (properties.enabled() && (properties.partitions() < 1
+			|| properties.ttl().compareTo(properties.renewInterval().plus(properties.maxClockSkew())) <= 0)) {
+			throw new IllegalStateException("booking.leases needs partitions >= 1 and ttl > renew-interval + max-clock-skew");
+		}
+		this.properties = properties;
+		this.nodeId = properties.nodeId().isEmpty() ? "node-" + UUID.randomUUID() : properties.nodeId();
+		this.advertisedUrl = properties.advertisedUrl().isEmpty() ? null : properties.advertisedUrl();
+		this.leaseRepository = leaseRepository;
+		this.nodeRepository = nodeRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.messages = messages;
+		this.clock = clock;
+		Gauge.builder("booking.leases.held", served, ConcurrentMap::size)
+			.description("Partitions whose mutations this node serves")
+			.register(meterRegistry);
+	}
+
+	public static int partitionOf(String propertyId, int partitions) {
+		// String.hashCode is the same on every JVM
+		return Math.floorMod(propertyId.hashCode(), partitions);
+	}
+
+	public String nodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * @return whether this node may change the property now; always true when disabled
+	 */
+	public boolean owns(String propertyId) {
+		if (!properties.enabled() || propertyId == null) {
+			return true;
+		}
+		Held held = served.get(partitionOf(propertyId, properties.partitions()));
+		return held != null && clock.instant().isBefore(held.until());
+	}
+
+	/**
+	 * @throws NotOwnerException if this node may not change the property now
+	 */
+	public void checkOwner(String propertyId) {
+		if (owns(propertyId)) {
+			return;
+		}
+		throw new NotOwnerException(messages.get("error.lease.notOwner", propertyId),
+			ownerUrl(partitionOf(propertyId, properties.partitions())));
+	}
+
+	/**
+	 * A move into a property changes two properties at once, so the node serving the source must
+	 * also hold the target; redirecting would only reach a node missing the source.
+	 *
+	 * @throws IllegalStateException if this node may not change the target property now
+	 */
+	public void checkMoveTarget(String propertyId) {
+		if (!owns(propertyId)) {
+			throw new IllegalStateException(messages.get("error.lease.moveAcrossNodes", propertyId));
+		}
+	}
+
+	/**
+	 * {@link #checkOwnerAtCommit} for both properties of a move, fenced in partition order so that
+	 * concurrent moves lock the lease rows in the same order.
+	 */
+	public void checkOwnersAtCommit(String propertyId, String otherPropertyId) {
+		if (!properties.enabled()) {
+			return;
+		}
+		if (partitionOf(propertyId, properties.partitions()) <= partitionOf(otherPropertyId, properties.partitions())) {
+			checkOwnerAtCommit(propertyId);
+			checkOwnerAtCommit(otherPropertyId);
+		} else {
+			checkOwnerAtCommit(otherPropertyId);
+			checkOwnerAtCommit(propertyId);
+		}
+	}
+
+	/**
+	 * Checks the lease again just before the current transaction commits, in case it was lost while
+	 * the mutation ran; the transaction then rolls back.
+	 * <p>
+	 * The check is a fence in the database, not only on this node's clock: a conditional update of
+	 * the lease row, matching this node and the epoch it took the lease at, unexpired. It fails once
+	 * another node took the lease over (the epoch changed), and otherwise locks the row until the
+	 * commit, so a takeover waits for the mutation and then sees it.
+	 */
+	public void checkOwnerAtCommit(String propertyId) {
+		if (!properties.enabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				checkOwner(propertyId);
+				int partition = partitionOf(propertyId, properties.partitions());
+				Held held = served.get(partition);
+				if (held == null || leaseRepository.fence(partition, nodeId, held.epoch(), clock.instant()) == 0) {
+					throw new NotOwnerException(messages.get("error.lease.notOwner", propertyId), ownerUrl(partition));
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return the partitions this node serves now
+	 */
+	public Set<Integer> servedPartitions() {
+		Instant now = clock.instant();
+		Set<Integer> partitions = new TreeSet<>();
+		served.forEach((partition, held) -> {
+			if (now.isBefore(held.until())) {
+				partitions.add(partition);
+			}
+		});
+		return partitions;
+	}
+
+	@Scheduled(initialDelayString = "${booking.leases.initial-delay:PT0S}",
+		fixedDelayString = "${booking.leases.renew-interval:PT5S}")
+	public void renewPeriodically() {
+		if (!properties.enabled()) {
+			return;
+		}
+		try {
+			renew();
+		} catch (RuntimeException ex) {
+			// the leases held run out on their own if this keeps failing
+			log.warn("Lease renewal of node {} failed", nodeId, ex);
+		}
+	}
+
+	/**
+	 * Records this node as alive, extends its leases and moves towards its share of the partitions.
+	 */
+	public synchronized void renew() {
+		createRows();
+		Instant now = clock.instant();
+		Instant expiresAt = now.plus(properties.ttl());
+		Instant servedUntil = expiresAt.minus(properties.maxClockSkew());
+		int partitions = properties.partitions();
+		Set<Integer> acquired = new TreeSet<>();
+		Map<Integer, Long> held = transactionTemplate.execute(status -> {
+			nodeRepository.save(new LeaseNode(nodeId, advertisedUrl, expiresAt));
+			leaseRepository.renew(nodeId, now, expiresAt);
+			List<Integer> mine = new ArrayList<>(leaseRepository.findHeld(nodeId, now, partitions).stream()
+				.map(PartitionLease::getPartitionId)
+				.toList());
+			long liveNodes = Math.max(1, nodeRepository.countByExpiresAtAfter(now));
+			int share = (int) ((partitions + liveNodes - 1) / liveNodes);
+			if (mine.size() > share) {
+				List<Integer> excess = List.copyOf(mine.subList(share, mine.size()));
+				// stop serving them before they are free
+				excess.forEach(served::remove);
+				leaseRepository.release(nodeId, excess, now);
+				mine.removeAll(excess);
+			} else {
+				for (Integer partition : leaseRepository.findAcquirable(now, partitions)) {
+					if (mine.size() >= share) {
+						break;
+					}
+					if (leaseRepository.acquire(partition, nodeId, now, expiresAt) == 1) {
+						mine.add(partition);
+						acquired.add(partition);
+					}
+				}
+			}
+			// with the epochs of the leases just taken
+			return leaseRepository.findHeld(nodeId, now, partitions).stream()
+				.collect(Collectors.toMap(PartitionLease::getPartitionId, PartitionLease::getEpoch));
+		});
+		Set<Integer> lost = new HashSet<>(served.keySet());
+		lost.removeAll(held.keySet());
+		lost.forEach(served::remove);
+		if (!acquired.isEmpty()) {
+			eventPublisher.publishEvent(new PartitionsAcquired(Set.copyOf(acquired), partitions));
+		}
+		held.forEach((partition, epoch) -> served.put(partition, new Held(epoch, servedUntil)));
+		if (!acquired.isEmpty() || !lost.isEmpty()) {
+			log.info("Node {} acquired partitions {}, lost {}, now serves {}", nodeId, acquired, lost, held.size());
+		}
+	}
+
+	/**
+	 * Frees the leases of this node, so the other nodes take them over on their next renewal
+	 * instead of after {@code ttl}.
+	 */
+	@Override
+	public synchronized void destroy() {
+		if (!properties.enabled()) {
+			return;
+		}
+		List<Integer> held = List.copyOf(served.keySet());
+		served.clear();
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				if (!held.isEmpty()) {
+					leaseRepository.release(nodeId, held, clock.instant());
+				}
+				nodeRepository.deleteById(nodeId);
+			});
+		} catch (RuntimeException ex) {
+			log.warn("Node {} could not free its leases, they expire in {}", nodeId, properties.ttl(), ex);
+		}
+	}
+
+	private void createRows() {
+		if (rowsCreated) {
+			return;
+		}
+		for (int partition = 0; partition < properties.partitions(); partition++) {
+			int id = partition;
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					if (!leaseRepository.existsById(id)) {
+						leaseRepository.saveAndFlush(new PartitionLease(id, null, Instant.EPOCH, 0));
+					}
+				});
+			} catch (DataIntegrityViolationException ex) {
+				// created by another node meanwhile
+			}
+		}
+		rowsCreated = true;
+	}
+
+	private String ownerUrl(int partition) {
+		Instant now = clock.instant();
+		return leaseRepository.findById(partition)
+			.filter(lease -> lease.getOwner() != null && !lease.getOwner().equals(nodeId) && lease.getExpiresAt().isAfter(now))
+			.flatMap(lease -> nodeRepository.findById(lease.getOwner()))
+			.map(LeaseNode::getUrl)
+			.orElse(null);
+	}
+
+	private record Held(long epoch, Instant until) {}
+}
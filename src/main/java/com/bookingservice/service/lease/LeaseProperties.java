@@ -0,0 +1,31 @@
+package com.bookingservice.service.lease;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Partition leases between nodes sharing one database ({@code booking.leases}), see {@link LeaseManager}.
+ *
+ * @param enabled off: this node serves every property, as a single node does
+ * @param nodeId name of this node in the leases, unique among the nodes; empty means a random one
+ * @param advertisedUrl base URL of this node, where the other nodes redirect mutations it owns;
+ *                      empty means they answer 503 instead
+ * @param partitions number of partitions the properties are hashed into; the same on every node
+ * @param ttl how long a lease or a node stays alive without renewal
+ * @param renewInterval time between two renewals; well under {@code ttl}
+ * @param maxClockSkew most the clocks of two nodes may differ; a lease is served for {@code ttl}
+ *                     minus this after its renewal started
+ */
+@ConfigurationProperties(prefix = "booking.leases")
+public record LeaseProperties(
+	@DefaultValue("false") boolean enabled,
+	@DefaultValue("") String nodeId,
+	@DefaultValue("") String advertisedUrl,
+	@DefaultValue("64") int partitions,
+	@DefaultValue("15s") Duration ttl,
+	@DefaultValue("5s") Duration renewInterval,
+	@DefaultValue("1s") Duration maxClockSkew
+) {
+}
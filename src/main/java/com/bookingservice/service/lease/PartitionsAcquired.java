@@ -0,0 +1,14 @@
+package com.bookingservice.service.lease;
+
+import java.util.Set;
+
+/**
+ * Published when this node takes over partitions, before it serves their mutations: the state
+ * other nodes may have changed since must be dropped from memory.
+ */
+public record PartitionsAcquired(Set<Integer> partitionIds, int partitions) {
+
+	public boolean covers(String propertyId) {
+		return partitionIds.contains(LeaseManager.partitionOf(propertyId, partitions));
+	}
+}
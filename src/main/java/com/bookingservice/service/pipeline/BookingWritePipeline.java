@@ -0,0 +1,361 @@
+package com.bookingservice.service.pipeline;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.service.execution.ExecutionProperties;
+import com.bookingservice.service.history.HistoryService;
+import com.bookingservice.service.policy.AllocationPolicy;
+import com.bookingservice.service.policy.AvailabilityCheck;
+import com.bookingservice.service.stream.AvailabilityChange;
+import com.bookingservice.support.CapacityExceededException;
+import com.bookingservice.support.MessageCatalog;
+import com.bookingservice.support.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in group commit for booking creates and cancels ({@code booking.write-pipeline.enabled}).
+ * <p>
+ * Requests are validated on the caller's thread, then queued. A single dispatcher thread takes
+ * the first queued request, waits up to {@code window} for more (at most {@code max-batch-size})
+ * and applies them in one transaction: the ACTIVE allocations of every property in the batch are
+ * read once, each request is checked in memory in arrival order against them and against the
+ * requests accepted before it, and the accepted writes are flushed together (JDBC batching, one
+ * commit). Each caller then gets its own booking or its own conflict. If the batch transaction
+ * fails as a whole (e.g. the database exclusion constraint), its requests are retried one by one
+ * through {@link BookingService}, each create with a fresh copy of its booking: the failed batch
+ * left the id and version of a row that was never committed on the original.
+ * <p>
+ * Disabled, or when called inside a transaction, every method delegates to {@link BookingService}.
+ * So do creates for multi-unit properties.
+ * Metrics: {@code booking.write-pipeline.batch-size}, {@code booking.write-pipeline.batch-duration}
+ * and {@code booking.write-pipeline.fallbacks}, to tune the window against the added latency.
+ */
+@Service
+public class BookingWritePipeline implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(BookingWritePipeline.class);
+
+	private final WritePipelineProperties properties;
+	private final BookingService bookingService;
+	private final BookingRepository bookingRepository;
+	private final AllocationStore allocationStore;
+	private final AllocationPolicy allocationPolicy;
+	private final HistoryService historyService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final MessageCatalog messages;
+	private final TransactionTemplate transactionTemplate;
+	private final BlockingQueue<Request> queue;
+	private final DistributionSummary batchSizes;
+	private final Timer batchDurations;
+	private final Counter fallbacks;
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+
+	public BookingWritePipeline(WritePipelineProperties properties,
+	                            ExecutionProperties execution,
+	                            BookingService bookingService,
+	                            BookingRepository bookingRepository,
+	                            AllocationStore allocationStore,
+	                            AllocationPolicy allocationPolicy,
+	                            HistoryService historyService,
+	                            ApplicationEventPublisher eventPublisher,
+	                            MessageCatalog messages,
+	                            PlatformTransactionManager transactionManager,
+	                            MeterRegistry meterRegistry) {
+		if (properties.enabled() && execution.mode() != ExecutionProperties.Mode.SHARED) {
+			// a batch spans properties, so it cannot run on one partition's writer
+			throw new IllegalStateException("booking.write-pipeline.enabled requires booking.execution.mode=shared");
+		}
+		this.properties = properties;
+		this.bookingService = bookingService;
+		this.bookingRepository = bookingRepository;
+		this.allocationStore = allocationStore;
+		this.allocationPolicy = allocationPolicy;
+		this.historyService = historyService;
+		this.eventPublisher = eventPublisher;
+		this.messages = messages;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+		this.batchSizes = DistributionSummary.builder("booking.write-pipeline.batch-size")
+			.description("Booking creates/cancels committed together")
+			.register(meterRegistry);
+		this.batchDurations = Timer.builder("booking.write-pipeline.batch-duration")
+			.description("Time to check and commit one batch")
+			.register(meterRegistry);
+		this.fallbacks = Counter.builder("booking.write-pipeline.fallbacks")
+			.description("Batches retried one request at a time")
+			.register(meterRegistry);
+		if (properties.enabled()) {
+			this.dispatcher = new Thread(this::dispatch, "booking-write-pipeline");
+			this.dispatcher.setDaemon(true);
+			this.dispatcher.start();
+		} else {
+			this.dispatcher = null;
+		}
+	}
+
+	/**
+	 * Same contract as {@link BookingService#createBooking}.
+	 *
+	 * @throws CapacityExceededException if {@code queue-capacity} requests are already waiting
+	 */
+	public Booking create(Booking booking) {
+		// the batch check is an in-memory overlap check, it knows nothing of capacities
+		if (!batching() || booking != null && allocationPolicy.isMultiUnit(booking.getPropertyId())) {
+			return bookingService.createBooking(booking);
+		}
+		Locale locale = LocaleContextHolder.getLocale();
+		bookingService.validateNew(booking);
+		allocationPolicy.ensureWithinMaxSpan(booking, locale);
+		return submit(new Request(booking, null, locale, new CompletableFuture<>()));
+	}
+
+	/**
+	 * Same contract as {@link BookingService#cancelBooking}.
+	 *
+	 * @throws CapacityExceededException if {@code queue-capacity} requests are already waiting
+	 */
+	public Booking cancel(UUID id) {
+		if (!batching()) {
+			return bookingService.cancelBooking(id);
+		}
+		return submit(new Request(null, id, LocaleContextHolder.getLocale(), new CompletableFuture<>()));
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		if (dispatcher != null) {
+			dispatcher.interrupt();
+			dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+		}
+		List<Request> abandoned = new ArrayList<>();
+		queue.drainTo(abandoned);
+		abandoned.forEach(request -> request.result().completeExceptionally(
+			new CapacityExceededException(messages.get(request.locale(), "error.pipeline.full"))));
+	}
+
+	// a batch commits on its own, so callers already in a transaction write directly
+	private boolean batching() {
+		return dispatcher != null && !TransactionSynchronizationManager.isActualTransactionActive();
+	}
+
+	private Booking submit(Request request) {
+		if (!running || !queue.offer(request)) {
+			throw new CapacityExceededException(messages.get("error.pipeline.full"));
+		}
+		try {
+			return request.result().join();
+		} catch (CompletionException ex) {
+			// rethrow the request's own exception so it maps to the usual status
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw ex;
+		}
+	}
+
+	private void dispatch() {
+		long window = properties.window().toNanos();
+		while (running) {
+			List<Request> batch = new ArrayList<>();
+			try {
+				batch.add(queue.take());
+				long deadline = System.nanoTime() + window;
+				while (batch.size() < properties.maxBatchSize()) {
+					Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				running = false;
+			}
+			if (!batch.isEmpty()) {
+				process(batch);
+			}
+		}
+	}
+
+	private void process(List<Request> batch) {
+		batchSizes.record(batch.size());
+		long started = System.nanoTime();
+		List<Runnable> completions;
+		try {
+			completions = transactionTemplate.execute(status -> apply(batch));
+		} catch (RuntimeException ex) {
+			log.debug("Batch of {} booking writes failed, retrying one by one", batch.size(), ex);
+			fallbacks.increment();
+			batch.forEach(this::applyAlone);
+			return;
+		} finally {
+			batchDurations.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+		}
+		// only once committed
+		completions.forEach(Runnable::run);
+	}
+
+	private List<Runnable> apply(List<Request> batch) {
+		Map<UUID, Booking> toCancel = new HashMap<>();
+		bookingRepository.findAllById(batch.stream().filter(r -> !r.isCreate()).map(Request::cancelId).toList())
+			.forEach(booking -> toCancel.put(booking.getId(), booking));
+		Map<String, List<Allocation>> active = activeAllocations(batch);
+
+		List<Runnable> completions = new ArrayList<>(batch.size());
+		List<Allocation> newAllocations = new ArrayList<>();
+		List<Written> written = new ArrayList<>();
+		for (Request request : batch) {
+			if (request.isCreate()) {
+				Booking booking = request.booking();
+				List<Allocation> taken = active.get(booking.getPropertyId());
+				AvailabilityCheck check = allocationPolicy.evaluate(overlapping(taken, booking), null);
+				if (!check.isAvailable()) {
+					RuntimeException conflict = allocationPolicy.conflict(booking, check.conflicts(), request.locale());
+					completions.add(() -> request.result().completeExceptionally(conflict));
+					continue;
+				}
+				booking.setStatus(BookingStatus.ACTIVE);
+				Booking saved = bookingRepository.save(booking);
+				Allocation allocation = Allocation.builder()
+					.id(UUID.randomUUID())
+					.propertyId(saved.getPropertyId())
+					.startDate(saved.getStartDate())
+					.endDate(saved.getEndDate())
+					.type(AllocationType.BOOKING)
+					.status(AllocationStatus.ACTIVE)
+					.entityId(saved.getId())
+					.build();
+				// later requests of the batch see it
+				taken.add(allocation);
+				newAllocations.add(allocation);
+				written.add(new Written(HistoryEventType.CREATED, saved));
+				completions.add(() -> request.result().complete(saved));
+			} else {
+				Booking booking = toCancel.get(request.cancelId());
+				if (booking == null) {
+					RuntimeException notFound = new NotFoundException("Booking not found: " + request.cancelId());
+					completions.add(() -> request.result().completeExceptionally(notFound));
+					continue;
+				}
+				booking.setStatus(BookingStatus.CANCELED);
+				List<Allocation> taken = active.get(booking.getPropertyId());
+				if (taken != null) {
+					// frees the dates for later requests of the batch
+					taken.removeIf(allocation -> allocation.getEntityId().equals(booking.getId()));
+				}
+				allocationStore.updateStatusByEntityIdAndType(booking.getId(), AllocationType.BOOKING, AllocationStatus.CANCELED);
+				written.add(new Written(HistoryEventType.CANCELED, booking));
+				completions.add(() -> request.result().complete(booking));
+			}
+		}
+		allocationStore.saveAll(newAllocations);
+		for (Written write : written) {
+			historyService.record(write.type(), write.booking());
+			eventPublisher.publishEvent(AvailabilityChange.of(write.type(), write.booking()));
+		}
+		return completions;
+	}
+
+	/**
+	 * ACTIVE allocations of each property the batch creates bookings on, one query per property
+	 * covering the dates of all its requests.
+	 */
+	private Map<String, List<Allocation>> activeAllocations(List<Request> batch) {
+		Map<String, Span> spans = new HashMap<>();
+		for (Request request : batch) {
+			if (request.isCreate()) {
+				Booking booking = request.booking();
+				spans.merge(booking.getPropertyId(), new Span(booking.getStartDate(), booking.getEndDate()), Span::union);
+			}
+		}
+		Map<String, List<Allocation>> active = new HashMap<>();
+		spans.forEach((propertyId, span) -> active.put(propertyId, new ArrayList<>(allocationStore
+			.findOverlappingAllocations(propertyId, AllocationStatus.ACTIVE, span.startDate(), span.endDate()))));
+		return active;
+	}
+
+	private static List<Allocation> overlapping(List<Allocation> allocations, Booking booking) {
+		return allocations.stream()
+			.filter(a -> !a.getStartDate().isAfter(booking.getEndDate()) && !a.getEndDate().isBefore(booking.getStartDate()))
+			.toList();
+	}
+
+	private void applyAlone(Request request) {
+		LocaleContextHolder.setLocale(request.locale());
+		try {
+			request.result().complete(request.isCreate()
+				? bookingService.createBooking(unsaved(request.booking()))
+				: bookingService.cancelBooking(request.cancelId()));
+		} catch (RuntimeException ex) {
+			request.result().completeExceptionally(ex);
+		} finally {
+			LocaleContextHolder.resetLocaleContext();
+		}
+	}
+
+	/**
+	 * Copy of a booking's input fields only, so saving it inserts a new row.
+	 */
+	private static Booking unsaved(Booking booking) {
+		Booking copy = new Booking();
+		copy.setPropertyId(booking.getPropertyId());
+		copy.setGuestName(booking.getGuestName());
+		copy.setGuestEmail(booking.getGuestEmail());
+		copy.setStartDate(booking.getStartDate());
+		copy.setEndDate(booking.getEndDate());
+		return copy;
+	}
+
+	/**
+	 * A create (booking set) or a cancel (cancelId set) waiting for its batch.
+	 */
+	private record Request(Booking booking, UUID cancelId, Locale locale, CompletableFuture<Booking> result) {
+		boolean isCreate() {
+			return booking != null;
+		}
+	}
+
+	private record Written(HistoryEventType type, Booking booking) {
+	}
+
+	private record Span(LocalDate startDate, LocalDate endDate) {
+		Span union(Span other) {
+			return new Span(startDate.isBefore(other.startDate) ? startDate : other.startDate,
+				endDate.isAfter(other.endDate) ? endDate : other.endDate);
+		}
+	}
+}
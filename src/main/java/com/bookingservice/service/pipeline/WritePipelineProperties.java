@@ -0,0 +1,23 @@
+package com.bookingservice.service.pipeline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Group-commit settings of {@link BookingWritePipeline} ({@code booking.write-pipeline}).
+ *
+ * @param enabled batch booking creates/cancels; off, each request runs its own transaction
+ * @param window how long the first request of a batch waits for more to join it
+ * @param maxBatchSize requests committed together at most
+ * @param queueCapacity requests waiting for a batch; further requests get 503
+ */
+@ConfigurationProperties(prefix = "booking.write-pipeline")
+public record WritePipelineProperties(
+	@DefaultValue("false") boolean enabled,
+	@DefaultValue("500us") Duration window,
+	@DefaultValue("128") int maxBatchSize,
+	@DefaultValue("10000") int queueCapacity
+) {
+}
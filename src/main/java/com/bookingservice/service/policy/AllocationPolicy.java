@@ -3,27 +3,58 @@ package com.bookingservice.service.policy;
 import com.bookingservice.model.Allocation;
 import com.bookingservice.model.Allocatable;
 import com.bookingservice.model.AllocationStatus;
-import com.bookingservice.repository.AllocationRepository;
-import org.springframework.context.MessageSource;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.service.capacity.OccupancyIndex;
+import com.bookingservice.support.AllocationConflictException;
+import com.bookingservice.support.MessageCatalog;
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
  * Centralized allocation policy for checking date availability.
  * Uses a single Allocation table for both Bookings and Blocks.
  * Scales efficiently to millions of allocations with proper indexing.
+ * <p>
+ * A property has one unit unless given a capacity: then a booking only needs one unit free on each
+ * of its days, and a block needs all of them (see {@link OccupancyIndex}).
  */
 @Component
 public class AllocationPolicy {
 
-	private final AllocationRepository allocationRepository;
-	private final MessageSource messageSource;
+	/**
+	 * Name of the PostgreSQL exclusion constraint used by {@link ConflictDetection#DATABASE}.
+	 */
+	public static final String OVERLAP_CONSTRAINT = "allocations_no_overlap";
+
+	// SQLSTATE raised by PostgreSQL for exclusion constraint violations
+	private static final String EXCLUSION_VIOLATION = "23P01";
+
+	private final AllocationStore allocationStore;
+	private final MessageCatalog messages;
+	private final ConflictDetection conflictDetection;
+	private final AllocationPartitions partitions;
+	private final OccupancyIndex occupancy;
 
-	public AllocationPolicy(AllocationRepository allocationRepository, MessageSource messageSource) {
-		this.allocationRepository = allocationRepository;
-		this.messageSource = messageSource;
+	public AllocationPolicy(AllocationStore allocationStore,
+	                        MessageCatalog messages,
+	                        @Value("${booking.allocation.conflict-detection:query}") ConflictDetection conflictDetection,
+	                        AllocationPartitions partitions,
+	                        OccupancyIndex occupancy) {
+		this.allocationStore = allocationStore;
+		this.messages = messages;
+		this.conflictDetection = conflictDetection;
+		this.partitions = partitions;
+		this.occupancy = occupancy;
 	}
 
 	/**
@@ -31,30 +62,122 @@ public class AllocationPolicy {
 	 * Only checks against ACTIVE allocations.
 	 * For creates: pass null as excludedEntityId.
 	 * For updates: pass the current entity ID as excludedEntityId to allow self-updates.
+	 * With {@link ConflictDetection#DATABASE} the check is skipped: the exclusion constraint
+	 * rejects the allocation write instead (see {@link #writeAllocation}).
 	 *
 	 * @param allocatable the entity that wants to allocate dates (Booking or Block)
 	 * @param excludedEntityId ID to exclude (for updates), null for creates
-	 * @throws IllegalStateException if overlap is found
+	 * @throws IllegalArgumentException if the range is longer than {@code booking.allocation.max-span-days}
+	 * @throws AllocationConflictException if overlap is found
 	 */
 	public void ensureDatesAvailableFor(Allocatable allocatable, UUID excludedEntityId) {
-		var overlappingAllocations = allocationRepository
+		Locale locale = LocaleContextHolder.getLocale();
+		ensureWithinMaxSpan(allocatable, locale);
+		if (conflictDetection == ConflictDetection.DATABASE) {
+			return;
+		}
+		AvailabilityCheck check = checkAvailability(allocatable, excludedEntityId);
+		if (!check.isAvailable()) {
+			throw conflict(allocatable, check.conflicts(), locale);
+		}
+	}
+
+	/**
+	 * Overlap queries rely on this bound to skip older partitions.
+	 *
+	 * @throws IllegalArgumentException if the range is longer than {@code booking.allocation.max-span-days}
+	 */
+	public void ensureWithinMaxSpan(Allocatable allocatable, Locale locale) {
+		if (!partitions.withinMaxSpan(allocatable.getStartDate(), allocatable.getEndDate())) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.dateRange.tooLong", partitions.maxSpanDays()));
+		}
+	}
+
+	public ConflictDetection getConflictDetection() {
+		return conflictDetection;
+	}
+
+	/**
+	 * @return true if the property has more than one unit, so an overlap alone is not a conflict
+	 */
+	public boolean isMultiUnit(String propertyId) {
+		return occupancy.isMultiUnit(propertyId);
+	}
+
+	/**
+	 * Finds the ACTIVE allocations overlapping an Allocatable entity without throwing.
+	 * Always checks, whatever the {@link ConflictDetection} mode, so it can back dry-run checks.
+	 * For a multi-unit property the occupancy tree answers first; the overlapping allocations are
+	 * only read when there is no room, to report them.
+	 *
+	 * @param allocatable the entity that wants to allocate dates (Booking or Block)
+	 * @param excludedEntityId ID to exclude (for updates), null for creates
+	 * @return the conflicting allocations, empty if the dates are available
+	 */
+	public AvailabilityCheck checkAvailability(Allocatable allocatable, UUID excludedEntityId) {
+		if (occupancy.isMultiUnit(allocatable.getPropertyId()) && hasRoom(allocatable, excludedEntityId)) {
+			return AvailabilityCheck.available();
+		}
+		var overlappingAllocations = allocationStore
 			.findOverlappingAllocations(
 				allocatable.getPropertyId(),
 				AllocationStatus.ACTIVE,
 				allocatable.getStartDate(),
 				allocatable.getEndDate()
 			);
+		return evaluate(overlappingAllocations, excludedEntityId);
+	}
 
-		boolean hasConflict = overlappingAllocations.stream()
-			.anyMatch(allocation -> isConflicting(allocation, excludedEntityId));
+	/**
+	 * @return true if a multi-unit property has a free unit on every day of the range for a booking,
+	 * or no unit taken at all for a block
+	 */
+	private boolean hasRoom(Allocatable allocatable, UUID excludedEntityId) {
+		String propertyId = allocatable.getPropertyId();
+		int taken = occupancy.maxOccupancy(propertyId, allocatable.getStartDate(), allocatable.getEndDate(), excludedEntityId,
+			() -> allocationStore.findOverlappingAllocations(propertyId, AllocationStatus.ACTIVE,
+				OccupancyIndex.FIRST_DAY, OccupancyIndex.LAST_DAY));
+		return allocatable.getAllocationType() == AllocationType.BLOCK
+			? taken == 0
+			: taken < occupancy.capacityOf(propertyId);
+	}
 
-		if (hasConflict) {
-			String msg = messageSource.getMessage(
-				allocatable.getAllocationType().getConflictMessageKey(),
-				new Object[]{allocatable.getStartDate(), allocatable.getEndDate(), allocatable.getPropertyId()},
-				LocaleContextHolder.getLocale()
-			);
-			throw new IllegalStateException(msg);
+	/**
+	 * Applies the conflict rules to allocations already known to overlap the requested range,
+	 * however they were read (blocking store or reactive repository).
+	 *
+	 * @param overlappingAllocations ACTIVE allocations overlapping the range
+	 * @param excludedEntityId ID to exclude (for updates), null for creates
+	 */
+	public AvailabilityCheck evaluate(List<Allocation> overlappingAllocations, UUID excludedEntityId) {
+		if (overlappingAllocations.isEmpty()) {
+			return AvailabilityCheck.available();
+		}
+		List<AvailabilityCheck.Conflict> conflicts = overlappingAllocations.stream()
+			.filter(allocation -> isConflicting(allocation, excludedEntityId))
+			.map(AvailabilityCheck.Conflict::from)
+			.toList();
+		return conflicts.isEmpty() ? AvailabilityCheck.available() : new AvailabilityCheck(conflicts);
+	}
+
+	/**
+	 * Runs a write to the allocations table on behalf of an Allocatable entity.
+	 * The write must reach the database (flush) so that an exclusion constraint violation
+	 * surfaces here and is translated into the same conflict raised by the query check.
+	 *
+	 * @param allocatable the entity whose allocation is written
+	 * @param write the allocation insert/update
+	 * @throws AllocationConflictException if the database rejects the allocation as overlapping
+	 */
+	public void writeAllocation(Allocatable allocatable, Runnable write) {
+		try {
+			write.run();
+		} catch (DataIntegrityViolationException ex) {
+			if (isOverlapViolation(ex)) {
+				// the constraint does not name the conflicting row
+				throw conflict(allocatable, List.of(), LocaleContextHolder.getLocale());
+			}
+			throw ex;
 		}
 	}
 
@@ -75,6 +198,35 @@ public class AllocationPolicy {
 		// For updates, ignore overlaps from the same entity being updated
 		return !allocation.getEntityId().equals(excludedEntityId);
 	}
-}
 
+	/**
+	 * Builds the 409 raised when the range is taken, with the localized per-type message.
+	 */
+	public AllocationConflictException conflict(Allocatable allocatable, List<AvailabilityCheck.Conflict> conflicts, Locale locale) {
+		String msg = messages.get(
+			locale,
+			allocatable.getAllocationType().getConflictMessageKey(),
+			allocatable.getStartDate(), allocatable.getEndDate(), allocatable.getPropertyId()
+		);
+		return new AllocationConflictException(msg, conflicts);
+	}
 
+	/**
+	 * @return true if the failure comes from the {@link #OVERLAP_CONSTRAINT} exclusion constraint,
+	 * raised through JDBC or R2DBC
+	 */
+	public boolean isOverlapViolation(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+				return true;
+			}
+			if (cause instanceof R2dbcException r2dbc && EXCLUSION_VIOLATION.equals(r2dbc.getSqlState())) {
+				return true;
+			}
+			if (cause.getMessage() != null && cause.getMessage().contains(OVERLAP_CONSTRAINT)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
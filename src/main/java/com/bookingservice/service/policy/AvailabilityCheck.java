@@ -0,0 +1,40 @@
+package com.bookingservice.service.policy;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of an availability check: the ACTIVE allocations that overlap the requested range.
+ * An empty list means the dates are free.
+ */
+public record AvailabilityCheck(List<Conflict> conflicts) {
+
+	private static final AvailabilityCheck AVAILABLE = new AvailabilityCheck(List.of());
+
+	public static AvailabilityCheck available() {
+		return AVAILABLE;
+	}
+
+	public boolean isAvailable() {
+		return conflicts.isEmpty();
+	}
+
+	/**
+	 * An existing allocation standing in the way of the requested range.
+	 */
+	public record Conflict(
+		UUID allocationId,
+		UUID entityId,
+		AllocationType type,
+		LocalDate startDate,
+		LocalDate endDate
+	) {
+		public static Conflict from(Allocation a) {
+			return new Conflict(a.getId(), a.getEntityId(), a.getType(), a.getStartDate(), a.getEndDate());
+		}
+	}
+}
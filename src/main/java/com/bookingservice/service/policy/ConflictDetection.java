@@ -0,0 +1,17 @@
+package com.bookingservice.service.policy;
+
+/**
+ * Strategies for detecting overlapping ACTIVE allocations.
+ * Selected with {@code booking.allocation.conflict-detection}.
+ */
+public enum ConflictDetection {
+	/**
+	 * Query overlapping allocations before writing (default, works on any database).
+	 */
+	QUERY,
+	/**
+	 * Let the database reject overlaps through the {@code allocations_no_overlap}
+	 * exclusion constraint (PostgreSQL only, see db/postgres/allocations-exclusion.sql).
+	 */
+	DATABASE
+}
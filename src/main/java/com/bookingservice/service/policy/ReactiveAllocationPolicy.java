@@ -0,0 +1,88 @@
+package com.bookingservice.service.policy;
+
+import com.bookingservice.model.Allocatable;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.repository.reactive.AllocationRow;
+import com.bookingservice.repository.reactive.ReactiveAllocationRepository;
+import com.bookingservice.support.AllocationConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Non-blocking {@link AllocationPolicy}: the overlap query runs through R2DBC, while the rules
+ * (max span, self-exclusion, conflict messages, exclusion constraint translation) are the
+ * blocking policy's own, so both stacks accept and reject exactly the same ranges.
+ * <p>
+ * Reads and writes the {@code allocations} table directly, so it requires the JPA allocation store.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAllocationPolicy {
+
+	private final AllocationPolicy policy;
+	private final ReactiveAllocationRepository allocationRepository;
+	private final AllocationPartitions partitions;
+
+	public ReactiveAllocationPolicy(AllocationPolicy policy,
+	                                ReactiveAllocationRepository allocationRepository,
+	                                AllocationPartitions partitions,
+	                                @Value("${booking.allocation.store:jpa}") String store) {
+		if (!"jpa".equals(store)) {
+			throw new IllegalStateException("The reactive API needs booking.allocation.store=jpa, got " + store);
+		}
+		this.policy = policy;
+		this.allocationRepository = allocationRepository;
+		this.partitions = partitions;
+	}
+
+	/**
+	 * Same contract as {@link AllocationPolicy#ensureDatesAvailableFor}, signalled as errors.
+	 *
+	 * @return empty, or an IllegalArgumentException / {@link AllocationConflictException} error
+	 */
+	public Mono<Void> ensureDatesAvailableFor(Allocatable allocatable, UUID excludedEntityId, Locale locale) {
+		return Mono.defer(() -> {
+			policy.ensureWithinMaxSpan(allocatable, locale);
+			if (policy.getConflictDetection() == ConflictDetection.DATABASE) {
+				return Mono.empty();
+			}
+			return checkAvailability(allocatable, excludedEntityId).flatMap(check -> check.isAvailable()
+				? Mono.empty()
+				: Mono.error(policy.conflict(allocatable, check.conflicts(), locale)));
+		});
+	}
+
+	/**
+	 * Same contract as {@link AllocationPolicy#checkAvailability}: always queries.
+	 */
+	public Mono<AvailabilityCheck> checkAvailability(Allocatable allocatable, UUID excludedEntityId) {
+		return allocationRepository.findOverlappingAllocations(
+				allocatable.getPropertyId(),
+				AllocationStatus.ACTIVE.name(),
+				partitions.earliestOverlappingStart(allocatable.getStartDate()),
+				allocatable.getStartDate(),
+				allocatable.getEndDate())
+			.map(AllocationRow::toAllocation)
+			.collectList()
+			.map(overlapping -> policy.evaluate(overlapping, excludedEntityId));
+	}
+
+	/**
+	 * Same contract as {@link AllocationPolicy#writeAllocation}: an exclusion constraint violation
+	 * raised by the write becomes an {@link AllocationConflictException}.
+	 */
+	public <T> Mono<T> writeAllocation(Allocatable allocatable, Mono<T> write, Locale locale) {
+		return write.onErrorMap(
+			ex -> ex instanceof DataIntegrityViolationException && policy.isOverlapViolation(ex),
+			// the constraint does not name the conflicting row
+			ex -> policy.conflict(allocatable, List.of(), locale));
+	}
+}
@@ -0,0 +1,84 @@
+package com.bookingservice.service.rate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Nightly rates of one property over a window of consecutive nights, with prefix sums so the
+ * price of any range of nights is two array reads.
+ * <p>
+ * Immutable: a rate change builds a new calendar, copying the prefix sums that end before the
+ * first changed night and recomputing only from there. Readers never lock.
+ */
+final class RateCalendar {
+
+	static final RateCalendar EMPTY = new RateCalendar(0, new long[0], new long[1], new int[1]);
+
+	// a night with no rate
+	private static final long UNPRICED = -1;
+
+	private final long firstNight;
+	private final long[] rates;
+	// totals[i] and priced[i]: sum of the rates and number of priced nights among rates[0, i)
+	private final long[] totals;
+	private final int[] priced;
+
+	private RateCalendar(long firstNight, long[] rates, long[] totals, int[] priced) {
+		this.firstNight = firstNight;
+		this.rates = rates;
+		this.totals = totals;
+		this.priced = priced;
+	}
+
+	/**
+	 * Prices the nights from {@code start} to {@code end}, both included.
+	 */
+	Price price(LocalDate start, LocalDate end) {
+		int nights = (int) (end.toEpochDay() - start.toEpochDay() + 1);
+		long from = Math.max(start.toEpochDay() - firstNight, 0);
+		long to = Math.min(end.toEpochDay() - firstNight + 1, rates.length);
+		if (from >= to) {
+			return new Price(nights, 0, nights);
+		}
+		int pricedNights = priced[(int) to] - priced[(int) from];
+		return new Price(nights, totals[(int) to] - totals[(int) from], nights - pricedNights);
+	}
+
+	/**
+	 * @param amounts the rate of each night of [from, to] that has one; the others lose theirs
+	 * @return a calendar with the nights of [from, to] set
+	 */
+	RateCalendar with(LocalDate from, LocalDate to, Map<LocalDate, Long> amounts) {
+		long start = rates.length == 0 ? from.toEpochDay() : Math.min(firstNight, from.toEpochDay());
+		long end = rates.length == 0 ? to.toEpochDay() + 1 : Math.max(firstNight + rates.length, to.toEpochDay() + 1);
+		int shift = rates.length == 0 ? 0 : (int) (firstNight - start);
+
+		long[] newRates = new long[(int) (end - start)];
+		Arrays.fill(newRates, UNPRICED);
+		System.arraycopy(rates, 0, newRates, shift, rates.length);
+		for (LocalDate night = from; !night.isAfter(to); night = night.plusDays(1)) {
+			newRates[(int) (night.toEpochDay() - start)] = amounts.getOrDefault(night, UNPRICED);
+		}
+
+		// sums up to the first changed night still hold, unless the window grew at the front
+		int changed = (int) (from.toEpochDay() - start);
+		int kept = shift > 0 ? 0 : Math.min(changed, rates.length);
+		long[] newTotals = new long[newRates.length + 1];
+		int[] newPriced = new int[newRates.length + 1];
+		System.arraycopy(totals, 0, newTotals, 0, kept + 1);
+		System.arraycopy(priced, 0, newPriced, 0, kept + 1);
+		for (int i = kept; i < newRates.length; i++) {
+			boolean hasRate = newRates[i] != UNPRICED;
+			newTotals[i + 1] = newTotals[i] + (hasRate ? newRates[i] : 0);
+			newPriced[i + 1] = newPriced[i] + (hasRate ? 1 : 0);
+		}
+		return new RateCalendar(start, newRates, newTotals, newPriced);
+	}
+
+	/**
+	 * @param total sum of the rates of the priced nights
+	 * @param unpricedNights nights without a rate; the total is only a price when there are none
+	 */
+	record Price(int nights, long total, int unpricedNights) {}
+}
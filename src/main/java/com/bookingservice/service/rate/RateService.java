@@ -0,0 +1,169 @@
+package com.bookingservice.service.rate;
+
+import com.bookingservice.model.NightlyRate;
+import com.bookingservice.repository.NightlyRateRepository;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.service.execution.MutationExecutor;
+import com.bookingservice.service.lease.PartitionsAcquired;
+import com.bookingservice.service.policy.AvailabilityCheck;
+import com.bookingservice.support.MessageCatalog;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly rates and stay quotes.
+ * <p>
+ * Rates are stored in {@code nightly_rates}, one row per property and night. Quotes read a
+ * {@link RateCalendar} per property, loaded on the first quote and then kept in step with the rate
+ * changes made through this node, after they commit. A quote is priced in constant time whatever
+ * the length of the stay. Like an allocation, a stay holds every day from its start date to its
+ * end date included, and each of them is priced as a night.
+ * <p>
+ * Rates can only be set from today to {@code booking.rates.horizon-days} ahead, and a calendar
+ * only loads that window, so its arrays stay bounded however far apart the priced nights are.
+ */
+@Service
+public class RateService {
+
+	private final NightlyRateRepository rateRepository;
+	private final BookingService bookingService;
+	private final AllocationPartitions partitions;
+	private final MutationExecutor mutations;
+	private final ApplicationEventPublisher eventPublisher;
+	private final EntityManager entityManager;
+	private final MessageCatalog messages;
+	private final int horizonDays;
+	// only properties having rates, so unknown ids cannot fill it
+	private final ConcurrentMap<String, RateCalendar> calendars = new ConcurrentHashMap<>();
+
+	public RateService(NightlyRateRepository rateRepository, BookingService bookingService, AllocationPartitions partitions,
+	                   MutationExecutor mutations, ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+	                   MessageCatalog messages, @Value("${booking.rates.horizon-days:730}") int horizonDays) {
+		if (horizonDays < 1) {
+			throw new IllegalArgumentException("booking.rates.horizon-days must be positive");
+		}
+		this.rateRepository = rateRepository;
+		this.bookingService = bookingService;
+		this.partitions = partitions;
+		this.mutations = mutations;
+		this.eventPublisher = eventPublisher;
+		this.entityManager = entityManager;
+		this.messages = messages;
+		this.horizonDays = horizonDays;
+	}
+
+	/**
+	 * Sets the rate of every night of [startDate, endDate].
+	 *
+	 * @param amount price of one night in minor currency units
+	 * @throws IllegalArgumentException if a field is missing, the range is invalid or longer than
+	 * {@code booking.allocation.max-span-days}, outside [today, today + {@code booking.rates.horizon-days}],
+	 * or the amount is negative
+	 */
+	public void setRates(String propertyId, LocalDate startDate, LocalDate endDate, Long amount) {
+		if (!StringUtils.hasText(propertyId)) {
+			throw new IllegalArgumentException(messages.get("error.validation.propertyId.required"));
+		}
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException(messages.get("error.validation.dates.required"));
+		}
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException(messages.get("error.validation.dateRange.invalid"));
+		}
+		if (!partitions.withinMaxSpan(startDate, endDate)) {
+			throw new IllegalArgumentException(messages.get("error.validation.dateRange.tooLong", partitions.maxSpanDays()));
+		}
+		LocalDate today = LocalDate.now();
+		if (startDate.isBefore(today) || endDate.isAfter(today.plusDays(horizonDays))) {
+			throw new IllegalArgumentException(messages.get("error.validation.rates.outsideHorizon", horizonDays));
+		}
+		if (amount == null) {
+			throw new IllegalArgumentException(messages.get("error.validation.amount.required"));
+		}
+		if (amount < 0) {
+			throw new IllegalArgumentException(messages.get("error.validation.amount.negative"));
+		}
+		mutations.run(propertyId, () -> {
+			Map<LocalDate, NightlyRate> existing = rateRepository.findByPropertyIdAndNightBetween(propertyId, startDate, endDate)
+				.stream().collect(Collectors.toMap(NightlyRate::getNight, Function.identity()));
+			for (LocalDate night = startDate; !night.isAfter(endDate); night = night.plusDays(1)) {
+				NightlyRate rate = existing.get(night);
+				if (rate != null) {
+					rate.setAmount(amount);
+				} else {
+					// persist, not save: the id is assigned and merge would select the row first
+					entityManager.persist(new NightlyRate(propertyId, night, amount));
+				}
+			}
+			rateRepository.flush();
+			eventPublisher.publishEvent(new RatesChanged(propertyId, startDate, endDate, amount));
+		});
+	}
+
+	/**
+	 * Prices a stay and checks its dates in one call. Nothing is written.
+	 *
+	 * @throws IllegalArgumentException if the property or dates are missing or invalid
+	 */
+	public StayQuote quote(String propertyId, LocalDate startDate, LocalDate endDate) {
+		AvailabilityCheck availability = bookingService.checkAvailability(propertyId, startDate, endDate, null);
+		RateCalendar.Price price = calendar(propertyId).price(startDate, endDate);
+		return new StayQuote(propertyId, startDate, endDate, availability, price.nights(),
+			price.unpricedNights() == 0 ? price.total() : null, price.unpricedNights());
+	}
+
+	/**
+	 * Applies committed rate changes to the calendar, if loaded; recomputes the prefix sums from the
+	 * first changed night only.
+	 */
+	@TransactionalEventListener
+	public void apply(RatesChanged change) {
+		Map<LocalDate, Long> amounts = new HashMap<>();
+		for (LocalDate night = change.startDate(); !night.isAfter(change.endDate()); night = night.plusDays(1)) {
+			amounts.put(night, change.amount());
+		}
+		calendars.computeIfPresent(change.propertyId(),
+			(propertyId, calendar) -> calendar.with(change.startDate(), change.endDate(), amounts));
+	}
+
+	/**
+	 * Drops the calendars of the properties another node changed while it held their lease.
+	 */
+	@EventListener
+	public void onPartitionsAcquired(PartitionsAcquired acquired) {
+		calendars.keySet().removeIf(acquired::covers);
+	}
+
+	private RateCalendar calendar(String propertyId) {
+		RateCalendar calendar = calendars.computeIfAbsent(propertyId, this::load);
+		return calendar == null ? RateCalendar.EMPTY : calendar;
+	}
+
+	private RateCalendar load(String propertyId) {
+		// rows outside the window, set before it existed or since passed, are never quoted
+		LocalDate today = LocalDate.now();
+		List<NightlyRate> rates = rateRepository.findByPropertyIdAndNightBetween(propertyId, today, today.plusDays(horizonDays));
+		if (rates.isEmpty()) {
+			return null;
+		}
+		Map<LocalDate, Long> amounts = rates.stream().collect(Collectors.toMap(NightlyRate::getNight, NightlyRate::getAmount));
+		LocalDate first = rates.stream().map(NightlyRate::getNight).min(LocalDate::compareTo).orElseThrow();
+		LocalDate last = rates.stream().map(NightlyRate::getNight).max(LocalDate::compareTo).orElseThrow();
+		return RateCalendar.EMPTY.with(first, last, amounts);
+	}
+}
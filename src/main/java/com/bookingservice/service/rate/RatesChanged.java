@@ -0,0 +1,10 @@
+package com.bookingservice.service.rate;
+
+import java.time.LocalDate;
+
+/**
+ * Every night of [startDate, endDate] of the property now costs {@code amount}; applied to the
+ * in-memory calendar once the transaction has committed.
+ */
+public record RatesChanged(String propertyId, LocalDate startDate, LocalDate endDate, long amount) {
+}
@@ -0,0 +1,22 @@
+package com.bookingservice.service.rate;
+
+import com.bookingservice.service.policy.AvailabilityCheck;
+
+import java.time.LocalDate;
+
+/**
+ * Price and availability of a stay, from one call.
+ *
+ * @param total price of the stay in minor currency units, null if some nights have no rate
+ * @param unpricedNights nights of the stay without a rate
+ */
+public record StayQuote(
+	String propertyId,
+	LocalDate startDate,
+	LocalDate endDate,
+	AvailabilityCheck availability,
+	int nights,
+	Long total,
+	int unpricedNights
+) {
+}
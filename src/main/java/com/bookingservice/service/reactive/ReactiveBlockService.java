@@ -0,0 +1,123 @@
+package com.bookingservice.service.reactive;
+
+import com.bookingservice.api.dto.BlockDtos;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.repository.reactive.AllocationRow;
+import com.bookingservice.repository.reactive.BlockRow;
+import com.bookingservice.repository.reactive.HistoryEventRow;
+import com.bookingservice.repository.reactive.ReactiveAllocationRepository;
+import com.bookingservice.repository.reactive.ReactiveBlockRepository;
+import com.bookingservice.repository.reactive.ReactiveHistoryEventRepository;
+import com.bookingservice.service.policy.ReactiveAllocationPolicy;
+import com.bookingservice.support.MessageCatalog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Non-blocking {@link com.bookingservice.service.BlockService} for the reactive API.
+ * Archived blocks are not visible here; bulk operations stay on the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBlockService {
+
+	private final ReactiveBlockRepository blockRepository;
+	private final ReactiveAllocationRepository allocationRepository;
+	private final ReactiveHistoryEventRepository historyRepository;
+	private final ReactiveAllocationPolicy allocationPolicy;
+	private final AllocationPartitions partitions;
+	private final TransactionalOperator transactions;
+	private final MessageCatalog messages;
+
+	public ReactiveBlockService(ReactiveBlockRepository blockRepository, ReactiveAllocationRepository allocationRepository, ReactiveHistoryEventRepository historyRepository, ReactiveAllocationPolicy allocationPolicy, AllocationPartitions partitions, TransactionalOperator transactions, MessageCatalog messages) {
+		this.blockRepository = blockRepository;
+		this.allocationRepository = allocationRepository;
+		this.historyRepository = historyRepository;
+		this.allocationPolicy = allocationPolicy;
+		this.partitions = partitions;
+		this.transactions = transactions;
+		this.messages = messages;
+	}
+
+	public Mono<Block> createBlock(Block block, Locale locale) {
+		return Mono.defer(() -> {
+			if (block == null) {
+				return Mono.error(new IllegalArgumentException(messages.get(locale, "error.validation.block.required")));
+			}
+			if (block.getId() == null) {
+				block.setId(UUID.randomUUID());
+			}
+			validate(block.getPropertyId(), block.getStartDate(), block.getEndDate(), locale);
+			return allocationPolicy.ensureDatesAvailableFor(block, null, locale)
+				.then(blockRepository.insert(BlockRow.from(block)))
+				.then(allocationPolicy.writeAllocation(block,
+					allocationRepository.insert(AllocationRow.activeFor(block, block.getId())), locale))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.CREATED, block)))
+				.thenReturn(block);
+		}).as(transactions::transactional);
+	}
+
+	public Mono<Block> updateBlock(UUID blockId, BlockDtos.CreateOrUpdateRequest update, Locale locale) {
+		return blockRepository.findById(blockId)
+			.switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Block not found: " + blockId)))
+			.flatMap(row -> {
+				Block existing = row.toBlock();
+				// validate and check availability using incoming values BEFORE mutating entity
+				validate(update.propertyId(), update.startDate(), update.endDate(), locale);
+				Mono<?> movedOut = existing.getPropertyId().equals(update.propertyId())
+					? Mono.empty()
+					: historyRepository.append(HistoryEventRow.of(HistoryEventType.MOVED_OUT, row.toBlock()));
+				existing.setPropertyId(update.propertyId());
+				existing.setStartDate(update.startDate());
+				existing.setEndDate(update.endDate());
+				return allocationPolicy.ensureDatesAvailableFor(update.toEntity(), blockId, locale)
+					.then(movedOut)
+					.then(blockRepository.update(BlockRow.from(existing)))
+					.then(allocationPolicy.writeAllocation(existing, allocationRepository.updateByEntityId(
+						blockId, existing.getPropertyId(), existing.getStartDate(), existing.getEndDate()), locale))
+					.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.UPDATED, existing)))
+					.thenReturn(existing);
+			}).as(transactions::transactional);
+	}
+
+	public Mono<Void> deleteBlock(UUID blockId) {
+		return blockRepository.findById(blockId)
+			.map(BlockRow::toBlock)
+			.flatMap(existing -> blockRepository.deleteById(blockId)
+				.then(allocationRepository.deleteByEntityId(blockId))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.DELETED, existing))))
+			.then()
+			.as(transactions::transactional);
+	}
+
+	public Flux<Block> listByPropertyAndMonth(String propertyId, int year, int month) {
+		YearMonth ym = YearMonth.of(year, month);
+		LocalDate start = ym.atDay(1);
+		LocalDate end = ym.atEndOfMonth();
+		return blockRepository.findOverlappingBlocks(propertyId, partitions.earliestOverlappingStart(start), start, end)
+			.map(BlockRow::toBlock);
+	}
+
+	private void validate(String propertyId, LocalDate startDate, LocalDate endDate, Locale locale) {
+		if (!StringUtils.hasText(propertyId)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.propertyId.required"));
+		}
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.dates.required"));
+		}
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.dateRange.invalid"));
+		}
+	}
+}
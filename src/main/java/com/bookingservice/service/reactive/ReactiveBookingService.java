@@ -0,0 +1,192 @@
+package com.bookingservice.service.reactive;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.repository.reactive.AllocationRow;
+import com.bookingservice.repository.reactive.BookingRow;
+import com.bookingservice.repository.reactive.HistoryEventRow;
+import com.bookingservice.repository.reactive.ReactiveAllocationRepository;
+import com.bookingservice.repository.reactive.ReactiveBookingRepository;
+import com.bookingservice.repository.reactive.ReactiveHistoryEventRepository;
+import com.bookingservice.service.policy.AvailabilityCheck;
+import com.bookingservice.service.policy.ReactiveAllocationPolicy;
+import com.bookingservice.support.MessageCatalog;
+import com.bookingservice.support.NotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Non-blocking {@link com.bookingservice.service.BookingService} for the reactive API: same
+ * validation, overlap rules, allocation sync and history events, over R2DBC.
+ * Archived bookings are not visible here; bulk operations stay on the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingService {
+
+	private final ReactiveBookingRepository bookingRepository;
+	private final ReactiveAllocationRepository allocationRepository;
+	private final ReactiveHistoryEventRepository historyRepository;
+	private final ReactiveAllocationPolicy allocationPolicy;
+	private final AllocationPartitions partitions;
+	private final TransactionalOperator transactions;
+	private final MessageCatalog messages;
+
+	public ReactiveBookingService(ReactiveBookingRepository bookingRepository, ReactiveAllocationRepository allocationRepository, ReactiveHistoryEventRepository historyRepository, ReactiveAllocationPolicy allocationPolicy, AllocationPartitions partitions, TransactionalOperator transactions, MessageCatalog messages) {
+		this.bookingRepository = bookingRepository;
+		this.allocationRepository = allocationRepository;
+		this.historyRepository = historyRepository;
+		this.allocationPolicy = allocationPolicy;
+		this.partitions = partitions;
+		this.transactions = transactions;
+		this.messages = messages;
+	}
+
+	public Mono<Booking> createBooking(Booking booking, Locale locale) {
+		return Mono.defer(() -> {
+			if (booking == null) {
+				return Mono.error(new IllegalArgumentException(messages.get(locale, "error.validation.booking.required")));
+			}
+			if (booking.getId() == null) {
+				booking.setId(UUID.randomUUID());
+			}
+			validateInputs(booking.getPropertyId(), booking.getGuestName(), booking.getGuestEmail(),
+				booking.getStartDate(), booking.getEndDate(), locale);
+			booking.setStatus(BookingStatus.ACTIVE);
+			return allocationPolicy.ensureDatesAvailableFor(booking, null, locale)
+				.then(bookingRepository.insert(BookingRow.from(booking)))
+				.then(allocationPolicy.writeAllocation(booking,
+					allocationRepository.insert(AllocationRow.activeFor(booking, booking.getId())), locale))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.CREATED, booking)))
+				.thenReturn(booking);
+		}).as(transactions::transactional);
+	}
+
+	public Mono<Booking> getBooking(UUID id) {
+		return bookingRepository.findById(id)
+			.map(BookingRow::toBooking)
+			.switchIfEmpty(Mono.error(() -> new NotFoundException("Booking not found: " + id)));
+	}
+
+	public Mono<Booking> updateBooking(UUID id, BookingDtos.UpdateRequest update, Locale locale) {
+		return getBooking(id).flatMap(existing -> {
+			existing.setGuestName(update.guestName());
+			existing.setGuestEmail(update.guestEmail());
+			existing.setStartDate(update.startDate());
+			existing.setEndDate(update.endDate());
+			validateInputs(existing.getPropertyId(), existing.getGuestName(), existing.getGuestEmail(),
+				existing.getStartDate(), existing.getEndDate(), locale);
+			return allocationPolicy.ensureDatesAvailableFor(existing, id, locale)
+				.then(bookingRepository.update(BookingRow.from(existing)))
+				.then(allocationPolicy.writeAllocation(existing, allocationRepository.updateByEntityId(
+					id, existing.getPropertyId(), existing.getStartDate(), existing.getEndDate()), locale))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.UPDATED, existing)))
+				.thenReturn(existing);
+		}).as(transactions::transactional);
+	}
+
+	public Mono<Booking> cancelBooking(UUID id) {
+		return getBooking(id).flatMap(existing -> {
+			existing.setStatus(BookingStatus.CANCELED);
+			return bookingRepository.update(BookingRow.from(existing))
+				.then(allocationRepository.updateStatusByEntityIdAndType(
+					id, AllocationType.BOOKING.name(), AllocationStatus.CANCELED.name()))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.CANCELED, existing)))
+				.thenReturn(existing);
+		}).as(transactions::transactional);
+	}
+
+	public Mono<Booking> rebookBooking(UUID id, Locale locale) {
+		return getBooking(id).flatMap(existing -> {
+			if (existing.getStatus() == BookingStatus.ACTIVE) {
+				return Mono.just(existing);
+			}
+			// the row is only written once the dates are known to be free
+			existing.setStatus(BookingStatus.ACTIVE);
+			return allocationPolicy.ensureDatesAvailableFor(existing, id, locale)
+				.then(bookingRepository.update(BookingRow.from(existing)))
+				// Reactivate the allocation so the date range is protected again
+				.then(allocationPolicy.writeAllocation(existing, allocationRepository.updateStatusByEntityIdAndType(
+					id, AllocationType.BOOKING.name(), AllocationStatus.ACTIVE.name()), locale))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.REBOOKED, existing)))
+				.thenReturn(existing);
+		}).as(transactions::transactional);
+	}
+
+	public Mono<Void> deleteBooking(UUID id) {
+		return bookingRepository.findById(id)
+			.map(BookingRow::toBooking)
+			.flatMap(existing -> bookingRepository.deleteById(id)
+				.then(allocationRepository.deleteByEntityId(id))
+				.then(historyRepository.append(HistoryEventRow.of(HistoryEventType.DELETED, existing))))
+			.then()
+			.as(transactions::transactional);
+	}
+
+	/**
+	 * Dry run of a booking request: reports the conflicting allocations without writing anything.
+	 */
+	public Mono<AvailabilityCheck> checkAvailability(String propertyId, LocalDate startDate, LocalDate endDate,
+	                                                 UUID excludedBookingId, Locale locale) {
+		return Mono.defer(() -> {
+			validateRange(propertyId, startDate, endDate, locale);
+			Booking candidate = new Booking();
+			candidate.setPropertyId(propertyId);
+			candidate.setStartDate(startDate);
+			candidate.setEndDate(endDate);
+			return allocationPolicy.checkAvailability(candidate, excludedBookingId);
+		});
+	}
+
+	public Flux<Booking> listByPropertyAndMonth(String propertyId, int year, int month) {
+		YearMonth ym = YearMonth.of(year, month);
+		LocalDate start = ym.atDay(1);
+		LocalDate end = ym.atEndOfMonth();
+		return bookingRepository.findOverlappingBookings(propertyId, partitions.earliestOverlappingStart(start), start, end)
+			.map(BookingRow::toBooking);
+	}
+
+	private void validateInputs(String propertyId,
+	                            String guestName,
+	                            String guestEmail,
+	                            LocalDate startDate,
+	                            LocalDate endDate,
+	                            Locale locale) {
+		if (!StringUtils.hasText(propertyId)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.propertyId.required"));
+		}
+		if (!StringUtils.hasText(guestName)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.guestName.required"));
+		}
+		if (!StringUtils.hasText(guestEmail)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.guestEmail.required"));
+		}
+		validateRange(propertyId, startDate, endDate, locale);
+	}
+
+	private void validateRange(String propertyId, LocalDate startDate, LocalDate endDate, Locale locale) {
+		if (!StringUtils.hasText(propertyId)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.propertyId.required"));
+		}
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.dates.required"));
+		}
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException(messages.get(locale, "error.validation.dateRange.invalid"));
+		}
+	}
+}
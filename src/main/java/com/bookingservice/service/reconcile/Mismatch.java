@@ -0,0 +1,24 @@
+package com.bookingservice.service.reconcile;
+
+import com.bookingservice.model.AllocationType;
+
+import java.util.UUID;
+
+/**
+ * A booking or block whose allocations do not mirror it.
+ *
+ * @param propertyId property of the booking/block, or of the allocation when the entity is gone
+ */
+public record Mismatch(Kind kind, AllocationType type, UUID entityId, String propertyId) {
+
+	public enum Kind {
+		/** the booking/block has no allocation: its dates are not protected */
+		MISSING_ALLOCATION,
+		/** the allocation's property, dates or status differ from the booking/block */
+		STALE_ALLOCATION,
+		/** the booking/block has more than one allocation */
+		DUPLICATE_ALLOCATION,
+		/** the allocation's booking/block no longer exists */
+		ORPHAN_ALLOCATION
+	}
+}
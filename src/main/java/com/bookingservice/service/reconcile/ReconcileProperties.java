@@ -0,0 +1,25 @@
+package com.bookingservice.service.reconcile;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Allocation/entity reconciliation settings ({@code booking.reconcile}).
+ *
+ * @param enabled run the periodic reconciliation job
+ * @param repair fix the mismatches found; off, they are only reported
+ * @param parallelism id ranges of each table scanned at the same time
+ * @param chunkSize rows read per keyset chunk, each in its own short read-only transaction
+ * @param pause wait between two chunks of one range, to leave database time to live traffic
+ */
+@ConfigurationProperties(prefix = "booking.reconcile")
+public record ReconcileProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue("false") boolean repair,
+	@DefaultValue("4") int parallelism,
+	@DefaultValue("1000") int chunkSize,
+	@DefaultValue("0ms") Duration pause
+) {
+}
@@ -0,0 +1,26 @@
+package com.bookingservice.service.reconcile;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of one reconciliation run.
+ *
+ * @param found mismatches per kind
+ * @param repaired mismatches fixed (always 0 when only reporting)
+ * @param unrepaired mismatches left as they are because their dates are no longer free
+ */
+public record ReconcileReport(
+	long bookingsScanned,
+	long blocksScanned,
+	long allocationsScanned,
+	Map<Mismatch.Kind, Long> found,
+	long repaired,
+	long unrepaired,
+	Duration duration
+) {
+
+	public long mismatches() {
+		return found.values().stream().mapToLong(Long::longValue).sum();
+	}
+}
@@ -0,0 +1,408 @@
+package com.bookingservice.service.reconcile;
+
+import com.bookingservice.model.Allocatable;
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.capacity.OccupancyIndex;
+import com.bookingservice.service.execution.MutationExecutor;
+import com.bookingservice.service.lease.LeaseManager;
+import com.bookingservice.service.policy.AllocationPolicy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Finds, and optionally repairs, drift between {@code bookings}/{@code blocks} and their
+ * {@code allocations}: missing, stale, duplicate and orphan allocations (see {@link Mismatch}).
+ * <p>
+ * Each table is split into {@code parallelism} ranges of its UUID primary key. Every range is walked
+ * in keyset chunks of {@code chunk-size} rows ({@code id > last seen order by id}), and each chunk is read
+ * in its own short read-only transaction. Nothing is locked, and the whole job uses at most
+ * {@code parallelism} connections. The allocations of a chunk's bookings/blocks are read with one
+ * {@code entity_id in (...)} query, and the orphan check reads one id list per chunk. Scans bypass the
+ * second-level cache.
+ * <p>
+ * Repairs are grouped by property and go through {@link MutationExecutor}, like any other
+ * mutation, so each group is written in one transaction and one JDBC batch. Every repair re-reads
+ * the booking/block and its allocations first. A mismatch that a live change has fixed in the
+ * meantime is left alone. A repair that would overlap another ACTIVE allocation (e.g. a booking
+ * rebooked onto dates taken since), or exceed the property's capacity, is not done and is
+ * reported as unrepaired. With partition leases, each node only repairs the properties it owns.
+ * <p>
+ * Only for {@code booking.allocation.store=jpa}. The journal store keeps no allocation rows.
+ */
+@Service
+@ConditionalOnProperty(name = "booking.allocation.store", havingValue = "jpa", matchIfMissing = true)
+public class ReconciliationService {
+
+	private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+	private final ReconcileProperties properties;
+	private final BookingRepository bookingRepository;
+	private final BlockRepository blockRepository;
+	private final AllocationRepository allocationRepository;
+	private final AllocationPolicy allocationPolicy;
+	private final OccupancyIndex occupancy;
+	private final MutationExecutor mutations;
+	private final LeaseManager leases;
+	private final EntityManager entityManager;
+	private final TransactionTemplate readOnly;
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile ReconcileReport lastReport;
+
+	public ReconciliationService(ReconcileProperties properties,
+	                             BookingRepository bookingRepository,
+	                             BlockRepository blockRepository,
+	                             AllocationRepository allocationRepository,
+	                             AllocationPolicy allocationPolicy,
+	                             OccupancyIndex occupancy,
+	                             MutationExecutor mutations,
+	                             LeaseManager leases,
+	                             EntityManager entityManager,
+	                             PlatformTransactionManager transactionManager) {
+		this.properties = properties;
+		this.bookingRepository = bookingRepository;
+		this.blockRepository = blockRepository;
+		this.allocationRepository = allocationRepository;
+		this.allocationPolicy = allocationPolicy;
+		this.occupancy = occupancy;
+		this.mutations = mutations;
+		this.leases = leases;
+		this.entityManager = entityManager;
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+	}
+
+	@Scheduled(initialDelayString = "${booking.reconcile.initial-delay:PT15M}",
+		fixedDelayString = "${booking.reconcile.interval:PT6H}")
+	public void reconcilePeriodically() {
+		if (!properties.enabled()) {
+			return;
+		}
+		try {
+			reconcile();
+		} catch (RuntimeException ex) {
+			log.warn("Reconciliation run failed, will retry on the next run", ex);
+		}
+	}
+
+	/**
+	 * Reconciles all bookings, blocks and allocations, repairing if {@code repair} is set.
+	 */
+	public ReconcileReport reconcile() {
+		return reconcile(properties.repair());
+	}
+
+	/**
+	 * @param repair fix the mismatches found, or only report them
+	 * @return the report of this run, or of the previous one if a run is already in progress
+	 */
+	public ReconcileReport reconcile(boolean repair) {
+		if (!running.compareAndSet(false, true)) {
+			return lastReport;
+		}
+		try {
+			long started = System.nanoTime();
+			Run run = new Run(repair);
+			List<Callable<Void>> scans = new ArrayList<>();
+			for (KeyRange range : KeyRange.split(Math.max(1, properties.parallelism()))) {
+				scans.add(() -> scan(range, run.bookings, run, this::bookingChunk));
+				scans.add(() -> scan(range, run.blocks, run, this::blockChunk));
+				scans.add(() -> scan(range, run.allocations, run, this::allocationChunk));
+			}
+			invokeAll(scans);
+			ReconcileReport report = run.report(Duration.ofNanos(System.nanoTime() - started));
+			lastReport = report;
+			if (report.mismatches() > 0) {
+				log.warn("Reconciliation found {} mismatches {} ({} repaired, {} unrepaired) in {} bookings, {} blocks, {} allocations, {} ms",
+					report.mismatches(), report.found(), report.repaired(), report.unrepaired(),
+					report.bookingsScanned(), report.blocksScanned(), report.allocationsScanned(), report.duration().toMillis());
+			} else {
+				log.info("Reconciliation found no mismatches in {} bookings, {} blocks, {} allocations, {} ms",
+					report.bookingsScanned(), report.blocksScanned(), report.allocationsScanned(), report.duration().toMillis());
+			}
+			return report;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	public ReconcileReport getLastReport() {
+		return lastReport;
+	}
+
+	private void invokeAll(List<Callable<Void>> scans) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.parallelism()), r -> {
+			Thread thread = new Thread(r, "reconcile-scan");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (Future<Void> result : executor.invokeAll(scans)) {
+				result.get();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Reconciliation interrupted", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException(ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Void scan(KeyRange range, AtomicLong scanned, Run run, ChunkReader reader) throws InterruptedException {
+		UUID after = range.after();
+		Chunk chunk;
+		do {
+			UUID from = after;
+			chunk = readOnly.execute(status -> reader.read(from, range.last()));
+			scanned.addAndGet(chunk.rows());
+			run.handle(chunk.mismatches());
+			after = chunk.lastId();
+			if (chunk.rows() == properties.chunkSize() && !properties.pause().isZero()) {
+				Thread.sleep(properties.pause().toMillis());
+			}
+		} while (chunk.rows() == properties.chunkSize());
+		return null;
+	}
+
+	private Chunk bookingChunk(UUID after, UUID last) {
+		return diff(bookingRepository.findChunk(after, last, PageRequest.of(0, properties.chunkSize())));
+	}
+
+	private Chunk blockChunk(UUID after, UUID last) {
+		return diff(blockRepository.findChunk(after, last, PageRequest.of(0, properties.chunkSize())));
+	}
+
+	private Chunk diff(List<? extends Allocatable> entities) {
+		if (entities.isEmpty()) {
+			return Chunk.EMPTY;
+		}
+		Map<UUID, List<Allocation>> allocations = allocationRepository
+			.findByEntityIdIn(entities.stream().map(Allocatable::getId).toList()).stream()
+			.collect(Collectors.groupingBy(Allocation::getEntityId));
+		List<Mismatch> mismatches = new ArrayList<>();
+		for (Allocatable entity : entities) {
+			List<Allocation> own = allocations.getOrDefault(entity.getId(), List.of());
+			Mismatch.Kind kind = null;
+			if (own.isEmpty()) {
+				kind = Mismatch.Kind.MISSING_ALLOCATION;
+			} else if (own.size() > 1) {
+				kind = Mismatch.Kind.DUPLICATE_ALLOCATION;
+			} else if (!mirrors(own.get(0), entity)) {
+				kind = Mismatch.Kind.STALE_ALLOCATION;
+			}
+			if (kind != null) {
+				mismatches.add(new Mismatch(kind, entity.getAllocationType(), entity.getId(), entity.getPropertyId()));
+			}
+		}
+		return new Chunk(entities.size(), entities.get(entities.size() - 1).getId(), mismatches);
+	}
+
+	private Chunk allocationChunk(UUID after, UUID last) {
+		List<Allocation> allocations = allocationRepository.findChunk(after, last, PageRequest.of(0, properties.chunkSize()));
+		if (allocations.isEmpty()) {
+			return Chunk.EMPTY;
+		}
+		Set<UUID> existing = new HashSet<>();
+		existing.addAll(existingIds(allocations, AllocationType.BOOKING));
+		existing.addAll(existingIds(allocations, AllocationType.BLOCK));
+		List<Mismatch> orphans = allocations.stream()
+			.filter(a -> !existing.contains(a.getEntityId()))
+			.map(a -> new Mismatch(Mismatch.Kind.ORPHAN_ALLOCATION, a.getType(), a.getEntityId(), a.getPropertyId()))
+			.toList();
+		return new Chunk(allocations.size(), allocations.get(allocations.size() - 1).getId(), orphans);
+	}
+
+	private List<UUID> existingIds(List<Allocation> allocations, AllocationType type) {
+		List<UUID> ids = allocations.stream().filter(a -> a.getType() == type).map(Allocation::getEntityId).toList();
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		return type == AllocationType.BOOKING ? bookingRepository.findExistingIds(ids) : blockRepository.findExistingIds(ids);
+	}
+
+	private Outcome repair(Mismatch mismatch) {
+		Allocatable entity = (mismatch.type() == AllocationType.BOOKING
+			? bookingRepository.findById(mismatch.entityId())
+			: blockRepository.findById(mismatch.entityId())).orElse(null);
+		List<Allocation> allocations = allocationRepository.findByEntityIdIn(List.of(mismatch.entityId()));
+		// written past the allocation store: rebuild the occupancy of the properties involved
+		allocations.forEach(a -> occupancy.invalidate(a.getPropertyId()));
+		if (entity == null) {
+			allocationRepository.deleteAll(allocations);
+			return allocations.isEmpty() ? Outcome.ALREADY_FIXED : Outcome.REPAIRED;
+		}
+		Allocation kept = allocations.stream().filter(a -> mirrors(a, entity)).findFirst()
+			.orElse(allocations.isEmpty() ? null : allocations.get(0));
+		List<Allocation> extra = allocations.stream().filter(a -> a != kept).toList();
+		if (kept != null && mirrors(kept, entity)) {
+			allocationRepository.deleteAll(extra);
+			return extra.isEmpty() ? Outcome.ALREADY_FIXED : Outcome.REPAIRED;
+		}
+		occupancy.invalidate(entity.getPropertyId());
+		AllocationStatus status = expectedStatus(entity);
+		if (status == AllocationStatus.ACTIVE && !allocationPolicy.checkAvailability(entity, entity.getId()).isAvailable()) {
+			log.warn("Not repairing the allocation of {} {}: its dates are no longer free",
+				entity.getAllocationType(), entity.getId());
+			return Outcome.UNREPAIRED;
+		}
+		allocationRepository.deleteAll(extra);
+		Allocation allocation = kept != null ? kept : Allocation.builder()
+			.id(UUID.randomUUID())
+			.entityId(entity.getId())
+			.type(entity.getAllocationType())
+			.build();
+		allocation.setPropertyId(entity.getPropertyId());
+		allocation.setStartDate(entity.getStartDate());
+		allocation.setEndDate(entity.getEndDate());
+		allocation.setStatus(status);
+		if (kept == null) {
+			entityManager.persist(allocation);
+		}
+		return Outcome.REPAIRED;
+	}
+
+	private static boolean mirrors(Allocation allocation, Allocatable entity) {
+		return allocation.getType() == entity.getAllocationType()
+			&& Objects.equals(allocation.getPropertyId(), entity.getPropertyId())
+			&& Objects.equals(allocation.getStartDate(), entity.getStartDate())
+			&& Objects.equals(allocation.getEndDate(), entity.getEndDate())
+			&& allocation.getStatus() == expectedStatus(entity);
+	}
+
+	private static AllocationStatus expectedStatus(Allocatable entity) {
+		if (entity instanceof Booking booking && booking.getStatus() == BookingStatus.CANCELED) {
+			return AllocationStatus.CANCELED;
+		}
+		return AllocationStatus.ACTIVE;
+	}
+
+	private enum Outcome { REPAIRED, UNREPAIRED, ALREADY_FIXED }
+
+	@FunctionalInterface
+	private interface ChunkReader {
+		Chunk read(UUID after, UUID last);
+	}
+
+	private record Chunk(int rows, UUID lastId, List<Mismatch> mismatches) {
+		static final Chunk EMPTY = new Chunk(0, null, List.of());
+	}
+
+	/**
+	 * A range {@code (after, last]} of the UUID key space. Ranges split the high 64 bits evenly and are
+	 * ordered unsigned, like UUID columns in PostgreSQL and H2, so they cover every id but the nil UUID.
+	 */
+	private record KeyRange(UUID after, UUID last) {
+
+		static List<KeyRange> split(int count) {
+			long step = Long.divideUnsigned(-1L, count);
+			List<KeyRange> ranges = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				UUID after = new UUID(step * i, 0);
+				UUID last = i == count - 1 ? new UUID(-1L, -1L) : new UUID(step * (i + 1), 0);
+				ranges.add(new KeyRange(after, last));
+			}
+			return ranges;
+		}
+	}
+
+	/**
+	 * Tallies of one run, shared by its scan threads.
+	 */
+	private final class Run {
+
+		private final boolean repair;
+		private final AtomicLong bookings = new AtomicLong();
+		private final AtomicLong blocks = new AtomicLong();
+		private final AtomicLong allocations = new AtomicLong();
+		private final Map<Mismatch.Kind, LongAdder> found = new EnumMap<>(Mismatch.Kind.class);
+		private final LongAdder repaired = new LongAdder();
+		private final LongAdder unrepaired = new LongAdder();
+
+		Run(boolean repair) {
+			this.repair = repair;
+			for (Mismatch.Kind kind : Mismatch.Kind.values()) {
+				found.put(kind, new LongAdder());
+			}
+		}
+
+		void handle(List<Mismatch> mismatches) {
+			if (mismatches.isEmpty()) {
+				return;
+			}
+			mismatches.forEach(m -> {
+				found.get(m.kind()).increment();
+				log.debug("Reconciliation mismatch {}", m);
+			});
+			if (!repair) {
+				return;
+			}
+			Map<String, List<Mismatch>> byProperty = mismatches.stream()
+				.collect(Collectors.groupingBy(Mismatch::propertyId, LinkedHashMap::new, Collectors.toList()));
+			byProperty.forEach((propertyId, group) -> {
+				if (!leases.owns(propertyId)) {
+					// left to the node holding the lease
+					return;
+				}
+				try {
+					List<Outcome> outcomes = mutations.write(propertyId, () -> group.stream().map(ReconciliationService.this::repair).toList());
+					outcomes.forEach(outcome -> {
+						if (outcome == Outcome.REPAIRED) {
+							repaired.increment();
+						} else if (outcome == Outcome.UNREPAIRED) {
+							unrepaired.increment();
+						}
+					});
+				} catch (RuntimeException ex) {
+					log.warn("Reconciliation could not repair {} mismatches of property {}", group.size(), propertyId, ex);
+					unrepaired.add(group.size());
+				}
+			});
+		}
+
+		ReconcileReport report(Duration duration) {
+			Map<Mismatch.Kind, Long> counts = new EnumMap<>(Mismatch.Kind.class);
+			found.forEach((kind, count) -> counts.put(kind, count.sum()));
+			return new ReconcileReport(bookings.get(), blocks.get(), allocations.get(), Collections.unmodifiableMap(counts),
+				repaired.sum(), unrepaired.sum(), duration);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.bookingservice.service.stream;
+
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.HistoryEventType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Dates of a property whose availability may have changed, published by the mutation paths and
+ * pushed to {@link AvailabilityStream} subscribers once the transaction has committed.
+ * Subscribers re-read the calendar for the range; the event itself carries no booking details.
+ *
+ * @param type BOOKING or BLOCK, null once changes of both types were coalesced
+ * @param entityId the changed booking/block, null for set-based changes or once coalesced
+ * @param change the latest change folded into this event
+ * @param changes number of changes folded into this event
+ */
+public record AvailabilityChange(
+	String propertyId,
+	LocalDate startDate,
+	LocalDate endDate,
+	AllocationType type,
+	UUID entityId,
+	HistoryEventType change,
+	Instant occurredAt,
+	int changes
+) {
+
+	public static AvailabilityChange of(HistoryEventType change, Booking booking) {
+		return new AvailabilityChange(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate(),
+			AllocationType.BOOKING, booking.getId(), change, Instant.now(), 1);
+	}
+
+	public static AvailabilityChange of(HistoryEventType change, Block block) {
+		return new AvailabilityChange(block.getPropertyId(), block.getStartDate(), block.getEndDate(),
+			AllocationType.BLOCK, block.getId(), change, Instant.now(), 1);
+	}
+
+	/**
+	 * One event for a set-based change of {@code count} bookings/blocks in the range.
+	 */
+	public static AvailabilityChange inRange(AllocationType type, HistoryEventType change, String propertyId,
+	                                         LocalDate startDate, LocalDate endDate, int count) {
+		return new AvailabilityChange(propertyId, startDate, endDate, type, null, change, Instant.now(), count);
+	}
+
+	/**
+	 * Folds a later change of the same property into this one: the range widens to cover both,
+	 * so a subscriber that missed the individual events still re-reads every affected date.
+	 */
+	public AvailabilityChange coalesce(AvailabilityChange later) {
+		return new AvailabilityChange(
+			propertyId,
+			startDate.isBefore(later.startDate) ? startDate : later.startDate,
+			endDate.isAfter(later.endDate) ? endDate : later.endDate,
+			type == later.type ? type : null,
+			Objects.equals(entityId, later.entityId) ? entityId : null,
+			later.change,
+			later.occurredAt,
+			changes + later.changes
+		);
+	}
+}
@@ -0,0 +1,230 @@
+package com.bookingservice.service.stream;
+
+import com.bookingservice.support.CapacityExceededException;
+import com.bookingservice.support.MessageCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes {@link AvailabilityChange}s to Server-Sent Event subscribers, keyed by property.
+ * <p>
+ * Changes arrive after commit on the writer thread, which only merges them into the pending
+ * changes of each subscriber of the property and hands the subscriber to a small delivery pool;
+ * it never writes to a socket. Pending changes are coalesced per property, so a slow subscriber
+ * holds at most one event per followed property; one that cannot even get a delivery slot is
+ * closed and is expected to reconnect and re-read the calendar. Idle streams cost no thread
+ * (async servlet requests), only a registry entry and the connection.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AvailabilityStream implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(AvailabilityStream.class);
+
+	static final String EVENT_NAME = "availability";
+
+	private final StreamProperties properties;
+	private final MessageCatalog messages;
+	private final ConcurrentMap<String, Set<Subscriber>> byProperty = new ConcurrentHashMap<>();
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger open = new AtomicInteger();
+	private final AtomicLong sequence = new AtomicLong();
+	private final ThreadPoolExecutor delivery;
+
+	public AvailabilityStream(StreamProperties properties, MessageCatalog messages) {
+		this.properties = properties;
+		this.messages = messages;
+		AtomicInteger threads = new AtomicInteger();
+		this.delivery = new ThreadPoolExecutor(properties.deliveryThreads(), properties.deliveryThreads(),
+			0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.deliveryQueue()), r -> {
+				Thread thread = new Thread(r, "availability-stream-" + threads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+	}
+
+	/**
+	 * Opens a stream of the availability changes of the given properties.
+	 *
+	 * @throws IllegalArgumentException if no property, or more than {@code max-properties-per-subscriber}, is given
+	 * @throws CapacityExceededException if this node already serves {@code max-subscribers} streams
+	 */
+	public SseEmitter subscribe(Collection<String> propertyIds) {
+		Set<String> ids = new LinkedHashSet<>();
+		if (propertyIds != null) {
+			propertyIds.stream().filter(StringUtils::hasText).forEach(ids::add);
+		}
+		if (ids.isEmpty()) {
+			throw new IllegalArgumentException(messages.get("error.validation.propertyId.required"));
+		}
+		if (ids.size() > properties.maxPropertiesPerSubscriber()) {
+			throw new IllegalArgumentException(messages.get("error.validation.stream.tooManyProperties",
+				properties.maxPropertiesPerSubscriber()));
+		}
+		if (open.incrementAndGet() > properties.maxSubscribers()) {
+			open.decrementAndGet();
+			throw new CapacityExceededException(messages.get("error.stream.full"));
+		}
+
+		SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+		Subscriber subscriber = new Subscriber(ids, emitter);
+		emitter.onCompletion(() -> unregister(subscriber));
+		emitter.onTimeout(emitter::complete);
+		emitter.onError(ex -> unregister(subscriber));
+		subscribers.add(subscriber);
+		for (String id : ids) {
+			byProperty.compute(id, (key, set) -> {
+				Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+				target.add(subscriber);
+				return target;
+			});
+		}
+		// flushed once the response starts, tells the client the subscription is live
+		subscriber.sendQuietly(SseEmitter.event().comment("subscribed"));
+		return emitter;
+	}
+
+	/**
+	 * Fans a committed change out to the subscribers of its property. Runs on the writer thread,
+	 * so it only queues work.
+	 */
+	@TransactionalEventListener
+	public void publish(AvailabilityChange change) {
+		Set<Subscriber> targets = byProperty.get(change.propertyId());
+		if (targets != null) {
+			targets.forEach(subscriber -> subscriber.offer(change));
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${booking.stream.heartbeat-interval:PT30S}")
+	public void heartbeat() {
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		try {
+			delivery.execute(() -> subscribers.forEach(Subscriber::heartbeat));
+		} catch (RejectedExecutionException ex) {
+			// deliveries are backed up: they keep the busy streams alive anyway
+			log.debug("Skipped availability stream heartbeat, delivery queue full");
+		}
+	}
+
+	public int subscriberCount() {
+		return open.get();
+	}
+
+	@Override
+	public void destroy() {
+		delivery.shutdownNow();
+		subscribers.forEach(Subscriber::close);
+	}
+
+	private void unregister(Subscriber subscriber) {
+		if (!subscribers.remove(subscriber)) {
+			return;
+		}
+		open.decrementAndGet();
+		for (String id : subscriber.propertyIds) {
+			byProperty.computeIfPresent(id, (key, set) -> {
+				set.remove(subscriber);
+				return set.isEmpty() ? null : set;
+			});
+		}
+	}
+
+	private final class Subscriber {
+
+		private final Set<String> propertyIds;
+		private final SseEmitter emitter;
+		// at most one entry per followed property
+		private final ConcurrentMap<String, AvailabilityChange> pending = new ConcurrentHashMap<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		Subscriber(Set<String> propertyIds, SseEmitter emitter) {
+			this.propertyIds = propertyIds;
+			this.emitter = emitter;
+		}
+
+		void offer(AvailabilityChange change) {
+			pending.merge(change.propertyId(), change, AvailabilityChange::coalesce);
+			schedule();
+		}
+
+		private void schedule() {
+			if (!scheduled.compareAndSet(false, true)) {
+				// a delivery is queued or running and will pick the change up
+				return;
+			}
+			try {
+				delivery.execute(this::drain);
+			} catch (RejectedExecutionException ex) {
+				log.debug("Dropping availability stream subscriber, delivery queue full");
+				close();
+			}
+		}
+
+		private void drain() {
+			do {
+				for (String propertyId : pending.keySet()) {
+					AvailabilityChange change = pending.remove(propertyId);
+					if (change != null && !sendQuietly(SseEmitter.event()
+						.id(Long.toString(sequence.incrementAndGet()))
+						.name(EVENT_NAME)
+						.data(change, MediaType.APPLICATION_JSON))) {
+						return;
+					}
+				}
+				scheduled.set(false);
+				// a change merged after the loop and before the reset found the flag still set
+			} while (!pending.isEmpty() && scheduled.compareAndSet(false, true));
+		}
+
+		void heartbeat() {
+			if (!scheduled.get()) {
+				sendQuietly(SseEmitter.event().comment("heartbeat"));
+			}
+		}
+
+		boolean sendQuietly(SseEmitter.SseEventBuilder event) {
+			try {
+				emitter.send(event);
+				return true;
+			} catch (IOException | IllegalStateException ex) {
+				// client gone or emitter already completed
+				close();
+				return false;
+			}
+		}
+
+		void close() {
+			unregister(this);
+			try {
+				emitter.complete();
+			} catch (IllegalStateException ignored) {
+				// already completed
+			}
+		}
+	}
+}
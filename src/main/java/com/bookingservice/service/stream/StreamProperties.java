@@ -0,0 +1,27 @@
+package com.bookingservice.service.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Availability change stream settings ({@code booking.stream}).
+ *
+ * @param maxSubscribers open streams accepted by this node; further subscriptions get 503
+ * @param maxPropertiesPerSubscriber properties one stream may follow, which also bounds its pending events
+ * @param deliveryThreads threads writing events to subscribers; writers never do
+ * @param deliveryQueue subscribers waiting for a delivery thread; a subscriber that does not fit is dropped
+ * @param heartbeatInterval comment sent to idle streams so proxies keep them open and dead ones are detected
+ * @param timeout streams are closed after this long and the client reconnects (0: never)
+ */
+@ConfigurationProperties(prefix = "booking.stream")
+public record StreamProperties(
+	@DefaultValue("50000") int maxSubscribers,
+	@DefaultValue("100") int maxPropertiesPerSubscriber,
+	@DefaultValue("4") int deliveryThreads,
+	@DefaultValue("10000") int deliveryQueue,
+	@DefaultValue("30s") Duration heartbeatInterval,
+	@DefaultValue("30m") Duration timeout
+) {
+}
@@ -0,0 +1,25 @@
+package com.bookingservice.service.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Startup warm-up settings ({@code booking.warmup}).
+ *
+ * @param enabled run the warm-up before the application reports ready
+ * @param timeBudget total time the warm-up may take; remaining work is skipped once exceeded
+ * @param parallelism number of threads scanning allocations
+ * @param horizonDays how far ahead of today ACTIVE allocations are scanned
+ * @param samplePropertyCount properties used to exercise the controller and service read paths
+ */
+@ConfigurationProperties(prefix = "booking.warmup")
+public record WarmupProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue("30s") Duration timeBudget,
+	@DefaultValue("4") int parallelism,
+	@DefaultValue("365") int horizonDays,
+	@DefaultValue("20") int samplePropertyCount
+) {
+}
@@ -0,0 +1,20 @@
+package com.bookingservice.service.warmup;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a startup warm-up: one entry per step, in execution order.
+ */
+public record WarmupReport(List<Step> steps, Duration total) {
+
+	/**
+	 * @param items units of work done (properties scanned, requests issued)
+	 * @param completed false if the time budget ran out before the step finished
+	 */
+	public record Step(String name, Duration duration, int items, boolean completed) {}
+
+	public boolean completed() {
+		return steps.stream().allMatch(Step::completed);
+	}
+}
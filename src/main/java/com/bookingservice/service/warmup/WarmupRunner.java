@@ -0,0 +1,213 @@
+package com.bookingservice.service.warmup;
+
+import com.bookingservice.api.BlockController;
+import com.bookingservice.api.BookingController;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.Block;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.service.BlockService;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.service.policy.AllocationPolicy;
+import com.bookingservice.support.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up a starting node before it reports ready.
+ * <p>
+ * Runs as an ApplicationRunner, so Spring Boot only switches readiness to ACCEPTING_TRAFFIC
+ * once it returns. Steps:
+ * <ol>
+ *   <li>allocations: parallel scans of ACTIVE allocations, partitioned by property, through the
+ *   same overlap query AllocationPolicy uses (statement cache, index and table pages)</li>
+ *   <li>service-paths: availability check and calendar reads through the services</li>
+ *   <li>controller-paths: controller handlers plus JSON serialization of their responses
+ *   (servlet stack only)</li>
+ * </ol>
+ * Steps share one time budget; work still pending when it runs out is skipped.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+	private final WarmupProperties properties;
+	private final AllocationStore allocationStore;
+	private final AllocationPolicy allocationPolicy;
+	private final BookingService bookingService;
+	private final BlockService blockService;
+	private final ObjectProvider<BookingController> bookingController;
+	private final ObjectProvider<BlockController> blockController;
+	private final ObjectMapper objectMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private volatile WarmupReport lastReport;
+
+	public WarmupRunner(WarmupProperties properties,
+	                    AllocationStore allocationStore,
+	                    AllocationPolicy allocationPolicy,
+	                    BookingService bookingService,
+	                    BlockService blockService,
+	                    ObjectProvider<BookingController> bookingController,
+	                    ObjectProvider<BlockController> blockController,
+	                    ObjectMapper objectMapper,
+	                    ApplicationEventPublisher eventPublisher) {
+		this.properties = properties;
+		this.allocationStore = allocationStore;
+		this.allocationPolicy = allocationPolicy;
+		this.bookingService = bookingService;
+		this.blockService = blockService;
+		this.bookingController = bookingController;
+		this.blockController = blockController;
+		this.objectMapper = objectMapper;
+		this.eventPublisher = eventPublisher;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!properties.enabled()) {
+			return;
+		}
+		AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+		warmUp();
+	}
+
+	public WarmupReport warmUp() {
+		long started = System.nanoTime();
+		long deadline = started + properties.timeBudget().toNanos();
+		LocalDate today = LocalDate.now();
+		List<WarmupReport.Step> steps = new ArrayList<>();
+
+		List<String> propertyIds = allocationStore.findPropertiesWithAllocationsFrom(AllocationStatus.ACTIVE, today);
+		steps.add(scanAllocations(propertyIds, today, deadline));
+
+		List<String> sample = propertyIds.subList(0, Math.min(propertyIds.size(), properties.samplePropertyCount()));
+		if (sample.isEmpty()) {
+			// exercise the code paths even on an empty database
+			sample = List.of("warmup-" + UUID.randomUUID());
+		}
+		steps.add(step("service-paths", sample, deadline, this::exerciseServices));
+		if (bookingController.getIfAvailable() != null) {
+			// servlet stack only
+			steps.add(step("controller-paths", sample, deadline, this::exerciseControllers));
+		}
+
+		WarmupReport report = new WarmupReport(List.copyOf(steps), Duration.ofNanos(System.nanoTime() - started));
+		report.steps().forEach(s -> log.info("Warm-up step {}: {} items in {} ms{}", s.name(), s.items(),
+			s.duration().toMillis(), s.completed() ? "" : " (time budget exceeded)"));
+		log.info("Warm-up finished in {} ms", report.total().toMillis());
+		lastReport = report;
+		return report;
+	}
+
+	public WarmupReport getLastReport() {
+		return lastReport;
+	}
+
+	private WarmupReport.Step scanAllocations(List<String> propertyIds, LocalDate today, long deadline) {
+		long started = System.nanoTime();
+		int partitions = Math.max(1, properties.parallelism());
+		List<Callable<Integer>> scans = new ArrayList<>(partitions);
+		for (int p = 0; p < partitions; p++) {
+			int partition = p;
+			scans.add(() -> {
+				int scanned = 0;
+				for (int i = partition; i < propertyIds.size() && System.nanoTime() < deadline; i += partitions) {
+					allocationStore.findOverlappingAllocations(propertyIds.get(i), AllocationStatus.ACTIVE,
+						today, today.plusDays(properties.horizonDays()));
+					scanned++;
+				}
+				return scanned;
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(partitions, r -> {
+			Thread thread = new Thread(r, "warmup-scan");
+			thread.setDaemon(true);
+			return thread;
+		});
+		int scanned = 0;
+		try {
+			long remaining = Math.max(0, deadline - System.nanoTime());
+			for (Future<Integer> result : executor.invokeAll(scans, remaining, TimeUnit.NANOSECONDS)) {
+				if (!result.isCancelled()) {
+					scanned += result.get();
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (Exception ex) {
+			log.warn("Warm-up allocation scan failed", ex);
+		} finally {
+			executor.shutdownNow();
+		}
+		return new WarmupReport.Step("allocations", Duration.ofNanos(System.nanoTime() - started), scanned,
+			scanned == propertyIds.size());
+	}
+
+	private WarmupReport.Step step(String name, List<String> propertyIds, long deadline, PropertyTask task) {
+		long started = System.nanoTime();
+		int done = 0;
+		for (String propertyId : propertyIds) {
+			if (System.nanoTime() >= deadline) {
+				break;
+			}
+			try {
+				task.run(propertyId);
+			} catch (Exception ex) {
+				log.debug("Warm-up {} failed for property {}", name, propertyId, ex);
+			}
+			done++;
+		}
+		return new WarmupReport.Step(name, Duration.ofNanos(System.nanoTime() - started), done, done == propertyIds.size());
+	}
+
+	private void exerciseServices(String propertyId) {
+		YearMonth month = YearMonth.now();
+		Block probe = new Block();
+		probe.setPropertyId(propertyId);
+		probe.setStartDate(month.atDay(1));
+		probe.setEndDate(month.atDay(1));
+		try {
+			allocationPolicy.ensureDatesAvailableFor(probe, null);
+		} catch (IllegalStateException expected) {
+			// the day is taken, the conflict path is warm as well
+		}
+		bookingService.listByPropertyAndMonth(propertyId, month.getYear(), month.getMonthValue());
+		blockService.listByPropertyAndMonth(propertyId, month.getYear(), month.getMonthValue());
+		try {
+			bookingService.getBooking(UUID.randomUUID());
+		} catch (NotFoundException expected) {
+			// lookup by id path
+		}
+	}
+
+	private void exerciseControllers(String propertyId) throws Exception {
+		YearMonth month = YearMonth.now();
+		objectMapper.writeValueAsBytes(bookingController.getObject().listByMonth(propertyId, month.getYear(), month.getMonthValue()).getBody());
+		objectMapper.writeValueAsBytes(blockController.getObject().listByMonth(propertyId, month.getYear(), month.getMonthValue()).getBody());
+	}
+
+	@FunctionalInterface
+	private interface PropertyTask {
+		void run(String propertyId) throws Exception;
+	}
+}
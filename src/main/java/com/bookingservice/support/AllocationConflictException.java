@@ -0,0 +1,28 @@
+package com.bookingservice.support;
+
+import com.bookingservice.service.policy.AvailabilityCheck;
+
+import java.util.List;
+
+/**
+ * Raised when requested dates overlap ACTIVE allocations; mapped to 409 with the conflicts.
+ * Conflicts are an expected outcome, so no stack trace is captured.
+ */
+public class AllocationConflictException extends IllegalStateException {
+
+	private final transient List<AvailabilityCheck.Conflict> conflicts;
+
+	public AllocationConflictException(String message, List<AvailabilityCheck.Conflict> conflicts) {
+		super(message);
+		this.conflicts = conflicts;
+	}
+
+	public List<AvailabilityCheck.Conflict> getConflicts() {
+		return conflicts;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
@@ -0,0 +1,11 @@
+package com.bookingservice.support;
+
+/**
+ * Raised when this node cannot take more work of some kind right now; mapped to 503 so
+ * clients retry later (possibly on another node).
+ */
+public class CapacityExceededException extends RuntimeException {
+	public CapacityExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,172 @@
+package com.bookingservice.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * Immutable catalog of localized message templates, parsed once at startup.
+ * <p>
+ * Replaces per-call {@code MessageSource.getMessage}, which creates a new MessageFormat for
+ * every message with arguments. Templates built from {@code {n}} placeholders are formatted
+ * with a StringBuilder; anything else (typed placeholders, Number/Date arguments, unknown codes)
+ * falls back to the MessageSource so output stays identical.
+ */
+@Component
+public class MessageCatalog {
+
+	private final MessageSource fallback;
+	private final Map<Locale, Map<String, Template>> templates;
+	private final Map<String, Template> rootTemplates;
+
+	public MessageCatalog(MessageSource fallback,
+	                      @Value("${spring.messages.basename:messages}") String basename,
+	                      @Value("${booking.i18n.locales:en-US,pt-BR}") List<Locale> locales) {
+		this.fallback = fallback;
+		this.rootTemplates = load(basename, Locale.ROOT);
+		Map<Locale, Map<String, Template>> byLocale = new HashMap<>();
+		for (Locale locale : locales) {
+			byLocale.put(locale, load(basename, locale));
+			byLocale.putIfAbsent(Locale.forLanguageTag(locale.getLanguage()), load(basename, Locale.forLanguageTag(locale.getLanguage())));
+		}
+		this.templates = Map.copyOf(byLocale);
+	}
+
+	/**
+	 * Resolves a message for the current request locale.
+	 */
+	public String get(String code, Object... args) {
+		return get(LocaleContextHolder.getLocale(), code, args);
+	}
+
+	public String get(Locale locale, String code, Object... args) {
+		Template template = templatesFor(locale).get(code);
+		if (template == null) {
+			return fallback.getMessage(code, args, locale);
+		}
+		return template.format(args, locale);
+	}
+
+	/**
+	 * @return true if the code has a template for the locale (or the default bundle)
+	 */
+	public boolean contains(Locale locale, String code) {
+		return templatesFor(locale).containsKey(code);
+	}
+
+	private Map<String, Template> templatesFor(Locale locale) {
+		Map<String, Template> forLocale = templates.get(locale);
+		if (forLocale == null) {
+			forLocale = templates.getOrDefault(Locale.forLanguageTag(locale.getLanguage()), rootTemplates);
+		}
+		return forLocale;
+	}
+
+	private static Map<String, Template> load(String basename, Locale locale) {
+		ResourceBundle bundle;
+		try {
+			// no fallback to the JVM default locale: locale bundle, then the base bundle
+			bundle = ResourceBundle.getBundle(basename, locale,
+				ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+		} catch (MissingResourceException ex) {
+			return Map.of();
+		}
+		Map<String, Template> loaded = new HashMap<>();
+		for (String code : Collections.list(bundle.getKeys())) {
+			loaded.put(code, Template.parse(bundle.getString(code)));
+		}
+		return Map.copyOf(loaded);
+	}
+
+	/**
+	 * Pre-parsed MessageFormat pattern: literal parts interleaved with argument indexes.
+	 */
+	static final class Template {
+		private final String pattern;
+		private final String[] literals;  // literals[i] precedes argument argIndexes[i]; one extra trailing literal
+		private final int[] argIndexes;
+		private final boolean simple;
+
+		private Template(String pattern, String[] literals, int[] argIndexes, boolean simple) {
+			this.pattern = pattern;
+			this.literals = literals;
+			this.argIndexes = argIndexes;
+			this.simple = simple;
+		}
+
+		static Template parse(String pattern) {
+			List<String> literals = new ArrayList<>();
+			List<Integer> args = new ArrayList<>();
+			StringBuilder literal = new StringBuilder();
+			boolean quoted = false;
+			for (int i = 0; i < pattern.length(); i++) {
+				char c = pattern.charAt(i);
+				if (c == '\'') {
+					if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+						literal.append('\'');
+						i++;
+					} else {
+						quoted = !quoted;
+					}
+				} else if (c == '{' && !quoted) {
+					int close = pattern.indexOf('}', i);
+					String index = close < 0 ? "" : pattern.substring(i + 1, close).trim();
+					if (index.isEmpty() || !index.chars().allMatch(Character::isDigit)) {
+						// typed or nested placeholder: leave it to MessageFormat
+						return new Template(pattern, null, null, false);
+					}
+					literals.add(literal.toString());
+					literal.setLength(0);
+					args.add(Integer.parseInt(index));
+					i = close;
+				} else {
+					literal.append(c);
+				}
+			}
+			literals.add(literal.toString());
+			return new Template(pattern, literals.toArray(String[]::new),
+				args.stream().mapToInt(Integer::intValue).toArray(), true);
+		}
+
+		String format(Object[] args, Locale locale) {
+			if (args == null || args.length == 0) {
+				// same as MessageSource: messages without arguments are returned verbatim
+				return pattern;
+			}
+			if (!simple || needsFormatter(args)) {
+				return new MessageFormat(pattern, locale).format(args);
+			}
+			StringBuilder out = new StringBuilder(pattern.length() + 32);
+			for (int i = 0; i < argIndexes.length; i++) {
+				out.append(literals[i]);
+				int index = argIndexes[i];
+				if (index < args.length) {
+					out.append(args[index]);
+				} else {
+					out.append('{').append(index).append('}');
+				}
+			}
+			return out.append(literals[argIndexes.length]).toString();
+		}
+
+		private static boolean needsFormatter(Object[] args) {
+			for (Object arg : args) {
+				if (arg instanceof Number || arg instanceof java.util.Date) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.bookingservice.support;
+
+/**
+ * Raised when a mutation reaches a node that does not hold the lease of its property; mapped to
+ * 307 towards the owner when its URL is known, 503 otherwise (the lease is moving).
+ */
+public class NotOwnerException extends RuntimeException {
+
+	private final String ownerUrl;
+
+	public NotOwnerException(String message, String ownerUrl) {
+		super(message);
+		this.ownerUrl = ownerUrl;
+	}
+
+	/**
+	 * @return base URL of the node holding the lease, or null
+	 */
+	public String getOwnerUrl() {
+		return ownerUrl;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
@@ -0,0 +1,24 @@
+package com.bookingservice.support;
+
+/**
+ * Raised when a client sent more requests than its quota; mapped to 429 with the seconds to wait.
+ * Clients over their quota are rejected often, so no stack trace is captured.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+	private final long retryAfterSeconds;
+
+	public RateLimitExceededException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
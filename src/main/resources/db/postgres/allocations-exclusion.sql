@@ -0,0 +1,21 @@
+-- Database-native overlap enforcement for booking.allocation.conflict-detection=database.
+-- Two ACTIVE allocations of the same property may not share any day (inclusive date ranges).
+-- Statements are separated by '@@' (see application-postgres.yml) because the DO block contains ';'.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist
+@@
+
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'allocations_no_overlap') THEN
+		ALTER TABLE allocations
+			ADD CONSTRAINT allocations_no_overlap
+			EXCLUDE USING gist (
+				property_id WITH =,
+				daterange(start_date, end_date, '[]') WITH &&
+			)
+			WHERE (status = 'ACTIVE');
+	END IF;
+END
+$$
+@@
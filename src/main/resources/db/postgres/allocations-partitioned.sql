@@ -0,0 +1,27 @@
+-- Monthly range partitioning of allocations by start_date (profile "partitioned").
+-- Runs before Hibernate, which then finds the table already in place.
+-- Monthly partitions are created ahead of time by AllocationPartitionManager; rows for months
+-- without a partition go to allocations_default.
+-- The primary key must contain the partition key, hence (id, start_date).
+-- Statements are separated by '@@' (see application-partitioned.yml).
+
+CREATE TABLE IF NOT EXISTS allocations (
+	id uuid NOT NULL,
+	property_id varchar(255) NOT NULL,
+	start_date date NOT NULL,
+	end_date date NOT NULL,
+	type varchar(255) NOT NULL,
+	status varchar(255) NOT NULL,
+	entity_id uuid NOT NULL,
+	PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date)
+@@
+
+CREATE TABLE IF NOT EXISTS allocations_default PARTITION OF allocations DEFAULT
+@@
+
+CREATE INDEX IF NOT EXISTS idx_allocations_property_status_start ON allocations (property_id, status, start_date)
+@@
+
+CREATE INDEX IF NOT EXISTS idx_allocations_entity ON allocations (entity_id)
+@@
@@ -0,0 +1,27 @@
+-- Guest lookup keys compare byte-wise, so that a plain btree index answers "key LIKE 'prefix%'"
+-- (under the database's default collation it cannot, and prefix searches scan the table).
+-- The keys are already normalized (lower case, no accents), so "C" ordering loses nothing.
+-- Runs once the bookings table exists; the ALTER only happens while the collation is still another.
+
+DO $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM information_schema.columns
+	           WHERE table_name = 'bookings' AND column_name = 'guest_email_key'
+	             AND coalesce(collation_name, '') <> 'C') THEN
+		ALTER TABLE bookings ALTER COLUMN guest_email_key TYPE varchar(255) COLLATE "C";
+	END IF;
+	IF EXISTS (SELECT 1 FROM information_schema.columns
+	           WHERE table_name = 'bookings' AND column_name = 'guest_name_key'
+	             AND coalesce(collation_name, '') <> 'C') THEN
+		ALTER TABLE bookings ALTER COLUMN guest_name_key TYPE varchar(255) COLLATE "C";
+	END IF;
+END
+$$
+@@
+
+-- single-column indexes of earlier versions, superseded by the ones declared on Booking
+DROP INDEX IF EXISTS idx_bookings_guest_email_key
+@@
+
+DROP INDEX IF EXISTS idx_bookings_guest_name_key
+@@
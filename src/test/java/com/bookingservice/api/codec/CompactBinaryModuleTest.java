@@ -0,0 +1,83 @@
+package com.bookingservice.api.codec;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.BookingStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CompactBinaryModule - Given/When/Then")
+class CompactBinaryModuleTest {
+
+	private final ObjectMapper cbor = new ObjectMapper(new CBORFactory())
+		.registerModule(new JavaTimeModule())
+		.registerModule(new CompactBinaryModule());
+	private final ObjectMapper json = new ObjectMapper()
+		.registerModule(new JavaTimeModule())
+		.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	@DisplayName("Given a month of bookings When encoded as CBOR Then it round-trips and is much smaller than JSON")
+	void givenCalendar_whenEncodedAsCbor_thenRoundTripsAndSmallerThanJson() throws Exception {
+		// Given
+		LocalDate start = LocalDate.of(2026, 3, 1);
+		List<BookingDtos.Response> calendar = IntStream.range(0, 31)
+			.mapToObj(i -> new BookingDtos.Response(UUID.randomUUID(), "property-abc", "Guest " + i,
+				"guest" + i + "@example.com", start.plusDays(i), start.plusDays(i + 1), BookingStatus.ACTIVE))
+			.toList();
+
+		// When
+		byte[] binary = cbor.writeValueAsBytes(calendar);
+		byte[] text = json.writeValueAsBytes(calendar);
+
+		// Then
+		assertEquals(calendar, cbor.readValue(binary, new TypeReference<List<BookingDtos.Response>>() {}));
+		assertTrue(binary.length < text.length * 0.75, binary.length + " bytes of CBOR vs " + text.length + " of JSON");
+	}
+
+	@Test
+	@DisplayName("Given a date and a UUID When encoded Then they are an epoch day and two longs")
+	void givenDateAndUuid_whenEncoded_thenEpochDayAndTwoLongs() throws Exception {
+		// Given
+		UUID id = UUID.randomUUID();
+		LocalDate day = LocalDate.of(2026, 3, 1);
+
+		// When
+		Map<?, ?> decoded = cbor.readValue(cbor.writeValueAsBytes(Map.of("id", id, "day", day)), Map.class);
+
+		// Then
+		assertEquals(day.toEpochDay(), ((Number) decoded.get("day")).longValue());
+		assertEquals(List.of(id.getMostSignificantBits(), id.getLeastSignificantBits()),
+			((List<?>) decoded.get("id")).stream().map(n -> ((Number) n).longValue()).toList());
+	}
+
+	@Test
+	@DisplayName("Given ISO strings in a CBOR request When decoded Then they are accepted too")
+	void givenIsoStrings_whenDecoded_thenAccepted() throws Exception {
+		// Given
+		UUID id = UUID.randomUUID();
+		byte[] body = cbor.writeValueAsBytes(Map.of(
+			"propertyId", "property-abc", "startDate", "2026-03-01", "endDate", "2026-03-03",
+			"excludeBookingId", id.toString()));
+
+		// When
+		var request = cbor.readValue(body, BookingDtos.AvailabilityRequest.class);
+
+		// Then
+		assertEquals(LocalDate.of(2026, 3, 1), request.startDate());
+		assertEquals(id, request.excludeBookingId());
+	}
+}
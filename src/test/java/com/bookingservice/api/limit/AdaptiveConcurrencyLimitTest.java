@@ -0,0 +1,88 @@
+package com.bookingservice.api.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveConcurrencyLimit - Given/When/Then")
+class AdaptiveConcurrencyLimitTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+	@Test
+	@DisplayName("Given the limit is reached When acquiring Then the request is rejected until one completes")
+	void givenLimitReached_whenAcquire_thenRejected() {
+		// Given
+		AdaptiveConcurrencyLimit limit = limit(2);
+		int first = limit.tryAcquire();
+		int second = limit.tryAcquire();
+
+		// When
+		int rejected = limit.tryAcquire();
+		limit.release(FAST, first);
+		int afterRelease = limit.tryAcquire();
+
+		// Then
+		assertEquals(1, first);
+		assertEquals(2, second);
+		assertEquals(0, rejected);
+		assertTrue(afterRelease > 0);
+	}
+
+	@Test
+	@DisplayName("Given a saturated limit When latency stays steady Then the limit grows up to its max")
+	void givenSteadyLatency_whenSaturated_thenLimitGrows() {
+		// Given
+		AdaptiveConcurrencyLimit limit = limit(10);
+
+		// When
+		for (int i = 0; i < 200; i++) {
+			limit.release(FAST, limit.limit());
+		}
+
+		// Then
+		assertEquals(100, limit.limit());
+	}
+
+	@Test
+	@DisplayName("Given a steady latency When requests get much slower Then the limit shrinks")
+	void givenSteadyLatency_whenLatencyRises_thenLimitShrinks() {
+		// Given
+		AdaptiveConcurrencyLimit limit = limit(50);
+		for (int i = 0; i < 50; i++) {
+			limit.release(FAST, 1);
+		}
+
+		// When
+		int before = limit.limit();
+		for (int i = 0; i < 20; i++) {
+			limit.release(FAST * 20, limit.limit());
+		}
+
+		// Then
+		assertEquals(50, before);
+		assertTrue(limit.limit() < before / 2, "limit " + limit.limit());
+	}
+
+	@Test
+	@DisplayName("Given a mostly idle limit When requests complete Then the limit is left as is")
+	void givenIdle_whenRequestsComplete_thenLimitUnchanged() {
+		// Given
+		AdaptiveConcurrencyLimit limit = limit(20);
+
+		// When
+		for (int i = 0; i < 100; i++) {
+			limit.release(FAST * (1 + i % 50), 1);
+		}
+
+		// Then
+		assertEquals(20, limit.limit());
+	}
+
+	private static AdaptiveConcurrencyLimit limit(int initial) {
+		return new AdaptiveConcurrencyLimit(new ConcurrencyLimitProperties.Limits(initial, 2, 100), 2.0, 0.2);
+	}
+}
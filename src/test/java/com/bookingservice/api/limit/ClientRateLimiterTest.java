@@ -0,0 +1,91 @@
+package com.bookingservice.api.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ClientRateLimiter - Given/When/Then")
+class ClientRateLimiterTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	@DisplayName("Given an idle client When it sends a burst Then the burst passes and the next request waits one interval")
+	void givenIdleClient_whenBurst_thenBurstPassesAndNextWaits() {
+		// Given
+		ClientRateLimiter limiter = new ClientRateLimiter(new RateLimitProperties.Quota(10, 5), 100);
+		long now = 1_000 * SECOND;
+
+		// When
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.tryAcquire("a", now));
+		}
+		long wait = limiter.tryAcquire("a", now);
+
+		// Then
+		assertEquals(SECOND / 10, wait);
+		assertEquals(0, limiter.tryAcquire("b", now));
+		assertEquals(0, limiter.tryAcquire("a", now + wait));
+		assertTrue(limiter.tryAcquire("a", now + wait) > 0);
+	}
+
+	@Test
+	@DisplayName("Given a client at its sustained rate When requests keep coming Then every one passes")
+	void givenSustainedRate_whenRequests_thenAllPass() {
+		// Given
+		ClientRateLimiter limiter = new ClientRateLimiter(new RateLimitProperties.Quota(100, 1), 100);
+		long now = 1_000 * SECOND;
+
+		// When / Then
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(0, limiter.tryAcquire("a", now + i * (SECOND / 100)));
+		}
+	}
+
+	@Test
+	@DisplayName("Given clients with partly and fully refilled buckets When evicting Then only the full ones are dropped")
+	void givenBuckets_whenEvict_thenFullOnesDropped() {
+		// Given
+		ClientRateLimiter limiter = new ClientRateLimiter(new RateLimitProperties.Quota(1, 10), 100);
+		long now = 1_000 * SECOND;
+		limiter.tryAcquire("idle", now);
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire("busy", now);
+		}
+
+		// When
+		limiter.evictIdle(now + 5 * SECOND);
+
+		// Then
+		assertEquals(1, limiter.clients());
+		assertEquals(0, limiter.tryAcquire("busy", now + 5 * SECOND));
+		assertEquals(0, limiter.tryAcquire("idle", now + 5 * SECOND));
+	}
+
+	@Test
+	@DisplayName("Given the client cap reached When new clients arrive Then they share one overflow bucket until eviction")
+	void givenCapReached_whenNewClients_thenOverflowShared() {
+		// Given
+		ClientRateLimiter limiter = new ClientRateLimiter(new RateLimitProperties.Quota(1, 2), 2);
+		long now = 1_000 * SECOND;
+		limiter.tryAcquire("a", now);
+		limiter.tryAcquire("b", now);
+
+		// When
+		long first = limiter.tryAcquire("c", now);
+		long second = limiter.tryAcquire("d", now);
+		long third = limiter.tryAcquire("e", now);
+
+		// Then
+		assertEquals(0, first);
+		assertEquals(0, second);
+		assertTrue(third > 0);
+		assertEquals(2, limiter.clients());
+		limiter.evictIdle(now + 10 * SECOND);
+		assertEquals(0, limiter.tryAcquire("e", now + 10 * SECOND));
+		assertEquals(1, limiter.clients());
+	}
+}
@@ -0,0 +1,92 @@
+package com.bookingservice.api.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+	"booking.concurrency-limit.reads.initial=1",
+	"booking.concurrency-limit.reads.min=1",
+	"booking.concurrency-limit.reads.max=1"
+})
+@AutoConfigureMockMvc
+@DisplayName("ConcurrencyLimitInterceptor - Given/When/Then")
+class ConcurrencyLimitInterceptorTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ConcurrencyLimitInterceptor interceptor;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Given the read limit is taken When reading a booking Then 503 with Retry-After, and writes still pass")
+	void givenReadLimitTaken_whenRead_then503() throws Exception {
+		// Given
+		AdaptiveConcurrencyLimit reads = interceptor.reads();
+		int inFlight = reads.tryAcquire();
+		double rejectedBefore = rejected();
+		try {
+			// When / Then
+			mockMvc.perform(get("/api/bookings/{id}", UUID.randomUUID()))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("$.error", is("SERVICE_UNAVAILABLE")));
+			mockMvc.perform(delete("/api/bookings/{id}", UUID.randomUUID()))
+				.andExpect(status().isNoContent());
+			assertEquals(rejectedBefore + 1, rejected());
+		} finally {
+			reads.release(1, inFlight);
+		}
+
+		// Then
+		mockMvc.perform(get("/api/bookings/{id}", UUID.randomUUID()))
+			.andExpect(status().isNotFound());
+		assertEquals(0, reads.inFlight());
+		assertEquals(0, interceptor.writes().inFlight());
+	}
+
+	@Test
+	@DisplayName("Given the read limit is taken When posting an availability dry run Then it is limited as a read")
+	void givenReadLimitTaken_whenAvailabilityDryRun_then503() throws Exception {
+		// Given
+		AdaptiveConcurrencyLimit reads = interceptor.reads();
+		int inFlight = reads.tryAcquire();
+		LocalDate start = LocalDate.now().plusDays(30);
+		String body = """
+			{"propertyId": "property-limit", "startDate": "%s", "endDate": "%s"}
+			""".formatted(start, start.plusDays(2));
+		try {
+			// When / Then
+			mockMvc.perform(post("/api/bookings/availability").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isServiceUnavailable());
+			assertEquals(0, interceptor.writes().inFlight());
+		} finally {
+			reads.release(1, inFlight);
+		}
+
+		// Then
+		mockMvc.perform(post("/api/bookings/availability").contentType(MediaType.APPLICATION_JSON).content(body))
+			.andExpect(status().isOk());
+	}
+
+	private double rejected() {
+		return meterRegistry.get("booking.concurrency.rejected").tag("operation", "read").counter().count();
+	}
+}
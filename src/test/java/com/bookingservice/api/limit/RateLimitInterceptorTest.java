@@ -0,0 +1,78 @@
+package com.bookingservice.api.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+	"booking.rate-limit.calendar.rate=0.01",
+	"booking.rate-limit.calendar.burst=2",
+	"booking.rate-limit.api-keys=channel-manager,other-channel"
+})
+@AutoConfigureMockMvc
+@DisplayName("RateLimitInterceptor - Given/When/Then")
+class RateLimitInterceptorTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	@DisplayName("Given a client that used its calendar quota When it polls again Then 429 with Retry-After, other clients and endpoints still pass")
+	void givenQuotaUsed_whenPolling_then429() throws Exception {
+		// Given
+		String key = "channel-manager";
+		mockMvc.perform(calendar(key)).andExpect(status().isOk());
+		mockMvc.perform(calendar(key)).andExpect(status().isOk());
+
+		// When / Then
+		mockMvc.perform(calendar(key))
+			.andExpect(status().isTooManyRequests())
+			.andExpect(header().string("Retry-After", "100"))
+			.andExpect(jsonPath("$.error", is("TOO_MANY_REQUESTS")));
+		mockMvc.perform(calendar("other-channel")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/bookings/{id}", UUID.randomUUID()).header("X-API-Key", key))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	@DisplayName("Given API keys that are not allow-listed When a client rotates them Then it still shares its address's quota")
+	void givenUnknownKeys_whenRotated_thenCountedByAddress() throws Exception {
+		// Given
+		mockMvc.perform(calendar("forged-" + UUID.randomUUID()).with(remoteAddr("10.0.0.7"))).andExpect(status().isOk());
+		mockMvc.perform(calendar("forged-" + UUID.randomUUID()).with(remoteAddr("10.0.0.7"))).andExpect(status().isOk());
+
+		// When / Then
+		mockMvc.perform(calendar("forged-" + UUID.randomUUID()).with(remoteAddr("10.0.0.7")))
+			.andExpect(status().isTooManyRequests());
+		mockMvc.perform(calendar("forged-" + UUID.randomUUID()).with(remoteAddr("10.0.0.8")))
+			.andExpect(status().isOk());
+	}
+
+	private static RequestPostProcessor remoteAddr(String address) {
+		return request -> {
+			request.setRemoteAddr(address);
+			return request;
+		};
+	}
+
+	private static MockHttpServletRequestBuilder calendar(String apiKey) {
+		LocalDate today = LocalDate.now();
+		return get("/api/bookings/calendar")
+			.param("propertyId", "property-rate-limit")
+			.param("year", Integer.toString(today.getYear()))
+			.param("month", Integer.toString(today.getMonthValue()))
+			.header("X-API-Key", apiKey);
+	}
+}
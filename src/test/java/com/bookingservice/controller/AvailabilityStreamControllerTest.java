@@ -0,0 +1,99 @@
+package com.bookingservice.controller;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("AvailabilityStreamController - Given/When/Then")
+class AvailabilityStreamControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given a stream for a property When a booking is created there Then an availability event is pushed, and none for other properties")
+	void givenSubscription_whenBookingCreated_thenEventPushed() throws Exception {
+		// Given
+		MvcResult stream = mockMvc.perform(get("/api/availability/changes")
+				.param("propertyId", "property-stream", "property-stream-2"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		MockHttpServletResponse response = stream.getResponse();
+		LocalDate start = LocalDate.now().plusDays(10);
+
+		// When
+		bookingService.createBooking(booking("property-unrelated", start));
+		bookingService.createBooking(booking("property-stream", start));
+
+		// Then
+		String body = awaitContent(response, "\"changes\":");
+		assertTrue(body.contains("event:availability"), body);
+		assertTrue(body.contains("\"propertyId\":\"property-stream\""), body);
+		assertTrue(body.contains("\"type\":\"BOOKING\""), body);
+		assertTrue(body.contains("\"change\":\"CREATED\""), body);
+		assertFalse(body.contains("property-unrelated"), body);
+	}
+
+	@Test
+	@DisplayName("Given no propertyId When subscribing Then 400")
+	void givenNoProperty_whenSubscribe_thenBadRequest() throws Exception {
+		mockMvc.perform(get("/api/availability/changes"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private static Booking booking(String propertyId, LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(propertyId);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(2));
+		return booking;
+	}
+
+	// events are written by the delivery threads, after the writer has returned
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = response.getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			body = response.getContentAsString();
+		}
+		return body;
+	}
+}
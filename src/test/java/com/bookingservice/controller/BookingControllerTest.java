@@ -1,5 +1,7 @@
 package com.bookingservice.controller;
 
+import com.bookingservice.api.codec.CompactBinaryModule;
+import com.bookingservice.api.dto.BookingDtos;
 import com.bookingservice.model.Booking;
 import com.bookingservice.model.BookingStatus;
 import com.bookingservice.repository.AllocationRepository;
@@ -7,6 +9,7 @@ import com.bookingservice.repository.BlockRepository;
 import com.bookingservice.repository.BookingRepository;
 import com.bookingservice.service.BookingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,9 +20,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -99,7 +106,40 @@ class BookingControllerTest {
 				.contentType(MediaType.APPLICATION_JSON)
 				.content(objectMapper.writeValueAsString(payload)))
 			.andExpect(status().isConflict())
-			.andExpect(jsonPath("$.error", is("CONFLICT")));
+			.andExpect(jsonPath("$.error", is("CONFLICT")))
+			.andExpect(jsonPath("$.conflicts[0].type", is("BOOKING")))
+			.andExpect(jsonPath("$.conflicts[0].startDate", is(start.toString())));
+	}
+
+	@Test
+	@DisplayName("Given an existing booking When checking availability Then conflicts are listed and nothing is written")
+	void givenExistingBooking_whenCheckAvailability_thenConflictsListed() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(30);
+		LocalDate end = start.plusDays(3);
+		Booking seed = new Booking();
+		seed.setPropertyId(PROPERTY);
+		seed.setGuestName("Jane");
+		seed.setGuestEmail("jane@example.com");
+		seed.setStartDate(start);
+		seed.setEndDate(end);
+		Booking existing = bookingService.createBooking(seed);
+
+		// When / Then
+		mockMvc.perform(post("/api/bookings/availability")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new AvailabilityReq(PROPERTY, start.plusDays(1), end.plusDays(1), null))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.available", is(false)))
+			.andExpect(jsonPath("$.conflicts[0].entityId", is(existing.getId().toString())));
+
+		mockMvc.perform(post("/api/bookings/availability")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new AvailabilityReq(PROPERTY, start, end, existing.getId()))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.available", is(true)));
+
+		assertEquals(1, bookingRepository.count());
 	}
 
 	@Test
@@ -185,7 +225,66 @@ class BookingControllerTest {
 			.andExpect(jsonPath("$.error", is("CONFLICT")));
 	}
 
+	@Test
+	@DisplayName("Given lang=pt_BR and a missing guest name When creating a booking Then 400 in Portuguese without a session")
+	void givenPortugueseLang_whenCreateInvalid_then400LocalizedAndNoSession() throws Exception {
+		// Given
+		var payload = new CreateReq(PROPERTY, "", "john@example.com",
+			LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+		// When
+		var result = mockMvc.perform(post("/api/bookings").param("lang", "pt_BR")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(payload)))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.message", is("Nome do hóspede é obrigatório")))
+			.andReturn();
+
+		// Then
+		assertNull(result.getRequest().getSession(false));
+	}
+
+	@Test
+	@DisplayName("Given Accept application/cbor When listing and bulk-canceling Then both speak CBOR with epoch days and two-long UUIDs")
+	void givenCborAccept_whenCalendarAndBulkCancel_thenCbor() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(40).withDayOfMonth(1).plusMonths(1);
+		Booking seed = new Booking();
+		seed.setPropertyId(PROPERTY);
+		seed.setGuestName("Jane");
+		seed.setGuestEmail("jane@example.com");
+		seed.setStartDate(start);
+		seed.setEndDate(start.plusDays(2));
+		Booking existing = bookingService.createBooking(seed);
+		ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(new CompactBinaryModule());
+
+		// When
+		var calendar = mockMvc.perform(get("/api/bookings/calendar")
+				.param("propertyId", PROPERTY)
+				.param("year", String.valueOf(start.getYear()))
+				.param("month", String.valueOf(start.getMonthValue()))
+				.accept(MediaType.APPLICATION_CBOR))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+			.andReturn();
+		var canceled = mockMvc.perform(post("/api/bookings/bulk-cancel")
+				.contentType(MediaType.APPLICATION_CBOR)
+				.accept(MediaType.APPLICATION_CBOR)
+				.content(cbor.writeValueAsBytes(Map.of("propertyId", PROPERTY,
+					"startDate", start.toEpochDay(), "endDate", start.plusDays(1).toEpochDay()))))
+			.andExpect(status().isOk())
+			.andReturn();
+
+		// Then
+		var listed = cbor.readValue(calendar.getResponse().getContentAsByteArray(), BookingDtos.Response[].class);
+		assertEquals(existing.getId(), listed[0].id());
+		assertEquals(start, listed[0].startDate());
+		var bulk = cbor.readValue(canceled.getResponse().getContentAsByteArray(), BookingDtos.BulkResponse.class);
+		assertEquals(List.of(existing.getId()), bulk.ids());
+	}
+
 	record CreateReq(String propertyId, String guestName, String guestEmail, LocalDate startDate, LocalDate endDate) {}
+	record AvailabilityReq(String propertyId, LocalDate startDate, LocalDate endDate, UUID excludeBookingId) {}
 	record UpdateReq(String guestName, String guestEmail, LocalDate startDate, LocalDate endDate) {}
 }
 
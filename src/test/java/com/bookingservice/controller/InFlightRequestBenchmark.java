@@ -0,0 +1,189 @@
+package com.bookingservice.controller;
+
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds {@link #IN_FLIGHT} slow clients on one stack at once: each posts a booking whose body
+ * stops halfway until all of them are open. Logs the server threads and heap those requests hold,
+ * per request, and then how fast the stack drains them once the bodies are sent. A smaller round
+ * warms the stack up first. The servlet and reactive subclasses log the same line, so the two can
+ * be compared.
+ * <p>
+ * Client and server share the JVM: client threads are left out of the count, and the heap delta
+ * includes the client's side of each connection. In a full run, background threads of other cached
+ * contexts move the count by a few either way.
+ */
+abstract class InFlightRequestBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(InFlightRequestBenchmark.class);
+
+	private static final int IN_FLIGHT = 400;
+	private static final int WARM_UP = 50;
+	private static final String CLIENT_THREADS = "benchmark-client";
+
+	@LocalServerPort
+	private int port;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	abstract String stack();
+
+	@Test
+	@DisplayName("Given slow clients When their requests are held in flight Then all are created and the threads and heap they hold are logged")
+	void givenSlowClients_whenHeldInFlight_thenAllCreatedAndFootprintLogged() throws Exception {
+		// Given
+		AtomicInteger clientThreads = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4,
+			task -> new Thread(task, CLIENT_THREADS + "-" + clientThreads.incrementAndGet()));
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+		try {
+			// threads the warm-up leaves idle in a pool still count against the measured round
+			int threadsBefore = serverThreads();
+			hold(client, "warm-up", WARM_UP, threadsBefore);
+
+			// When
+			Held held = hold(client, "measured", IN_FLIGHT, threadsBefore);
+
+			// Then
+			assertEquals(WARM_UP + IN_FLIGHT, bookingRepository.count());
+			log.info("{}: {} requests in flight held {} server threads ({} per request) and {} KB of heap "
+					+ "({} KB per request); drained in {} ms ({} creates/s)",
+				stack(), IN_FLIGHT, held.threads(), String.format("%.2f", (double) held.threads() / IN_FLIGHT),
+				held.heapBytes() / 1024, String.format("%.1f", held.heapBytes() / 1024.0 / IN_FLIGHT),
+				TimeUnit.NANOSECONDS.toMillis(held.drainNanos()),
+				IN_FLIGHT * TimeUnit.SECONDS.toNanos(1) / Math.max(held.drainNanos(), 1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Opens {@code requests} stalled creates, measures what they hold, then releases and awaits them. */
+	private Held hold(HttpClient client, String round, int requests, int threadsBefore) throws Exception {
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		try {
+			long heapBefore = usedHeapAfterGc();
+			List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+			for (int i = 0; i < requests; i++) {
+				responses.add(client.sendAsync(post(round + "-" + i, release), HttpResponse.BodyHandlers.discarding()));
+			}
+			int threads = awaitSteadyServerThreads() - threadsBefore;
+			long heapBytes = usedHeapAfterGc() - heapBefore;
+			long released = System.nanoTime();
+			release.complete(null);
+			for (CompletableFuture<HttpResponse<Void>> response : responses) {
+				assertEquals(201, response.get(2, TimeUnit.MINUTES).statusCode());
+			}
+			return new Held(threads, heapBytes, System.nanoTime() - released);
+		} finally {
+			release.complete(null);
+		}
+	}
+
+	private HttpRequest post(String property, CompletableFuture<Void> release) {
+		LocalDate start = LocalDate.now().plusDays(1);
+		byte[] json = """
+			{"propertyId": "property-in-flight-%s", "guestName": "Ana", "guestEmail": "ana@example.com",
+			 "startDate": "%s", "endDate": "%s"}
+			""".formatted(property, start, start.plusDays(2)).getBytes(StandardCharsets.UTF_8);
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/bookings"))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.fromPublisher(stalledBody(json, release), json.length))
+			.build();
+	}
+
+	/** Sends the first half of the body at once and the rest only after {@code release}. */
+	private static Flow.Publisher<ByteBuffer> stalledBody(byte[] json, CompletableFuture<Void> release) {
+		int half = json.length / 2;
+		return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+
+			private int sent;
+
+			@Override
+			public synchronized void request(long n) {
+				if (sent == 0) {
+					sent = 1;
+					subscriber.onNext(ByteBuffer.wrap(json, 0, half));
+				} else if (sent == 1) {
+					sent = 2;
+					release.thenRun(() -> {
+						subscriber.onNext(ByteBuffer.wrap(json, half, json.length - half));
+						subscriber.onComplete();
+					});
+				}
+			}
+
+			@Override
+			public void cancel() {
+			}
+		});
+	}
+
+	/** Waits until the server thread count has not changed for half a second, at most 15 s. */
+	private static int awaitSteadyServerThreads() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+		int threads = serverThreads();
+		int steadyFor = 0;
+		while (steadyFor < 5 && System.nanoTime() < deadline) {
+			Thread.sleep(100);
+			int now = serverThreads();
+			steadyFor = now == threads ? steadyFor + 1 : 0;
+			threads = now;
+		}
+		return threads;
+	}
+
+	private static int serverThreads() {
+		return (int) Thread.getAllStackTraces().keySet().stream()
+			.map(Thread::getName)
+			.filter(name -> !name.startsWith(CLIENT_THREADS) && !name.startsWith("HttpClient-"))
+			.count();
+	}
+
+	private static long usedHeapAfterGc() {
+		// a second collection picks up what the first one only finalized or unlinked
+		System.gc();
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private record Held(int threads, long heapBytes, long drainNanos) {}
+}
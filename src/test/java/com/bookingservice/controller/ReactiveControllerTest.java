@@ -0,0 +1,183 @@
+package com.bookingservice.controller;
+
+import com.bookingservice.api.codec.CompactBinaryModule;
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.repository.HistoryEventRepository;
+import com.bookingservice.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = "spring.main.web-application-type=reactive")
+@DisplayName("Reactive Booking/Block controllers - Given/When/Then")
+class ReactiveControllerTest {
+
+	@Autowired
+	private WebTestClient client;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private HistoryEventRepository historyEventRepository;
+
+	private static final String PROPERTY = "property-reactive";
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given a valid request When creating a booking reactively Then 201, the allocation and history are written and JPA sees the booking")
+	void givenValidRequest_whenCreate_then201AndVisibleToJpa() {
+		// Given
+		var payload = new BookingControllerTest.CreateReq(PROPERTY, "John", "john@example.com",
+			LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+		// When
+		client.post().uri("/api/bookings")
+			.bodyValue(payload)
+			.exchange()
+			.expectStatus().isCreated()
+			.expectHeader().exists("Location")
+			.expectBody()
+			.jsonPath("$.status").isEqualTo(BookingStatus.ACTIVE.name());
+
+		// Then
+		var booking = bookingRepository.findAll().get(0);
+		assertEquals(1, allocationRepository.count());
+		assertEquals(HistoryEventType.CREATED,
+			historyEventRepository.findByEntityIdOrderById(booking.getId()).get(0).getEventType());
+		client.get().uri("/api/bookings/{id}", booking.getId())
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody().jsonPath("$.guestName").isEqualTo("John");
+	}
+
+	@Test
+	@DisplayName("Given a booking created by the servlet service When a reactive block overlaps it Then 409 with the conflict listed")
+	void givenExistingBooking_whenCreateOverlappingBlock_then409() {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(5);
+		LocalDate end = start.plusDays(2);
+		Booking seed = new Booking();
+		seed.setPropertyId(PROPERTY);
+		seed.setGuestName("Jane");
+		seed.setGuestEmail("jane@example.com");
+		seed.setStartDate(start);
+		seed.setEndDate(end);
+		Booking existing = bookingService.createBooking(seed);
+
+		// When / Then
+		client.post().uri("/api/blocks")
+			.bodyValue(new BlockControllerTest.BlockReq(PROPERTY, start.plusDays(1), end.plusDays(1)))
+			.exchange()
+			.expectStatus().isEqualTo(409)
+			.expectBody()
+			.jsonPath("$.error").isEqualTo("CONFLICT")
+			.jsonPath("$.conflicts[0].entityId").isEqualTo(existing.getId().toString());
+		assertEquals(0, blockRepository.count());
+	}
+
+	@Test
+	@DisplayName("Given a canceled booking When a block takes its dates and it is rebooked reactively Then 409")
+	void givenCanceledBookingAndBlock_whenRebook_then409() {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(15);
+		LocalDate end = start.plusDays(2);
+		Booking seed = new Booking();
+		seed.setPropertyId(PROPERTY);
+		seed.setGuestName("Zed");
+		seed.setGuestEmail("zed@example.com");
+		seed.setStartDate(start);
+		seed.setEndDate(end);
+		UUID id = bookingService.createBooking(seed).getId();
+
+		client.post().uri("/api/bookings/{id}/cancel", id)
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody().jsonPath("$.status").isEqualTo(BookingStatus.CANCELED.name());
+		client.post().uri("/api/blocks")
+			.bodyValue(new BlockControllerTest.BlockReq(PROPERTY, start, end))
+			.exchange()
+			.expectStatus().isCreated();
+
+		// When / Then
+		client.post().uri("/api/bookings/{id}/rebook", id)
+			.exchange()
+			.expectStatus().isEqualTo(409);
+		assertEquals(BookingStatus.CANCELED, bookingRepository.findById(id).orElseThrow().getStatus());
+	}
+
+	@Test
+	@DisplayName("Given lang=pt_BR and a missing guest name When creating a booking reactively Then 400 in Portuguese")
+	void givenPortugueseLang_whenCreateInvalid_then400Localized() {
+		// Given
+		var payload = new BookingControllerTest.CreateReq(PROPERTY, "", "john@example.com",
+			LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+		// When / Then
+		client.post().uri(uri -> uri.path("/api/bookings").queryParam("lang", "pt_BR").build())
+			.bodyValue(payload)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectBody().jsonPath("$.message").isEqualTo("Nome do hóspede é obrigatório");
+	}
+
+	@Test
+	@DisplayName("Given Accept application/cbor When listing a calendar reactively Then the response is CBOR with epoch days")
+	void givenCborAccept_whenCalendar_thenCbor() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusMonths(2).withDayOfMonth(1);
+		Booking seed = new Booking();
+		seed.setPropertyId(PROPERTY);
+		seed.setGuestName("Jane");
+		seed.setGuestEmail("jane@example.com");
+		seed.setStartDate(start);
+		seed.setEndDate(start.plusDays(2));
+		Booking existing = bookingService.createBooking(seed);
+
+		// When
+		byte[] body = client.get().uri(uri -> uri.path("/api/bookings/calendar")
+				.queryParam("propertyId", PROPERTY)
+				.queryParam("year", start.getYear())
+				.queryParam("month", start.getMonthValue())
+				.build())
+			.accept(MediaType.APPLICATION_CBOR)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(MediaType.APPLICATION_CBOR)
+			.expectBody().returnResult().getResponseBody();
+
+		// Then
+		var cbor = new ObjectMapper(new CBORFactory()).registerModule(new CompactBinaryModule());
+		var listed = cbor.readValue(body, BookingDtos.Response[].class);
+		assertEquals(existing.getId(), listed[0].id());
+		assertEquals(start, listed[0].startDate());
+	}
+}
@@ -0,0 +1,18 @@
+package com.bookingservice.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.main.web-application-type=reactive",
+	"booking.concurrency-limit.enabled=false",
+	"booking.rate-limit.enabled=false"
+})
+@DisplayName("Reactive stack in-flight benchmark - Given/When/Then")
+class ReactiveInFlightBenchmarkTest extends InFlightRequestBenchmark {
+
+	@Override
+	String stack() {
+		return "reactive";
+	}
+}
@@ -0,0 +1,17 @@
+package com.bookingservice.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"booking.concurrency-limit.enabled=false",
+	"booking.rate-limit.enabled=false"
+})
+@DisplayName("Servlet stack in-flight benchmark - Given/When/Then")
+class ServletInFlightBenchmarkTest extends InFlightRequestBenchmark {
+
+	@Override
+	String stack() {
+		return "servlet";
+	}
+}
@@ -0,0 +1,268 @@
+package com.bookingservice.repository.journal;
+
+import com.bookingservice.config.AllocationStoreConfig;
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.service.policy.ConflictDetection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JournalAllocationStore - Given/When/Then")
+class JournalAllocationStoreTest {
+
+	private static final String PROPERTY = "property-journal";
+
+	@TempDir
+	Path directory;
+
+	private JournalAllocationStore store;
+
+	@AfterEach
+	void close() throws Exception {
+		if (store != null) {
+			store.destroy();
+		}
+	}
+
+	private JournalAllocationStore open(JournalProperties.Durability durability) throws Exception {
+		// small mapped region so appends also exercise remapping
+		return new JournalAllocationStore(new JournalProperties(directory, DataSize.ofBytes(256),
+			durability, Duration.ofMillis(1), Duration.ofHours(1)));
+	}
+
+	private Allocation allocation(UUID entityId, LocalDate start, LocalDate end) {
+		return Allocation.builder()
+			.id(UUID.randomUUID())
+			.propertyId(PROPERTY)
+			.startDate(start)
+			.endDate(end)
+			.type(AllocationType.BOOKING)
+			.status(AllocationStatus.ACTIVE)
+			.entityId(entityId)
+			.build();
+	}
+
+	@Test
+	@DisplayName("Given journaled changes When reopening Then state is rebuilt by replay")
+	void givenJournaledChanges_whenReopen_thenStateReplayed() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(1);
+		UUID kept = UUID.randomUUID();
+		UUID canceled = UUID.randomUUID();
+		UUID deleted = UUID.randomUUID();
+		store = open(JournalProperties.Durability.PER_WRITE);
+		store.save(allocation(kept, start, start.plusDays(2)));
+		store.save(allocation(canceled, start.plusDays(5), start.plusDays(6)));
+		store.save(allocation(deleted, start.plusDays(10), start.plusDays(12)));
+		store.updateByEntityId(kept, PROPERTY, start.plusDays(1), start.plusDays(3));
+		store.updateStatusByEntityIdAndType(canceled, AllocationType.BOOKING, AllocationStatus.CANCELED);
+		store.deleteByEntityId(deleted);
+		store.destroy();
+
+		// When
+		store = open(JournalProperties.Durability.PER_WRITE);
+
+		// Then
+		var active = store.findOverlappingAllocations(PROPERTY, AllocationStatus.ACTIVE, start, start.plusDays(30));
+		assertEquals(1, active.size());
+		assertEquals(kept, active.get(0).getEntityId());
+		assertEquals(start.plusDays(1), active.get(0).getStartDate());
+		assertEquals(AllocationStatus.CANCELED, store.findByEntityId(canceled).orElseThrow().getStatus());
+		assertTrue(store.findByEntityId(deleted).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Given a snapshot and later changes When reopening Then both are replayed")
+	void givenSnapshotAndLaterChanges_whenReopen_thenBothReplayed() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(1);
+		UUID beforeSnapshot = UUID.randomUUID();
+		UUID afterSnapshot = UUID.randomUUID();
+		store = open(JournalProperties.Durability.GROUP);
+		store.save(allocation(beforeSnapshot, start, start.plusDays(1)));
+		store.snapshot();
+		store.save(allocation(afterSnapshot, start.plusDays(3), start.plusDays(4)));
+		store.destroy();
+
+		// When
+		store = open(JournalProperties.Durability.GROUP);
+
+		// Then
+		assertTrue(store.findByEntityId(beforeSnapshot).isPresent());
+		assertTrue(store.findByEntityId(afterSnapshot).isPresent());
+	}
+
+	@Test
+	@DisplayName("Given a rolled back transaction When it completes Then its changes never reach the store")
+	void givenRolledBackTransaction_whenComplete_thenChangesUndone() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(1);
+		UUID existing = UUID.randomUUID();
+		UUID created = UUID.randomUUID();
+		store = open(JournalProperties.Durability.PER_WRITE);
+		store.save(allocation(existing, start, start.plusDays(1)));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			store.save(allocation(created, start.plusDays(5), start.plusDays(6)));
+			store.updateByEntityId(existing, PROPERTY, start.plusDays(8), start.plusDays(9));
+
+			// When
+			complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+		} finally {
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.clearSynchronization();
+			}
+		}
+
+		// Then
+		assertTrue(store.findByEntityId(created).isEmpty());
+		assertEquals(start, store.findByEntityId(existing).orElseThrow().getStartDate());
+	}
+
+	@Test
+	@DisplayName("Given a transaction's changes When other readers look before it commits Then only the transaction sees them")
+	void givenUncommittedChanges_whenReadElsewhere_thenPrivateUntilCommit() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(1);
+		UUID canceled = UUID.randomUUID();
+		UUID created = UUID.randomUUID();
+		store = open(JournalProperties.Durability.GROUP);
+		store.save(allocation(canceled, start, start.plusDays(1)));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			store.updateStatusByEntityIdAndType(canceled, AllocationType.BOOKING, AllocationStatus.CANCELED);
+			store.save(allocation(created, start.plusDays(5), start.plusDays(6)));
+
+			// When
+			var elsewhere = CompletableFuture.supplyAsync(() ->
+				store.findOverlappingAllocations(PROPERTY, AllocationStatus.ACTIVE, start, start.plusDays(10))).get();
+
+			// Then
+			assertEquals(List.of(canceled), elsewhere.stream().map(Allocation::getEntityId).toList());
+			assertEquals(List.of(created), store.findOverlappingAllocations(PROPERTY, AllocationStatus.ACTIVE, start, start.plusDays(10))
+				.stream().map(Allocation::getEntityId).toList());
+			complete(TransactionSynchronization.STATUS_COMMITTED);
+		} finally {
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.clearSynchronization();
+			}
+		}
+		assertEquals(List.of(created), store.findOverlappingAllocations(PROPERTY, AllocationStatus.ACTIVE, start, start.plusDays(10))
+			.stream().map(Allocation::getEntityId).toList());
+	}
+
+	@Test
+	@DisplayName("Given batches journaled before a crash and never completed When reopening Then they are settled from the database")
+	void givenBatchesInDoubt_whenRecover_thenSettledFromDatabase() throws Exception {
+		// Given: prepared, then the process dies before the database commit returns
+		LocalDate start = LocalDate.now().plusDays(1);
+		UUID committedInDatabase = UUID.randomUUID();
+		UUID rolledBackInDatabase = UUID.randomUUID();
+		store = open(JournalProperties.Durability.PER_WRITE);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			store.save(allocation(committedInDatabase, start, start.plusDays(1)));
+			store.save(allocation(rolledBackInDatabase, start.plusDays(3), start.plusDays(4)));
+			TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+			TransactionSynchronizationManager.unbindResourceIfPossible(store);
+		}
+		store.destroy();
+		store = open(JournalProperties.Durability.PER_WRITE);
+		assertTrue(store.findByEntityId(committedInDatabase).isEmpty());
+
+		// When
+		int settled = store.recover(allocation -> allocation.getEntityId().equals(committedInDatabase)
+			? Optional.of(allocation) : Optional.empty());
+		store.destroy();
+		store = open(JournalProperties.Durability.PER_WRITE);
+
+		// Then
+		assertEquals(2, settled);
+		assertTrue(store.findByEntityId(committedInDatabase).isPresent());
+		assertTrue(store.findByEntityId(rolledBackInDatabase).isEmpty());
+		assertEquals(0, store.recover(allocation -> Optional.empty()));
+	}
+
+	@Test
+	@DisplayName("Given a property id too long for the record format When saving Then it is rejected and nothing is journaled")
+	void givenOversizedPropertyId_whenSave_thenRejected() throws Exception {
+		// Given
+		store = open(JournalProperties.Durability.PER_WRITE);
+		Allocation oversized = allocation(UUID.randomUUID(), LocalDate.now(), LocalDate.now().plusDays(1));
+		oversized.setPropertyId("p".repeat(70_000));
+
+		// When / Then
+		assertThrows(IllegalArgumentException.class, () -> store.save(oversized));
+		store.destroy();
+		store = open(JournalProperties.Durability.PER_WRITE);
+		assertTrue(store.findByEntityId(oversized.getEntityId()).isEmpty());
+	}
+
+	private static void complete(int status) {
+		var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(s -> s.beforeCommit(false));
+		}
+		TransactionSynchronizationManager.clearSynchronization();
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		}
+		synchronizations.forEach(s -> s.afterCompletion(status));
+	}
+
+	@Test
+	@DisplayName("Given allocations When changing them in bulk by entity id Then one group commit covers all and replay agrees")
+	void givenRange_whenBulkChange_thenApplied() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(1);
+		store = open(JournalProperties.Durability.GROUP);
+		List<UUID> entityIds = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			entityIds.add(UUID.randomUUID());
+			store.save(allocation(entityIds.get(i), start.plusDays(i * 2L), start.plusDays(i * 2L + 1)));
+		}
+
+		// When
+		int canceled = store.updateStatusByEntityIds(PROPERTY, entityIds.subList(0, 10), AllocationStatus.CANCELED);
+		int deleted = store.deleteByEntityIds(entityIds.subList(40, 50));
+		store.destroy();
+		store = open(JournalProperties.Durability.GROUP);
+
+		// Then
+		assertEquals(10, canceled);
+		assertEquals(10, deleted);
+		assertEquals(10, store.findOverlappingAllocations(PROPERTY, AllocationStatus.CANCELED, start, start.plusDays(200)).size());
+		assertEquals(30, store.findOverlappingAllocations(PROPERTY, AllocationStatus.ACTIVE, start, start.plusDays(200)).size());
+	}
+
+	@Test
+	@DisplayName("Given database conflict detection When the journal store is configured Then startup fails")
+	void givenDatabaseConflictDetection_whenJournalConfigured_thenStartupFails() {
+		JournalProperties properties = new JournalProperties(directory, DataSize.ofBytes(256),
+			JournalProperties.Durability.GROUP, Duration.ofMillis(1), Duration.ofHours(1));
+
+		assertThrows(IllegalStateException.class, () ->
+			new AllocationStoreConfig().journalAllocationStore(properties, null, ConflictDetection.DATABASE, null, null));
+	}
+}
@@ -0,0 +1,45 @@
+package com.bookingservice.repository.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AllocationPartitions - Given/When/Then")
+class AllocationPartitionsTest {
+
+	private final AllocationPartitions partitions = new AllocationPartitions(31);
+
+	@Test
+	@DisplayName("Given a max span When computing the months to scan Then only partitions reachable by the span are listed")
+	void givenMaxSpan_whenMonthsToScan_thenBoundedByStartMinusSpan() {
+		// When
+		List<YearMonth> months = partitions.monthsToScan(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 4, 2));
+
+		// Then
+		assertEquals(List.of(YearMonth.of(2025, 2), YearMonth.of(2025, 3), YearMonth.of(2025, 4)), months);
+		assertEquals(LocalDate.of(2025, 2, 7), partitions.earliestOverlappingStart(LocalDate.of(2025, 3, 10)));
+	}
+
+	@Test
+	@DisplayName("Given ranges around the max span When validating Then only longer ranges are rejected")
+	void givenRanges_whenWithinMaxSpan_thenChecked() {
+		LocalDate start = LocalDate.of(2025, 1, 1);
+		assertTrue(partitions.withinMaxSpan(start, start.plusDays(31)));
+		assertFalse(partitions.withinMaxSpan(start, start.plusDays(32)));
+	}
+
+	@Test
+	@DisplayName("Given a month When naming its partition Then the name round-trips")
+	void givenMonth_whenPartitionName_thenRoundTrips() {
+		String name = AllocationPartitions.partitionName(YearMonth.of(2025, 7));
+
+		assertEquals("allocations_p2025_07", name);
+		assertEquals(YearMonth.of(2025, 7), AllocationPartitions.monthOf(name));
+		assertNull(AllocationPartitions.monthOf("allocations_default"));
+	}
+}
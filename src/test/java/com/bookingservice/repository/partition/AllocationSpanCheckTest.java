@@ -0,0 +1,67 @@
+package com.bookingservice.repository.partition;
+
+import com.bookingservice.model.Block;
+import com.bookingservice.repository.BlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("AllocationSpanCheck - Given/When/Then")
+class AllocationSpanCheckTest {
+
+	@Autowired
+	private AllocationSpanCheck spanCheck;
+	@Autowired
+	private AllocationPartitions partitions;
+	@Autowired
+	private BlockRepository blockRepository;
+
+	private UUID stored;
+
+	@AfterEach
+	void cleanUp() {
+		if (stored != null) {
+			blockRepository.deleteById(stored);
+		}
+	}
+
+	@Test
+	@DisplayName("Given a stored block at the max span When checking Then startup proceeds")
+	void givenBlockAtMaxSpan_whenCheck_thenPasses() {
+		// Given
+		LocalDate start = LocalDate.of(2024, 1, 1);
+		stored = save(start, start.plusDays(partitions.maxSpanDays()));
+
+		// When / Then
+		assertDoesNotThrow(spanCheck::check);
+	}
+
+	@Test
+	@DisplayName("Given a stored block longer than the max span When checking Then startup fails naming it")
+	void givenBlockOverMaxSpan_whenCheck_thenFails() {
+		// Given: written directly, as rows from before the bound existed were
+		LocalDate start = LocalDate.of(2024, 1, 1);
+		stored = save(start, start.plusDays(partitions.maxSpanDays() + 1L));
+
+		// When
+		IllegalStateException ex = assertThrows(IllegalStateException.class, spanCheck::check);
+
+		// Then
+		assertTrue(ex.getMessage().contains("block " + stored), ex.getMessage());
+		assertTrue(ex.getMessage().contains("max-span-days"));
+	}
+
+	private UUID save(LocalDate startDate, LocalDate endDate) {
+		return blockRepository.save(Block.builder()
+			.propertyId("span-check")
+			.startDate(startDate).endDate(endDate).build()).getId();
+	}
+}
@@ -3,10 +3,14 @@ package com.bookingservice.service;
 import com.bookingservice.model.Allocation;
 import com.bookingservice.model.AllocationType;
 import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.Block;
 import com.bookingservice.model.Booking;
 import com.bookingservice.model.BookingStatus;
+import com.bookingservice.model.HistoryEventType;
 import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
 import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.repository.HistoryEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,12 +33,19 @@ class AllocationSyncTest {
 	private AllocationRepository allocationRepository;
 	@Autowired
 	private BookingService bookingService;
+	@Autowired
+	private BlockService blockService;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private HistoryEventRepository historyEventRepository;
 
 	private static final String PROPERTY = "property-sync-test";
 
 	@BeforeEach
 	void resetDb() {
 		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
 		allocationRepository.deleteAll();
 	}
 
@@ -131,6 +143,68 @@ class AllocationSyncTest {
 		List<Allocation> allocations = allocationRepository.findAll();
 		assertTrue(allocations.isEmpty());
 	}
-}
 
+	@Test
+	@DisplayName("Given bookings inside and outside a range When bulk canceling Then only the range is canceled with allocations and history")
+	void givenBookingsAroundRange_whenBulkCancel_thenRangeCanceled() {
+		// Given
+		LocalDate base = LocalDate.now().plusDays(40);
+		Booking inside1 = bookingService.createBooking(booking(base, base.plusDays(2)));
+		Booking inside2 = bookingService.createBooking(booking(base.plusDays(5), base.plusDays(12)));
+		Booking outside = bookingService.createBooking(booking(base.plusDays(20), base.plusDays(22)));
+
+		// When
+		List<UUID> canceled = bookingService.cancelBookingsInRange(PROPERTY, base.plusDays(1), base.plusDays(10));
+
+		// Then
+		assertEquals(2, canceled.size());
+		assertTrue(canceled.containsAll(List.of(inside1.getId(), inside2.getId())));
+		assertEquals(BookingStatus.CANCELED, bookingRepository.findById(inside1.getId()).orElseThrow().getStatus());
+		assertEquals(BookingStatus.ACTIVE, bookingRepository.findById(outside.getId()).orElseThrow().getStatus());
+		assertEquals(AllocationStatus.CANCELED, allocationRepository.findByEntityId(inside2.getId()).orElseThrow().getStatus());
+		assertEquals(AllocationStatus.ACTIVE, allocationRepository.findByEntityId(outside.getId()).orElseThrow().getStatus());
+		var events = historyEventRepository.findByEntityIdOrderById(inside1.getId());
+		assertEquals(HistoryEventType.CANCELED, events.get(events.size() - 1).getEventType());
+		assertEquals(AllocationStatus.CANCELED, events.get(events.size() - 1).getStatus());
+	}
+
+	@Test
+	@DisplayName("Given blocks in a range When bulk deleting Then blocks and their allocations are gone")
+	void givenBlocksInRange_whenBulkDelete_thenRemoved() {
+		// Given
+		LocalDate base = LocalDate.now().plusDays(60);
+		Block first = blockService.createBlock(block(base, base.plusDays(1)));
+		Block second = blockService.createBlock(block(base.plusDays(3), base.plusDays(4)));
+		Block kept = blockService.createBlock(block(base.plusDays(30), base.plusDays(31)));
 
+		// When
+		List<UUID> deleted = blockService.deleteBlocksInRange(PROPERTY, base, base.plusDays(10));
+
+		// Then
+		assertEquals(2, deleted.size());
+		assertTrue(deleted.containsAll(List.of(first.getId(), second.getId())));
+		assertEquals(1, blockRepository.count());
+		assertTrue(allocationRepository.findByEntityId(first.getId()).isEmpty());
+		assertTrue(allocationRepository.findByEntityId(kept.getId()).isPresent());
+		var events = historyEventRepository.findByEntityIdOrderById(second.getId());
+		assertEquals(HistoryEventType.DELETED, events.get(events.size() - 1).getEventType());
+	}
+
+	private Booking booking(LocalDate start, LocalDate end) {
+		Booking booking = new Booking();
+		booking.setPropertyId(PROPERTY);
+		booking.setGuestName("John");
+		booking.setGuestEmail("john@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(end);
+		return booking;
+	}
+
+	private Block block(LocalDate start, LocalDate end) {
+		Block block = new Block();
+		block.setPropertyId(PROPERTY);
+		block.setStartDate(start);
+		block.setEndDate(end);
+		return block;
+	}
+}
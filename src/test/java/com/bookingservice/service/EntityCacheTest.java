@@ -0,0 +1,163 @@
+package com.bookingservice.service;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Second-level entity cache - Given/When/Then")
+class EntityCacheTest {
+
+	private static final String PROPERTY = "property-cache-test";
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given a created booking When read Then it is served from the cache")
+	void givenCreatedBooking_whenRead_thenCacheHit() {
+		// Given
+		Booking created = bookingService.createBooking(booking(LocalDate.now().plusDays(1)));
+		long hits = regionStatistics("bookings").getHitCount();
+
+		// When
+		Booking read = bookingService.getBooking(created.getId());
+
+		// Then
+		assertEquals(created.getId(), read.getId());
+		assertTrue(regionStatistics("bookings").getHitCount() > hits);
+	}
+
+	@Test
+	@DisplayName("Given cached allocations When one booking is canceled Then only its entry changes and the others stay cached")
+	void givenCachedAllocations_whenCancel_thenEntryRefreshed() {
+		// Given
+		Booking canceled = bookingService.createBooking(booking(LocalDate.now().plusDays(1)));
+		Booking kept = bookingService.createBooking(booking(LocalDate.now().plusDays(10)));
+		UUID canceledAllocation = allocationRepository.findByEntityId(canceled.getId()).orElseThrow().getId();
+		UUID keptAllocation = allocationRepository.findByEntityId(kept.getId()).orElseThrow().getId();
+
+		// When
+		bookingService.cancelBooking(canceled.getId());
+
+		// Then
+		assertTrue(entityManagerFactory.getCache().contains(Allocation.class, keptAllocation));
+		assertEquals(AllocationStatus.CANCELED, allocationRepository.findById(canceledAllocation).orElseThrow().getStatus());
+		assertEquals(BookingStatus.CANCELED, bookingService.getBooking(canceled.getId()).getStatus());
+	}
+
+	@Test
+	@DisplayName("Given a cached booking When canceled by a bulk range update Then reads see the new status")
+	void givenCachedBooking_whenBulkCancel_thenReadSeesCanceled() {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(20);
+		Booking created = bookingService.createBooking(booking(start));
+		bookingService.getBooking(created.getId());
+
+		// When
+		bookingService.cancelBookingsInRange(PROPERTY, start, start.plusDays(5));
+
+		// Then
+		assertEquals(BookingStatus.CANCELED, bookingService.getBooking(created.getId()).getStatus());
+		assertEquals(AllocationStatus.CANCELED,
+			allocationRepository.findByEntityId(created.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	@DisplayName("Given two copies of a booking When both are saved Then the stale one is rejected")
+	void givenTwoCopies_whenBothSaved_thenStaleRejected() {
+		// Given
+		Booking created = bookingService.createBooking(booking(LocalDate.now().plusDays(30)));
+		Booking first = bookingRepository.findById(created.getId()).orElseThrow();
+		Booking stale = bookingRepository.findById(created.getId()).orElseThrow();
+
+		// When
+		first.setGuestName("First");
+		bookingRepository.save(first);
+		stale.setGuestName("Stale");
+
+		// Then
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookingRepository.save(stale));
+		assertEquals("First", bookingRepository.findById(created.getId()).orElseThrow().getGuestName());
+	}
+
+	@Test
+	@DisplayName("Given a booking with a duplicated allocation When it is moved and canceled Then every copy follows")
+	void givenDuplicatedAllocation_whenUpdateAndCancel_thenAllCopiesChanged() {
+		// Given
+		Booking booking = bookingService.createBooking(booking(LocalDate.now().plusDays(1)));
+		Allocation original = allocationRepository.findByEntityId(booking.getId()).orElseThrow();
+		allocationRepository.save(Allocation.builder()
+			.id(UUID.randomUUID())
+			.entityId(booking.getId())
+			.type(original.getType())
+			.propertyId(original.getPropertyId())
+			.startDate(original.getStartDate())
+			.endDate(original.getEndDate())
+			.status(original.getStatus())
+			.build());
+		LocalDate moved = LocalDate.now().plusDays(20);
+
+		// When
+		bookingService.updateBooking(booking.getId(),
+			new BookingDtos.UpdateRequest(booking.getGuestName(), booking.getGuestEmail(), moved, moved.plusDays(2)));
+		bookingService.cancelBooking(booking.getId());
+
+		// Then
+		var allocations = allocationRepository.findByEntityIdIn(List.of(booking.getId()));
+		assertEquals(2, allocations.size());
+		allocations.forEach(allocation -> {
+			assertEquals(moved, allocation.getStartDate());
+			assertEquals(AllocationStatus.CANCELED, allocation.getStatus());
+		});
+	}
+
+	private CacheRegionStatistics regionStatistics(String region) {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics(region);
+	}
+
+	private static Booking booking(LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(PROPERTY);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(2));
+		return booking;
+	}
+}
@@ -0,0 +1,207 @@
+package com.bookingservice.service;
+
+import com.bookingservice.api.dto.BlockDtos;
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.support.sql.SqlStatementCountConfig;
+import com.bookingservice.support.sql.SqlStatementRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Maximum number of SQL statements per BookingService/BlockService operation. Each call is
+ * measured with an empty second-level cache, so the budgets hold on a cold node; range and list
+ * operations run over several rows, so an N+1 goes over budget.
+ * <p>
+ * Lower a budget when an operation gets cheaper; raising one needs a reason.
+ */
+@SpringBootTest
+@Import(SqlStatementCountConfig.class)
+@DisplayName("SQL statement budgets - Given/When/Then")
+class SqlStatementBudgetTest {
+
+	private static final String PROPERTY = "property-sql-budget";
+	private static final int ROWS = 5;
+
+	@Autowired
+	private SqlStatementRecorder sql;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BlockService blockService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final LocalDate start = LocalDate.now().plusDays(5);
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given a free range When creating a booking Then overlap check + 3 inserts")
+	void createBooking() {
+		coldCache();
+		sql.assertAtMost(4, "createBooking", () -> bookingService.createBooking(booking(start)));
+	}
+
+	@Test
+	@DisplayName("Given a booking When reading it Then 1 select")
+	void getBooking() {
+		UUID id = bookingService.createBooking(booking(start)).getId();
+		coldCache();
+		sql.assertAtMost(1, "getBooking", () -> bookingService.getBooking(id));
+	}
+
+	@Test
+	@DisplayName("Given a booking When updating it Then at most 6 statements")
+	void updateBooking() {
+		UUID id = bookingService.createBooking(booking(start)).getId();
+		coldCache();
+		sql.assertAtMost(6, "updateBooking", () -> bookingService.updateBooking(id,
+			new BookingDtos.UpdateRequest("John", "john@example.com", start, start.plusDays(1))));
+	}
+
+	@Test
+	@DisplayName("Given a booking When canceling it Then at most 5 statements")
+	void cancelBooking() {
+		UUID id = bookingService.createBooking(booking(start)).getId();
+		coldCache();
+		sql.assertAtMost(5, "cancelBooking", () -> bookingService.cancelBooking(id));
+	}
+
+	@Test
+	@DisplayName("Given a canceled booking When rebooking it Then at most 6 statements")
+	void rebookBooking() {
+		UUID id = bookingService.createBooking(booking(start)).getId();
+		bookingService.cancelBooking(id);
+		coldCache();
+		sql.assertAtMost(6, "rebookBooking", () -> bookingService.rebookBooking(id));
+	}
+
+	@Test
+	@DisplayName("Given a booking When deleting it Then at most 5 statements")
+	void deleteBooking() {
+		UUID id = bookingService.createBooking(booking(start)).getId();
+		coldCache();
+		sql.assertAtMost(5, "deleteBooking", () -> bookingService.deleteBooking(id));
+	}
+
+	@Test
+	@DisplayName("Given several bookings When canceling the range Then 4 statements, whatever the row count")
+	void cancelBookingsInRange() {
+		seedBookings();
+		coldCache();
+		List<UUID> canceled = sql.assertAtMost(4, "cancelBookingsInRange",
+			() -> bookingService.cancelBookingsInRange(PROPERTY, start, start.plusDays(3 * ROWS)));
+		assertEquals(ROWS, canceled.size());
+	}
+
+	@Test
+	@DisplayName("Given several bookings in a month When listing it Then at most 2 selects")
+	void listBookingsByMonth() {
+		seedBookings();
+		coldCache();
+		sql.assertAtMost(2, "booking listByPropertyAndMonth",
+			() -> bookingService.listByPropertyAndMonth(PROPERTY, start.getYear(), start.getMonthValue()));
+	}
+
+	@Test
+	@DisplayName("Given a free range When creating a block Then overlap check + 3 inserts")
+	void createBlock() {
+		coldCache();
+		sql.assertAtMost(4, "createBlock", () -> blockService.createBlock(block(start)));
+	}
+
+	@Test
+	@DisplayName("Given a block When updating it Then at most 6 statements")
+	void updateBlock() {
+		UUID id = blockService.createBlock(block(start)).getId();
+		coldCache();
+		sql.assertAtMost(6, "updateBlock", () -> blockService.updateBlock(id,
+			new BlockDtos.CreateOrUpdateRequest(PROPERTY, start, start.plusDays(1))));
+	}
+
+	@Test
+	@DisplayName("Given a block When deleting it Then at most 5 statements")
+	void deleteBlock() {
+		UUID id = blockService.createBlock(block(start)).getId();
+		coldCache();
+		sql.assertAtMost(5, "deleteBlock", () -> blockService.deleteBlock(id));
+	}
+
+	@Test
+	@DisplayName("Given several blocks When deleting the range Then 4 statements, whatever the row count")
+	void deleteBlocksInRange() {
+		for (int i = 0; i < ROWS; i++) {
+			blockService.createBlock(block(start.plusDays(3L * i)));
+		}
+		coldCache();
+		List<UUID> deleted = sql.assertAtMost(4, "deleteBlocksInRange",
+			() -> blockService.deleteBlocksInRange(PROPERTY, start, start.plusDays(3 * ROWS)));
+		assertEquals(ROWS, deleted.size());
+	}
+
+	@Test
+	@DisplayName("Given several blocks in a month When listing it Then at most 2 selects")
+	void listBlocksByMonth() {
+		for (int i = 0; i < ROWS; i++) {
+			blockService.createBlock(block(start.plusDays(3L * i)));
+		}
+		coldCache();
+		sql.assertAtMost(2, "block listByPropertyAndMonth",
+			() -> blockService.listByPropertyAndMonth(PROPERTY, start.getYear(), start.getMonthValue()));
+	}
+
+	private void coldCache() {
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	private void seedBookings() {
+		for (int i = 0; i < ROWS; i++) {
+			bookingService.createBooking(booking(start.plusDays(3L * i)));
+		}
+	}
+
+	private static Booking booking(LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(PROPERTY);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(2));
+		return booking;
+	}
+
+	private static Block block(LocalDate start) {
+		Block block = new Block();
+		block.setPropertyId(PROPERTY);
+		block.setStartDate(start);
+		block.setEndDate(start.plusDays(2));
+		return block;
+	}
+}
@@ -0,0 +1,121 @@
+package com.bookingservice.service.archive;
+
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.ArchivedAllocationRepository;
+import com.bookingservice.repository.ArchivedBlockRepository;
+import com.bookingservice.repository.ArchivedBookingRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BlockService;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.support.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "booking.archive.chunk-size=2")
+@DisplayName("ArchivalService - Given/When/Then")
+class ArchivalServiceTest {
+
+	@Autowired
+	private ArchivalService archivalService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BlockService blockService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private ArchivedBookingRepository archivedBookingRepository;
+	@Autowired
+	private ArchivedBlockRepository archivedBlockRepository;
+	@Autowired
+	private ArchivedAllocationRepository archivedAllocationRepository;
+
+	private static final String PROPERTY = "property-archive";
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+		archivedBookingRepository.deleteAll();
+		archivedBlockRepository.deleteAll();
+		archivedAllocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given past and future allocations When archiving Then only past ones move and reads still find them")
+	void givenPastAndFuture_whenArchive_thenPastMovedAndReadable() {
+		// Given
+		LocalDate past = LocalDate.now().minusMonths(3).withDayOfMonth(1);
+		Booking old1 = bookingService.createBooking(booking(past, past.plusDays(2)));
+		Booking old2 = bookingService.createBooking(booking(past.plusDays(5), past.plusDays(6)));
+		bookingService.createBooking(booking(past.plusDays(10), past.plusDays(12)));
+		blockService.createBlock(block(past.plusDays(20), past.plusDays(21)));
+		Booking upcoming = bookingService.createBooking(booking(LocalDate.now().plusDays(3), LocalDate.now().plusDays(5)));
+
+		// When
+		ArchiveReport report = archivalService.archive(LocalDate.now());
+
+		// Then
+		assertEquals(3, report.bookingsMoved());
+		assertEquals(1, report.blocksMoved());
+		assertEquals(4, report.allocationsMoved());
+		assertEquals(1, report.bookingsRemaining());
+		assertEquals(0.8, report.shrinkRatio(), 1e-9);
+		assertEquals(1, bookingRepository.count());
+		assertEquals(1, allocationRepository.count());
+		assertEquals(4, archivedAllocationRepository.count());
+
+		assertEquals(old1.getGuestEmail(), bookingService.getBooking(old1.getId()).getGuestEmail());
+		assertEquals(upcoming.getId(), bookingService.getBooking(upcoming.getId()).getId());
+		assertEquals(3, bookingService.listByPropertyAndMonth(PROPERTY, past.getYear(), past.getMonthValue()).size());
+		assertEquals(1, blockService.listByPropertyAndMonth(PROPERTY, past.getYear(), past.getMonthValue()).size());
+		assertThrows(NotFoundException.class, () -> bookingService.cancelBooking(old2.getId()));
+	}
+
+	@Test
+	@DisplayName("Given nothing old When archiving Then nothing moves")
+	void givenNothingOld_whenArchive_thenNoop() {
+		// Given
+		bookingService.createBooking(booking(LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)));
+
+		// When
+		ArchiveReport report = archivalService.archive(LocalDate.now());
+
+		// Then
+		assertEquals(0, report.rowsMoved());
+		assertEquals(1, bookingRepository.count());
+	}
+
+	private Booking booking(LocalDate start, LocalDate end) {
+		Booking booking = new Booking();
+		booking.setPropertyId(PROPERTY);
+		booking.setGuestName("Ann");
+		booking.setGuestEmail("ann@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(end);
+		return booking;
+	}
+
+	private Block block(LocalDate start, LocalDate end) {
+		Block block = new Block();
+		block.setPropertyId(PROPERTY);
+		block.setStartDate(start);
+		block.setEndDate(end);
+		return block;
+	}
+}
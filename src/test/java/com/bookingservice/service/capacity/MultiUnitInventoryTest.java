@@ -0,0 +1,144 @@
+package com.bookingservice.service.capacity;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BlockService;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.service.PropertyService;
+import com.bookingservice.support.AllocationConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Multi-unit inventory - Given/When/Then")
+class MultiUnitInventoryTest {
+
+	private static final String HOTEL = "property-hotel";
+
+	@Autowired
+	private PropertyService propertyService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BlockService blockService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	private final LocalDate start = LocalDate.now().plusDays(10);
+
+	@BeforeEach
+	void setUp() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+		propertyService.setCapacity(HOTEL, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		propertyService.setCapacity(HOTEL, 1);
+	}
+
+	@Test
+	@DisplayName("Given a property of 2 units When booking overlapping dates Then the third booking on a full day conflicts")
+	void givenTwoUnits_whenThirdOverlap_thenConflict() {
+		// Given
+		bookingService.createBooking(booking(start, start.plusDays(4)));
+		bookingService.createBooking(booking(start.plusDays(4), start.plusDays(6)));
+		bookingService.createBooking(booking(start.plusDays(5), start.plusDays(8)));
+
+		// When / Then
+		assertThrows(AllocationConflictException.class,
+			() -> bookingService.createBooking(booking(start.plusDays(3), start.plusDays(4))));
+		assertNotNull(bookingService.createBooking(booking(start.plusDays(9), start.plusDays(373))));
+	}
+
+	@Test
+	@DisplayName("Given a full day When one booking is canceled Then its unit can be booked again")
+	void givenFullDay_whenCancel_thenBookable() {
+		// Given
+		Booking first = bookingService.createBooking(booking(start, start.plusDays(2)));
+		bookingService.createBooking(booking(start, start.plusDays(2)));
+		assertThrows(AllocationConflictException.class,
+			() -> bookingService.createBooking(booking(start.plusDays(1), start.plusDays(1))));
+
+		// When
+		bookingService.cancelBooking(first.getId());
+
+		// Then
+		assertNotNull(bookingService.createBooking(booking(start.plusDays(1), start.plusDays(1))));
+		assertThrows(AllocationConflictException.class, () -> bookingService.rebookBooking(first.getId()));
+	}
+
+	@Test
+	@DisplayName("Given a full range When a booking moves within its own dates Then it does not conflict with itself")
+	void givenFullRange_whenUpdateWithinOwnDates_thenAllowed() {
+		// Given
+		Booking first = bookingService.createBooking(booking(start, start.plusDays(3)));
+		bookingService.createBooking(booking(start, start.plusDays(3)));
+
+		// When
+		Booking updated = bookingService.updateBooking(first.getId(),
+			new BookingDtos.UpdateRequest("Jane", "jane@example.com", start.plusDays(1), start.plusDays(2)));
+
+		// Then
+		assertEquals(start.plusDays(1), updated.getStartDate());
+		assertThrows(AllocationConflictException.class,
+			() -> bookingService.createBooking(booking(start.plusDays(1), start.plusDays(1))));
+	}
+
+	@Test
+	@DisplayName("Given a multi-unit property When blocking Then a block needs every unit free and takes them all")
+	void givenTwoUnits_whenBlock_thenTakesWholeProperty() {
+		// Given
+		bookingService.createBooking(booking(start, start.plusDays(1)));
+
+		// When / Then
+		assertThrows(AllocationConflictException.class, () -> blockService.createBlock(block(start.plusDays(1), start.plusDays(3))));
+		blockService.createBlock(block(start.plusDays(2), start.plusDays(3)));
+		assertThrows(AllocationConflictException.class,
+			() -> bookingService.createBooking(booking(start.plusDays(3), start.plusDays(5))));
+	}
+
+	@Test
+	@DisplayName("Given an invalid capacity When setting it Then it is rejected")
+	void givenInvalidCapacity_whenSet_thenRejected() {
+		assertThrows(IllegalArgumentException.class, () -> propertyService.setCapacity(HOTEL, 0));
+		assertThrows(IllegalArgumentException.class, () -> propertyService.setCapacity(HOTEL, OccupancyIndex.MAX_CAPACITY + 1));
+		assertEquals(2, propertyService.getCapacity(HOTEL));
+	}
+
+	private static Booking booking(LocalDate start, LocalDate end) {
+		Booking booking = new Booking();
+		booking.setPropertyId(HOTEL);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(end);
+		return booking;
+	}
+
+	private static Block block(LocalDate start, LocalDate end) {
+		Block block = new Block();
+		block.setPropertyId(HOTEL);
+		block.setStartDate(start);
+		block.setEndDate(end);
+		return block;
+	}
+}
@@ -0,0 +1,125 @@
+package com.bookingservice.service.capacity;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.service.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times the capacity check of a multi-unit property both ways: the occupancy tree, and what it
+ * replaces, the overlap query followed by a per-day count of the allocations it returns. Both
+ * must give the same answer; the timings are logged.
+ */
+@SpringBootTest
+@DisplayName("Occupancy tree vs overlap query benchmark - Given/When/Then")
+class OccupancyBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(OccupancyBenchmarkTest.class);
+
+	private static final String HOTEL = "property-benchmark-hotel";
+	private static final int CAPACITY = 50;
+	private static final int ALLOCATIONS = 5_000;
+	private static final int CHECKS = 200;
+	private static final int RANGE_DAYS = 365;
+
+	@Autowired
+	private PropertyService propertyService;
+	@Autowired
+	private OccupancyIndex occupancy;
+	@Autowired
+	private AllocationStore allocationStore;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	private final List<Allocation> seeded = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		allocationRepository.deleteAll(seeded);
+		propertyService.setCapacity(HOTEL, 1);
+	}
+
+	@Test
+	@DisplayName("Given two years of allocations When checking 365-day ranges Then the tree matches the query and both are timed")
+	void givenTwoYearsOfAllocations_whenChecking365Days_thenTreeMatchesQuery() {
+		// Given
+		Random random = new Random(7);
+		LocalDate base = LocalDate.now().plusDays(1);
+		for (int i = 0; i < ALLOCATIONS; i++) {
+			LocalDate start = base.plusDays(random.nextInt(2 * RANGE_DAYS));
+			seeded.add(Allocation.builder()
+				.id(UUID.randomUUID())
+				.entityId(UUID.randomUUID())
+				.propertyId(HOTEL)
+				.type(AllocationType.BOOKING)
+				.status(AllocationStatus.ACTIVE)
+				.startDate(start)
+				.endDate(start.plusDays(random.nextInt(14)))
+				.build());
+		}
+		allocationRepository.saveAll(seeded);
+		propertyService.setCapacity(HOTEL, CAPACITY);
+		Supplier<List<Allocation>> active = () -> allocationStore.findOverlappingAllocations(HOTEL,
+			AllocationStatus.ACTIVE, OccupancyIndex.FIRST_DAY, OccupancyIndex.LAST_DAY);
+		long buildStarted = System.nanoTime();
+		occupancy.maxOccupancy(HOTEL, base, base, null, active);
+		long buildNanos = System.nanoTime() - buildStarted;
+
+		// When
+		long treeNanos = 0;
+		long queryNanos = 0;
+		for (int i = 0; i < CHECKS; i++) {
+			LocalDate from = base.plusDays(random.nextInt(RANGE_DAYS));
+			LocalDate to = from.plusDays(RANGE_DAYS - 1);
+			long started = System.nanoTime();
+			int byTree = occupancy.maxOccupancy(HOTEL, from, to, null, active);
+			long treeDone = System.nanoTime();
+			int byQuery = maxByQuery(from, to);
+			queryNanos += System.nanoTime() - treeDone;
+			treeNanos += treeDone - started;
+
+			// Then
+			assertEquals(byQuery, byTree, "range from " + from);
+		}
+		log.info("{} checks of {} days over {} allocations: tree {} us/check (built once in {} ms), "
+				+ "overlap query + per-day count {} us/check",
+			CHECKS, RANGE_DAYS, ALLOCATIONS, TimeUnit.NANOSECONDS.toMicros(treeNanos / CHECKS),
+			TimeUnit.NANOSECONDS.toMillis(buildNanos), TimeUnit.NANOSECONDS.toMicros(queryNanos / CHECKS));
+	}
+
+	private int maxByQuery(LocalDate from, LocalDate to) {
+		int[] taken = new int[(int) ChronoUnit.DAYS.between(from, to) + 1];
+		for (Allocation a : allocationStore.findOverlappingAllocations(HOTEL, AllocationStatus.ACTIVE, from, to)) {
+			int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, a.getStartDate()));
+			int last = (int) Math.min(taken.length - 1, ChronoUnit.DAYS.between(from, a.getEndDate()));
+			for (int day = first; day <= last; day++) {
+				taken[day] += OccupancyIndex.unitsOf(a.getType());
+			}
+		}
+		int max = 0;
+		for (int units : taken) {
+			max = Math.max(max, units);
+		}
+		return max;
+	}
+}
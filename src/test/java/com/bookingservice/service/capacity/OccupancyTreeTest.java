@@ -0,0 +1,70 @@
+package com.bookingservice.service.capacity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OccupancyTree - Given/When/Then")
+class OccupancyTreeTest {
+
+	private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+	@Test
+	@DisplayName("Given random range adds and removals When querying random ranges Then the max matches a per-day count")
+	void givenRandomAdds_whenMax_thenMatchesPerDayCounts() {
+		// Given
+		Random random = new Random(42);
+		OccupancyTree tree = new OccupancyTree();
+		int[] days = new int[800];
+		for (int i = 0; i < 2000; i++) {
+			int start = random.nextInt(days.length);
+			int end = Math.min(days.length - 1, start + random.nextInt(30));
+			int units = random.nextInt(4) == 0 ? -1 : 1;
+			tree.add(BASE.plusDays(start), BASE.plusDays(end), units);
+			for (int d = start; d <= end; d++) {
+				days[d] += units;
+			}
+
+			// When
+			int from = random.nextInt(days.length);
+			int to = Math.min(days.length - 1, from + random.nextInt(365));
+			int expected = Integer.MIN_VALUE;
+			for (int d = from; d <= to; d++) {
+				expected = Math.max(expected, days[d]);
+			}
+
+			// Then
+			assertEquals(expected, tree.max(BASE.plusDays(from), BASE.plusDays(to)));
+		}
+	}
+
+	@Test
+	@DisplayName("Given an empty tree When querying Then nothing is taken")
+	void givenEmpty_whenMax_thenZero() {
+		// Given
+		OccupancyTree tree = new OccupancyTree();
+
+		// When / Then
+		assertEquals(0, tree.max(BASE, BASE.plusDays(365)));
+	}
+
+	@Test
+	@DisplayName("Given dates outside the domain When adding Then they count on its first or last day")
+	void givenOutOfDomain_whenAdd_thenClamped() {
+		// Given
+		OccupancyTree tree = new OccupancyTree();
+
+		// When
+		tree.add(LocalDate.of(1960, 1, 1), LocalDate.of(1960, 1, 2), 1);
+		tree.add(LocalDate.of(9000, 1, 1), LocalDate.of(9000, 1, 2), 2);
+
+		// Then
+		assertEquals(1, tree.max(OccupancyTree.FIRST_DAY, OccupancyTree.FIRST_DAY));
+		assertEquals(2, tree.max(OccupancyTree.LAST_DAY, OccupancyTree.LAST_DAY));
+		assertEquals(0, tree.max(BASE, BASE.plusDays(365)));
+	}
+}
@@ -0,0 +1,142 @@
+package com.bookingservice.service.coalesce;
+
+import com.bookingservice.support.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReadCoalescer - Given/When/Then")
+class ReadCoalescerTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private ReadCoalescer reads;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		reads = new ReadCoalescer(new NoOpTransactionManager(), meterRegistry);
+	}
+
+	@Test
+	@DisplayName("Given a read in flight When identical reads arrive Then they share its single query and result")
+	void givenReadInFlight_whenIdenticalReads_thenOneQuery() throws Exception {
+		// Given
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger queries = new AtomicInteger();
+		List<String> shared = List.of("b1", "b2");
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			// When
+			List<Future<List<String>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> reads.read("booking.listByMonth", List.of("p1", 2030, 1), () -> {
+					queries.incrementAndGet();
+					await(release);
+					return shared;
+				})));
+			}
+			awaitCoalesced(7);
+			String other = reads.read("booking.listByMonth", List.of("p2", 2030, 1), () -> "p2");
+			release.countDown();
+
+			// Then
+			for (Future<List<String>> result : results) {
+				assertSame(shared, result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals("p2", other);
+			assertEquals(1, queries.get());
+			assertEquals(2, meterRegistry.counter("booking.reads.executed", "operation", "booking.listByMonth").count());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Given a failing read When identical reads wait on it Then all get its exception and the next read queries again")
+	void givenFailingRead_whenCoalesced_thenExceptionSharedAndNotCached() throws Exception {
+		// Given
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> leader = pool.submit(() -> reads.read("booking.get", List.of("id"), () -> {
+				await(release);
+				throw new NotFoundException("Booking not found: id");
+			}));
+			awaitExecuted(1);
+			Future<Object> follower = pool.submit(() -> reads.read("booking.get", List.of("id"), () -> "unused"));
+			awaitCoalesced(1);
+
+			// When
+			release.countDown();
+
+			// Then
+			for (Future<Object> result : List.of(leader, follower)) {
+				var ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+				assertInstanceOf(NotFoundException.class, ex.getCause());
+			}
+			assertEquals("fresh", reads.read("booking.get", List.of("id"), () -> "fresh"));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private void awaitCoalesced(int expected) throws InterruptedException {
+		awaitCount("booking.reads.coalesced", expected);
+	}
+
+	private void awaitExecuted(int expected) throws InterruptedException {
+		awaitCount("booking.reads.executed", expected);
+	}
+
+	private void awaitCount(String name, int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (meterRegistry.find(name).counters().stream().mapToDouble(c -> c.count()).sum() < expected) {
+			assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for " + name);
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// no resources: only lets TransactionTemplate run
+	private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package com.bookingservice.service.execution;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.support.AllocationConflictException;
+import com.bookingservice.support.CapacityExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+	"booking.execution.mode=partitioned",
+	"booking.execution.partitions=2",
+	"booking.execution.queue-capacity=8"
+})
+@DisplayName("MutationExecutor (partitioned) - Given/When/Then")
+class MutationExecutorTest {
+
+	@Autowired
+	private MutationExecutor mutations;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given concurrent mutations of one property When executed Then they run one at a time on a single writer thread")
+	void givenOneProperty_whenConcurrentMutations_thenSerializedOnOneThread() throws Exception {
+		// Given
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		int[] unguarded = {0};
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			// When
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				results.add(pool.submit(() -> mutations.run("property-partitioned", () -> {
+					threads.add(Thread.currentThread().getName());
+					unguarded[0]++;
+				})));
+			}
+			for (Future<?> result : results) {
+				result.get(10, TimeUnit.SECONDS);
+			}
+
+			// Then
+			assertEquals(200, unguarded[0]);
+			assertEquals(1, threads.size());
+			assertTrue(threads.iterator().next().startsWith("booking-writer-"));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Given a failing mutation When executed on a partition Then the caller gets its exception, in the caller's locale")
+	void givenFailingMutation_whenExecuted_thenCallerGetsException() {
+		// Given
+		LocaleContextHolder.setLocale(Locale.forLanguageTag("pt-BR"));
+		try {
+			// When / Then
+			var ex = assertThrows(IllegalArgumentException.class, () -> mutations.write("property-partitioned",
+				() -> {
+					throw new IllegalArgumentException(LocaleContextHolder.getLocale().toLanguageTag());
+				}));
+			assertEquals("pt-BR", ex.getMessage());
+		} finally {
+			LocaleContextHolder.resetLocaleContext();
+		}
+	}
+
+	@Test
+	@DisplayName("Given a full partition queue When another mutation arrives Then CapacityExceededException")
+	void givenFullQueue_whenMutation_thenCapacityExceeded() throws Exception {
+		// Given
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(10);
+		try {
+			pool.submit(() -> mutations.run("property-busy", () -> await(release)));
+			Thread.sleep(100);
+			for (int i = 0; i < 8; i++) {
+				pool.submit(() -> mutations.run("property-busy", () -> { }));
+			}
+			Thread.sleep(100);
+
+			// When / Then
+			assertThrows(CapacityExceededException.class, () -> mutations.run("property-busy", () -> { }));
+		} finally {
+			release.countDown();
+			pool.shutdown();
+			pool.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	@DisplayName("Given a caller inside a transaction When it issues a mutation Then it is rejected, unless it runs on the partition")
+	void givenCallerInTransaction_whenMutation_thenRejectedOffPartition() {
+		// Given
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		boolean[] ran = {false};
+
+		// When / Then
+		assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status ->
+			mutations.run("property-partitioned", () -> ran[0] = true)));
+		assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status ->
+			mutations.write("property-a", "property-b", () -> ran[0] = true)));
+		assertFalse(ran[0]);
+		String writer = mutations.write("property-partitioned", () ->
+			mutations.write("property-partitioned", () -> Thread.currentThread().getName()));
+		assertTrue(writer.startsWith("booking-writer-"));
+	}
+
+	@Test
+	@DisplayName("Given concurrent bookings for the same dates When partitioned Then exactly one is accepted")
+	void givenConcurrentSameDates_whenPartitioned_thenOneAccepted() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(40);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			// When
+			List<Future<Booking>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				results.add(pool.submit(() -> {
+					Booking booking = new Booking();
+					booking.setPropertyId("property-partitioned");
+					booking.setGuestName("Jane");
+					booking.setGuestEmail("jane@example.com");
+					booking.setStartDate(start);
+					booking.setEndDate(start.plusDays(2));
+					return bookingService.createBooking(booking);
+				}));
+			}
+
+			// Then
+			int accepted = 0;
+			for (Future<Booking> result : results) {
+				try {
+					result.get(10, TimeUnit.SECONDS);
+					accepted++;
+				} catch (ExecutionException ex) {
+					assertInstanceOf(AllocationConflictException.class, ex.getCause());
+				}
+			}
+			assertEquals(1, accepted);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Given a move between properties of two partitions When executed Then neither partition runs other mutations meanwhile")
+	void givenCrossPartitionMove_whenExecuted_thenBothPartitionsHeld() throws Exception {
+		// Given
+		String first = "property-a";
+		String second = "property-b";
+		assertNotEquals(Math.floorMod(first.hashCode(), 2), Math.floorMod(second.hashCode(), 2));
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			// When
+			boolean[] overlapped = {false};
+			Future<Boolean> ranDuring = pool.submit(() -> mutations.write(first, second, () -> {
+				Future<?> other = pool.submit(() -> mutations.run(first, () -> overlapped[0] = true));
+				Future<?> another = pool.submit(() -> mutations.run(second, () -> overlapped[0] = true));
+				sleep(200);
+				boolean seen = overlapped[0];
+				assertFalse(other.isDone() || another.isDone());
+				return seen;
+			}));
+
+			// Then
+			assertFalse(ranDuring.get(10, TimeUnit.SECONDS));
+			List<Future<?>> moves = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				String from = i % 2 == 0 ? first : second;
+				String to = i % 2 == 0 ? second : first;
+				moves.add(pool.submit(() -> mutations.write(from, to, () -> null)));
+				moves.add(pool.submit(() -> mutations.run(from, () -> { })));
+			}
+			for (Future<?> move : moves) {
+				move.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.bookingservice.service.guest;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.service.BookingService.GuestField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Guest lookup - Given/When/Then")
+class GuestLookupTest {
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	private final LocalDate start = LocalDate.now().plusDays(10);
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given bookings of a guest When looking up the email in another case Then they are found, latest first")
+	void givenGuestBookings_whenFindByEmail_thenFoundIgnoringCase() {
+		// Given
+		Booking first = bookingService.createBooking(booking("property-guest-1", "José Álvarez", "Jose.Alvarez@Example.com", start));
+		Booking second = bookingService.createBooking(booking("property-guest-2", "José Álvarez", "jose.alvarez@example.com", start.plusDays(20)));
+		bookingService.createBooking(booking("property-guest-3", "Joseph Other", "joseph@example.com", start));
+
+		// When
+		Slice<Booking> page = bookingService.findByGuestEmail(" JOSE.ALVAREZ@example.COM ", 0, 10);
+
+		// Then
+		assertEquals(2, page.getNumberOfElements());
+		assertFalse(page.hasNext());
+		assertEquals(second.getId(), page.getContent().get(0).getId());
+		assertEquals(first.getId(), page.getContent().get(1).getId());
+	}
+
+	@Test
+	@DisplayName("Given guests When searching a name or email prefix Then case and accents are ignored and results paginated")
+	void givenGuests_whenSearchPrefix_thenMatchedAndPaginated() {
+		// Given
+		for (int i = 0; i < 3; i++) {
+			bookingService.createBooking(booking("property-guest-" + i, "José Álvarez", "jose" + i + "@example.com", start.plusDays(i * 10)));
+		}
+		bookingService.createBooking(booking("property-guest-9", "Maria Silva", "maria@example.com", start));
+
+		// When
+		Slice<Booking> byName = bookingService.searchByGuestPrefix("JOSE al", GuestField.NAME, 0, 2);
+		Slice<Booking> nextPage = bookingService.searchByGuestPrefix("jose al", GuestField.NAME, 1, 2);
+		Slice<Booking> byEmail = bookingService.searchByGuestPrefix("jose", GuestField.EMAIL, 0, 10);
+		Slice<Booking> other = bookingService.searchByGuestPrefix("Maria@", GuestField.EMAIL, 0, 10);
+		Slice<Booking> wildcard = bookingService.searchByGuestPrefix("%", GuestField.EMAIL, 0, 10);
+
+		// Then
+		assertEquals(2, byName.getContent().size());
+		assertTrue(byName.hasNext());
+		assertEquals(1, nextPage.getContent().size());
+		assertFalse(nextPage.hasNext());
+		assertEquals(List.of("jose0@example.com", "jose1@example.com", "jose2@example.com"),
+			byEmail.getContent().stream().map(Booking::getGuestEmail).toList());
+		assertEquals(1, other.getNumberOfElements());
+		assertEquals("Maria Silva", other.getContent().get(0).getGuestName());
+		assertEquals(0, wildcard.getNumberOfElements());
+	}
+
+	@Test
+	@DisplayName("Given a booking When its guest is changed Then the lookups follow the new guest")
+	void givenBooking_whenGuestUpdated_thenKeysRefreshed() {
+		// Given
+		Booking booking = bookingService.createBooking(booking("property-guest-1", "Ana Costa", "ana@example.com", start));
+
+		// When
+		bookingService.updateBooking(booking.getId(),
+			new BookingDtos.UpdateRequest("Bruno Lima", "Bruno@Example.com", start, start.plusDays(2)));
+
+		// Then
+		assertEquals(0, bookingService.findByGuestEmail("ana@example.com", 0, 10).getNumberOfElements());
+		assertEquals(1, bookingService.findByGuestEmail("bruno@example.com", 0, 10).getNumberOfElements());
+		assertEquals(1, bookingService.searchByGuestPrefix("brun", GuestField.NAME, 0, 10).getNumberOfElements());
+	}
+
+	@Test
+	@DisplayName("Given an invalid prefix or page When searching Then it fails with validation")
+	void givenInvalidInput_whenSearch_thenIllegalArgument() {
+		assertThrows(IllegalArgumentException.class, () -> bookingService.searchByGuestPrefix(" ", GuestField.NAME, 0, 10));
+		assertThrows(IllegalArgumentException.class, () -> bookingService.findByGuestEmail("a@example.com", -1, 10));
+		assertThrows(IllegalArgumentException.class,
+			() -> bookingService.findByGuestEmail("a@example.com", 0, BookingService.MAX_PAGE_SIZE + 1));
+	}
+
+	private Booking booking(String propertyId, String guestName, String guestEmail, LocalDate from) {
+		Booking booking = new Booking();
+		booking.setPropertyId(propertyId);
+		booking.setGuestName(guestName);
+		booking.setGuestEmail(guestEmail);
+		booking.setStartDate(from);
+		booking.setEndDate(from.plusDays(2));
+		return booking;
+	}
+}
@@ -0,0 +1,221 @@
+package com.bookingservice.service.history;
+
+import com.bookingservice.api.dto.BookingDtos;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.HistoryEventType;
+import com.bookingservice.model.HistorySnapshot;
+import com.bookingservice.repository.HistoryBacklogRepository;
+import com.bookingservice.repository.HistorySnapshotRepository;
+import com.bookingservice.service.BookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+	"booking.history.snapshot-every=2",
+	"booking.history.full-snapshot-every=3",
+	// snapshots fold everything committed so far
+	"booking.history.commit-margin=PT0S"
+})
+@DisplayName("HistoryService - Given/When/Then")
+class HistoryServiceTest {
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private HistoryService historyService;
+	@Autowired
+	private HistorySnapshotRepository snapshotRepository;
+	@Autowired
+	private HistoryBacklogRepository backlogRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Booking newBooking(String propertyId, LocalDate start, LocalDate end) {
+		Booking booking = new Booking();
+		booking.setPropertyId(propertyId);
+		booking.setGuestName("Ann");
+		booking.setGuestEmail("ann@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(end);
+		return booking;
+	}
+
+	private static Instant tick() throws InterruptedException {
+		Thread.sleep(5);
+		Instant now = Instant.now();
+		Thread.sleep(5);
+		return now;
+	}
+
+	@Test
+	@DisplayName("Given a booking changed over time When querying state as of T Then the state at T is returned")
+	void givenChangesOverTime_whenStateAsOf_thenStateAtThatTime() throws Exception {
+		// Given
+		String property = "property-history-" + UUID.randomUUID();
+		LocalDate start = LocalDate.now().plusDays(1);
+		Instant beforeCreate = tick();
+		Booking created = bookingService.createBooking(newBooking(property, start, start.plusDays(2)));
+		Instant afterCreate = tick();
+		bookingService.updateBooking(created.getId(),
+			new BookingDtos.UpdateRequest("Ann", "ann@example.com", start.plusDays(5), start.plusDays(6)));
+		Instant afterUpdate = tick();
+		bookingService.cancelBooking(created.getId());
+
+		// When / Then
+		assertTrue(historyService.stateAsOf(property, beforeCreate).isEmpty());
+
+		var atCreate = historyService.stateAsOf(property, afterCreate);
+		assertEquals(1, atCreate.size());
+		assertEquals(start, atCreate.get(0).startDate());
+		assertEquals(AllocationStatus.ACTIVE, atCreate.get(0).status());
+
+		var atUpdate = historyService.stateAsOf(property, afterUpdate);
+		assertEquals(start.plusDays(5), atUpdate.get(0).startDate());
+		assertEquals(AllocationStatus.ACTIVE, atUpdate.get(0).status());
+
+		var now = historyService.stateAsOf(property, Instant.now());
+		assertEquals(AllocationStatus.CANCELED, now.get(0).status());
+
+		var events = historyService.eventsFor(created.getId());
+		assertEquals(3, events.size());
+		assertEquals(HistoryEventType.CANCELED, events.get(2).getEventType());
+	}
+
+	@Test
+	@DisplayName("Given enough events When snapshots are taken Then replay from the snapshot gives the same state")
+	void givenEnoughEvents_whenSnapshot_thenReplayConsistent() throws Exception {
+		// Given
+		String property = "property-snapshot-" + UUID.randomUUID();
+		LocalDate start = LocalDate.now().plusDays(1);
+		Booking first = bookingService.createBooking(newBooking(property, start, start.plusDays(1)));
+		Booking second = bookingService.createBooking(newBooking(property, start.plusDays(3), start.plusDays(4)));
+		Instant beforeDelete = tick();
+
+		// When
+		historyService.takeSnapshots();
+		bookingService.deleteBooking(first.getId());
+
+		// Then
+		assertTrue(snapshotRepository.findFirstByPropertyIdAndTakenAtLessThanEqualOrderByTakenAtDesc(property, Instant.now()).isPresent());
+		assertEquals(0, backlogRepository.findById(property).orElseThrow().getPendingEvents());
+		assertEquals(2, historyService.stateAsOf(property, beforeDelete).size());
+		var now = historyService.stateAsOf(property, Instant.now());
+		assertEquals(1, now.size());
+		assertEquals(second.getId(), now.get(0).entityId());
+	}
+
+	@Test
+	@DisplayName("Given an event that commits after a later one When snapshots are taken meanwhile Then replay still includes it")
+	void givenOutOfOrderCommit_whenSnapshot_thenEventNotLost() throws Exception {
+		// Given
+		String property = "property-late-commit-" + UUID.randomUUID();
+		LocalDate start = LocalDate.now().plusDays(1);
+		bookingService.createBooking(newBooking(property, start, start.plusDays(1)));
+		Instant horizon = tick().truncatedTo(ChronoUnit.MICROS);
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		CountDownLatch recorded = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Block late = Block.builder().id(UUID.randomUUID()).propertyId(property)
+			.startDate(start.plusDays(10)).endDate(start.plusDays(11)).build();
+		CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+			historyService.record(HistoryEventType.CREATED, late);
+			recorded.countDown();
+			await(release);
+		}));
+		assertTrue(recorded.await(5, TimeUnit.SECONDS));
+		Booking later = bookingService.createBooking(newBooking(property, start.plusDays(3), start.plusDays(4)));
+
+		// When
+		tx.executeWithoutResult(status -> historyService.snapshot(property, horizon));
+		release.countDown();
+		slow.get(5, TimeUnit.SECONDS);
+		Instant afterCommit = tick().truncatedTo(ChronoUnit.MICROS);
+		tx.executeWithoutResult(status -> historyService.snapshot(property, afterCommit));
+
+		// Then
+		var now = historyService.stateAsOf(property, Instant.now());
+		assertEquals(3, now.size());
+		assertTrue(now.stream().anyMatch(s -> s.entityId().equals(late.getId())));
+		assertTrue(now.stream().anyMatch(s -> s.entityId().equals(later.getId())));
+		assertEquals(afterCommit, snapshotRepository
+			.findFirstByPropertyIdAndTakenAtLessThanEqualOrderByTakenAtDesc(property, Instant.now())
+			.orElseThrow().getTakenAt());
+	}
+
+	@Test
+	@DisplayName("Given successive snapshots When replaying Then the deltas hold only the changes and rebuild the state")
+	void givenSuccessiveSnapshots_whenReplay_thenDeltasHoldOnlyChanges() throws Exception {
+		// Given
+		String property = "property-delta-" + UUID.randomUUID();
+		LocalDate start = LocalDate.now().plusDays(1);
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		Booking first = bookingService.createBooking(newBooking(property, start, start.plusDays(1)));
+		Booking second = bookingService.createBooking(newBooking(property, start.plusDays(3), start.plusDays(4)));
+		Instant full = tick().truncatedTo(ChronoUnit.MICROS);
+		tx.executeWithoutResult(status -> historyService.snapshot(property, full));
+		Booking third = bookingService.createBooking(newBooking(property, start.plusDays(6), start.plusDays(7)));
+		bookingService.deleteBooking(first.getId());
+
+		// When
+		Instant firstDelta = tick().truncatedTo(ChronoUnit.MICROS);
+		tx.executeWithoutResult(status -> historyService.snapshot(property, firstDelta));
+		bookingService.updateBooking(second.getId(),
+			new BookingDtos.UpdateRequest("Ann", "ann@example.com", start.plusDays(9), start.plusDays(10)));
+		Instant secondDelta = tick().truncatedTo(ChronoUnit.MICROS);
+		tx.executeWithoutResult(status -> historyService.snapshot(property, secondDelta));
+		Booking fourth = bookingService.createBooking(newBooking(property, start.plusDays(12), start.plusDays(13)));
+		Instant compacted = tick().truncatedTo(ChronoUnit.MICROS);
+		tx.executeWithoutResult(status -> historyService.snapshot(property, compacted));
+
+		// Then
+		HistorySnapshot delta = latestSnapshot(property, firstDelta);
+		assertEquals(1, delta.getDepth());
+		assertEquals(latestSnapshot(property, full).getId(), delta.getBaseId());
+		assertTrue(delta.getState().contains(third.getId().toString()));
+		assertFalse(delta.getState().contains(second.getId().toString()));
+		assertTrue(delta.getRemoved().contains(first.getId().toString()));
+		assertEquals(2, latestSnapshot(property, secondDelta).getDepth());
+		HistorySnapshot whole = latestSnapshot(property, compacted);
+		assertNull(whole.getBaseId());
+		assertFalse(whole.getState().contains(first.getId().toString()));
+		assertTrue(whole.getState().contains(fourth.getId().toString()));
+
+		var atFirstDelta = historyService.stateAsOf(property, firstDelta);
+		assertEquals(2, atFirstDelta.size());
+		assertEquals(start.plusDays(3), atFirstDelta.get(0).startDate());
+		assertEquals(third.getId(), atFirstDelta.get(1).entityId());
+		var atSecondDelta = historyService.stateAsOf(property, secondDelta);
+		assertEquals(third.getId(), atSecondDelta.get(0).entityId());
+		assertEquals(start.plusDays(9), atSecondDelta.get(1).startDate());
+		assertEquals(3, historyService.stateAsOf(property, Instant.now()).size());
+	}
+
+	private HistorySnapshot latestSnapshot(String property, Instant asOf) {
+		return snapshotRepository.findFirstByPropertyIdAndTakenAtLessThanEqualOrderByTakenAtDesc(property, asOf)
+			.orElseThrow();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package com.bookingservice.service.lease;
+
+import com.bookingservice.model.LeaseNode;
+import com.bookingservice.repository.LeaseNodeRepository;
+import com.bookingservice.repository.PartitionLeaseRepository;
+import com.bookingservice.support.MessageCatalog;
+import com.bookingservice.support.NotOwnerException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several nodes against one database: each LeaseManager here stands for one app instance.
+ */
+@SpringBootTest
+@DisplayName("LeaseManager - Given/When/Then")
+class LeaseManagerTest {
+
+	private static final int PARTITIONS = 8;
+
+	@Autowired
+	private PartitionLeaseRepository leaseRepository;
+	@Autowired
+	private LeaseNodeRepository nodeRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private MessageCatalog messages;
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+	private final List<PartitionsAcquired> acquired = new ArrayList<>();
+
+	@BeforeEach
+	void resetDb() {
+		leaseRepository.deleteAll();
+		nodeRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given one node owning every partition When a second node joins Then the partitions are split evenly and disjointly")
+	void givenOneNode_whenSecondJoins_thenRebalanced() {
+		// Given
+		LeaseManager a = node("node-a");
+		LeaseManager b = node("node-b");
+		a.renew();
+		assertEquals(PARTITIONS, a.servedPartitions().size());
+
+		// When
+		b.renew();
+		int beforeShed = b.servedPartitions().size();
+		a.renew();
+		b.renew();
+
+		// Then
+		assertEquals(0, beforeShed);
+		assertEquals(PARTITIONS / 2, a.servedPartitions().size());
+		assertEquals(PARTITIONS / 2, b.servedPartitions().size());
+		Set<Integer> all = new HashSet<>(a.servedPartitions());
+		all.addAll(b.servedPartitions());
+		assertEquals(PARTITIONS, all.size());
+		assertEquals(1, acquired.stream().filter(e -> e.partitionIds().size() == PARTITIONS / 2).count());
+	}
+
+	@Test
+	@DisplayName("Given two balanced nodes When one stops renewing Then it stops serving and the other takes over after the ttl")
+	void givenBalancedNodes_whenOneStops_thenFailover() {
+		// Given
+		LeaseManager a = node("node-a");
+		LeaseManager b = node("node-b");
+		a.renew();
+		b.renew();
+		a.renew();
+		b.renew();
+		String propertyOfA = propertyIn(a.servedPartitions().iterator().next());
+
+		// When
+		clock.advance(Duration.ofSeconds(14));
+		boolean servedBeforeExpiry = a.owns(propertyOfA);
+		b.renew();
+		int takenBeforeExpiry = b.servedPartitions().size();
+		clock.advance(Duration.ofSeconds(2));
+		b.renew();
+
+		// Then
+		assertFalse(servedBeforeExpiry, "served past ttl - max-clock-skew");
+		assertEquals(PARTITIONS / 2, takenBeforeExpiry);
+		assertEquals(PARTITIONS, b.servedPartitions().size());
+		assertTrue(b.owns(propertyOfA));
+		assertFalse(a.owns(propertyOfA));
+	}
+
+	@Test
+	@DisplayName("Given two balanced nodes When one shuts down Then the other takes its partitions on its next renewal")
+	void givenBalancedNodes_whenOneShutsDown_thenTakenAtOnce() {
+		// Given
+		LeaseManager a = node("node-a");
+		LeaseManager b = node("node-b");
+		a.renew();
+		b.renew();
+		a.renew();
+		b.renew();
+
+		// When
+		a.destroy();
+		b.renew();
+
+		// Then
+		assertTrue(a.servedPartitions().isEmpty());
+		assertEquals(PARTITIONS, b.servedPartitions().size());
+	}
+
+	@Test
+	@DisplayName("Given a mutation When its commit is delayed until another node took the lease over Then it rolls back")
+	void givenMutation_whenCommitDelayedPastTakeover_thenRolledBack() {
+		// Given
+		LeaseManager a = node("node-a");
+		a.renew();
+		String property = propertyIn(0);
+		// b's clock runs ahead: it sees a's leases expired while a still serves them (a stalled node)
+		MutableClock ahead = new MutableClock(clock.instant().plusSeconds(16));
+		LeaseManager b = node("node-b", ahead);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		// When
+		assertThrows(NotOwnerException.class, () -> transaction.executeWithoutResult(status -> {
+			a.checkOwnerAtCommit(property);
+			nodeRepository.save(new LeaseNode("written-by-a", null, clock.instant()));
+			CompletableFuture.runAsync(b::renew).join();
+		}));
+
+		// Then
+		assertTrue(a.owns(property), "a's own clock still says it serves the lease");
+		assertTrue(b.owns(property));
+		assertFalse(nodeRepository.existsById("written-by-a"));
+	}
+
+	private LeaseManager node(String nodeId) {
+		return node(nodeId, clock);
+	}
+
+	private LeaseManager node(String nodeId, Clock clock) {
+		LeaseProperties properties = new LeaseProperties(true, nodeId, "http://" + nodeId + ":8080", PARTITIONS,
+			Duration.ofSeconds(15), Duration.ofSeconds(5), Duration.ofSeconds(1));
+		ApplicationEventPublisher publisher = event -> {
+			if (event instanceof PartitionsAcquired partitionsAcquired) {
+				acquired.add(partitionsAcquired);
+			}
+		};
+		return new LeaseManager(properties, leaseRepository, nodeRepository, transactionManager, publisher, messages,
+			new SimpleMeterRegistry(), clock);
+	}
+
+	private static String propertyIn(int partition) {
+		for (int i = 0; ; i++) {
+			String propertyId = "property-" + i;
+			if (LeaseManager.partitionOf(propertyId, PARTITIONS) == partition) {
+				return propertyId;
+			}
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package com.bookingservice.service.lease;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.LeaseNode;
+import com.bookingservice.model.PartitionLease;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.ArchivedBookingRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.repository.LeaseNodeRepository;
+import com.bookingservice.repository.PartitionLeaseRepository;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.service.archive.ArchivalService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+	"booking.leases.enabled=true",
+	"booking.leases.node-id=node-local",
+	"booking.leases.partitions=4",
+	// renewals are driven by the test
+	"booking.leases.initial-delay=PT1H",
+	"booking.leases.renew-interval=PT1H",
+	"booking.leases.ttl=PT2H"
+})
+@AutoConfigureMockMvc
+@DisplayName("Lease routing - Given/When/Then")
+class LeaseRoutingTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private LeaseManager leaseManager;
+	@Autowired
+	private PartitionLeaseRepository leaseRepository;
+	@Autowired
+	private LeaseNodeRepository nodeRepository;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private ArchivalService archivalService;
+	@Autowired
+	private ArchivedBookingRepository archivedBookingRepository;
+
+	@Test
+	@DisplayName("Given leases enabled When the context starts Then the node-local entity cache is off")
+	void givenLeases_whenStarted_thenSecondLevelCacheDisabled() {
+		assertFalse(entityManagerFactory.unwrap(SessionFactory.class)
+			.getSessionFactoryOptions()
+			.isSecondLevelCacheEnabled());
+	}
+
+	@Test
+	@DisplayName("Given the lease of a property When it moves to another node Then mutations get 307 to the owner, or 503 without its URL")
+	void givenLease_whenMoved_thenRedirectedOrRejected() throws Exception {
+		// Given
+		resetLeases();
+		mockMvc.perform(createBooking(1)).andExpect(status().isCreated());
+
+		// When
+		Instant later = Instant.now().plus(3, ChronoUnit.HOURS);
+		nodeRepository.save(new LeaseNode("node-remote", "http://node-remote:8080", later));
+		leaseRepository.findAll().forEach(lease -> leaseRepository.save(
+			new PartitionLease(lease.getPartitionId(), "node-remote", later, lease.getEpoch() + 1)));
+		leaseManager.renew();
+
+		// Then
+		mockMvc.perform(createBooking(10))
+			.andExpect(status().isTemporaryRedirect())
+			.andExpect(header().string("Location", "http://node-remote:8080/api/bookings"));
+		nodeRepository.save(new LeaseNode("node-remote", null, later));
+		mockMvc.perform(createBooking(10))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(jsonPath("$.error", is("SERVICE_UNAVAILABLE")));
+		mockMvc.perform(get("/api/bookings/calendar")
+				.param("propertyId", "property-leased")
+				.param("year", "2030")
+				.param("month", "1"))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("Given a block on a held property When moved into a property leased by another node Then 409")
+	void givenBlock_whenMovedIntoRemoteProperty_thenConflict() throws Exception {
+		// Given
+		resetLeases();
+		String source = "property-leased";
+		String target = IntStream.range(0, 100).mapToObj(i -> "property-remote-" + i)
+			.filter(p -> LeaseManager.partitionOf(p, 4) != LeaseManager.partitionOf(source, 4))
+			.findFirst().orElseThrow();
+		LocalDate start = LocalDate.now().plusDays(50);
+		String location = mockMvc.perform(post("/api/blocks").contentType(MediaType.APPLICATION_JSON)
+				.content(block(source, start)))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getHeader("Location");
+
+		// When
+		Instant later = Instant.now().plus(3, ChronoUnit.HOURS);
+		nodeRepository.save(new LeaseNode("node-remote", "http://node-remote:8080", later));
+		leaseRepository.findAll().stream()
+			.filter(lease -> lease.getPartitionId() != LeaseManager.partitionOf(source, 4))
+			.forEach(lease -> leaseRepository.save(
+				new PartitionLease(lease.getPartitionId(), "node-remote", later, lease.getEpoch() + 1)));
+		leaseManager.renew();
+
+		// Then
+		mockMvc.perform(put(location).contentType(MediaType.APPLICATION_JSON).content(block(target, start)))
+			.andExpect(status().isConflict());
+		mockMvc.perform(put(location).contentType(MediaType.APPLICATION_JSON).content(block(source, start.plusDays(1))))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("Given past bookings on a held and a remote property When archiving Then only the held property's rows move")
+	void givenPastBookings_whenArchiving_thenOnlyHeldPropertyArchived() {
+		// Given
+		resetLeases();
+		String held = "property-leased";
+		String remote = IntStream.range(0, 100).mapToObj(i -> "property-remote-" + i)
+			.filter(p -> LeaseManager.partitionOf(p, 4) != LeaseManager.partitionOf(held, 4))
+			.findFirst().orElseThrow();
+		LocalDate past = LocalDate.now().minusMonths(2);
+		Booking heldBooking = bookingService.createBooking(booking(held, past));
+		Booking remoteBooking = bookingService.createBooking(booking(remote, past));
+		Instant later = Instant.now().plus(3, ChronoUnit.HOURS);
+		nodeRepository.save(new LeaseNode("node-remote", "http://node-remote:8080", later));
+		leaseRepository.findAll().stream()
+			.filter(lease -> lease.getPartitionId() != LeaseManager.partitionOf(held, 4))
+			.forEach(lease -> leaseRepository.save(
+				new PartitionLease(lease.getPartitionId(), "node-remote", later, lease.getEpoch() + 1)));
+		leaseManager.renew();
+
+		// When
+		var report = archivalService.archive(LocalDate.now());
+
+		// Then
+		assertEquals(1, report.bookingsMoved());
+		assertTrue(archivedBookingRepository.existsById(heldBooking.getId()));
+		assertFalse(bookingRepository.existsById(heldBooking.getId()));
+		assertTrue(bookingRepository.existsById(remoteBooking.getId()));
+	}
+
+	private void resetLeases() {
+		bookingRepository.deleteAll();
+		allocationRepository.deleteAll();
+		// the partition rows are created once per node; free them rather than deleting them
+		leaseRepository.findAll().forEach(lease -> leaseRepository.save(
+			new PartitionLease(lease.getPartitionId(), null, Instant.EPOCH, lease.getEpoch())));
+		nodeRepository.deleteAll();
+		leaseManager.renew();
+	}
+
+	private static Booking booking(String propertyId, LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(propertyId);
+		booking.setGuestName("Ana");
+		booking.setGuestEmail("ana@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(2));
+		return booking;
+	}
+
+	private static String block(String propertyId, LocalDate start) {
+		return """
+			{"propertyId": "%s", "startDate": "%s", "endDate": "%s"}
+			""".formatted(propertyId, start, start.plusDays(2));
+	}
+
+	private static MockHttpServletRequestBuilder createBooking(int offset) {
+		LocalDate start = LocalDate.now().plusDays(offset);
+		String body = """
+			{"propertyId": "property-leased", "guestName": "Ana", "guestEmail": "ana@example.com",
+			 "startDate": "%s", "endDate": "%s"}
+			""".formatted(start, start.plusDays(2));
+		return post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(body);
+	}
+}
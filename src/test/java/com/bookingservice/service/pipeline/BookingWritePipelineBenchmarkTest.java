@@ -0,0 +1,132 @@
+package com.bookingservice.service.pipeline;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BookingService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times the same concurrent creates once through {@link BookingService#createBooking}, one
+ * transaction each, and once through the pipeline, one transaction per batch. Every writer books
+ * its own property, so nothing conflicts and both runs commit every create. A shorter round of
+ * each warms them up first. The throughputs and the pipeline's mean batch size are logged.
+ */
+@SpringBootTest(properties = {
+	"booking.write-pipeline.enabled=true",
+	"booking.write-pipeline.window=1ms"
+})
+@DisplayName("BookingWritePipeline throughput benchmark - Given/When/Then")
+class BookingWritePipelineBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(BookingWritePipelineBenchmarkTest.class);
+
+	private static final int WRITERS = 32;
+	private static final int CREATES_PER_WRITER = 50;
+	private static final int WARM_UP_CREATES = 10;
+
+	@Autowired
+	private BookingWritePipeline pipeline;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given concurrent writers When creating one by one and then batched Then every create commits and both throughputs are logged")
+	void givenConcurrentWriters_whenCreating_thenThroughputsLogged() throws Exception {
+		// Given
+		run("warm-up-direct", WARM_UP_CREATES, bookingService::createBooking);
+		run("warm-up-pipeline", WARM_UP_CREATES, pipeline::create);
+		DistributionSummary batchSizes = meterRegistry.get("booking.write-pipeline.batch-size").summary();
+		long batchesBefore = batchSizes.count();
+		double batchedBefore = batchSizes.totalAmount();
+
+		// When
+		long directNanos = run("direct", CREATES_PER_WRITER, bookingService::createBooking);
+		long pipelinedNanos = run("pipeline", CREATES_PER_WRITER, pipeline::create);
+
+		// Then
+		int creates = WRITERS * CREATES_PER_WRITER;
+		assertEquals(2L * WRITERS * (CREATES_PER_WRITER + WARM_UP_CREATES), bookingRepository.count());
+		long batches = batchSizes.count() - batchesBefore;
+		log.info("{} writers x {} creates: one transaction each {} creates/s, pipeline {} creates/s "
+				+ "in {} batches of {} on average",
+			WRITERS, CREATES_PER_WRITER, perSecond(creates, directNanos), perSecond(creates, pipelinedNanos),
+			batches, String.format("%.1f", (batchSizes.totalAmount() - batchedBefore) / batches));
+	}
+
+	private long run(String label, int createsPerWriter, Function<Booking, Booking> create) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch go = new CountDownLatch(1);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int w = 0; w < WRITERS; w++) {
+				String property = "property-bench-" + label + "-" + w;
+				writers.add(pool.submit(() -> {
+					go.await();
+					for (int i = 0; i < createsPerWriter; i++) {
+						create.apply(booking(property, LocalDate.now().plusDays(1L + 3L * i)));
+					}
+					return null;
+				}));
+			}
+			long started = System.nanoTime();
+			go.countDown();
+			for (Future<?> writer : writers) {
+				writer.get(2, TimeUnit.MINUTES);
+			}
+			return System.nanoTime() - started;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static long perSecond(int creates, long nanos) {
+		return creates * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+	}
+
+	private static Booking booking(String property, LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(property);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(1));
+		return booking;
+	}
+}
@@ -0,0 +1,174 @@
+package com.bookingservice.service.pipeline;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.support.AllocationConflictException;
+import com.bookingservice.support.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+	"booking.write-pipeline.enabled=true",
+	"booking.write-pipeline.window=200ms"
+})
+@DisplayName("BookingWritePipeline - Given/When/Then")
+class BookingWritePipelineTest {
+
+	private static final String PROPERTY = "property-pipeline";
+
+	@Autowired
+	private BookingWritePipeline pipeline;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given concurrent creates for the same dates When batched Then exactly one is accepted and the others get their own conflict")
+	void givenConcurrentSameDates_whenBatched_thenOneAccepted() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(30);
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Booking>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				String guest = "Guest " + i;
+				results.add(pool.submit(() -> {
+					go.await();
+					return pipeline.create(booking(guest, start));
+				}));
+			}
+
+			// When
+			go.countDown();
+
+			// Then
+			int accepted = 0;
+			for (Future<Booking> result : results) {
+				try {
+					assertEquals(BookingStatus.ACTIVE, result.get(10, TimeUnit.SECONDS).getStatus());
+					accepted++;
+				} catch (ExecutionException ex) {
+					assertInstanceOf(AllocationConflictException.class, ex.getCause());
+				}
+			}
+			assertEquals(1, accepted);
+			assertEquals(1, bookingRepository.count());
+			assertEquals(1, allocationRepository.count());
+			assertTrue(meterRegistry.get("booking.write-pipeline.batch-size").summary().max() > 1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Given a cancel queued before a create of the same dates When batched Then the create takes the freed dates")
+	void givenCancelThenCreate_whenBatched_thenCreateAccepted() throws Exception {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(60);
+		Booking existing = bookingService.createBooking(booking("Existing", start));
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			// When
+			Future<Booking> canceled = pool.submit(() -> pipeline.cancel(existing.getId()));
+			Thread.sleep(50);
+			Future<Booking> created = pool.submit(() -> pipeline.create(booking("Next", start)));
+
+			// Then
+			assertEquals(BookingStatus.CANCELED, canceled.get(10, TimeUnit.SECONDS).getStatus());
+			assertEquals(BookingStatus.ACTIVE, created.get(10, TimeUnit.SECONDS).getStatus());
+			assertEquals(BookingStatus.CANCELED, bookingService.getBooking(existing.getId()).getStatus());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Given a batch that fails as a whole When its requests are retried alone Then the other creates succeed")
+	void givenFailingBatch_whenRetriedAlone_thenOtherCreatesSucceed() throws Exception {
+		// Given: a guest name too long for its column fails the batch's flush
+		LocalDate start = LocalDate.now().plusDays(90);
+		double fallbacksBefore = meterRegistry.get("booking.write-pipeline.fallbacks").counter().count();
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Booking>> valid = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				LocalDate from = start.plusDays(i * 5L);
+				valid.add(pool.submit(() -> {
+					go.await();
+					return pipeline.create(booking("Guest", from));
+				}));
+			}
+			Future<Booking> invalid = pool.submit(() -> {
+				go.await();
+				return pipeline.create(booking("x".repeat(300), start.plusDays(20)));
+			});
+
+			// When
+			go.countDown();
+
+			// Then
+			for (Future<Booking> result : valid) {
+				assertEquals(BookingStatus.ACTIVE, result.get(10, TimeUnit.SECONDS).getStatus());
+			}
+			assertThrows(ExecutionException.class, () -> invalid.get(10, TimeUnit.SECONDS));
+			assertEquals(3, bookingRepository.count());
+			assertEquals(3, allocationRepository.count());
+			assertTrue(meterRegistry.get("booking.write-pipeline.fallbacks").counter().count() > fallbacksBefore);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Given an unknown booking When canceling through the pipeline Then NotFoundException")
+	void givenUnknownBooking_whenCancel_thenNotFound() {
+		assertThrows(NotFoundException.class, () -> pipeline.cancel(UUID.randomUUID()));
+	}
+
+	private static Booking booking(String guestName, LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(PROPERTY);
+		booking.setGuestName(guestName);
+		booking.setGuestEmail("guest@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(3));
+		return booking;
+	}
+}
@@ -0,0 +1,78 @@
+package com.bookingservice.service.policy;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationStore;
+import com.bookingservice.repository.partition.AllocationPartitions;
+import com.bookingservice.service.capacity.OccupancyIndex;
+import com.bookingservice.support.MessageCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConflictDetection DATABASE - Given/When/Then")
+class ConflictDetectionTest {
+
+	private AllocationStore allocationStore;
+	private AllocationPolicy allocationPolicy;
+	private Booking booking;
+
+	@BeforeEach
+	void setUp() {
+		allocationStore = mock(AllocationStore.class);
+		MessageCatalog messages = new MessageCatalog(new StaticMessageSource(), "messages", List.of(Locale.US));
+		allocationPolicy = new AllocationPolicy(allocationStore, messages, ConflictDetection.DATABASE, new AllocationPartitions(366),
+			mock(OccupancyIndex.class));
+
+		booking = new Booking();
+		booking.setPropertyId("property-db");
+		booking.setStartDate(LocalDate.now().plusDays(1));
+		booking.setEndDate(LocalDate.now().plusDays(3));
+	}
+
+	@Test
+	@DisplayName("Given database mode When checking dates Then no overlap query is issued")
+	void givenDatabaseMode_whenCheckDates_thenNoQuery() {
+		// When
+		allocationPolicy.ensureDatesAvailableFor(booking, null);
+
+		// Then
+		verifyNoInteractions(allocationStore);
+	}
+
+	@Test
+	@DisplayName("Given an exclusion violation When writing the allocation Then it becomes a conflict")
+	void givenExclusionViolation_whenWrite_thenIllegalState() {
+		// Given
+		SQLException sql = new SQLException("conflicting key value violates exclusion constraint", "23P01");
+		DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement", sql);
+
+		// When / Then
+		IllegalStateException conflict = assertThrows(IllegalStateException.class, () ->
+			allocationPolicy.writeAllocation(booking, () -> { throw ex; })
+		);
+		assertTrue(conflict.getMessage().contains("property-db"));
+	}
+
+	@Test
+	@DisplayName("Given another integrity violation When writing the allocation Then it is rethrown")
+	void givenOtherViolation_whenWrite_thenRethrown() {
+		// Given
+		SQLException sql = new SQLException("null value in column", "23502");
+		DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement", sql);
+
+		// When / Then
+		assertThrows(DataIntegrityViolationException.class, () ->
+			allocationPolicy.writeAllocation(booking, () -> { throw ex; })
+		);
+	}
+}
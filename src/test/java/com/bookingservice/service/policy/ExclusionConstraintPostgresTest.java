@@ -0,0 +1,183 @@
+package com.bookingservice.service.policy;
+
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.Booking;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.service.BookingService;
+import com.bookingservice.support.AllocationConflictException;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs against a real PostgreSQL with the {@code postgres} profile, so the
+ * {@code allocations_no_overlap} exclusion constraint from {@code allocations-exclusion.sql} is
+ * what rejects overlaps. The server is an embedded PostgreSQL started from the binaries on the
+ * test classpath, once per JVM; PostgreSQL refuses to run as root, so the class is disabled for
+ * that user. Each test writes its own properties and deletes nothing.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("postgres")
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL refuses to run as root")
+@DisplayName("Exclusion constraint on PostgreSQL - Given/When/Then")
+class ExclusionConstraintPostgresTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ExclusionConstraintPostgresTest.class);
+
+	private static final int THREADS = 16;
+	private static final int ROUNDS = 50;
+
+	private static EmbeddedPostgres postgres;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private AllocationPolicy allocationPolicy;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final LocalDate start = LocalDate.now().plusDays(30);
+
+	@DynamicPropertySource
+	static void postgresProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> server().getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+		registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + server().getPort() + "/postgres");
+		registry.add("spring.r2dbc.username", () -> "postgres");
+		registry.add("spring.r2dbc.password", () -> "postgres");
+	}
+
+	// stopped by its own shutdown hook, after the cached application context is closed
+	private static synchronized EmbeddedPostgres server() {
+		if (postgres == null) {
+			try {
+				postgres = EmbeddedPostgres.builder().start();
+			} catch (IOException ex) {
+				throw new UncheckedIOException("Cannot start the embedded PostgreSQL", ex);
+			}
+		}
+		return postgres;
+	}
+
+	@Test
+	@DisplayName("Given the postgres profile When the context starts Then the exclusion constraint is in place and enforced")
+	void givenPostgresProfile_whenStarted_thenConstraintApplied() {
+		// Then
+		assertEquals(ConflictDetection.DATABASE, allocationPolicy.getConflictDetection());
+		assertEquals(1, jdbcTemplate.queryForObject(
+			"select count(*) from pg_constraint where conname = 'allocations_no_overlap'", Integer.class));
+	}
+
+	@Test
+	@DisplayName("Given a booking When an overlapping one is posted Then the 23P01 violation is returned as 409")
+	void givenBooking_whenOverlapPosted_then409() throws Exception {
+		// Given
+		String property = "property-exclusion-" + UUID.randomUUID();
+		bookingService.createBooking(booking(property, start, start.plusDays(3)));
+
+		// When / Then
+		mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content("""
+				{"propertyId": "%s", "guestName": "Ana", "guestEmail": "ana@example.com",
+				 "startDate": "%s", "endDate": "%s"}
+				""".formatted(property, start.plusDays(3), start.plusDays(5))))
+			.andExpect(status().isConflict())
+			.andExpect(jsonPath("$.error", is("CONFLICT")));
+		assertEquals(1, allocationRepository.findOverlappingAllocations(property, AllocationStatus.ACTIVE,
+			start.minusDays(366), start, start.plusDays(5)).size());
+	}
+
+	@Test
+	@DisplayName("Given writers racing for the same nights When they book concurrently Then exactly one wins each round")
+	void givenContention_whenBookingConcurrently_thenOneWinnerPerRound() throws Exception {
+		// Given
+		String property = "property-contention-" + UUID.randomUUID();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		int won = 0;
+		int rejected = 0;
+		long began = System.nanoTime();
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				LocalDate from = start.plusDays(3L * round);
+				CountDownLatch go = new CountDownLatch(1);
+				List<Future<Boolean>> attempts = new ArrayList<>();
+
+				// When
+				for (int i = 0; i < THREADS; i++) {
+					attempts.add(pool.submit(() -> {
+						go.await();
+						try {
+							bookingService.createBooking(booking(property, from, from.plusDays(1)));
+							return true;
+						} catch (AllocationConflictException ex) {
+							return false;
+						}
+					}));
+				}
+				go.countDown();
+
+				// Then
+				int winners = 0;
+				for (Future<Boolean> attempt : attempts) {
+					if (attempt.get(30, TimeUnit.SECONDS)) {
+						winners++;
+					}
+				}
+				assertEquals(1, winners, "round " + round);
+				won += winners;
+				rejected += THREADS - winners;
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+		log.info("{} rounds of {} writers: {} booked, {} rejected by the constraint in {} ms ({} attempts/s)",
+			ROUNDS, THREADS, won, rejected, elapsedMs, ROUNDS * THREADS * 1000L / Math.max(elapsedMs, 1));
+		assertEquals(ROUNDS, allocationRepository.findOverlappingAllocations(property, AllocationStatus.ACTIVE,
+			start.minusDays(366), start, start.plusDays(3L * ROUNDS)).size());
+	}
+
+	private static Booking booking(String property, LocalDate startDate, LocalDate endDate) {
+		Booking booking = new Booking();
+		booking.setPropertyId(property);
+		booking.setGuestName("Ana");
+		booking.setGuestEmail("ana@example.com");
+		booking.setStartDate(startDate);
+		booking.setEndDate(endDate);
+		return booking;
+	}
+}
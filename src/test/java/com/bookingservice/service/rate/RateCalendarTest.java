@@ -0,0 +1,69 @@
+package com.bookingservice.service.rate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateCalendar - Given/When/Then")
+class RateCalendarTest {
+
+	private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+	@Test
+	@DisplayName("Given random rate changes When pricing random stays Then totals match a night-by-night sum")
+	void givenRandomChanges_whenPrice_thenMatchesNightlySum() {
+		// Given
+		Random random = new Random(7);
+		RateCalendar calendar = RateCalendar.EMPTY;
+		Map<LocalDate, Long> expected = new HashMap<>();
+		for (int i = 0; i < 500; i++) {
+			LocalDate from = BASE.plusDays(random.nextInt(600) - 100);
+			LocalDate to = from.plusDays(random.nextInt(40));
+			long amount = 5_000 + random.nextInt(20_000);
+			Map<LocalDate, Long> amounts = new HashMap<>();
+			for (LocalDate night = from; !night.isAfter(to); night = night.plusDays(1)) {
+				amounts.put(night, amount);
+				expected.put(night, amount);
+			}
+			calendar = calendar.with(from, to, amounts);
+
+			// When
+			LocalDate start = BASE.plusDays(random.nextInt(700) - 150);
+			LocalDate end = start.plusDays(random.nextInt(365));
+			RateCalendar.Price price = calendar.price(start, end);
+
+			// Then
+			long total = 0;
+			int unpriced = 0;
+			for (LocalDate night = start; !night.isAfter(end); night = night.plusDays(1)) {
+				Long rate = expected.get(night);
+				if (rate == null) {
+					unpriced++;
+				} else {
+					total += rate;
+				}
+			}
+			assertEquals(total, price.total());
+			assertEquals(unpriced, price.unpricedNights());
+			assertEquals((int) (end.toEpochDay() - start.toEpochDay() + 1), price.nights());
+		}
+	}
+
+	@Test
+	@DisplayName("Given no rates When pricing Then every night is unpriced")
+	void givenEmpty_whenPrice_thenUnpriced() {
+		// When
+		RateCalendar.Price price = RateCalendar.EMPTY.price(BASE, BASE.plusDays(2));
+
+		// Then
+		assertEquals(3, price.nights());
+		assertEquals(3, price.unpricedNights());
+		assertEquals(0, price.total());
+	}
+}
@@ -0,0 +1,121 @@
+package com.bookingservice.service.rate;
+
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.NightlyRate;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.repository.NightlyRateRepository;
+import com.bookingservice.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("RateService - Given/When/Then")
+class RateServiceTest {
+
+	@Autowired
+	private RateService rateService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private NightlyRateRepository rateRepository;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	private final LocalDate start = LocalDate.now().plusDays(10);
+	private String property;
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		allocationRepository.deleteAll();
+		rateRepository.deleteAll();
+		// calendars stay loaded across tests: each test prices its own property
+		property = "property-rates-" + UUID.randomUUID();
+	}
+
+	@Test
+	@DisplayName("Given nightly rates When quoting a stay Then the nights are summed and the dates checked")
+	void givenRates_whenQuote_thenPricedAndChecked() {
+		// Given
+		rateService.setRates(property, start, start.plusDays(9), 10_000L);
+		rateService.setRates(property, start.plusDays(5), start.plusDays(6), 15_000L);
+		bookingService.createBooking(booking(start.plusDays(6)));
+
+		// When
+		StayQuote quote = rateService.quote(property, start.plusDays(4), start.plusDays(7));
+
+		// Then
+		assertEquals(4, quote.nights());
+		assertEquals(50_000L, quote.total());
+		assertEquals(0, quote.unpricedNights());
+		assertFalse(quote.availability().isAvailable());
+		assertTrue(rateService.quote(property, start, start.plusDays(3)).availability().isAvailable());
+	}
+
+	@Test
+	@DisplayName("Given a quoted calendar When rates change Then the next quote uses them")
+	void givenQuoted_whenRatesChange_thenQuoteUpdated() {
+		// Given
+		rateService.setRates(property, start, start.plusDays(9), 10_000L);
+		assertEquals(100_000L, rateService.quote(property, start, start.plusDays(9)).total());
+
+		// When
+		rateService.setRates(property, start.plusDays(8), start.plusDays(12), 12_000L);
+
+		// Then
+		assertEquals(104_000L, rateService.quote(property, start, start.plusDays(9)).total());
+		assertEquals(60_000L, rateService.quote(property, start.plusDays(8), start.plusDays(12)).total());
+	}
+
+	@Test
+	@DisplayName("Given nights without a rate When quoting Then no total is given")
+	void givenMissingRates_whenQuote_thenNoTotal() {
+		// Given
+		rateService.setRates(property, start, start.plusDays(1), 10_000L);
+
+		// When
+		StayQuote quote = rateService.quote(property, start, start.plusDays(3));
+
+		// Then
+		assertNull(quote.total());
+		assertEquals(2, quote.unpricedNights());
+		assertThrows(IllegalArgumentException.class, () -> rateService.setRates(property, start, start, -1L));
+	}
+
+	@Test
+	@DisplayName("Given nights outside the rate horizon When setting rates Then they are rejected and the calendar stays bounded")
+	void givenNightsOutsideHorizon_whenSetRates_thenRejected() {
+		// Given: a row written before the horizon existed, years ahead
+		LocalDate farAhead = start.plusYears(50);
+		rateRepository.save(new NightlyRate(property, farAhead, 1L));
+
+		// When / Then
+		assertThrows(IllegalArgumentException.class, () -> rateService.setRates(property, farAhead, farAhead, 10_000L));
+		assertThrows(IllegalArgumentException.class,
+			() -> rateService.setRates(property, LocalDate.now().minusDays(1), start, 10_000L));
+		rateService.setRates(property, start, start.plusDays(1), 10_000L);
+		assertEquals(20_000L, rateService.quote(property, start, start.plusDays(1)).total());
+		assertEquals(1, rateService.quote(property, farAhead, farAhead).unpricedNights());
+	}
+
+	private Booking booking(LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(property);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(1));
+		return booking;
+	}
+}
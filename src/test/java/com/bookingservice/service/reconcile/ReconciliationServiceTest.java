@@ -0,0 +1,175 @@
+package com.bookingservice.service.reconcile;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.model.Block;
+import com.bookingservice.model.Booking;
+import com.bookingservice.model.BookingStatus;
+import com.bookingservice.repository.AllocationRepository;
+import com.bookingservice.repository.BlockRepository;
+import com.bookingservice.repository.BookingRepository;
+import com.bookingservice.service.BlockService;
+import com.bookingservice.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+	"booking.reconcile.parallelism=3",
+	"booking.reconcile.chunk-size=2"
+})
+@DisplayName("ReconciliationService - Given/When/Then")
+class ReconciliationServiceTest {
+
+	private static final String PROPERTY = "property-reconcile";
+
+	@Autowired
+	private ReconciliationService reconciliationService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BlockService blockService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private BlockRepository blockRepository;
+	@Autowired
+	private AllocationRepository allocationRepository;
+
+	private final LocalDate start = LocalDate.now().plusDays(10);
+
+	@BeforeEach
+	void resetDb() {
+		bookingRepository.deleteAll();
+		blockRepository.deleteAll();
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given drifted allocations When reconciling without repair Then each kind is reported and nothing changes")
+	void givenDrift_whenReport_thenFoundAndUnchanged() {
+		// Given
+		Drift drift = drift();
+
+		// When
+		ReconcileReport report = reconciliationService.reconcile(false);
+
+		// Then
+		assertEquals(1, report.found().get(Mismatch.Kind.STALE_ALLOCATION));
+		assertEquals(1, report.found().get(Mismatch.Kind.MISSING_ALLOCATION));
+		assertEquals(1, report.found().get(Mismatch.Kind.DUPLICATE_ALLOCATION));
+		assertEquals(1, report.found().get(Mismatch.Kind.ORPHAN_ALLOCATION));
+		assertEquals(0, report.repaired());
+		assertEquals(bookingRepository.count(), report.bookingsScanned());
+		assertEquals(blockRepository.count(), report.blocksScanned());
+		assertEquals(allocationRepository.count(), report.allocationsScanned());
+		assertEquals(AllocationStatus.CANCELED, allocationOf(drift.stale()).getStatus());
+		assertTrue(allocationRepository.findById(drift.orphan()).isPresent());
+	}
+
+	@Test
+	@DisplayName("Given drifted allocations When reconciling with repair Then allocations mirror their bookings/blocks again")
+	void givenDrift_whenRepair_thenConsistent() {
+		// Given
+		Drift drift = drift();
+
+		// When
+		ReconcileReport report = reconciliationService.reconcile(true);
+
+		// Then
+		assertEquals(4, report.repaired());
+		assertEquals(0, report.unrepaired());
+		assertEquals(AllocationStatus.ACTIVE, allocationOf(drift.stale()).getStatus());
+		assertEquals(start.plusDays(20), allocationOf(drift.missing()).getStartDate());
+		assertEquals(1, allocationRepository.findByEntityIdIn(List.of(drift.duplicated())).size());
+		assertTrue(allocationRepository.findById(drift.orphan()).isEmpty());
+		assertEquals(0, reconciliationService.reconcile(false).mismatches());
+	}
+
+	@Test
+	@DisplayName("Given a booking active again on dates taken since When repairing Then it is left unrepaired")
+	void givenReactivatedOnTakenDates_whenRepair_thenUnrepaired() {
+		// Given
+		Booking canceled = bookingService.createBooking(booking(start));
+		bookingService.cancelBooking(canceled.getId());
+		bookingService.createBooking(booking(start));
+		Booking drifted = bookingRepository.findById(canceled.getId()).orElseThrow();
+		drifted.setStatus(BookingStatus.ACTIVE);
+		bookingRepository.save(drifted);
+
+		// When
+		ReconcileReport report = reconciliationService.reconcile(true);
+
+		// Then
+		assertEquals(1, report.found().get(Mismatch.Kind.STALE_ALLOCATION));
+		assertEquals(1, report.unrepaired());
+		assertEquals(AllocationStatus.CANCELED, allocationOf(canceled.getId()).getStatus());
+	}
+
+	private record Drift(UUID stale, UUID missing, UUID duplicated, UUID orphan) {
+	}
+
+	private Drift drift() {
+		for (int i = 0; i < 6; i++) {
+			bookingService.createBooking(booking(start.plusDays(40 + 3L * i)));
+		}
+		// rebooked booking whose allocation stayed CANCELED
+		Booking stale = bookingService.createBooking(booking(start));
+		Allocation staleAllocation = allocationOf(stale.getId());
+		staleAllocation.setStatus(AllocationStatus.CANCELED);
+		allocationRepository.save(staleAllocation);
+
+		Block missing = blockService.createBlock(block(start.plusDays(20)));
+		allocationRepository.delete(allocationOf(missing.getId()));
+
+		Booking duplicated = bookingService.createBooking(booking(start.plusDays(30)));
+		Allocation original = allocationOf(duplicated.getId());
+		allocationRepository.save(copy(original, duplicated.getId()));
+
+		Allocation orphan = allocationRepository.save(copy(original, UUID.randomUUID()));
+		return new Drift(stale.getId(), missing.getId(), duplicated.getId(), orphan.getId());
+	}
+
+	private Allocation allocationOf(UUID entityId) {
+		return allocationRepository.findByEntityId(entityId).orElseThrow();
+	}
+
+	private static Allocation copy(Allocation allocation, UUID entityId) {
+		return Allocation.builder()
+			.id(UUID.randomUUID())
+			.entityId(entityId)
+			.type(AllocationType.BOOKING)
+			.propertyId(allocation.getPropertyId())
+			.startDate(allocation.getStartDate())
+			.endDate(allocation.getEndDate())
+			.status(AllocationStatus.CANCELED)
+			.build();
+	}
+
+	private static Booking booking(LocalDate start) {
+		Booking booking = new Booking();
+		booking.setPropertyId(PROPERTY);
+		booking.setGuestName("Jane");
+		booking.setGuestEmail("jane@example.com");
+		booking.setStartDate(start);
+		booking.setEndDate(start.plusDays(2));
+		return booking;
+	}
+
+	private static Block block(LocalDate start) {
+		Block block = new Block();
+		block.setPropertyId(PROPERTY);
+		block.setStartDate(start);
+		block.setEndDate(start.plusDays(2));
+		return block;
+	}
+}
@@ -0,0 +1,66 @@
+package com.bookingservice.service.warmup;
+
+import com.bookingservice.model.Allocation;
+import com.bookingservice.model.AllocationStatus;
+import com.bookingservice.model.AllocationType;
+import com.bookingservice.repository.AllocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("WarmupRunner - Given/When/Then")
+class WarmupRunnerTest {
+
+	@Autowired
+	private AllocationRepository allocationRepository;
+	@Autowired
+	private WarmupRunner warmupRunner;
+
+	@BeforeEach
+	void resetDb() {
+		allocationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Given the application started When inspecting the warm-up Then it ran before readiness")
+	void givenStartup_whenInspect_thenWarmupRan() {
+		// When / Then
+		assertNotNull(warmupRunner.getLastReport());
+	}
+
+	@Test
+	@DisplayName("Given active allocations When warming up Then every property is scanned and each step is timed")
+	void givenActiveAllocations_whenWarmUp_thenAllStepsReported() {
+		// Given
+		LocalDate start = LocalDate.now().plusDays(1);
+		for (int i = 0; i < 10; i++) {
+			allocationRepository.save(Allocation.builder()
+				.id(UUID.randomUUID())
+				.propertyId("property-warmup-" + i)
+				.startDate(start)
+				.endDate(start.plusDays(2))
+				.type(AllocationType.BOOKING)
+				.status(AllocationStatus.ACTIVE)
+				.entityId(UUID.randomUUID())
+				.build());
+		}
+
+		// When
+		WarmupReport report = warmupRunner.warmUp();
+
+		// Then
+		assertTrue(report.completed());
+		assertEquals(3, report.steps().size());
+		assertEquals("allocations", report.steps().get(0).name());
+		assertEquals(10, report.steps().get(0).items());
+		assertNotNull(report.steps().get(2).duration());
+	}
+}
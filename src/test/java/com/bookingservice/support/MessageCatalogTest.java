@@ -0,0 +1,50 @@
+package com.bookingservice.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MessageCatalog - Given/When/Then")
+class MessageCatalogTest {
+
+	private ResourceBundleMessageSource messageSource;
+	private MessageCatalog catalog;
+
+	@BeforeEach
+	void setUp() {
+		messageSource = new ResourceBundleMessageSource();
+		messageSource.setBasename("messages");
+		messageSource.setDefaultEncoding("UTF-8");
+		messageSource.setFallbackToSystemLocale(false);
+		catalog = new MessageCatalog(messageSource, "messages", List.of(Locale.US, Locale.forLanguageTag("pt-BR")));
+	}
+
+	@Test
+	@DisplayName("Given a template with arguments When formatting Then output matches MessageSource")
+	void givenArguments_whenGet_thenSameAsMessageSource() {
+		// Given
+		Object[] args = {LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), "prop-1"};
+
+		for (Locale locale : List.of(Locale.US, Locale.forLanguageTag("pt-BR"))) {
+			// When
+			String formatted = catalog.get(locale, "error.allocation.conflict.booking", args);
+
+			// Then
+			assertEquals(messageSource.getMessage("error.allocation.conflict.booking", args, locale), formatted);
+		}
+		assertTrue(catalog.get(Locale.US, "error.allocation.conflict.booking", args).contains("'prop-1'"));
+	}
+
+	@Test
+	@DisplayName("Given an unconfigured locale When resolving Then the default bundle is used")
+	void givenOtherLocale_whenGet_thenFallsBack() {
+		assertEquals("guestName is required", catalog.get(Locale.FRANCE, "error.validation.guestName.required"));
+	}
+}
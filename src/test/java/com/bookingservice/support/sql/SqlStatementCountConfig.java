@@ -0,0 +1,40 @@
+package com.bookingservice.support.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the JDBC DataSource in a datasource-proxy that reports to {@link SqlStatementRecorder}.
+ * Import it into a test to count the statements of a call.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementCountConfig {
+
+	private static final SqlStatementRecorder RECORDER = new SqlStatementRecorder();
+
+	@Bean
+	public SqlStatementRecorder sqlStatementRecorder() {
+		return RECORDER;
+	}
+
+	// static: post-processors are created before the other beans of this class
+	@Bean
+	public static BeanPostProcessor sqlStatementCountingDataSource() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource) {
+					return ProxyDataSourceBuilder.create(dataSource)
+						.name(beanName)
+						.listener(RECORDER)
+						.build();
+				}
+				return bean;
+			}
+		};
+	}
+}
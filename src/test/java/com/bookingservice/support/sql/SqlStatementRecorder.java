@@ -0,0 +1,71 @@
+package com.bookingservice.support.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Records the SQL statements a service call sends to the database, through the datasource-proxy
+ * installed by {@link SqlStatementCountConfig}. A JDBC batch counts once per execution.
+ * <p>
+ * Only statements run on the calling thread are recorded, so scheduled jobs do not skew the
+ * counts. This covers the default {@code booking.execution.mode=shared}.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+	private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		List<String> statements = recording.get();
+		if (statements != null) {
+			queryInfoList.forEach(query -> statements.add(query.getQuery()));
+		}
+	}
+
+	/**
+	 * Runs the action and returns the statements it sent, in order.
+	 */
+	public List<String> record(Runnable action) {
+		List<String> statements = new ArrayList<>();
+		recording.set(statements);
+		try {
+			action.run();
+		} finally {
+			recording.remove();
+		}
+		return statements;
+	}
+
+	/**
+	 * Runs the action and fails, listing its statements, if it sent more than {@code max}.
+	 */
+	public <T> T assertAtMost(int max, String operation, Supplier<T> action) {
+		List<Object> result = new ArrayList<>(1);
+		List<String> statements = record(() -> result.add(action.get()));
+		if (statements.size() > max) {
+			fail(operation + " ran " + statements.size() + " SQL statements, budget is " + max + ":\n  "
+				+ String.join("\n  ", statements));
+		}
+		@SuppressWarnings("unchecked")
+		T value = (T) result.get(0);
+		return value;
+	}
+
+	public void assertAtMost(int max, String operation, Runnable action) {
+		assertAtMost(max, operation, () -> {
+			action.run();
+			return null;
+		});
+	}
+}